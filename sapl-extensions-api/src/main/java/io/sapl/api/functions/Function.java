@@ -53,4 +53,13 @@
      */
     String pathToSchema() default "";
 
+    /**
+     * A function is pure if its result only depends on its parameters and its
+     * evaluation has no side effects. The policy engine may evaluate calls of pure
+     * functions with constant parameters only once and reuse the result.
+     *
+     * @return true, if the function is pure.
+     */
+    boolean pure() default false;
+
 }
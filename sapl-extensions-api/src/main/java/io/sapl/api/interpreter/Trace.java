@@ -17,21 +17,22 @@
  */
 package io.sapl.api.interpreter;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 
-import lombok.Value;
+import lombok.Getter;
 
 /**
  * A policy evaluation trace.
  */
-@Value
 public class Trace {
     public static final String ADVICE                     = "advice";
     public static final String ARGUMENT                   = "argument";
@@ -82,8 +83,11 @@ public class Trace {
 
     private static final JsonNodeFactory JSON = JsonNodeFactory.instance;
 
-    Class<?>                 operation;
-    List<ExpressionArgument> arguments = new LinkedList<>();
+    @Getter
+    private final Class<?> operation;
+
+    private Supplier<List<ExpressionArgument>> deferredArguments;
+    private List<ExpressionArgument>           arguments;
 
     /**
      * Creates a trace for an operation.
@@ -92,6 +96,7 @@ public class Trace {
      */
     public Trace(Class<?> operation) {
         this.operation = operation;
+        this.arguments = List.of();
     }
 
     /**
@@ -102,13 +107,7 @@ public Trace(Class<?> operation) {
      */
     public Trace(Class<?> operation, Val... arguments) {
         this.operation = operation;
-        var i = 0;
-        for (var argument : arguments) {
-            if (arguments.length == 1)
-                this.arguments.add(new ExpressionArgument(ARGUMENT, argument));
-            else
-                this.arguments.add(new ExpressionArgument(ARGUMENTS_KEY + "[" + i++ + "]", argument));
-        }
+        this.arguments = argumentsOf(null, arguments);
     }
 
     /**
@@ -119,9 +118,7 @@ public Trace(Class<?> operation, Val... arguments) {
      */
     public Trace(Class<?> operation, Map<String, Val> arguments) {
         this.operation = operation;
-        for (var argument : arguments.entrySet()) {
-            this.arguments.add(new ExpressionArgument(argument.getKey(), argument.getValue()));
-        }
+        this.arguments = namedArguments(arguments);
     }
 
     /**
@@ -132,7 +129,7 @@ public Trace(Class<?> operation, Map<String, Val> arguments) {
      */
     public Trace(Class<?> operation, ExpressionArgument... arguments) {
         this.operation = operation;
-        this.arguments.addAll(Arrays.asList(arguments));
+        this.arguments = Arrays.asList(arguments);
     }
 
     /**
@@ -144,14 +141,41 @@ public Trace(Class<?> operation, ExpressionArgument... arguments) {
      */
     public Trace(Val leftHandValue, Class<?> operation, Val... arguments) {
         this.operation = operation;
-        this.arguments.add(new ExpressionArgument(LEFT_HAND_VALUE, leftHandValue));
+        this.arguments = argumentsOf(leftHandValue, arguments);
+    }
+
+    /**
+     * Creates a trace for an operation, whose arguments are only built once the
+     * trace is read.
+     *
+     * @param operation class implementing the traced operation.
+     * @param arguments supplies the traced arguments.
+     */
+    public Trace(Class<?> operation, Supplier<List<ExpressionArgument>> arguments) {
+        this.operation         = operation;
+        this.deferredArguments = arguments;
+    }
+
+    static List<ExpressionArgument> namedArguments(Map<String, Val> arguments) {
+        var namedArguments = new ArrayList<ExpressionArgument>(arguments.size());
+        for (var argument : arguments.entrySet()) {
+            namedArguments.add(new ExpressionArgument(argument.getKey(), argument.getValue()));
+        }
+        return namedArguments;
+    }
+
+    private static List<ExpressionArgument> argumentsOf(Val leftHandValue, Val... arguments) {
+        var expressionArguments = new ArrayList<ExpressionArgument>(arguments.length + 1);
+        if (leftHandValue != null)
+            expressionArguments.add(new ExpressionArgument(LEFT_HAND_VALUE, leftHandValue));
         var i = 0;
         for (var argument : arguments) {
             if (arguments.length == 1)
-                this.arguments.add(new ExpressionArgument(ARGUMENT, argument));
+                expressionArguments.add(new ExpressionArgument(ARGUMENT, argument));
             else
-                this.arguments.add(new ExpressionArgument(ARGUMENTS_KEY + "[" + i++ + "]", argument));
+                expressionArguments.add(new ExpressionArgument(ARGUMENTS_KEY + "[" + i++ + "]", argument));
         }
+        return expressionArguments;
     }
 
     /**
@@ -162,9 +186,10 @@ public Trace(Val leftHandValue, Class<?> operation, Val... arguments) {
     public JsonNode getTrace() {
         var jsonTrace = JSON.objectNode();
         jsonTrace.set(OPERATOR, JSON.textNode(operation.getSimpleName()));
-        if (!arguments.isEmpty()) {
+        var traceArguments = getArguments();
+        if (!traceArguments.isEmpty()) {
             var args = JSON.objectNode();
-            for (var argument : arguments)
+            for (var argument : traceArguments)
                 args.set(argument.name(), argument.value().getTrace());
             jsonTrace.set(ARGUMENTS_KEY, args);
         }
@@ -174,7 +199,31 @@ public JsonNode getTrace() {
     /**
      * @return returns arguments of trace
      */
-    public List<ExpressionArgument> getArguments() {
+    public synchronized List<ExpressionArgument> getArguments() {
+        if (deferredArguments != null) {
+            arguments         = deferredArguments.get();
+            deferredArguments = null;
+        }
         return Collections.unmodifiableList(arguments);
     }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof Trace other))
+            return false;
+        return operation.equals(other.operation) && getArguments().equals(other.getArguments());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(operation, getArguments());
+    }
+
+    @Override
+    public String toString() {
+        return "Trace(operation=" + operation + ", arguments=" + getArguments() + ")";
+    }
+
 }
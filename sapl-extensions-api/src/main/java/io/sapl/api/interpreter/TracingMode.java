@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.api.interpreter;
+
+import java.util.Locale;
+
+/**
+ * Selects how much evaluation trace the policy engine records for each value.
+ * <p>
+ * The mode is selected per policy decision point and travels with the
+ * evaluation context. Policy decision points without an explicit mode use
+ * {@link #defaultMode()}, which is read from the system property
+ * {@value #TRACING_MODE_PROPERTY} and is {@link #FULL} if the property is not
+ * set.
+ */
+public enum TracingMode {
+
+    /**
+     * No traces are recorded. Values carry their secret status but no trace, and
+     * decision traces and reports only contain the values themselves. Use this
+     * mode if no interceptor or report ever reads the trace.
+     */
+    OFF,
+    /**
+     * Traces only keep references to the traced operation and its arguments.
+     * The named trace arguments are built once the trace is read.
+     */
+    LAZY,
+    /**
+     * Traces are built completely when the traced value is created.
+     */
+    FULL;
+
+    /**
+     * System property selecting the default tracing mode.
+     */
+    public static final String TRACING_MODE_PROPERTY = "io.sapl.tracing-mode";
+
+    /**
+     * @return the tracing mode selected by the system property
+     *         {@value #TRACING_MODE_PROPERTY}, or {@link #FULL} if it is not set
+     *         or unknown.
+     */
+    public static TracingMode defaultMode() {
+        var mode = System.getProperty(TRACING_MODE_PROPERTY);
+        if (mode == null)
+            return FULL;
+        try {
+            return valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return FULL;
+        }
+    }
+
+}
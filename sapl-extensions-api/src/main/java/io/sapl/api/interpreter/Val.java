@@ -21,6 +21,7 @@
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
@@ -253,6 +254,227 @@ public Val withTrace(Class<?> operation, boolean inheritsSecretStatusOfTrace, Ex
         return newVal;
     }
 
+    /**
+     * Attaches a trace to the Val including arguments, as selected by the tracing
+     * mode of the evaluation.
+     *
+     * @param mode                        the tracing mode of the evaluation
+     * @param operation                   traced operation
+     * @param inheritsSecretStatusOfTrace if true, and a previous value is a secret,
+     *                                    the new value also is a secret.
+     * @param arguments                   the arguments with parameter names
+     * @return the Val with attached trace, or the Val itself if the mode is
+     *         {@link TracingMode#OFF}
+     */
+    public Val withTrace(TracingMode mode, Class<?> operation, boolean inheritsSecretStatusOfTrace,
+            Map<String, Val> arguments) {
+        var newVal = switch (mode) {
+        case OFF -> this;
+        case LAZY -> withTrace(new Trace(operation, () -> Trace.namedArguments(arguments)));
+        case FULL -> withTrace(new Trace(operation, arguments));
+        };
+
+        if (!inheritsSecretStatusOfTrace)
+            return newVal;
+
+        for (var entry : arguments.entrySet()) {
+            if (entry.getValue().isSecret()) {
+                newVal = newVal.asSecret();
+                break;
+            }
+        }
+        return newVal;
+    }
+
+    /**
+     * Attaches a trace to the Val, as selected by the tracing mode of the
+     * evaluation.
+     *
+     * @param mode      the tracing mode of the evaluation
+     * @param operation traced operation
+     * @return the Val with attached trace, or the Val itself if the mode is
+     *         {@link TracingMode#OFF}
+     */
+    public Val withTrace(TracingMode mode, Class<?> operation) {
+        if (mode == TracingMode.OFF)
+            return this;
+        return withTrace(new Trace(operation));
+    }
+
+    /**
+     * Attaches a trace with a single argument to the Val, as selected by the
+     * tracing mode of the evaluation.
+     *
+     * @param mode                        the tracing mode of the evaluation
+     * @param operation                   traced operation
+     * @param inheritsSecretStatusOfTrace if true, and the argument is a secret,
+     *                                    the new value also is a secret.
+     * @param argument                    the argument
+     * @return the Val with attached trace, or the Val itself if the mode is
+     *         {@link TracingMode#OFF}
+     */
+    public Val withTrace(TracingMode mode, Class<?> operation, boolean inheritsSecretStatusOfTrace, Val argument) {
+        var newVal = switch (mode) {
+        case OFF -> this;
+        case LAZY -> withTrace(new Trace(operation, () -> List.of(new ExpressionArgument(Trace.ARGUMENT, argument))));
+        case FULL -> withTrace(new Trace(operation, argument));
+        };
+        return inheritsSecretStatusOfTrace && argument.isSecret() ? newVal.asSecret() : newVal;
+    }
+
+    /**
+     * Attaches a trace including arguments to the Val, as selected by the tracing
+     * mode of the evaluation.
+     *
+     * @param mode                        the tracing mode of the evaluation
+     * @param operation                   traced operation
+     * @param inheritsSecretStatusOfTrace if true, and a previous value is a secret,
+     *                                    the new value also is a secret.
+     * @param arguments                   the arguments
+     * @return the Val with attached trace, or the Val itself if the mode is
+     *         {@link TracingMode#OFF}
+     */
+    public Val withTrace(TracingMode mode, Class<?> operation, boolean inheritsSecretStatusOfTrace,
+            Val... arguments) {
+        var newVal = mode == TracingMode.OFF ? this : withTrace(new Trace(operation, arguments));
+
+        if (!inheritsSecretStatusOfTrace)
+            return newVal;
+
+        for (var argument : arguments) {
+            if (argument.isSecret())
+                return newVal.asSecret();
+        }
+        return newVal;
+    }
+
+    /**
+     * Attaches a trace with one named argument to the Val, as selected by the
+     * tracing mode of the evaluation.
+     *
+     * @param mode                        the tracing mode of the evaluation
+     * @param operation                   traced operation
+     * @param inheritsSecretStatusOfTrace if true, and the argument is a secret,
+     *                                    the new value also is a secret.
+     * @param name                        the parameter name of the argument
+     * @param argument                    the argument
+     * @return the Val with attached trace, or the Val itself if the mode is
+     *         {@link TracingMode#OFF}
+     */
+    public Val withTrace(TracingMode mode, Class<?> operation, boolean inheritsSecretStatusOfTrace, String name,
+            Val argument) {
+        var newVal = switch (mode) {
+        case OFF -> this;
+        case LAZY -> withTrace(new Trace(operation, () -> List.of(new ExpressionArgument(name, argument))));
+        case FULL -> withTrace(new Trace(operation, new ExpressionArgument(name, argument)));
+        };
+        return inheritsSecretStatusOfTrace && argument.isSecret() ? newVal.asSecret() : newVal;
+    }
+
+    /**
+     * Attaches a trace with two named arguments to the Val, as selected by the
+     * tracing mode of the evaluation.
+     *
+     * @param mode                        the tracing mode of the evaluation
+     * @param operation                   traced operation
+     * @param inheritsSecretStatusOfTrace if true, and an argument is a secret, the
+     *                                    new value also is a secret.
+     * @param firstName                   the parameter name of the first argument
+     * @param firstArgument               the first argument
+     * @param secondName                  the parameter name of the second argument
+     * @param secondArgument              the second argument
+     * @return the Val with attached trace, or the Val itself if the mode is
+     *         {@link TracingMode#OFF}
+     */
+    public Val withTrace(TracingMode mode, Class<?> operation, boolean inheritsSecretStatusOfTrace, String firstName,
+            Val firstArgument, String secondName, Val secondArgument) {
+        var newVal = switch (mode) {
+        case OFF -> this;
+        case LAZY -> withTrace(new Trace(operation, () -> List.of(new ExpressionArgument(firstName, firstArgument),
+                new ExpressionArgument(secondName, secondArgument))));
+        case FULL -> withTrace(new Trace(operation, new ExpressionArgument(firstName, firstArgument),
+                new ExpressionArgument(secondName, secondArgument)));
+        };
+        if (inheritsSecretStatusOfTrace && (firstArgument.isSecret() || secondArgument.isSecret()))
+            return newVal.asSecret();
+        return newVal;
+    }
+
+    /**
+     * Attaches a trace including arguments to the Val, as selected by the tracing
+     * mode of the evaluation.
+     *
+     * @param mode                        the tracing mode of the evaluation
+     * @param operation                   traced operation
+     * @param inheritsSecretStatusOfTrace if true, and a previous value is a secret,
+     *                                    the new value also is a secret.
+     * @param arguments                   the arguments with parameter names
+     * @return the Val with attached trace, or the Val itself if the mode is
+     *         {@link TracingMode#OFF}
+     */
+    public Val withTrace(TracingMode mode, Class<?> operation, boolean inheritsSecretStatusOfTrace,
+            ExpressionArgument... arguments) {
+        var newVal = mode == TracingMode.OFF ? this : withTrace(new Trace(operation, arguments));
+
+        if (!inheritsSecretStatusOfTrace)
+            return newVal;
+
+        for (var argument : arguments) {
+            if (argument.value().isSecret())
+                return newVal.asSecret();
+        }
+        return newVal;
+    }
+
+    /**
+     * Attaches a trace of the parent value to the Val, as selected by the tracing
+     * mode of the evaluation.
+     *
+     * @param mode                        the tracing mode of the evaluation
+     * @param operation                   traced operation
+     * @param inheritsSecretStatusOfTrace if true, and the parent value is a
+     *                                    secret, the new value also is a secret.
+     * @param parentValue                 the parent value
+     * @return the Val with attached trace, or the Val itself if the mode is
+     *         {@link TracingMode#OFF}
+     */
+    public Val withParentTrace(TracingMode mode, Class<?> operation, boolean inheritsSecretStatusOfTrace,
+            Val parentValue) {
+        return withTrace(mode, operation, inheritsSecretStatusOfTrace, Trace.PARENT_VALUE, parentValue);
+    }
+
+    /**
+     * Attaches a trace to the Val, as selected by the tracing mode of the
+     * evaluation. The arguments are only built if the mode is not
+     * {@link TracingMode#OFF}, and not before the trace is read if the mode is
+     * {@link TracingMode#LAZY}.
+     *
+     * @param mode      the tracing mode of the evaluation
+     * @param operation traced operation
+     * @param arguments supplies the arguments with parameter names
+     * @return the Val with attached trace, or the Val itself if the mode is
+     *         {@link TracingMode#OFF}
+     */
+    public Val withTrace(TracingMode mode, Class<?> operation, Supplier<List<ExpressionArgument>> arguments) {
+        return switch (mode) {
+        case OFF -> this;
+        case LAZY -> withTrace(new Trace(operation, arguments));
+        case FULL -> withTrace(new Trace(operation, arguments.get().toArray(new ExpressionArgument[0])));
+        };
+    }
+
+    /**
+     * Attaches a trace to the Val, whose arguments are only built once the trace
+     * is read. Use this variant if building the arguments is expensive.
+     *
+     * @param operation traced operation
+     * @param arguments supplies the arguments with parameter names
+     * @return the Val with attached trace
+     */
+    public Val withTrace(Class<?> operation, Supplier<List<ExpressionArgument>> arguments) {
+        return withTrace(new Trace(operation, arguments));
+    }
+
     /**
      * Attaches a trace to the Val including arguments for attribute finders.
      *
@@ -24,8 +24,10 @@
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.assertj.core.api.SoftAssertions;
 import org.junit.jupiter.api.Test;
@@ -998,6 +1000,75 @@ void getArgumentsOfTrace() {
                 new ExpressionArgument("arguments[2]", Val.of("Z")));
     }
 
+    @Test
+    void when_tracingOff_then_noTraceButSecretStatusIsKept() {
+        var value  = Val.of("A");
+        var traced = value.withTrace(TracingMode.OFF, getClass(), true, Map.of("left", Val.of("X").asSecret()));
+        assertThat(value.withTrace(TracingMode.OFF, getClass(), false, Map.of("left", Val.of("X")))).isSameAs(value);
+        assertThat(traced.isSecret()).isTrue();
+        assertThatJson(traced.getTrace()).isObject().doesNotContainKey(Trace.TRACE_KEY);
+    }
+
+    @Test
+    void when_tracingLazy_then_traceEqualsFullTrace() {
+        var arguments = Map.of("left", Val.of("X"), "right", Val.of("Y"));
+        var lazy      = Val.of("A").withTrace(TracingMode.LAZY, getClass(), false, arguments);
+        var full      = Val.of("A").withTrace(TracingMode.FULL, getClass(), false, arguments);
+        assertThat(lazy.getTrace()).isEqualTo(full.getTrace());
+    }
+
+    @Test
+    void when_tracingOffWithNamedArguments_then_valueIsReturnedUntraced() {
+        var value = Val.of("A");
+        assertThat(value.withTrace(TracingMode.OFF, getClass())).isSameAs(value);
+        assertThat(value.withTrace(TracingMode.OFF, getClass(), true, Trace.LEFT, Val.of("X"))).isSameAs(value);
+        assertThat(value.withTrace(TracingMode.OFF, getClass(), true, Trace.LEFT, Val.of("X"), Trace.RIGHT,
+                Val.of("Y"))).isSameAs(value);
+        assertThat(value.withParentTrace(TracingMode.OFF, getClass(), true, Val.of("X"))).isSameAs(value);
+        assertThat(value.withTrace(TracingMode.OFF, getClass(), () -> {
+            throw new IllegalStateException("arguments must not be built");
+        })).isSameAs(value);
+    }
+
+    @Test
+    void when_tracingOffWithSecretArgument_then_secretStatusIsKept() {
+        var secret = Val.of("X").asSecret();
+        var sa     = new SoftAssertions();
+        sa.assertThat(Val.of("A").withTrace(TracingMode.OFF, getClass(), true, Trace.LEFT, secret).isSecret())
+                .isTrue();
+        sa.assertThat(Val.of("A").withTrace(TracingMode.OFF, getClass(), false, Trace.LEFT, secret).isSecret())
+                .isFalse();
+        sa.assertThat(Val.of("A")
+                .withTrace(TracingMode.OFF, getClass(), true, Trace.LEFT, Val.of("Y"), Trace.RIGHT, secret).isSecret())
+                .isTrue();
+        sa.assertThat(Val.of("A").withTrace(TracingMode.OFF, getClass(), true, Val.of("Y"), secret).isSecret())
+                .isTrue();
+        sa.assertAll();
+    }
+
+    @Test
+    void when_tracingLazyWithNamedArguments_then_traceEqualsFullTrace() {
+        var left  = Val.of("X");
+        var right = Val.of("Y");
+        var lazy  = Val.of("A").withTrace(TracingMode.LAZY, getClass(), false, Trace.LEFT, left, Trace.RIGHT, right);
+        var full  = Val.of("A").withTrace(TracingMode.FULL, getClass(), false, Trace.LEFT, left, Trace.RIGHT, right);
+        assertThat(lazy.getTrace()).isEqualTo(full.getTrace());
+        assertThatJson(full.getTrace()).inPath("$.trace.arguments.right.value").isEqualTo("Y");
+    }
+
+    @Test
+    void when_traceArgumentsAreSupplied_then_argumentsAreBuiltOnRead() {
+        var reads  = new AtomicInteger();
+        var traced = Val.of("A").withTrace(getClass(), () -> {
+            reads.incrementAndGet();
+            return List.of(new ExpressionArgument("left", Val.of("X")));
+        });
+        assertThat(reads.get()).isZero();
+        assertThatJson(traced.getTrace()).inPath("$.trace.arguments.left.value").isEqualTo("X");
+        assertThatJson(traced.getTrace()).inPath("$.trace.arguments.left.value").isEqualTo("X");
+        assertThat(reads.get()).isEqualTo(1);
+    }
+
     @Test
     void orElseThrow() {
         var sa = new SoftAssertions();
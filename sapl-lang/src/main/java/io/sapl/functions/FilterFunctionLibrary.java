@@ -93,7 +93,7 @@ public class FilterFunctionLibrary {
      * @return the original Text value with the indicated characters replaced with
      *         the replacement characters.
      */
-    @Function(docs = BLACKEN_DOC)
+    @Function(docs = BLACKEN_DOC, pure = true)
     public static Val blacken(Val... parameters) {
         validateNumberOfParametersIsNotLongerThanMaximalAllowedNumberOfParameters(parameters);
         var originalString = extractOriginalTextFromParameters(parameters);
@@ -209,7 +209,7 @@ private static void validateNumberOfParametersIsNotLongerThanMaximalAllowedNumbe
      * @param replacement a replacement value.
      * @return the replacement value.
      */
-    @Function(docs = REPLACE_DOC)
+    @Function(docs = REPLACE_DOC, pure = true)
     public static Val replace(Val original, Val replacement) {
         return replacement;
     }
@@ -220,7 +220,7 @@ public static Val replace(Val original, Val replacement) {
      * @param original some value
      * @return Val.UNDEFINED
      */
-    @Function(docs = REMOVE_DOC)
+    @Function(docs = REMOVE_DOC, pure = true)
     public static Val remove(Val original) {
         return Val.UNDEFINED;
     }
@@ -54,12 +54,12 @@ public class SchemaValidationLibrary {
 
     private static final String ID = "$id";
 
-    @Function(docs = IS_COMPLIANT_WITH_SCHEMA_VAL_DOC, schema = RETURNS_BOOLEAN)
+    @Function(docs = IS_COMPLIANT_WITH_SCHEMA_VAL_DOC, schema = RETURNS_BOOLEAN, pure = true)
     public static Val isCompliant(Val validationSubject, @JsonObject Val jsonSchema) {
         return isCompliantWithExternalSchemas(validationSubject, jsonSchema, Val.ofEmptyArray());
     }
 
-    @Function(docs = IS_COMPLIANT_WITH_SCHEMA_VAL_EXTERNAL_DOC, schema = RETURNS_BOOLEAN)
+    @Function(docs = IS_COMPLIANT_WITH_SCHEMA_VAL_EXTERNAL_DOC, schema = RETURNS_BOOLEAN, pure = true)
     public static Val isCompliantWithExternalSchemas(Val validationSubject, @JsonObject Val jsonSchema, Val externals) {
         if (validationSubject.isError()) {
             return validationSubject;
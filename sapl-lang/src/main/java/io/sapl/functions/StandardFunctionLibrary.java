@@ -54,7 +54,7 @@ public class StandardFunctionLibrary {
 
     private static final XmlMapper XML_MAPPER = new XmlMapper();
 
-    @Function(docs = LENGTH_DOC)
+    @Function(docs = LENGTH_DOC, pure = true)
     public static Val length(@Array @Text @JsonObject Val parameter) {
         if (parameter.isTextual())
             return Val.of(parameter.getText().length());
@@ -62,7 +62,7 @@ public static Val length(@Array @Text @JsonObject Val parameter) {
         return Val.of(parameter.get().size());
     }
 
-    @Function(docs = NUMBER_TO_STRING_DOC)
+    @Function(docs = NUMBER_TO_STRING_DOC, pure = true)
     public static Val numberToString(@Text @Number @Bool Val parameter) {
         JsonNode param = parameter.get();
         if (param.isNumber())
@@ -77,7 +77,7 @@ public static Val numberToString(@Text @Number @Bool Val parameter) {
         return parameter;
     }
 
-    @Function(docs = ON_ERROR_MAP_DOC)
+    @Function(docs = ON_ERROR_MAP_DOC, pure = true)
     public static Val onErrorMap(Val guardedExpression, Val fallbackValue) {
         if (guardedExpression.isError())
             return fallbackValue;
@@ -86,7 +86,7 @@ public static Val onErrorMap(Val guardedExpression, Val fallbackValue) {
     }
 
     @SneakyThrows
-    @Function(docs = XML_TO_JSON_DOC)
+    @Function(docs = XML_TO_JSON_DOC, pure = true)
     public Val xmlToJson(@Text Val xml) {
         return Val.of(XML_MAPPER.readTree(xml.getText()));
     }
@@ -117,39 +117,39 @@ public class TemporalFunctionLibrary {
 
     /* ######## DURATION ######## */
 
-    @Function(docs = DURATION_OF_SECONDS)
+    @Function(docs = DURATION_OF_SECONDS, pure = true)
     public static Val durationOfSeconds(@Number Val seconds) {
         return Val.of(seconds.getLong() * 1000);
     }
 
-    @Function(docs = DURATION_OF_MINUTES)
+    @Function(docs = DURATION_OF_MINUTES, pure = true)
     public static Val durationOfMinutes(@Number Val minutes) {
         return Val.of(minutes.getLong() * 60 * 1000);
     }
 
-    @Function(docs = DURATION_OF_HOURS)
+    @Function(docs = DURATION_OF_HOURS, pure = true)
     public static Val durationOfHours(@Number Val hours) {
         return Val.of(hours.getLong() * 60 * 60 * 1000);
     }
 
-    @Function(docs = DURATION_OF_DAYS)
+    @Function(docs = DURATION_OF_DAYS, pure = true)
     public static Val durationOfDays(@Number Val days) {
         return Val.of(days.getLong() * 24 * 60 * 60 * 1000);
     }
 
     /* ######## INSTANT/UTC COMPARISON ######## */
 
-    @Function(docs = BEFORE_DOC)
+    @Function(docs = BEFORE_DOC, pure = true)
     public static Val before(@Text Val timeA, @Text Val timeB) {
         return Val.of(instantOf(timeA).isBefore(instantOf(timeB)));
     }
 
-    @Function(docs = AFTER_DOC)
+    @Function(docs = AFTER_DOC, pure = true)
     public static Val after(@Text Val timeA, @Text Val timeB) {
         return Val.of(instantOf(timeA).isAfter(instantOf(timeB)));
     }
 
-    @Function(docs = BETWEEN_DOC)
+    @Function(docs = BETWEEN_DOC, pure = true)
     public static Val between(@Text Val time, @Text Val intervalStart, @Text Val intervalEnd) {
         var t     = instantOf(time);
         var start = instantOf(intervalStart);
@@ -163,7 +163,7 @@ else if (t.equals(end))
             return Val.of((t.isBefore(end) && t.isAfter(start)));
     }
 
-    @Function(docs = TIME_BETWEEN_DOC)
+    @Function(docs = TIME_BETWEEN_DOC, pure = true)
     public static Val timeBetween(@Text Val timeA, @Text Val timeB, @Text Val chronoUnit) {
         var unit        = ChronoUnit.valueOf(chronoUnit.getText().toUpperCase());
         var instantFrom = instantOf(timeA);
@@ -179,72 +179,72 @@ public static Val timeBetween(@Text Val timeA, @Text Val timeB, @Text Val chrono
 
     /* ######## INSTANT/UTC MANIPULATION ######## */
 
-    @Function(docs = PLUS_NANOS_DOC)
+    @Function(docs = PLUS_NANOS_DOC, pure = true)
     public static Val plusNanos(@Text Val startTime, @Number Val nanos) {
         return Val.of(instantOf(startTime).plusNanos(nanos.getLong()).toString());
     }
 
-    @Function(docs = PLUS_MILLIS_DOC)
+    @Function(docs = PLUS_MILLIS_DOC, pure = true)
     public static Val plusMillis(@Text Val startTime, @Number Val millis) {
         return Val.of(instantOf(startTime).plusMillis(millis.getLong()).toString());
     }
 
-    @Function(docs = PLUS_SECONDS_DOC)
+    @Function(docs = PLUS_SECONDS_DOC, pure = true)
     public static Val plusSeconds(@Text Val startTime, @Number Val seconds) {
         return Val.of(instantOf(startTime).plusSeconds(seconds.getLong()).toString());
     }
 
-    @Function(docs = MINUS_NANOS_DOC)
+    @Function(docs = MINUS_NANOS_DOC, pure = true)
     public static Val minusNanos(@Text Val startTime, @Number Val nanos) {
         return Val.of(instantOf(startTime).minusNanos(nanos.getLong()).toString());
     }
 
-    @Function(docs = MINUS_MILLIS_DOC)
+    @Function(docs = MINUS_MILLIS_DOC, pure = true)
     public static Val minusMillis(@Text Val startTime, @Number Val millis) {
         return Val.of(instantOf(startTime).minusMillis(millis.getLong()).toString());
     }
 
-    @Function(docs = MINUS_SECONDS_DOC)
+    @Function(docs = MINUS_SECONDS_DOC, pure = true)
     public static Val minusSeconds(@Text Val startTime, @Number Val seconds) {
         return Val.of(instantOf(startTime).minusSeconds(seconds.getLong()).toString());
     }
 
     /* ######## INSTANT/UTC EPOCH ######## */
 
-    @Function(docs = TO_EPOCH_SECONDS_DOC)
+    @Function(docs = TO_EPOCH_SECONDS_DOC, pure = true)
     public static Val epochSecond(@Text Val utcDateTime) {
         return Val.of(instantOf(utcDateTime).getEpochSecond());
     }
 
-    @Function(docs = TO_EPOCH_MILLIS_DOC)
+    @Function(docs = TO_EPOCH_MILLIS_DOC, pure = true)
     public static Val epochMilli(@Text Val utcDateTime) {
         return Val.of(instantOf(utcDateTime).toEpochMilli());
     }
 
-    @Function(docs = OF_EPOCH_SECONDS_DOC)
+    @Function(docs = OF_EPOCH_SECONDS_DOC, pure = true)
     public static Val ofEpochSecond(@Number Val epochSeconds) {
         return Val.of(Instant.ofEpochSecond(epochSeconds.getLong()).toString());
     }
 
-    @Function(docs = OF_EPOCH_MILLIS_DOC)
+    @Function(docs = OF_EPOCH_MILLIS_DOC, pure = true)
     public static Val ofEpochMilli(@Number Val epochMillis) {
         return Val.of(Instant.ofEpochMilli(epochMillis.getLong()).toString());
     }
 
     /* ######## INSTANT/UTC CALENDAR ######## */
 
-    @Function(docs = WEEK_OF_YEAR)
+    @Function(docs = WEEK_OF_YEAR, pure = true)
     public static Val weekOfYear(@Text Val isoDateTime) {
         return Val
                 .of(DateTimeFormatter.ISO_DATE_TIME.parse(isoDateTime.getText()).get(ChronoField.ALIGNED_WEEK_OF_YEAR));
     }
 
-    @Function(docs = DAY_OF_YEAR)
+    @Function(docs = DAY_OF_YEAR, pure = true)
     public static Val dayOfYear(@Text Val isoDateTime) {
         return Val.of(DateTimeFormatter.ISO_DATE_TIME.parse(isoDateTime.getText()).get(ChronoField.DAY_OF_YEAR));
     }
 
-    @Function(docs = DAY_OF_WEEK)
+    @Function(docs = DAY_OF_WEEK, pure = true)
     public static Val dayOfWeek(@Text Val isoDateTime) {
         return Val.of(DayOfWeek.from(DateTimeFormatter.ISO_DATE_TIME.parse(isoDateTime.getText(), LocalDateTime::from))
                 .toString());
@@ -252,7 +252,7 @@ public static Val dayOfWeek(@Text Val isoDateTime) {
 
     /* ######## VALIDATION ######## */
 
-    @Function(docs = VALID_UTC_DOC)
+    @Function(docs = VALID_UTC_DOC, pure = true)
     public static Val validUTC(@Text Val utcDateTime) {
         try {
             instantOf(utcDateTime);
@@ -277,7 +277,7 @@ public static Val localDin(@Text Val dinDateTime) {
                 ZoneId.systemDefault()).toString());
     }
 
-    @Function(docs = "Parses the given string as local date time (ISO) and converts it from the given offset to the respective time in UTC.")
+    @Function(docs = "Parses the given string as local date time (ISO) and converts it from the given offset to the respective time in UTC.", pure = true)
     public static Val dateTimeAtOffset(@Text Val localDateTime, @Text Val offsetId) {
         var ldt = DateTimeFormatter.ISO_LOCAL_DATE_TIME.parse(localDateTime.getText(), LocalDateTime::from);
         var odt = OffsetDateTime.of(ldt, ZoneOffset.of(offsetId.getText()));
@@ -285,7 +285,7 @@ public static Val dateTimeAtOffset(@Text Val localDateTime, @Text Val offsetId)
         return Val.of(odt.withOffsetSameInstant(ZoneOffset.UTC).toInstant().toString());
     }
 
-    @Function(docs = "Parses the given string as local date time (ISO) and converts it from the given time zone to the respective time in UTC.")
+    @Function(docs = "Parses the given string as local date time (ISO) and converts it from the given time zone to the respective time in UTC.", pure = true)
     public static Val dateTimeAtZone(@Text Val localDateTime, @Text Val zoneId) {
         var ldt = DateTimeFormatter.ISO_LOCAL_DATE_TIME.parse(localDateTime.getText(), LocalDateTime::from);
         var zdt = ZonedDateTime.of(ldt, zoneIdOf(zoneId));
@@ -293,7 +293,7 @@ public static Val dateTimeAtZone(@Text Val localDateTime, @Text Val zoneId) {
         return Val.of(zdt.withZoneSameInstant(ZoneId.of("UTC")).toInstant().toString());
     }
 
-    @Function(docs = "Parses the given string as an ISO date time with offset and converts it to the respective date time in UTC.")
+    @Function(docs = "Parses the given string as an ISO date time with offset and converts it to the respective date time in UTC.", pure = true)
     public static Val offsetDateTime(@Text Val isoDateTime) {
         var offsetDateTime = DateTimeFormatter.ISO_DATE_TIME.parse(isoDateTime.getText(), OffsetDateTime::from);
         return Val.of(offsetDateTime.withOffsetSameInstant(ZoneOffset.UTC).toInstant().toString());
@@ -301,20 +301,20 @@ public static Val offsetDateTime(@Text Val isoDateTime) {
 
     /* ######## TIME CONVERSION ######## */
 
-    @Function(docs = "Parses the given string as ISO time with offset and converts it to the respective time in UTC.")
+    @Function(docs = "Parses the given string as ISO time with offset and converts it to the respective time in UTC.", pure = true)
     public static Val offsetTime(@Text Val isoTime) {
         OffsetTime offsetTime = DateTimeFormatter.ISO_TIME.parse(isoTime.getText(), OffsetTime::from);
         return Val.of(offsetTime.withOffsetSameInstant(ZoneOffset.UTC).toLocalTime().toString());
     }
 
-    @Function(docs = "Parses the given string as local time at the given offset and converts it to the respective time in UTC.")
+    @Function(docs = "Parses the given string as local time at the given offset and converts it to the respective time in UTC.", pure = true)
     public static Val timeAtOffset(@Text Val localTime, @Text Val offsetId) {
         LocalTime lt     = DateTimeFormatter.ISO_LOCAL_TIME.parse(localTime.getText(), LocalTime::from);
         var       offset = ZoneOffset.of(offsetId.getText());
         return Val.of(OffsetTime.of(lt, offset).withOffsetSameInstant(ZoneOffset.UTC).toLocalTime().toString());
     }
 
-    @Function(docs = "Parses the given string as local time in the given zone and converts it to the respective time in UTC.")
+    @Function(docs = "Parses the given string as local time in the given zone and converts it to the respective time in UTC.", pure = true)
     public static Val timeInZone(@Text Val localTime, @Text Val localDate, @Text Val zoneId) {
         var       zone = zoneIdOf(zoneId);
         LocalTime lt   = DateTimeFormatter.ISO_LOCAL_TIME.parse(localTime.getText(), LocalTime::from);
@@ -324,7 +324,7 @@ public static Val timeInZone(@Text Val localTime, @Text Val localDate, @Text Val
     }
 
     // "08:30am", "09:30pm"
-    @Function(docs = "Parses the given string as local time in AM/PM-format and converts it to 24-hour format.")
+    @Function(docs = "Parses the given string as local time in AM/PM-format and converts it to 24-hour format.", pure = true)
     public static Val timeAMPM(@Text Val timeInAMPM) {
         LocalTime lt = US_TIME_FORMATTER.parse(timeInAMPM.getText(), LocalTime::from);
 
@@ -333,28 +333,28 @@ public static Val timeAMPM(@Text Val timeInAMPM) {
 
     /* ######## EXTRACT PARTS ######## */
 
-    @Function(docs = LOCAL_DATE_DOC)
+    @Function(docs = LOCAL_DATE_DOC, pure = true)
     public static Val dateOf(@Text Val isoDateTime) {
         return Val.of(DateTimeFormatter.ISO_DATE_TIME.parse(isoDateTime.getText(), LocalDate::from).toString());
     }
 
-    @Function(docs = LOCAL_TIME_DOC)
+    @Function(docs = LOCAL_TIME_DOC, pure = true)
     public static Val timeOf(@Text Val isoDateTime) {
         return Val.of(DateTimeFormatter.ISO_DATE_TIME.parse(isoDateTime.getText(), LocalTime::from)
                 .truncatedTo(ChronoUnit.SECONDS).toString());
     }
 
-    @Function(docs = HOUR_OF_DAY)
+    @Function(docs = HOUR_OF_DAY, pure = true)
     public static Val hourOf(@Text Val isoDateTime) {
         return Val.of(DateTimeFormatter.ISO_DATE_TIME.parse(isoDateTime.getText(), LocalTime::from).getHour());
     }
 
-    @Function(docs = MINUTE_OF_HOUR)
+    @Function(docs = MINUTE_OF_HOUR, pure = true)
     public static Val minuteOf(@Text Val isoDateTime) {
         return Val.of(DateTimeFormatter.ISO_DATE_TIME.parse(isoDateTime.getText(), LocalTime::from).getMinute());
     }
 
-    @Function(docs = SECOND_OF_MINUTE)
+    @Function(docs = SECOND_OF_MINUTE, pure = true)
     public static Val secondOf(@Text Val isoDateTime) {
         return Val.of(DateTimeFormatter.ISO_DATE_TIME.parse(isoDateTime.getText(), LocalTime::from).getSecond());
     }
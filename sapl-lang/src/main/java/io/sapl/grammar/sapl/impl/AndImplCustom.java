@@ -17,13 +17,17 @@
  */
 package io.sapl.grammar.sapl.impl;
 
-import java.util.Map;
-
 import io.sapl.api.interpreter.Trace;
+import io.sapl.api.interpreter.TracingMode;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.And;
+import io.sapl.grammar.sapl.impl.util.ConstantFoldable;
+import io.sapl.grammar.sapl.impl.util.SynchronousEvaluation;
+import io.sapl.grammar.sapl.impl.util.SynchronousExpression;
 import io.sapl.grammar.sapl.impl.util.TargetExpressionUtil;
+import io.sapl.interpreter.context.AuthorizationContext;
 import reactor.core.publisher.Flux;
+import reactor.util.context.ContextView;
 
 /**
  * Implements the lazy boolean AND operator, written as '&amp;&amp;' in
@@ -32,28 +36,51 @@
  * Grammar: Multiplication returns Expression: Comparison (({And.left=current}
  * '&amp;&amp;') right=Comparison)* ;
  */
-public class AndImplCustom extends AndImpl {
+public class AndImplCustom extends AndImpl implements SynchronousExpression, ConstantFoldable {
 
     private static final String LAZY_OPERATOR_IN_TARGET_ERROR = "Lazy AND operator is not allowed in the target";
 
     @Override
     public Flux<Val> evaluate() {
+        if (isFolded())
+            return foldedValue();
+        return Flux.deferContextual(ctx -> evaluate(AuthorizationContext.getTracingMode(ctx)));
+    }
+
+    private Flux<Val> evaluate(TracingMode tracingMode) {
         if (TargetExpressionUtil.isInTargetExpression(this)) {
             // indexing implies: lazy evaluation is not allowed in target expressions.
-            return Flux.just(Val.error(LAZY_OPERATOR_IN_TARGET_ERROR).withTrace(And.class));
+            return Flux.just(Val.error(LAZY_OPERATOR_IN_TARGET_ERROR).withTrace(tracingMode, And.class));
         }
-        var left = getLeft().evaluate().map(Val::requireBoolean);
+        var left = SynchronousEvaluation.evaluate(getLeft()).map(Val::requireBoolean);
         return left.switchMap(leftResult -> {
             if (leftResult.isError()) {
-                return Flux.just(leftResult.withTrace(And.class, false, Map.of(Trace.LEFT, leftResult)));
+                return Flux.just(leftResult.withTrace(tracingMode, And.class, false, Trace.LEFT, leftResult));
             }
             // Lazy evaluation of the right expression
             if (Boolean.TRUE.equals(leftResult.getBoolean())) {
-                return getRight().evaluate().map(Val::requireBoolean).map(rightResult -> rightResult
-                        .withTrace(And.class, false, Map.of(Trace.LEFT, leftResult, Trace.RIGHT, rightResult)));
+                return SynchronousEvaluation.evaluate(getRight()).map(Val::requireBoolean)
+                        .map(rightResult -> rightResult.withTrace(tracingMode, And.class, false, Trace.LEFT,
+                                leftResult, Trace.RIGHT, rightResult));
             }
             return Flux.just(Val.FALSE);
         });
     }
 
+    @Override
+    public Val evaluate(ContextView ctx) {
+        if (isFolded())
+            return foldedValue(ctx);
+        var tracingMode = AuthorizationContext.getTracingMode(ctx);
+        if (TargetExpressionUtil.isInTargetExpression(this))
+            return Val.error(LAZY_OPERATOR_IN_TARGET_ERROR).withTrace(tracingMode, And.class);
+        var leftResult = Val.requireBoolean(SynchronousEvaluation.evaluate(getLeft(), ctx));
+        if (leftResult.isError())
+            return leftResult.withTrace(tracingMode, And.class, false, Trace.LEFT, leftResult);
+        if (!Boolean.TRUE.equals(leftResult.getBoolean()))
+            return Val.FALSE;
+        var rightResult = Val.requireBoolean(SynchronousEvaluation.evaluate(getRight(), ctx));
+        return rightResult.withTrace(tracingMode, And.class, false, Trace.LEFT, leftResult, Trace.RIGHT, rightResult);
+    }
+
 }
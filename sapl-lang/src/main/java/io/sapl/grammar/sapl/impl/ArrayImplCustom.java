@@ -18,13 +18,17 @@
 package io.sapl.grammar.sapl.impl;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
 
+import io.sapl.api.interpreter.TracingMode;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.Array;
 import io.sapl.grammar.sapl.Expression;
+import io.sapl.grammar.sapl.impl.util.SynchronousEvaluable;
+import io.sapl.grammar.sapl.impl.util.SynchronousEvaluation;
+import io.sapl.interpreter.context.AuthorizationContext;
 import reactor.core.publisher.Flux;
+import reactor.util.context.ContextView;
 
 /**
  * Implementation of an array in SAPL.
@@ -32,7 +36,7 @@
  * Grammar: Array returns Value: {Array} '[' (items+=Expression (','
  * items+=Expression)*)? ']' ;
  */
-public class ArrayImplCustom extends ArrayImpl {
+public class ArrayImplCustom extends ArrayImpl implements SynchronousEvaluable {
 
     /**
      * The semantics of evaluating an array is as follows:
@@ -48,14 +52,31 @@ public class ArrayImplCustom extends ArrayImpl {
     public Flux<Val> evaluate() {
         // handle the empty array
         if (getItems().isEmpty()) {
-            return Flux.just(Val.of(Val.JSON.arrayNode()).withTrace(Array.class));
+            return Flux.deferContextual(ctx -> Flux.just(
+                    Val.of(Val.JSON.arrayNode()).withTrace(AuthorizationContext.getTracingMode(ctx), Array.class)));
         }
         // aggregate child fluxes into a Flux of a JSON array
         final List<Flux<Val>> itemFluxes = new ArrayList<>(getItems().size());
         for (Expression item : getItems()) {
-            itemFluxes.add(item.evaluate());
+            itemFluxes.add(SynchronousEvaluation.evaluate(item));
         }
-        return Flux.combineLatest(itemFluxes, this::collectValuesToArrayNode);
+        return Flux.deferContextual(ctx -> {
+            var tracingMode = AuthorizationContext.getTracingMode(ctx);
+            return Flux.combineLatest(itemFluxes, values -> collectValuesToArrayNode(tracingMode, values));
+        });
+    }
+
+    @Override
+    public Val evaluate(ContextView ctx) {
+        var tracingMode = AuthorizationContext.getTracingMode(ctx);
+        if (getItems().isEmpty()) {
+            return Val.of(Val.JSON.arrayNode()).withTrace(tracingMode, Array.class);
+        }
+        var values = new Val[getItems().size()];
+        for (var i = 0; i < values.length; i++) {
+            values[i] = SynchronousEvaluation.evaluate(getItems().get(i), ctx);
+        }
+        return collectValuesToArrayNode(tracingMode, values);
     }
 
     /**
@@ -65,13 +86,13 @@ public Flux<Val> evaluate() {
      * Jackson JsonNodes which do not have a concept of 'undefined'. Also, as we
      * want to return valid JSON values 'undefined' may not occur anywhere.
      */
-    private Val collectValuesToArrayNode(Object[] values) {
+    private Val collectValuesToArrayNode(TracingMode tracingMode, Object[] values) {
         var resultArr    = Val.JSON.arrayNode();
-        var tracedValues = new LinkedList<Val>();
+        var tracedValues = new Val[values.length];
         Val error        = null;
-        for (var oVal : values) {
-            Val val = (Val) oVal;
-            tracedValues.add(val);
+        for (var i = 0; i < values.length; i++) {
+            Val val = (Val) values[i];
+            tracedValues[i] = val;
             if (val.isError() && error == null) {
                 error = val;
             }
@@ -81,9 +102,9 @@ private Val collectValuesToArrayNode(Object[] values) {
             }
         }
         if (error != null)
-            return error.withTrace(Array.class, true, tracedValues.toArray(new Val[0]));
+            return error.withTrace(tracingMode, Array.class, true, tracedValues);
 
-        return Val.of(resultArr).withTrace(Array.class, true, tracedValues.toArray(new Val[0]));
+        return Val.of(resultArr).withTrace(tracingMode, Array.class, true, tracedValues);
     }
 
 }
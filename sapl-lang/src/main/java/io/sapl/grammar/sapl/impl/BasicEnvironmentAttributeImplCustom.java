@@ -17,12 +17,10 @@
  */
 package io.sapl.grammar.sapl.impl;
 
-import java.util.Map;
-
 import io.sapl.api.interpreter.Trace;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.AttributeFinderStep;
-import io.sapl.grammar.sapl.impl.util.FunctionUtil;
+import io.sapl.grammar.sapl.impl.util.QualifiedNameCache;
 import io.sapl.grammar.sapl.impl.util.TargetExpressionUtil;
 import io.sapl.interpreter.context.AuthorizationContext;
 import reactor.core.publisher.Flux;
@@ -34,15 +32,17 @@ public class BasicEnvironmentAttributeImplCustom extends BasicEnvironmentAttribu
 
     private static final String EXTERNAL_ATTRIBUTE_IN_TARGET_ERROR = "Attribute resolution error. Attributes not allowed in target.";
 
+    private final QualifiedNameCache qualifiedName = new QualifiedNameCache();
+
     @Override
     public Flux<Val> evaluate() {
         return Flux.deferContextual(ctxView -> {
-            var attributeName = FunctionUtil.resolveAbsoluteFunctionName(getIdSteps(),
-                    AuthorizationContext.getImports(ctxView));
+            var attributeName = qualifiedName.resolve(getIdSteps(), AuthorizationContext.getImports(ctxView));
+            var tracingMode   = AuthorizationContext.getTracingMode(ctxView);
 
             if (TargetExpressionUtil.isInTargetExpression(this))
-                return Flux.just(Val.error(EXTERNAL_ATTRIBUTE_IN_TARGET_ERROR).withTrace(AttributeFinderStep.class,
-                        false, Map.of(Trace.ATTRIBUTE, Val.of(attributeName))));
+                return Flux.just(Val.error(EXTERNAL_ATTRIBUTE_IN_TARGET_ERROR).withTrace(tracingMode,
+                        AttributeFinderStep.class, false, Trace.ATTRIBUTE, Val.of(attributeName)));
 
             return AuthorizationContext.getAttributeContext(ctxView).evaluateEnvironmentAttribute(attributeName,
                     getArguments(), AuthorizationContext.getVariables(ctxView)).distinctUntilChanged();
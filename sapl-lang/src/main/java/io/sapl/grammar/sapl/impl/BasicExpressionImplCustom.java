@@ -27,8 +27,10 @@
 import io.sapl.grammar.sapl.BasicExpression;
 import io.sapl.grammar.sapl.Step;
 import io.sapl.grammar.sapl.impl.util.RepackageUtil;
+import io.sapl.grammar.sapl.impl.util.SynchronousStep;
 import io.sapl.interpreter.context.AuthorizationContext;
 import reactor.core.publisher.Flux;
+import reactor.util.context.ContextView;
 
 /**
  * Superclass of basic expressions providing a method to evaluate the steps,
@@ -51,6 +53,18 @@ protected Function<Val, Publisher<Val>> resolveStepsFiltersAndSubTemplates(EList
         return resolveSteps(steps, 0);
     }
 
+    /**
+     * Applies the steps of a synchronous expression, i.e., an expression without
+     * filter and sub template, whose steps are all {@link SynchronousStep}s.
+     */
+    protected Val resolveStepsSynchronously(EList<Step> steps, Val value, ContextView ctx) {
+        if (steps == null)
+            return value;
+        for (var step : steps)
+            value = ((SynchronousStep) step).apply(value, ctx);
+        return value;
+    }
+
     private Function<Val, Publisher<Val>> resolveSteps(EList<Step> steps, int stepId) {
         if (steps == null || stepId == steps.size()) {
             return this::resolveFilterOrSubTemplate;
@@ -61,7 +75,7 @@ private Function<Val, Publisher<Val>> resolveSteps(EList<Step> steps, int stepId
     private Flux<Val> resolveFilterOrSubTemplate(Val value) {
         if (filter != null) {
             return filter.apply(value).contextWrite(ctx -> AuthorizationContext.setRelativeNode(ctx,
-                    value.withTrace(BasicExpression.class, true, value)));
+                    value.withTrace(AuthorizationContext.getTracingMode(ctx), BasicExpression.class, true, value)));
         }
         if (subtemplate != null) {
             return applySubTemplate(value);
@@ -72,18 +86,20 @@ private Flux<Val> resolveFilterOrSubTemplate(Val value) {
     private Flux<Val> applySubTemplate(Val value) {
         if (!value.isArray()) {
             return subtemplate.evaluate().contextWrite(ctx -> AuthorizationContext.setRelativeNode(ctx,
-                    value.withTrace(BasicExpression.class, true, value)));
+                    value.withTrace(AuthorizationContext.getTracingMode(ctx), BasicExpression.class, true, value)));
         }
         var array = value.getArrayNode();
         if (array.isEmpty()) {
-            return Flux.just(value.withTrace(BasicExpression.class, true, value));
+            return Flux.deferContextual(ctx -> Flux.just(
+                    value.withTrace(AuthorizationContext.getTracingMode(ctx), BasicExpression.class, true, value)));
         }
         var itemFluxes = new ArrayList<Flux<Val>>(array.size());
         for (var element : array) {
             itemFluxes.add(subtemplate.evaluate().contextWrite(ctx -> AuthorizationContext.setRelativeNode(ctx,
-                    Val.of(element).withTrace(BasicExpression.class, true, value))));
+                    Val.of(element).withTrace(AuthorizationContext.getTracingMode(ctx), BasicExpression.class, true,
+                            value))));
         }
-        return Flux.combineLatest(itemFluxes, RepackageUtil::recombineArray);
+        return RepackageUtil.combineArray(itemFluxes);
     }
 
 }
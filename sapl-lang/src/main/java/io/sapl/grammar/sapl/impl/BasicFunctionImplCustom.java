@@ -17,9 +17,18 @@
  */
 package io.sapl.grammar.sapl.impl;
 
+import java.util.Map;
+
+import io.sapl.api.interpreter.TracingMode;
 import io.sapl.api.interpreter.Val;
+import io.sapl.grammar.sapl.impl.util.ConstantFolding;
 import io.sapl.grammar.sapl.impl.util.FunctionUtil;
+import io.sapl.grammar.sapl.impl.util.QualifiedNameCache;
+import io.sapl.grammar.sapl.impl.util.SynchronousExpression;
+import io.sapl.interpreter.context.AuthorizationContext;
+import io.sapl.interpreter.functions.FunctionContext;
 import reactor.core.publisher.Flux;
+import reactor.util.context.ContextView;
 
 /**
  * Implements the evaluation of functions.
@@ -28,13 +37,57 @@
  * steps+=Step*; {Arguments} '(' (args+=Expression (',' args+=Expression)*)?
  * ')';
  */
-public class BasicFunctionImplCustom extends BasicFunctionImpl {
+public class BasicFunctionImplCustom extends BasicFunctionImpl implements SynchronousExpression {
+
+    private final QualifiedNameCache functionName = new QualifiedNameCache();
+
+    /**
+     * The result of a pure function called with constant parameters, valid for
+     * the function context, imports, and tracing mode it was evaluated with.
+     */
+    private volatile PureFunctionResult pureFunctionResult;
+
+    private record PureFunctionResult(FunctionContext functionContext, Map<String, String> imports,
+            TracingMode tracingMode, Val value) {}
 
     @Override
     public Flux<Val> evaluate() {
+        return functionResults().switchMap(v -> resolveStepsFiltersAndSubTemplates(steps).apply(v));
+    }
+
+    @Override
+    public Val evaluate(ContextView ctx) {
+        Val result;
+        if (ConstantFolding.isConstant(arguments))
+            result = evaluateWithConstantParameters(ctx);
+        else
+            result = FunctionUtil.evaluateFunction(functionName, fsteps, ctx,
+                    FunctionUtil.evaluateArgumentsSynchronously(arguments, ctx));
+        return resolveStepsSynchronously(steps, result, ctx);
+    }
+
+    private Flux<Val> functionResults() {
+        if (ConstantFolding.isConstant(arguments))
+            return Flux.deferContextual(ctx -> Flux.just(evaluateWithConstantParameters(ctx)));
         return FunctionUtil.combineArgumentFluxes(arguments)
-                .concatMap(parameters -> FunctionUtil.evaluateFunctionMono(fsteps, parameters))
-                .switchMap(v -> resolveStepsFiltersAndSubTemplates(steps).apply(v));
+                .concatMap(parameters -> FunctionUtil.evaluateFunctionMono(functionName, fsteps, parameters));
+    }
+
+    private Val evaluateWithConstantParameters(ContextView ctx) {
+        var functionContext = AuthorizationContext.functionContext(ctx);
+        var imports         = AuthorizationContext.getImports(ctx);
+        var tracingMode     = AuthorizationContext.getTracingMode(ctx);
+        var pureResult      = pureFunctionResult;
+        if (pureResult != null && pureResult.functionContext() == functionContext && pureResult.imports() == imports
+                && pureResult.tracingMode() == tracingMode)
+            return pureResult.value();
+
+        var resolvedName = functionName.resolve(fsteps, imports);
+        var parameters   = ConstantFolding.constantValues(arguments, tracingMode);
+        var result       = functionContext.evaluate(tracingMode, resolvedName, parameters);
+        if (functionContext.isPureFunction(resolvedName))
+            pureFunctionResult = new PureFunctionResult(functionContext, imports, tracingMode, result);
+        return result;
     }
 
 }
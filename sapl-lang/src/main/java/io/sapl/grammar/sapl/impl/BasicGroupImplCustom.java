@@ -19,20 +19,38 @@
 
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.BasicGroup;
+import io.sapl.grammar.sapl.impl.util.ConstantFoldable;
+import io.sapl.grammar.sapl.impl.util.SynchronousEvaluation;
+import io.sapl.grammar.sapl.impl.util.SynchronousExpression;
+import io.sapl.interpreter.context.AuthorizationContext;
 import reactor.core.publisher.Flux;
+import reactor.util.context.ContextView;
 
 /**
  * Implements the evaluation of expression groups.
  * <p>
  * Grammar: {BasicGroup} '(' expression=Expression ')' steps+=Step*;
  */
-public class BasicGroupImplCustom extends BasicGroupImpl {
+public class BasicGroupImplCustom extends BasicGroupImpl implements SynchronousExpression, ConstantFoldable {
 
     @Override
     public Flux<Val> evaluate() {
-        final Flux<Val> evaluatedExpressions = getExpression().evaluate();
-        return evaluatedExpressions.switchMap(v -> resolveStepsFiltersAndSubTemplates(steps).apply(v))
-                .map(val -> val.withTrace(BasicGroup.class, true, val));
+        if (isFolded())
+            return foldedValue();
+        final Flux<Val> evaluatedExpressions = SynchronousEvaluation.evaluate(getExpression());
+        return Flux.deferContextual(ctx -> {
+            var tracingMode = AuthorizationContext.getTracingMode(ctx);
+            return evaluatedExpressions.switchMap(v -> resolveStepsFiltersAndSubTemplates(steps).apply(v))
+                    .map(val -> val.withTrace(tracingMode, BasicGroup.class, true, val));
+        });
+    }
+
+    @Override
+    public Val evaluate(ContextView ctx) {
+        if (isFolded())
+            return foldedValue(ctx);
+        var val = resolveStepsSynchronously(steps, SynchronousEvaluation.evaluate(getExpression(), ctx), ctx);
+        return val.withTrace(AuthorizationContext.getTracingMode(ctx), BasicGroup.class, true, val);
     }
 
 }
@@ -17,29 +17,55 @@
  */
 package io.sapl.grammar.sapl.impl;
 
-import java.util.Map;
-
 import io.sapl.api.interpreter.Trace;
+import io.sapl.api.interpreter.TracingMode;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.BasicIdentifier;
+import io.sapl.grammar.sapl.impl.util.SynchronousExpression;
 import io.sapl.interpreter.context.AuthorizationContext;
+import lombok.Getter;
+import lombok.Setter;
 import reactor.core.publisher.Flux;
+import reactor.util.context.ContextView;
 
 /**
  * Implements the evaluation of identifiers.
  * <p>
  * Grammar: {BasicIdentifier} identifier=ID steps+=Step*;
  */
-public class BasicIdentifierImplCustom extends BasicIdentifierImpl {
+public class BasicIdentifierImplCustom extends BasicIdentifierImpl implements SynchronousExpression {
+
+    /**
+     * The slot of a variable of the same name defined in the document, assigned
+     * when the document is loaded. -1 if the identifier only refers to global
+     * variables or no slot has been assigned.
+     */
+    @Getter
+    @Setter
+    private int variableSlot = -1;
 
     @Override
     public Flux<Val> evaluate() {
         return Flux.deferContextual(ctx -> {
-            var identifierFlux = Flux.just(AuthorizationContext.getVariable(ctx, getIdentifier()));
+            var tracingMode    = AuthorizationContext.getTracingMode(ctx);
+            var identifierFlux = Flux.just(AuthorizationContext.getVariable(ctx, variableSlot, getIdentifier()));
             return identifierFlux.switchMap(v -> resolveStepsFiltersAndSubTemplates(steps).apply(v))
-                    .map(val -> val.withTrace(BasicIdentifier.class, true,
-                            Map.of(Trace.IDENTIFIER, Val.of(getIdentifier()), Trace.VALUE, val)));
+                    .map(val -> traced(tracingMode, val));
         });
     }
 
+    @Override
+    public Val evaluate(ContextView ctx) {
+        var val = resolveStepsSynchronously(steps,
+                AuthorizationContext.getVariable(ctx, variableSlot, getIdentifier()), ctx);
+        return traced(AuthorizationContext.getTracingMode(ctx), val);
+    }
+
+    private Val traced(TracingMode tracingMode, Val value) {
+        if (tracingMode == TracingMode.OFF)
+            return value;
+        return value.withTrace(tracingMode, BasicIdentifier.class, true, Trace.IDENTIFIER, Val.of(getIdentifier()),
+                Trace.VALUE, value);
+    }
+
 }
@@ -39,11 +39,12 @@ public Flux<Val> evaluate() {
 
     private Flux<Val> evaluateRelativeNode(ContextView ctx) {
         var relativeNode = AuthorizationContext.getRelativeNode(ctx);
+        var tracingMode  = AuthorizationContext.getTracingMode(ctx);
 
         if (relativeNode.isUndefined())
-            return Flux.just(Val.error(NO_RELATIVE_NODE_ERROR).withTrace(BasicRelative.class));
+            return Flux.just(Val.error(NO_RELATIVE_NODE_ERROR).withTrace(tracingMode, BasicRelative.class));
 
-        return Flux.just(relativeNode.withTrace(BasicRelative.class, true, relativeNode))
+        return Flux.just(relativeNode.withTrace(tracingMode, BasicRelative.class, true, relativeNode))
                 .switchMap(v -> resolveStepsFiltersAndSubTemplates(steps).apply(v));
     }
 
@@ -18,7 +18,11 @@
 package io.sapl.grammar.sapl.impl;
 
 import io.sapl.api.interpreter.Val;
+import io.sapl.grammar.sapl.impl.util.ConstantFoldable;
+import io.sapl.grammar.sapl.impl.util.SynchronousEvaluation;
+import io.sapl.grammar.sapl.impl.util.SynchronousExpression;
 import reactor.core.publisher.Flux;
+import reactor.util.context.ContextView;
 
 /**
  * Implements the evaluation of values.
@@ -28,11 +32,20 @@
  * Value: Object | Array | NumberLiteral | StringLiteral | BooleanLiteral |
  * NullLiteral | UndefinedLiteral ;
  */
-public class BasicValueImplCustom extends BasicValueImpl {
+public class BasicValueImplCustom extends BasicValueImpl implements SynchronousExpression, ConstantFoldable {
 
     @Override
     public Flux<Val> evaluate() {
+        if (isFolded())
+            return foldedValue();
         return getValue().evaluate().switchMap(v -> resolveStepsFiltersAndSubTemplates(steps).apply(v));
     }
 
+    @Override
+    public Val evaluate(ContextView ctx) {
+        if (isFolded())
+            return foldedValue(ctx);
+        return resolveStepsSynchronously(steps, SynchronousEvaluation.evaluate(getValue(), ctx), ctx);
+    }
+
 }
@@ -60,8 +60,8 @@ public class DenyOverridesCombiningAlgorithmImplCustom extends DenyOverridesComb
 
     @Override
     public Flux<CombinedDecision> combinePolicies(List<PolicyElement> policies) {
-        return CombiningAlgorithmUtil.eagerlyCombinePolicyElements(policies, this::combinator, getName(),
-                AuthorizationDecision.NOT_APPLICABLE);
+        return CombiningAlgorithmUtil.combineOverridingPolicyElements(policies, this::combinator, getName(),
+                AuthorizationDecision.NOT_APPLICABLE, DENY);
     }
 
     @Override
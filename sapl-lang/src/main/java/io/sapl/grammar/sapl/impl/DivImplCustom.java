@@ -20,12 +20,15 @@
 import static io.sapl.grammar.sapl.impl.util.OperatorUtil.arithmeticOperator;
 
 import java.math.BigDecimal;
-import java.util.Map;
 
 import io.sapl.api.interpreter.Trace;
+import io.sapl.api.interpreter.TracingMode;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.Div;
+import io.sapl.grammar.sapl.impl.util.ConstantFoldable;
+import io.sapl.grammar.sapl.impl.util.SynchronousExpression;
 import reactor.core.publisher.Flux;
+import reactor.util.context.ContextView;
 
 /**
  * Implements the numerical division operator, written as '/' in Expressions.
@@ -34,7 +37,7 @@
  * '*' | {Div.left=current} '/' | {And.left=current} '&amp;&amp;' | '&amp;'
  * {EagerAnd.left=current}) right=Comparison)* ;
  */
-public class DivImplCustom extends DivImpl {
+public class DivImplCustom extends DivImpl implements SynchronousExpression, ConstantFoldable {
 
     private static final String DIVISION_BY_ZERO_ERROR = "Division by zero";
 
@@ -43,11 +46,15 @@ public Flux<Val> evaluate() {
         return arithmeticOperator(this, this::divide);
     }
 
-    private Val divide(Val dividend, Val divisor) {
-        var trace = Map.<String, Val>of(Trace.DIVIDEND, dividend, Trace.DIVISOR, divisor);
-        if (divisor.decimalValue().compareTo(BigDecimal.ZERO) == 0)
-            return Val.error(DIVISION_BY_ZERO_ERROR).withTrace(Div.class, false, trace);
-        return Val.of(dividend.decimalValue().divide(divisor.decimalValue())).withTrace(Div.class, false, trace);
+    @Override
+    public Val evaluate(ContextView ctx) {
+        return arithmeticOperator(this, ctx, this::divide);
+    }
+
+    private Val divide(TracingMode tracingMode, Val dividend, Val divisor) {
+        var result = divisor.decimalValue().compareTo(BigDecimal.ZERO) == 0 ? Val.error(DIVISION_BY_ZERO_ERROR)
+                : Val.of(dividend.decimalValue().divide(divisor.decimalValue()));
+        return result.withTrace(tracingMode, Div.class, false, Trace.DIVIDEND, dividend, Trace.DIVISOR, divisor);
     }
 
 }
@@ -19,12 +19,14 @@
 
 import static io.sapl.grammar.sapl.impl.util.OperatorUtil.booleanOperator;
 
-import java.util.Map;
-
 import io.sapl.api.interpreter.Trace;
+import io.sapl.api.interpreter.TracingMode;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.EagerAnd;
+import io.sapl.grammar.sapl.impl.util.ConstantFoldable;
+import io.sapl.grammar.sapl.impl.util.SynchronousExpression;
 import reactor.core.publisher.Flux;
+import reactor.util.context.ContextView;
 
 /**
  * Implements the eager boolean AND operator, written as '&amp;' in Expressions.
@@ -32,16 +34,21 @@
  * Grammar: Multiplication returns Expression: Comparison (('&amp;'
  * {EagerAnd.left=current}) right=Comparison)* ;
  */
-public class EagerAndImplCustom extends EagerAndImpl {
+public class EagerAndImplCustom extends EagerAndImpl implements SynchronousExpression, ConstantFoldable {
 
     @Override
     public Flux<Val> evaluate() {
         return booleanOperator(this, this::and);
     }
 
-    private Val and(Val left, Val right) {
-        return Val.of(left.getBoolean() && right.getBoolean()).withTrace(EagerAnd.class, false,
-                Map.of(Trace.LEFT, left, Trace.RIGHT, right));
+    @Override
+    public Val evaluate(ContextView ctx) {
+        return booleanOperator(this, ctx, this::and);
+    }
+
+    private Val and(TracingMode tracingMode, Val left, Val right) {
+        return Val.of(left.getBoolean() && right.getBoolean()).withTrace(tracingMode, EagerAnd.class, false,
+                Trace.LEFT, left, Trace.RIGHT, right);
     }
 
 }
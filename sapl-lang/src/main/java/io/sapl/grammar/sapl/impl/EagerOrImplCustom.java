@@ -19,12 +19,14 @@
 
 import static io.sapl.grammar.sapl.impl.util.OperatorUtil.booleanOperator;
 
-import java.util.Map;
-
 import io.sapl.api.interpreter.Trace;
+import io.sapl.api.interpreter.TracingMode;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.EagerOr;
+import io.sapl.grammar.sapl.impl.util.ConstantFoldable;
+import io.sapl.grammar.sapl.impl.util.SynchronousExpression;
 import reactor.core.publisher.Flux;
+import reactor.util.context.ContextView;
 
 /**
  * Implements the eager logical OR operation, noted as '|' in the grammar.
@@ -32,16 +34,21 @@
  * Grammar: Addition returns Expression: Multiplication (('|'
  * {EagerOr.left=current}) right=Multiplication)* ;
  */
-public class EagerOrImplCustom extends EagerOrImpl {
+public class EagerOrImplCustom extends EagerOrImpl implements SynchronousExpression, ConstantFoldable {
 
     @Override
     public Flux<Val> evaluate() {
         return booleanOperator(this, this::or);
     }
 
-    private Val or(Val left, Val right) {
-        return Val.of(left.getBoolean() || right.getBoolean()).withTrace(EagerOr.class, false,
-                Map.of(Trace.LEFT, left, Trace.RIGHT, right));
+    @Override
+    public Val evaluate(ContextView ctx) {
+        return booleanOperator(this, ctx, this::or);
+    }
+
+    private Val or(TracingMode tracingMode, Val left, Val right) {
+        return Val.of(left.getBoolean() || right.getBoolean()).withTrace(tracingMode, EagerOr.class, false,
+                Trace.LEFT, left, Trace.RIGHT, right);
     }
 
 }
@@ -19,14 +19,20 @@
 
 import static io.sapl.grammar.sapl.impl.util.OperatorUtil.operator;
 
-import java.util.Map;
+import java.util.HashSet;
+import java.util.Set;
 
 import com.fasterxml.jackson.databind.JsonNode;
 
 import io.sapl.api.interpreter.Trace;
+import io.sapl.api.interpreter.TracingMode;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.ElementOf;
+import io.sapl.grammar.sapl.impl.util.ConstantFoldable;
+import io.sapl.grammar.sapl.impl.util.ConstantFolding;
+import io.sapl.grammar.sapl.impl.util.SynchronousExpression;
 import reactor.core.publisher.Flux;
+import reactor.util.context.ContextView;
 
 /**
  * Implements the evaluation of the 'in-array' operation. It checks if a value
@@ -35,39 +41,100 @@
  * Grammar: {@code Comparison returns Expression: Prefixed
  * (({ElementOf.left=current} 'in') right=Prefixed)? ;}
  */
-public class ElementOfImplCustom extends ElementOfImpl {
+public class ElementOfImplCustom extends ElementOfImpl implements SynchronousExpression, ConstantFoldable {
+
+    /**
+     * From two elements on, the hashed lookup is faster than the linear scan,
+     * see {@code ElementOfBenchmark}. A single element is compared directly.
+     */
+    private static final int MINIMUM_SIZE_FOR_HASHED_LOOKUP = 2;
+
+    /**
+     * The most recently seen haystack. Once it is known to be constant or has been
+     * seen twice, its normalized elements are hashed for constant time lookups.
+     */
+    private volatile HashedHaystack lastHaystack;
+
+    private record HashedHaystack(JsonNode haystack, Set<Object> elements) {}
 
     @Override
     public Flux<Val> evaluate() {
         return operator(this, this::tracedElementOf);
     }
 
-    private Val tracedElementOf(Val needle, Val haystack) {
-        return elementOf(needle, haystack).withTrace(ElementOf.class, false,
-                Map.of(Trace.NEEDLE, needle, Trace.HAYSTACK, haystack));
+    @Override
+    public Val evaluate(ContextView ctx) {
+        return operator(this, ctx, this::tracedElementOf);
+    }
+
+    private Val tracedElementOf(TracingMode tracingMode, Val needle, Val haystack) {
+        return elementOf(needle, haystack).withTrace(tracingMode, ElementOf.class, false, Trace.NEEDLE, needle,
+                Trace.HAYSTACK, haystack);
     }
 
     private Val elementOf(Val needle, Val haystack) {
         if (needle.isUndefined() || haystack.isUndefined() || !haystack.isArray())
             return Val.FALSE;
 
-        for (JsonNode arrayItem : haystack.get())
+        if (haystack.get().size() >= MINIMUM_SIZE_FOR_HASHED_LOOKUP) {
+            var elements = hashedElements(haystack.get());
+            if (elements != null)
+                return Val.of(elements.contains(normalized(needle.get())));
+        }
+
+        return Val.of(linearlyContains(haystack.get(), needle));
+    }
+
+    static boolean linearlyContains(JsonNode haystack, Val needle) {
+        for (JsonNode arrayItem : haystack)
             if (needleAndArrayElementAreEquivalent(needle, arrayItem))
-                return Val.TRUE;
+                return true;
+        return false;
+    }
+
+    private Set<Object> hashedElements(JsonNode haystack) {
+        var hashed = lastHaystack;
+        if (hashed != null && hashed.haystack() == haystack) {
+            if (hashed.elements() == null) {
+                hashed       = new HashedHaystack(haystack, normalizedElements(haystack));
+                lastHaystack = hashed;
+            }
+            return hashed.elements();
+        }
+        var constantHaystack = ConstantFolding.constantValue(getRight());
+        var isConstant       = constantHaystack != null && constantHaystack.get() == haystack;
+        hashed       = new HashedHaystack(haystack, isConstant ? normalizedElements(haystack) : null);
+        lastHaystack = hashed;
+        return hashed.elements();
+    }
+
+    static Set<Object> normalizedElements(JsonNode haystack) {
+        var elements = new HashSet<Object>(haystack.size() * 2);
+        for (var arrayItem : haystack)
+            elements.add(normalized(arrayItem));
+        return elements;
+    }
 
-        return Val.FALSE;
+    /**
+     * Numbers are compared by their value, so that 1 and 1.0 are considered equal.
+     * All other values are compared with JsonNode equality.
+     */
+    static Object normalized(JsonNode node) {
+        if (node.isNumber())
+            return node.decimalValue().stripTrailingZeros();
+        return node;
     }
 
-    private boolean needleAndArrayElementAreEquivalent(Val needle, JsonNode arrayItem) {
+    private static boolean needleAndArrayElementAreEquivalent(Val needle, JsonNode arrayItem) {
         return (bothValuesAreNumbers(needle, arrayItem) && bothNumbersAreEqual(needle, arrayItem))
                 || needle.get().equals(arrayItem);
     }
 
-    private boolean bothValuesAreNumbers(Val needle, JsonNode arrayItem) {
+    private static boolean bothValuesAreNumbers(Val needle, JsonNode arrayItem) {
         return needle.isNumber() && arrayItem.isNumber();
     }
 
-    private boolean bothNumbersAreEqual(Val needle, JsonNode arrayItem) {
+    private static boolean bothNumbersAreEqual(Val needle, JsonNode arrayItem) {
         return needle.get().decimalValue().compareTo(arrayItem.decimalValue()) == 0;
     }
 
@@ -19,12 +19,14 @@
 
 import static io.sapl.grammar.sapl.impl.util.OperatorUtil.operator;
 
-import java.util.Map;
-
 import io.sapl.api.interpreter.Trace;
+import io.sapl.api.interpreter.TracingMode;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.Equals;
+import io.sapl.grammar.sapl.impl.util.ConstantFoldable;
+import io.sapl.grammar.sapl.impl.util.SynchronousExpression;
 import reactor.core.publisher.Flux;
+import reactor.util.context.ContextView;
 
 /**
  * Checks for equality of two values.
@@ -32,15 +34,20 @@
  * Grammar: Comparison returns Expression: Prefixed (({Equals.left=current}
  * '==') right=Prefixed)? ;
  */
-public class EqualsImplCustom extends EqualsImpl {
+public class EqualsImplCustom extends EqualsImpl implements SynchronousExpression, ConstantFoldable {
 
     @Override
     public Flux<Val> evaluate() {
         return operator(this, this::tracedEquals);
     }
 
-    private Val tracedEquals(Val left, Val right) {
-        return equals(left, right).withTrace(Equals.class, false, Map.of(Trace.LEFT, left, Trace.RIGHT, right));
+    @Override
+    public Val evaluate(ContextView ctx) {
+        return operator(this, ctx, this::tracedEquals);
+    }
+
+    private Val tracedEquals(TracingMode tracingMode, Val left, Val right) {
+        return equals(left, right).withTrace(tracingMode, Equals.class, false, Trace.LEFT, left, Trace.RIGHT, right);
     }
 
     private Val equals(Val left, Val right) {
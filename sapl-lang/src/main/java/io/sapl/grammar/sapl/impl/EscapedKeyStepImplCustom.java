@@ -17,14 +17,14 @@
  */
 package io.sapl.grammar.sapl.impl;
 
-import java.util.Map;
-
-import io.sapl.api.interpreter.Trace;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.EscapedKeyStep;
 import io.sapl.grammar.sapl.FilterStatement;
+import io.sapl.grammar.sapl.impl.util.SynchronousStep;
+import io.sapl.interpreter.context.AuthorizationContext;
 import lombok.NonNull;
 import reactor.core.publisher.Flux;
+import reactor.util.context.ContextView;
 
 /**
  * Implements the application of a key step to a previous value, e.g
@@ -32,12 +32,17 @@
  * <p>
  * Grammar: {EscapedKeyStep} id=STRING
  */
-public class EscapedKeyStepImplCustom extends EscapedKeyStepImpl {
+public class EscapedKeyStepImplCustom extends EscapedKeyStepImpl implements SynchronousStep {
 
     @Override
     public Flux<Val> apply(@NonNull Val parentValue) {
-        return Flux.just(KeyStepImplCustom.applyToValue(parentValue, id).withTrace(EscapedKeyStep.class, true,
-                Map.of(Trace.PARENT_VALUE, parentValue, Trace.IDENTIFIER, Val.of(id))));
+        return Flux.deferContextual(ctx -> Flux.just(apply(parentValue, ctx)));
+    }
+
+    @Override
+    public Val apply(@NonNull Val parentValue, ContextView ctx) {
+        return KeyStepImplCustom.select(AuthorizationContext.getTracingMode(ctx), EscapedKeyStep.class, parentValue,
+                id);
     }
 
     @Override
@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.grammar.sapl.impl;
+
+import io.sapl.api.interpreter.TracingMode;
+import io.sapl.api.interpreter.Val;
+import io.sapl.grammar.sapl.impl.util.ConstantFoldable;
+import io.sapl.grammar.sapl.impl.util.SynchronousExpression;
+import io.sapl.interpreter.context.AuthorizationContext;
+import lombok.Getter;
+import lombok.Setter;
+import reactor.core.publisher.Flux;
+import reactor.util.context.ContextView;
+
+/**
+ * Superclass of all expressions holding what is known about an expression
+ * after its document has been loaded: whether it has been marked as
+ * synchronous, see {@link SynchronousExpression}, and the value it has been
+ * folded into, see {@link ConstantFoldable}. Subclasses declare the interfaces
+ * they support, the state of the others remains unset.
+ */
+public class ExpressionImplCustom extends ExpressionImpl {
+
+    @Getter
+    @Setter
+    private boolean synchronous;
+
+    @Getter
+    @Setter
+    private Val constantValue;
+
+    @Getter
+    @Setter
+    private Val tracedConstantValue;
+
+    /**
+     * @return true, if the expression has been folded into a constant.
+     */
+    protected boolean isFolded() {
+        return constantValue != null;
+    }
+
+    /**
+     * @return the folded value traced as required by the tracing mode of the
+     *         subscriber.
+     */
+    protected Flux<Val> foldedValue() {
+        return Flux.deferContextual(ctx -> Flux.just(foldedValue(ctx)));
+    }
+
+    /**
+     * @param ctx the evaluation context
+     * @return the folded value traced as required by the tracing mode of the
+     *         evaluation context.
+     */
+    protected Val foldedValue(ContextView ctx) {
+        return AuthorizationContext.getTracingMode(ctx) == TracingMode.OFF ? constantValue : tracedConstantValue;
+    }
+
+}
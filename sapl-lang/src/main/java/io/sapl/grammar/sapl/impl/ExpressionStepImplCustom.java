@@ -17,11 +17,12 @@
  */
 package io.sapl.grammar.sapl.impl;
 
-import java.util.Map;
-
+import io.sapl.api.interpreter.Trace;
+import io.sapl.api.interpreter.TracingMode;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.ExpressionStep;
 import io.sapl.grammar.sapl.FilterStatement;
+import io.sapl.interpreter.context.AuthorizationContext;
 import lombok.NonNull;
 import reactor.core.publisher.Flux;
 
@@ -51,24 +52,29 @@ public class ExpressionStepImplCustom extends ExpressionStepImpl {
 
     @Override
     public Flux<Val> apply(@NonNull Val parentValue) {
+        return Flux.deferContextual(ctx -> apply(AuthorizationContext.getTracingMode(ctx), parentValue));
+    }
+
+    private Flux<Val> apply(TracingMode tracingMode, Val parentValue) {
         if (parentValue.isError()) {
-            return Flux.just(parentValue.withParentTrace(ExpressionStep.class, false, parentValue));
+            return Flux.just(parentValue.withParentTrace(tracingMode, ExpressionStep.class, false, parentValue));
         }
         if (parentValue.isArray()) {
-            return expression.evaluate().map(index -> extractValueAt(parentValue, index));
+            return expression.evaluate().map(index -> extractValueAt(tracingMode, parentValue, index));
         }
         if (parentValue.isObject()) {
-            return expression.evaluate().map(index -> extractKey(parentValue, index));
+            return expression.evaluate().map(index -> extractKey(tracingMode, parentValue, index));
         }
         return Flux.just(Val.error(EXPRESSIONS_STEP_ONLY_APPLICABLE_TO_ARRAY_OR_OBJECT_WAS_S_ERROR, parentValue)
-                .withParentTrace(ExpressionStep.class, false, parentValue));
+                .withParentTrace(tracingMode, ExpressionStep.class, false, parentValue));
     }
 
     @Override
     public Flux<Val> applyFilterStatement(@NonNull Val parentValue, int stepId, @NonNull FilterStatement statement) {
         if (!parentValue.isArray() && !parentValue.isObject()) {
             // this means the element does not get selected does not get filtered
-            return Flux.just(parentValue.withParentTrace(ExpressionStep.class, true, parentValue));
+            return Flux.deferContextual(ctx -> Flux.just(parentValue.withParentTrace(
+                    AuthorizationContext.getTracingMode(ctx), ExpressionStep.class, true, parentValue)));
         }
         return expression.evaluate().concatMap(key -> applyFilterStatement(key, parentValue, stepId, statement));
     }
@@ -82,44 +88,50 @@ private Flux<Val> applyFilterStatement(Val key, Val parentValue, int stepId, Fil
             // This is an IndexStep equivalent
             return IndexStepImplCustom.doApplyFilterStatement(key.decimalValue(), parentValue, stepId, statement);
         }
-        return Flux
+        return Flux.deferContextual(ctx -> Flux
                 .just(Val.error("Type mismatch. Tried to access {} with {}", parentValue.getValType(), key.getValType())
-                        .withParentTrace(ExpressionStep.class, false, parentValue));
+                        .withParentTrace(AuthorizationContext.getTracingMode(ctx), ExpressionStep.class, false,
+                                parentValue)));
     }
 
-    private Val extractValueAt(Val parentValue, Val index) {
-        var trace = Map.<String, Val>of("parentValue", parentValue, "expressionResult", index);
+    private Val extractValueAt(TracingMode tracingMode, Val parentValue, Val index) {
         if (index.isError()) {
-            return index.withTrace(ExpressionStep.class, false, trace);
+            return traced(tracingMode, index, false, parentValue, index);
         }
         if (!index.isNumber()) {
-            return Val.error(ARRAY_ACCESS_TYPE_MISMATCH_EXPECT_AN_INTEGER_WAS_S_ERROR, index)
-                    .withTrace(ExpressionStep.class, false, trace);
+            return traced(tracingMode, Val.error(ARRAY_ACCESS_TYPE_MISMATCH_EXPECT_AN_INTEGER_WAS_S_ERROR, index),
+                    false, parentValue, index);
         }
         var idx   = index.get().asInt();
         var array = parentValue.get();
         if (idx < 0 || idx > array.size()) {
-            return Val.error(INDEX_OUT_OF_BOUNDS_INDEX_MUST_BE_BETWEEN_0_AND_D_WAS_D_ERROR, array.size(), idx)
-                    .withTrace(ExpressionStep.class, false, trace);
+            return traced(tracingMode,
+                    Val.error(INDEX_OUT_OF_BOUNDS_INDEX_MUST_BE_BETWEEN_0_AND_D_WAS_D_ERROR, array.size(), idx), false,
+                    parentValue, index);
         }
-        return Val.of(array.get(idx)).withTrace(ExpressionStep.class, true, trace);
+        return traced(tracingMode, Val.of(array.get(idx)), true, parentValue, index);
     }
 
-    private Val extractKey(Val parentValue, Val key) {
-        var trace = Map.<String, Val>of("parentValue", parentValue, "expressionResult", key);
+    private Val extractKey(TracingMode tracingMode, Val parentValue, Val key) {
         if (key.isError()) {
-            return key.withTrace(ExpressionStep.class, false, trace);
+            return traced(tracingMode, key, false, parentValue, key);
         }
         if (!key.isTextual()) {
-            return Val.error(OBJECT_ACCESS_TYPE_MISMATCH_EXPECT_A_STRING_WAS_S_ERROR, key)
-                    .withTrace(ExpressionStep.class, false, trace);
+            return traced(tracingMode, Val.error(OBJECT_ACCESS_TYPE_MISMATCH_EXPECT_A_STRING_WAS_S_ERROR, key), false,
+                    parentValue, key);
         }
         var fieldName = key.get().asText();
         var object    = parentValue.getObjectNode();
         if (!object.has(fieldName)) {
-            return Val.UNDEFINED.withTrace(ExpressionStep.class, true, trace);
+            return traced(tracingMode, Val.UNDEFINED, true, parentValue, key);
         }
-        return Val.of(object.get(fieldName)).withTrace(ExpressionStep.class, true, trace);
+        return traced(tracingMode, Val.of(object.get(fieldName)), true, parentValue, key);
+    }
+
+    private static Val traced(TracingMode tracingMode, Val value, boolean inheritsSecretStatusOfTrace,
+            Val parentValue, Val expressionResult) {
+        return value.withTrace(tracingMode, ExpressionStep.class, inheritsSecretStatusOfTrace, Trace.PARENT_VALUE,
+                parentValue, "expressionResult", expressionResult);
     }
 
 }
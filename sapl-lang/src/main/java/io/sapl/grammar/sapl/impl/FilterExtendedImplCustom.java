@@ -17,7 +17,6 @@
  */
 package io.sapl.grammar.sapl.impl;
 
-import java.util.Map;
 import java.util.function.Function;
 
 import org.reactivestreams.Publisher;
@@ -27,6 +26,7 @@
 import io.sapl.grammar.sapl.FilterExtended;
 import io.sapl.grammar.sapl.FilterStatement;
 import io.sapl.grammar.sapl.impl.util.FilterAlgorithmUtil;
+import io.sapl.interpreter.context.AuthorizationContext;
 import reactor.core.publisher.Flux;
 
 public class FilterExtendedImplCustom extends FilterExtendedImpl {
@@ -36,20 +36,22 @@ public class FilterExtendedImplCustom extends FilterExtendedImpl {
     @Override
     public Flux<Val> apply(Val unfilteredValue) {
         if (unfilteredValue.isError()) {
-            return Flux.just(unfilteredValue.withTrace(FilterExtended.class, true,
-                    Map.of(Trace.UNFILTERED_VALUE, unfilteredValue)));
+            return traced(unfilteredValue, unfilteredValue);
         }
         if (unfilteredValue.isUndefined()) {
-            return Flux.just(Val.error(FILTERS_CANNOT_BE_APPLIED_TO_UNDEFINED_VALUES_ERROR)
-                    .withTrace(FilterExtended.class, true, Map.of(Trace.UNFILTERED_VALUE, unfilteredValue)));
+            return traced(Val.error(FILTERS_CANNOT_BE_APPLIED_TO_UNDEFINED_VALUES_ERROR), unfilteredValue);
         }
         if (statements == null) {
-            return Flux.just(unfilteredValue.withTrace(FilterExtended.class, true,
-                    Map.of(Trace.UNFILTERED_VALUE, unfilteredValue)));
+            return traced(unfilteredValue, unfilteredValue);
         }
         return Flux.just(unfilteredValue).switchMap(applyFilterStatements());
     }
 
+    private static Flux<Val> traced(Val value, Val unfilteredValue) {
+        return Flux.deferContextual(ctx -> Flux.just(value.withTrace(AuthorizationContext.getTracingMode(ctx),
+                FilterExtended.class, true, Trace.UNFILTERED_VALUE, unfilteredValue)));
+    }
+
     private Function<? super Val, Publisher<? extends Val>> applyFilterStatements() {
         return applyFilterStatements(0);
     }
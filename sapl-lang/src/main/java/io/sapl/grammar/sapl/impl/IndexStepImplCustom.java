@@ -24,14 +24,17 @@
 import com.fasterxml.jackson.core.TreeNode;
 
 import io.sapl.api.interpreter.Trace;
+import io.sapl.api.interpreter.TracingMode;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.FilterStatement;
 import io.sapl.grammar.sapl.IndexStep;
 import io.sapl.grammar.sapl.impl.util.FilterAlgorithmUtil;
 import io.sapl.grammar.sapl.impl.util.RepackageUtil;
+import io.sapl.grammar.sapl.impl.util.SynchronousStep;
 import io.sapl.interpreter.context.AuthorizationContext;
 import lombok.NonNull;
 import reactor.core.publisher.Flux;
+import reactor.util.context.ContextView;
 
 /**
  * Implements the application of an index step to a previous array value, e.g.
@@ -42,15 +45,24 @@
 <p>
  * Subscript returns Step: {IndexStep} index=JSONNUMBER ;}
  */
-public class IndexStepImplCustom extends IndexStepImpl {
+public class IndexStepImplCustom extends IndexStepImpl implements SynchronousStep {
 
     private static final String TYPE_MISMATCH_S_ERROR         = "Type mismatch. The [index] access operator can only be applied to arrays. However, the policy actually attempted to apply the operator to: %s";
     private static final String INDEX_OUT_OF_BOUNDS_D_D_ERROR = "Index out of bounds. Index must be between 0 and %d, was: %d";
 
     @Override
     public Flux<Val> apply(@NonNull Val parentValue) {
-        return Flux.just(applyToValue(parentValue).withTrace(IndexStep.class, true,
-                Map.of(Trace.PARENT_VALUE, parentValue, Trace.INDEX, Val.of(index))));
+        return Flux.deferContextual(ctx -> Flux.just(apply(parentValue, ctx)));
+    }
+
+    @Override
+    public Val apply(@NonNull Val parentValue, ContextView ctx) {
+        var tracingMode = AuthorizationContext.getTracingMode(ctx);
+        var value       = applyToValue(parentValue);
+        if (tracingMode == TracingMode.OFF)
+            return parentValue.isSecret() ? value.asSecret() : value;
+        return value.withTrace(tracingMode, IndexStep.class, true, Trace.PARENT_VALUE, parentValue, Trace.INDEX,
+                Val.of(index));
     }
 
     public Val applyToValue(@NonNull Val parentValue) {
@@ -81,22 +93,27 @@ public Flux<Val> applyFilterStatement(@NonNull Val parentValue, int stepId, @Non
 
     public static Flux<Val> doApplyFilterStatement(BigDecimal index, Val parentValue, int stepId,
             FilterStatement statement) {
+        return Flux.deferContextual(ctx -> doApplyFilterStatement(AuthorizationContext.getTracingMode(ctx), index,
+                parentValue, stepId, statement));
+    }
+
+    private static Flux<Val> doApplyFilterStatement(TracingMode tracingMode, BigDecimal index, Val parentValue,
+            int stepId, FilterStatement statement) {
         if (!parentValue.isArray()) {
             // this means the element does not get selected does not get filtered
-            return Flux.just(parentValue.withTrace(IndexStep.class, true,
-                    Map.of(Trace.PARENT_VALUE, parentValue, Trace.INDEX, Val.of(index))));
+            return Flux.just(parentValue.withTrace(tracingMode, IndexStep.class, true, Trace.PARENT_VALUE, parentValue,
+                    Trace.INDEX, Val.of(index)));
         }
         var array = parentValue.getArrayNode();
         var idx   = normalizeIndex(index, array);
         if (idx < 0 || idx >= array.size()) {
             // this means the element does not get selected does not get filtered
-            return Flux.just(parentValue.withTrace(IndexStep.class, true,
-                    Map.of(Trace.PARENT_VALUE, parentValue, Trace.INDEX, Val.of(index))));
+            return Flux.just(parentValue.withTrace(tracingMode, IndexStep.class, true, Trace.PARENT_VALUE, parentValue,
+                    Trace.INDEX, Val.of(index)));
         }
         var elementFluxes = new ArrayList<Flux<Val>>(array.size());
         for (var i = 0; i < array.size(); i++) {
-            var element = Val.of(array.get(i)).withTrace(IndexStep.class, true, Map.of(Trace.PARENT_VALUE, parentValue,
-                    Trace.ELEMENT_INDEX, Val.of(i), Trace.SELECTED_INDEX, Val.of(index)));
+            var element = tracedElement(tracingMode, Val.of(array.get(i)), parentValue, i, index);
             if (i == idx) {
                 if (stepId == statement.getTarget().getSteps().size() - 1) {
                     // this was the final step. apply filter
@@ -113,7 +130,15 @@ public static Flux<Val> doApplyFilterStatement(BigDecimal index, Val parentValue
                 elementFluxes.add(Flux.just(element));
             }
         }
-        return Flux.combineLatest(elementFluxes, RepackageUtil::recombineArray);
+        return Flux.combineLatest(elementFluxes, elements -> RepackageUtil.recombineArray(tracingMode, elements));
+    }
+
+    private static Val tracedElement(TracingMode tracingMode, Val element, Val parentValue, int elementIndex,
+            BigDecimal selectedIndex) {
+        if (tracingMode == TracingMode.OFF)
+            return parentValue.isSecret() ? element.asSecret() : element;
+        return element.withTrace(tracingMode, IndexStep.class, true, Map.of(Trace.PARENT_VALUE, parentValue,
+                Trace.ELEMENT_INDEX, Val.of(elementIndex), Trace.SELECTED_INDEX, Val.of(selectedIndex)));
     }
 
 }
@@ -18,17 +18,19 @@
 package io.sapl.grammar.sapl.impl;
 
 import java.util.ArrayList;
-import java.util.Map;
 
 import io.sapl.api.interpreter.Trace;
+import io.sapl.api.interpreter.TracingMode;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.FilterStatement;
 import io.sapl.grammar.sapl.KeyStep;
 import io.sapl.grammar.sapl.impl.util.FilterAlgorithmUtil;
 import io.sapl.grammar.sapl.impl.util.RepackageUtil;
+import io.sapl.grammar.sapl.impl.util.SynchronousStep;
 import io.sapl.interpreter.context.AuthorizationContext;
 import lombok.NonNull;
 import reactor.core.publisher.Flux;
+import reactor.util.context.ContextView;
 import reactor.util.function.Tuple2;
 import reactor.util.function.Tuples;
 
@@ -38,12 +40,28 @@
  * <p>
  * Grammar: Step: '.' ({KeyStep} id=ID) ;
  */
-public class KeyStepImplCustom extends KeyStepImpl {
+public class KeyStepImplCustom extends KeyStepImpl implements SynchronousStep {
 
     @Override
     public Flux<Val> apply(@NonNull Val parentValue) {
-        return Flux.just(applyToValue(parentValue, id).withTrace(KeyStep.class, true,
-                Map.of(Trace.PARENT_VALUE, parentValue, Trace.IDENTIFIER, Val.of(id))));
+        return Flux.deferContextual(ctx -> Flux.just(apply(parentValue, ctx)));
+    }
+
+    @Override
+    public Val apply(@NonNull Val parentValue, ContextView ctx) {
+        return select(AuthorizationContext.getTracingMode(ctx), KeyStep.class, parentValue, id);
+    }
+
+    /**
+     * Selects the key from the parent value. No trace arguments are built if
+     * tracing is off.
+     */
+    static Val select(TracingMode tracingMode, Class<?> operation, Val parentValue, String id) {
+        var value = applyToValue(parentValue, id);
+        if (tracingMode == TracingMode.OFF)
+            return parentValue.isSecret() ? value.asSecret() : value;
+        return value.withTrace(tracingMode, operation, true, Trace.PARENT_VALUE, parentValue, Trace.IDENTIFIER,
+                Val.of(id));
     }
 
     @Override
@@ -80,27 +98,29 @@ public static Val applyToValue(@NonNull Val parentValue, String id) {
     public static Flux<Val> applyKeyStepFilterStatement(String id, Val parentValue, int stepId,
             FilterStatement statement) {
         if (parentValue.isObject()) {
-            return applyFilterStatementToObject(id, parentValue, stepId, statement);
+            return Flux.deferContextual(ctx -> applyFilterStatementToObject(AuthorizationContext.getTracingMode(ctx),
+                    id, parentValue, stepId, statement));
         }
 
         if (parentValue.isArray()) {
-            return applyFilterStatementToArray(id, parentValue, stepId, statement);
+            return Flux.deferContextual(ctx -> applyFilterStatementToArray(AuthorizationContext.getTracingMode(ctx),
+                    id, parentValue, stepId, statement));
         }
 
         // this means the element does not get selected does not get filtered
         return Flux.just(parentValue);
     }
 
-    private static Flux<Val> applyFilterStatementToObject(String id, Val unfilteredValue, int stepId,
-            FilterStatement statement) {
+    private static Flux<Val> applyFilterStatementToObject(TracingMode tracingMode, String id, Val unfilteredValue,
+            int stepId, FilterStatement statement) {
         var object      = unfilteredValue.getObjectNode();
         var fieldFluxes = new ArrayList<Flux<Tuple2<String, Val>>>(object.size());
         var fields      = object.fields();
         while (fields.hasNext()) {
             var field = fields.next();
             var key   = field.getKey();
-            var value = Val.of(field.getValue()).withTrace(KeyStep.class, true,
-                    Map.of(Trace.UNFILTERED_VALUE, unfilteredValue, Trace.KEY, Val.of(key)));
+            var value = Val.of(field.getValue()).withTrace(tracingMode, KeyStep.class, true, Trace.UNFILTERED_VALUE,
+                    unfilteredValue, Trace.KEY, Val.of(key));
             if (field.getKey().equals(id)) {
                 if (stepId == statement.getTarget().getSteps().size() - 1) {
                     // this was the final step. apply filter
@@ -120,25 +140,25 @@ private static Flux<Val> applyFilterStatementToObject(String id, Val unfilteredV
                 fieldFluxes.add(Flux.just(Tuples.of(field.getKey(), value)));
             }
         }
-        return Flux.combineLatest(fieldFluxes, RepackageUtil::recombineObject);
+        return Flux.combineLatest(fieldFluxes, latest -> RepackageUtil.recombineObject(tracingMode, latest));
     }
 
-    private static Flux<Val> applyFilterStatementToArray(String id, Val unfilteredValue, int stepId,
-            FilterStatement statement) {
+    private static Flux<Val> applyFilterStatementToArray(TracingMode tracingMode, String id, Val unfilteredValue,
+            int stepId, FilterStatement statement) {
         var array = unfilteredValue.getArrayNode();
         if (array.isEmpty()) {
-            return Flux.just(
-                    unfilteredValue.withTrace(KeyStep.class, true, Map.of(Trace.UNFILTERED_VALUE, unfilteredValue)));
+            return Flux.just(unfilteredValue.withTrace(tracingMode, KeyStep.class, true, Trace.UNFILTERED_VALUE,
+                    unfilteredValue));
         }
         var elementFluxes = new ArrayList<Flux<Val>>(array.size());
         var elements      = array.elements();
         var i             = 0;
         while (elements.hasNext()) {
-            var element = Val.of(elements.next()).withTrace(KeyStep.class, true,
-                    Map.of(Trace.UNFILTERED_VALUE, unfilteredValue, Trace.INDEX, Val.of(i++)));
+            var element = Val.of(elements.next()).withTrace(tracingMode, KeyStep.class, true,
+                    Trace.UNFILTERED_VALUE, unfilteredValue, Trace.INDEX, Val.of(i++));
             if (element.isObject()) {
                 // array element is an object. apply this step to the object.
-                elementFluxes.add(applyFilterStatementToObject(id, element, stepId, statement)
+                elementFluxes.add(applyFilterStatementToObject(tracingMode, id, element, stepId, statement)
                         .contextWrite(ctx -> AuthorizationContext.setRelativeNode(ctx, Val.of(array))));
             } else {
                 // array element not an object. just return it as it will not be affected by
@@ -146,7 +166,7 @@ private static Flux<Val> applyFilterStatementToArray(String id, Val unfilteredVa
                 elementFluxes.add(Flux.just(element));
             }
         }
-        return Flux.combineLatest(elementFluxes, RepackageUtil::recombineArray);
+        return Flux.combineLatest(elementFluxes, latest -> RepackageUtil.recombineArray(tracingMode, latest));
     }
 
 }
@@ -19,12 +19,14 @@
 
 import static io.sapl.grammar.sapl.impl.util.OperatorUtil.arithmeticOperator;
 
-import java.util.Map;
-
 import io.sapl.api.interpreter.Trace;
+import io.sapl.api.interpreter.TracingMode;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.LessEquals;
+import io.sapl.grammar.sapl.impl.util.ConstantFoldable;
+import io.sapl.grammar.sapl.impl.util.SynchronousExpression;
 import reactor.core.publisher.Flux;
+import reactor.util.context.ContextView;
 
 /**
  * Checks for a left value being less than or equal to a right value.
@@ -32,16 +34,21 @@
  * Grammar: {@code Comparison returns Expression: Prefixed
  * (({LessEquals.left=current} '&lt;=') right=Prefixed)? ;}
  */
-public class LessEqualsImplCustom extends LessEqualsImpl {
+public class LessEqualsImplCustom extends LessEqualsImpl implements SynchronousExpression, ConstantFoldable {
 
     @Override
     public Flux<Val> evaluate() {
         return arithmeticOperator(this, this::lessOrEqual);
     }
 
-    private Val lessOrEqual(Val left, Val right) {
-        return Val.of(left.decimalValue().compareTo(right.decimalValue()) <= 0).withTrace(LessEquals.class, false,
-                Map.of(Trace.LEFT, left, Trace.RIGHT, right));
+    @Override
+    public Val evaluate(ContextView ctx) {
+        return arithmeticOperator(this, ctx, this::lessOrEqual);
+    }
+
+    private Val lessOrEqual(TracingMode tracingMode, Val left, Val right) {
+        return Val.of(left.decimalValue().compareTo(right.decimalValue()) <= 0).withTrace(tracingMode,
+                LessEquals.class, false, Trace.LEFT, left, Trace.RIGHT, right);
     }
 
 }
@@ -19,12 +19,14 @@
 
 import static io.sapl.grammar.sapl.impl.util.OperatorUtil.arithmeticOperator;
 
-import java.util.Map;
-
 import io.sapl.api.interpreter.Trace;
+import io.sapl.api.interpreter.TracingMode;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.Less;
+import io.sapl.grammar.sapl.impl.util.ConstantFoldable;
+import io.sapl.grammar.sapl.impl.util.SynchronousExpression;
 import reactor.core.publisher.Flux;
+import reactor.util.context.ContextView;
 
 /**
  * Checks for a left value being less than a right value.
@@ -32,16 +34,21 @@
  * Grammar: {@code Comparison returns Expression: Prefixed (({Less.left=current}
  * '&lt;') right=Prefixed)? ;}
  */
-public class LessImplCustom extends LessImpl {
+public class LessImplCustom extends LessImpl implements SynchronousExpression, ConstantFoldable {
 
     @Override
     public Flux<Val> evaluate() {
         return arithmeticOperator(this, this::lessThan);
     }
 
-    private Val lessThan(Val left, Val right) {
-        return Val.of(left.decimalValue().compareTo(right.decimalValue()) < 0).withTrace(Less.class, false,
-                Map.of(Trace.LEFT, left, Trace.RIGHT, right));
+    @Override
+    public Val evaluate(ContextView ctx) {
+        return arithmeticOperator(this, ctx, this::lessThan);
+    }
+
+    private Val lessThan(TracingMode tracingMode, Val left, Val right) {
+        return Val.of(left.decimalValue().compareTo(right.decimalValue()) < 0).withTrace(tracingMode, Less.class,
+                false, Trace.LEFT, left, Trace.RIGHT, right);
     }
 
 }
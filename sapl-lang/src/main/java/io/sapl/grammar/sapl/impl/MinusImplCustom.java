@@ -19,23 +19,30 @@
 
 import static io.sapl.grammar.sapl.impl.util.OperatorUtil.arithmeticOperator;
 
-import java.util.Map;
-
 import io.sapl.api.interpreter.Trace;
+import io.sapl.api.interpreter.TracingMode;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.Minus;
+import io.sapl.grammar.sapl.impl.util.ConstantFoldable;
+import io.sapl.grammar.sapl.impl.util.SynchronousExpression;
 import reactor.core.publisher.Flux;
+import reactor.util.context.ContextView;
 
-public class MinusImplCustom extends MinusImpl {
+public class MinusImplCustom extends MinusImpl implements SynchronousExpression, ConstantFoldable {
 
     @Override
     public Flux<Val> evaluate() {
         return arithmeticOperator(this, this::subtract);
     }
 
-    private Val subtract(Val minuend, Val subtrahend) {
-        return Val.of(minuend.decimalValue().subtract(subtrahend.decimalValue())).withTrace(Minus.class, false,
-                Map.of(Trace.MINUEND, minuend, Trace.SUBTRAHEND, subtrahend));
+    @Override
+    public Val evaluate(ContextView ctx) {
+        return arithmeticOperator(this, ctx, this::subtract);
+    }
+
+    private Val subtract(TracingMode tracingMode, Val minuend, Val subtrahend) {
+        return Val.of(minuend.decimalValue().subtract(subtrahend.decimalValue())).withTrace(tracingMode, Minus.class,
+                false, Trace.MINUEND, minuend, Trace.SUBTRAHEND, subtrahend);
     }
 
 }
@@ -20,17 +20,20 @@
 import static io.sapl.grammar.sapl.impl.util.OperatorUtil.arithmeticOperator;
 
 import java.math.BigDecimal;
-import java.util.Map;
 
 import io.sapl.api.interpreter.Trace;
+import io.sapl.api.interpreter.TracingMode;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.Modulo;
+import io.sapl.grammar.sapl.impl.util.ConstantFoldable;
+import io.sapl.grammar.sapl.impl.util.SynchronousExpression;
 import reactor.core.publisher.Flux;
+import reactor.util.context.ContextView;
 
 /**
  * Implements the numerical remainder operator, written as '%' in Expressions.
  */
-public class ModuloImplCustom extends ModuloImpl {
+public class ModuloImplCustom extends ModuloImpl implements SynchronousExpression, ConstantFoldable {
 
     private static final String DIVISION_BY_ZERO_ERROR = "Division by zero";
 
@@ -39,12 +42,17 @@ public Flux<Val> evaluate() {
         return arithmeticOperator(this, this::divide);
     }
 
-    private Val divide(Val dividend, Val divisor) {
+    @Override
+    public Val evaluate(ContextView ctx) {
+        return arithmeticOperator(this, ctx, this::divide);
+    }
+
+    private Val divide(TracingMode tracingMode, Val dividend, Val divisor) {
         if (divisor.decimalValue().compareTo(BigDecimal.ZERO) == 0)
-            return Val.error(DIVISION_BY_ZERO_ERROR).withTrace(Modulo.class, false,
-                    Map.of(Trace.DIVIDEND, dividend, Trace.DIVISOR, divisor));
-        return Val.of(dividend.decimalValue().remainder(divisor.decimalValue())).withTrace(Modulo.class, false,
-                Map.of(Trace.DIVIDEND, dividend, Trace.DIVISOR, divisor));
+            return Val.error(DIVISION_BY_ZERO_ERROR).withTrace(tracingMode, Modulo.class, false, Trace.DIVIDEND,
+                    dividend, Trace.DIVISOR, divisor);
+        return Val.of(dividend.decimalValue().remainder(divisor.decimalValue())).withTrace(tracingMode, Modulo.class,
+                false, Trace.DIVIDEND, dividend, Trace.DIVISOR, divisor);
     }
 
 }
@@ -19,12 +19,14 @@
 
 import static io.sapl.grammar.sapl.impl.util.OperatorUtil.arithmeticOperator;
 
-import java.util.Map;
-
 import io.sapl.api.interpreter.Trace;
+import io.sapl.api.interpreter.TracingMode;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.More;
+import io.sapl.grammar.sapl.impl.util.ConstantFoldable;
+import io.sapl.grammar.sapl.impl.util.SynchronousExpression;
 import reactor.core.publisher.Flux;
+import reactor.util.context.ContextView;
 
 /**
  * Checks for a left value being greater than a right value.
@@ -32,7 +34,7 @@
  * Grammar: {@code Comparison returns Expression: Prefixed (({More.left=current}
  * '&gt;') right=Prefixed)? ;}
  */
-public class MoreImplCustom extends MoreImpl {
+public class MoreImplCustom extends MoreImpl implements SynchronousExpression, ConstantFoldable {
 
     @Override
     public Flux<Val> evaluate() {
@@ -40,9 +42,14 @@ public Flux<Val> evaluate() {
 
     }
 
-    private Val moreThan(Val left, Val right) {
-        return Val.of(left.decimalValue().compareTo(right.decimalValue()) > 0).withTrace(More.class, false,
-                Map.of(Trace.LEFT, left, Trace.RIGHT, right));
+    @Override
+    public Val evaluate(ContextView ctx) {
+        return arithmeticOperator(this, ctx, this::moreThan);
+    }
+
+    private Val moreThan(TracingMode tracingMode, Val left, Val right) {
+        return Val.of(left.decimalValue().compareTo(right.decimalValue()) > 0).withTrace(tracingMode, More.class,
+                false, Trace.LEFT, left, Trace.RIGHT, right);
     }
 
 }
@@ -19,23 +19,30 @@
 
 import static io.sapl.grammar.sapl.impl.util.OperatorUtil.arithmeticOperator;
 
-import java.util.Map;
-
 import io.sapl.api.interpreter.Trace;
+import io.sapl.api.interpreter.TracingMode;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.Multi;
+import io.sapl.grammar.sapl.impl.util.ConstantFoldable;
+import io.sapl.grammar.sapl.impl.util.SynchronousExpression;
 import reactor.core.publisher.Flux;
+import reactor.util.context.ContextView;
 
-public class MultiImplCustom extends MultiImpl {
+public class MultiImplCustom extends MultiImpl implements SynchronousExpression, ConstantFoldable {
 
     @Override
     public Flux<Val> evaluate() {
         return arithmeticOperator(this, this::multiply);
     }
 
-    private Val multiply(Val left, Val right) {
-        return Val.of(left.decimalValue().multiply(right.decimalValue())).withTrace(Multi.class, false,
-                Map.of(Trace.LEFT, left, Trace.RIGHT, right));
+    @Override
+    public Val evaluate(ContextView ctx) {
+        return arithmeticOperator(this, ctx, this::multiply);
+    }
+
+    private Val multiply(TracingMode tracingMode, Val left, Val right) {
+        return Val.of(left.decimalValue().multiply(right.decimalValue())).withTrace(tracingMode, Multi.class, false,
+                Trace.LEFT, left, Trace.RIGHT, right);
     }
 
 }
@@ -19,12 +19,14 @@
 
 import static io.sapl.grammar.sapl.impl.util.OperatorUtil.operator;
 
-import java.util.Map;
-
 import io.sapl.api.interpreter.Trace;
+import io.sapl.api.interpreter.TracingMode;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.NotEquals;
+import io.sapl.grammar.sapl.impl.util.ConstantFoldable;
+import io.sapl.grammar.sapl.impl.util.SynchronousExpression;
 import reactor.core.publisher.Flux;
+import reactor.util.context.ContextView;
 
 /**
  * Checks for non equality of two values.
@@ -32,16 +34,21 @@
  * Grammar: {@code Comparison returns Expression: Prefixed
  * (({NotEquals.left=current} '!=') * right=Prefixed)? ;}
  */
-public class NotEqualsImplCustom extends NotEqualsImpl {
+public class NotEqualsImplCustom extends NotEqualsImpl implements SynchronousExpression, ConstantFoldable {
 
     @Override
     public Flux<Val> evaluate() {
         return operator(this, this::notEqual);
     }
 
-    private Val notEqual(Val left, Val right) {
-        return Val.notEqual(left, right).withTrace(NotEquals.class, false,
-                Map.of(Trace.LEFT, left, Trace.RIGHT, right));
+    @Override
+    public Val evaluate(ContextView ctx) {
+        return operator(this, ctx, this::notEqual);
+    }
+
+    private Val notEqual(TracingMode tracingMode, Val left, Val right) {
+        return Val.notEqual(left, right).withTrace(tracingMode, NotEquals.class, false, Trace.LEFT, left, Trace.RIGHT,
+                right);
 
     }
 
@@ -19,15 +19,28 @@
 
 import static io.sapl.grammar.sapl.impl.util.OperatorUtil.operator;
 
+import io.sapl.api.interpreter.TracingMode;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.Not;
+import io.sapl.grammar.sapl.impl.util.ConstantFoldable;
+import io.sapl.grammar.sapl.impl.util.SynchronousExpression;
 import reactor.core.publisher.Flux;
+import reactor.util.context.ContextView;
 
-public class NotImplCustom extends NotImpl {
+public class NotImplCustom extends NotImpl implements SynchronousExpression, ConstantFoldable {
 
     @Override
     public Flux<Val> evaluate() {
-        return operator(this, Val::requireBoolean, x -> Val.of(!x.get().asBoolean()).withTrace(Not.class, false, x));
+        return operator(this, Val::requireBoolean, this::not);
+    }
+
+    @Override
+    public Val evaluate(ContextView ctx) {
+        return operator(this, ctx, Val::requireBoolean, this::not);
+    }
+
+    private Val not(TracingMode tracingMode, Val value) {
+        return Val.of(!value.get().asBoolean()).withTrace(tracingMode, Not.class, false, value);
     }
 
 }
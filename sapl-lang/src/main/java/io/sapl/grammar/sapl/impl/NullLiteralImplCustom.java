@@ -19,13 +19,21 @@
 
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.NullLiteral;
+import io.sapl.grammar.sapl.impl.util.SynchronousEvaluable;
+import io.sapl.interpreter.context.AuthorizationContext;
 import reactor.core.publisher.Flux;
+import reactor.util.context.ContextView;
 
-public class NullLiteralImplCustom extends NullLiteralImpl {
+public class NullLiteralImplCustom extends NullLiteralImpl implements SynchronousEvaluable {
 
     @Override
     public Flux<Val> evaluate() {
-        return Flux.just(Val.NULL.withTrace(NullLiteral.class));
+        return Flux.deferContextual(ctx -> Flux.just(evaluate(ctx)));
+    }
+
+    @Override
+    public Val evaluate(ContextView ctx) {
+        return Val.NULL.withTrace(AuthorizationContext.getTracingMode(ctx), NullLiteral.class);
     }
 
 }
@@ -19,13 +19,21 @@
 
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.NumberLiteral;
+import io.sapl.grammar.sapl.impl.util.SynchronousEvaluable;
+import io.sapl.interpreter.context.AuthorizationContext;
 import reactor.core.publisher.Flux;
+import reactor.util.context.ContextView;
 
-public class NumberLiteralImplCustom extends NumberLiteralImpl {
+public class NumberLiteralImplCustom extends NumberLiteralImpl implements SynchronousEvaluable {
 
     @Override
     public Flux<Val> evaluate() {
-        return Flux.just(Val.of(getNumber()).withTrace(NumberLiteral.class));
+        return Flux.deferContextual(ctx -> Flux.just(evaluate(ctx)));
+    }
+
+    @Override
+    public Val evaluate(ContextView ctx) {
+        return Val.of(getNumber()).withTrace(AuthorizationContext.getTracingMode(ctx), NumberLiteral.class);
     }
 
 }
@@ -18,12 +18,18 @@
 package io.sapl.grammar.sapl.impl;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 
+import io.sapl.api.interpreter.TracingMode;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.Pair;
+import io.sapl.grammar.sapl.impl.util.SynchronousEvaluable;
+import io.sapl.grammar.sapl.impl.util.SynchronousEvaluation;
+import io.sapl.interpreter.context.AuthorizationContext;
 import reactor.core.publisher.Flux;
+import reactor.util.context.ContextView;
 
 /**
  * Implementation of an object in SAPL.
@@ -31,7 +37,7 @@
  * Grammar: Object returns Value: {Object} '{' (members+=Pair (','
  * members+=Pair)*)? '}' ;
  */
-public class ObjectImplCustom extends ObjectImpl {
+public class ObjectImplCustom extends ObjectImpl implements SynchronousEvaluable {
 
     /**
      * The semantics of evaluating an object is as follows:
@@ -51,33 +57,67 @@ public Flux<Val> evaluate() {
         for (Pair member : getMembers()) {
             keys.add(member.getKey());
 
-            valueFluxes.add(member.getValue().evaluate());
+            valueFluxes.add(SynchronousEvaluation.evaluate(member.getValue()));
         }
 
         // handle the empty object
         if (valueFluxes.isEmpty()) {
-            return Flux.just(Val.of(Val.JSON.objectNode()).withTrace(Object.class));
+            return Flux.deferContextual(ctx -> Flux.just(
+                    Val.of(Val.JSON.objectNode()).withTrace(AuthorizationContext.getTracingMode(ctx), Object.class)));
         }
 
         // the indices of the keys correspond to the indices of the values, because
         // combineLatest() preserves the order of the given list of fluxes in the array
         // of values passed to the combinator function
-        return Flux.combineLatest(valueFluxes, values -> {
-            var result       = Val.JSON.objectNode();
-            var tracedValues = new HashMap<String, Val>();
-            // omit undefined fields
-            for (var idx = 0; idx < values.length; idx++) {
-                var key   = keys.get(idx);
-                var value = ((Val) values[idx]);
-                if (value.isError()) {
-                    // propagate errors
-                    return value.withTrace(Object.class, true, tracedValues);
-                }
-                value.ifDefined(val -> result.set(key, val));
-                tracedValues.put(key, value);
-            }
-            return Val.of(result).withTrace(Object.class, true, tracedValues);
+        return Flux.deferContextual(ctx -> {
+            var tracingMode = AuthorizationContext.getTracingMode(ctx);
+            return Flux.combineLatest(valueFluxes, values -> collectValuesToObjectNode(tracingMode, keys, values));
         });
     }
 
+    @Override
+    public Val evaluate(ContextView ctx) {
+        var tracingMode = AuthorizationContext.getTracingMode(ctx);
+        if (getMembers().isEmpty()) {
+            return Val.of(Val.JSON.objectNode()).withTrace(tracingMode, Object.class);
+        }
+        final List<String> keys   = new ArrayList<>(getMembers().size());
+        final var          values = new Val[getMembers().size()];
+        for (var idx = 0; idx < values.length; idx++) {
+            var member = getMembers().get(idx);
+            keys.add(member.getKey());
+            values[idx] = SynchronousEvaluation.evaluate(member.getValue(), ctx);
+        }
+        return collectValuesToObjectNode(tracingMode, keys, values);
+    }
+
+    private Val collectValuesToObjectNode(TracingMode tracingMode, List<String> keys, Object[] values) {
+        var result = Val.JSON.objectNode();
+        // omit undefined fields
+        for (var idx = 0; idx < values.length; idx++) {
+            var key   = keys.get(idx);
+            var value = ((Val) values[idx]);
+            if (value.isError()) {
+                // propagate errors
+                return traced(tracingMode, value, keys, values, idx);
+            }
+            value.ifDefined(val -> result.set(key, val));
+        }
+        return traced(tracingMode, Val.of(result), keys, values, values.length);
+    }
+
+    /**
+     * Traces the value with the first tracedCount values. No trace arguments are
+     * built if tracing is off.
+     */
+    private static Val traced(TracingMode tracingMode, Val value, List<String> keys, Object[] values,
+            int tracedCount) {
+        if (tracingMode == TracingMode.OFF)
+            return value.withTrace(tracingMode, Object.class, true, Arrays.copyOf(values, tracedCount, Val[].class));
+        var tracedValues = new HashMap<String, Val>();
+        for (var idx = 0; idx < tracedCount; idx++)
+            tracedValues.put(keys.get(idx), (Val) values[idx]);
+        return value.withTrace(tracingMode, Object.class, true, tracedValues);
+    }
+
 }
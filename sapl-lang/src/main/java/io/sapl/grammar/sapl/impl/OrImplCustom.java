@@ -17,13 +17,17 @@
  */
 package io.sapl.grammar.sapl.impl;
 
-import java.util.Map;
-
 import io.sapl.api.interpreter.Trace;
+import io.sapl.api.interpreter.TracingMode;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.Or;
+import io.sapl.grammar.sapl.impl.util.ConstantFoldable;
+import io.sapl.grammar.sapl.impl.util.SynchronousEvaluation;
+import io.sapl.grammar.sapl.impl.util.SynchronousExpression;
 import io.sapl.grammar.sapl.impl.util.TargetExpressionUtil;
+import io.sapl.interpreter.context.AuthorizationContext;
 import reactor.core.publisher.Flux;
+import reactor.util.context.ContextView;
 
 /**
  * Implements the lazy boolean OR operator, written as '||' in Expressions.
@@ -31,28 +35,51 @@
  * Grammar: Addition returns Expression: Multiplication (({Or.left=current}
  * '||') right=Multiplication)* ;
  */
-public class OrImplCustom extends OrImpl {
+public class OrImplCustom extends OrImpl implements SynchronousExpression, ConstantFoldable {
 
     private static final String LAZY_OPERATOR_IN_TARGET_ERROR = "Lazy OR operator is not allowed in the target";
 
     @Override
     public Flux<Val> evaluate() {
+        if (isFolded())
+            return foldedValue();
+        return Flux.deferContextual(ctx -> evaluate(AuthorizationContext.getTracingMode(ctx)));
+    }
+
+    private Flux<Val> evaluate(TracingMode tracingMode) {
         if (TargetExpressionUtil.isInTargetExpression(this)) {
             // lazy evaluation is not allowed in target expressions.
-            return Flux.just(Val.error(LAZY_OPERATOR_IN_TARGET_ERROR).withTrace(Or.class));
+            return Flux.just(Val.error(LAZY_OPERATOR_IN_TARGET_ERROR).withTrace(tracingMode, Or.class));
         }
-        var left = getLeft().evaluate().map(Val::requireBoolean);
+        var left = SynchronousEvaluation.evaluate(getLeft()).map(Val::requireBoolean);
         return left.switchMap(leftResult -> {
             if (leftResult.isError()) {
                 return Flux.just(leftResult);
             }
             // Lazy evaluation of the right expression
             if (!leftResult.getBoolean()) {
-                return getRight().evaluate().map(Val::requireBoolean).map(rightResult -> rightResult.withTrace(Or.class,
-                        false, Map.of(Trace.LEFT, leftResult, Trace.RIGHT, rightResult)));
+                return SynchronousEvaluation.evaluate(getRight()).map(Val::requireBoolean)
+                        .map(rightResult -> rightResult.withTrace(tracingMode, Or.class, false, Trace.LEFT,
+                                leftResult, Trace.RIGHT, rightResult));
             }
-            return Flux.just(Val.TRUE.withTrace(Or.class, false, Map.of(Trace.LEFT, leftResult)));
+            return Flux.just(Val.TRUE.withTrace(tracingMode, Or.class, false, Trace.LEFT, leftResult));
         });
     }
 
+    @Override
+    public Val evaluate(ContextView ctx) {
+        if (isFolded())
+            return foldedValue(ctx);
+        var tracingMode = AuthorizationContext.getTracingMode(ctx);
+        if (TargetExpressionUtil.isInTargetExpression(this))
+            return Val.error(LAZY_OPERATOR_IN_TARGET_ERROR).withTrace(tracingMode, Or.class);
+        var leftResult = Val.requireBoolean(SynchronousEvaluation.evaluate(getLeft(), ctx));
+        if (leftResult.isError())
+            return leftResult;
+        if (leftResult.getBoolean())
+            return Val.TRUE.withTrace(tracingMode, Or.class, false, Trace.LEFT, leftResult);
+        var rightResult = Val.requireBoolean(SynchronousEvaluation.evaluate(getRight(), ctx));
+        return rightResult.withTrace(tracingMode, Or.class, false, Trace.LEFT, leftResult, Trace.RIGHT, rightResult);
+    }
+
 }
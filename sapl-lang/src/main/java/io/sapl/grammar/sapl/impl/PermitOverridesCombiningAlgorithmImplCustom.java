@@ -62,8 +62,8 @@ public class PermitOverridesCombiningAlgorithmImplCustom extends PermitOverrides
 
     @Override
     public Flux<CombinedDecision> combinePolicies(List<PolicyElement> policies) {
-        return CombiningAlgorithmUtil.eagerlyCombinePolicyElements(policies, this::combinator, getName(),
-                AuthorizationDecision.NOT_APPLICABLE);
+        return CombiningAlgorithmUtil.combineOverridingPolicyElements(policies, this::combinator, getName(),
+                AuthorizationDecision.NOT_APPLICABLE, PERMIT);
     }
 
     @Override
@@ -19,16 +19,18 @@
 
 import static io.sapl.grammar.sapl.impl.util.OperatorUtil.operator;
 
-import java.util.Map;
-
 import com.fasterxml.jackson.databind.node.TextNode;
 
 import io.sapl.api.interpreter.Trace;
+import io.sapl.api.interpreter.TracingMode;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.Plus;
+import io.sapl.grammar.sapl.impl.util.ConstantFoldable;
+import io.sapl.grammar.sapl.impl.util.SynchronousExpression;
 import reactor.core.publisher.Flux;
+import reactor.util.context.ContextView;
 
-public class PlusImplCustom extends PlusImpl {
+public class PlusImplCustom extends PlusImpl implements SynchronousExpression, ConstantFoldable {
 
     private static final TextNode UNDEFINED = Val.JSON.textNode("undefined");
 
@@ -37,14 +39,20 @@ public Flux<Val> evaluate() {
         return operator(this, this::plus);
     }
 
-    private Val plus(Val left, Val right) {
+    @Override
+    public Val evaluate(ContextView ctx) {
+        return operator(this, ctx, this::plus);
+    }
+
+    private Val plus(TracingMode tracingMode, Val left, Val right) {
         if (left.isNumber() && right.isNumber())
-            return Val.of(left.get().decimalValue().add(right.get().decimalValue())).withTrace(Plus.class, false,
-                    Map.of(Trace.LEFT, left, Trace.RIGHT, right));
+            return Val.of(left.get().decimalValue().add(right.get().decimalValue())).withTrace(tracingMode,
+                    Plus.class, false, Trace.LEFT, left, Trace.RIGHT, right);
 
         var lStr = left.orElse(UNDEFINED).asText();
         var rStr = right.orElse(UNDEFINED).asText();
-        return Val.of(lStr.concat(rStr)).withTrace(Plus.class, false, Map.of(Trace.LEFT, left, Trace.RIGHT, right));
+        return Val.of(lStr.concat(rStr)).withTrace(tracingMode, Plus.class, false, Trace.LEFT, left, Trace.RIGHT,
+                right);
     }
 
 }
@@ -17,16 +17,18 @@
  */
 package io.sapl.grammar.sapl.impl;
 
-import java.util.Map;
 import java.util.function.Function;
 
 import io.sapl.api.interpreter.Trace;
+import io.sapl.api.interpreter.TracingMode;
 import io.sapl.api.interpreter.Val;
 import io.sapl.api.pdp.AuthorizationDecision;
 import io.sapl.api.pdp.Decision;
 import io.sapl.grammar.sapl.Condition;
 import io.sapl.grammar.sapl.PolicyBody;
 import io.sapl.grammar.sapl.ValueDefinition;
+import io.sapl.grammar.sapl.impl.util.SynchronousEvaluation;
+import io.sapl.grammar.sapl.impl.util.VariableSlots;
 import io.sapl.interpreter.context.AuthorizationContext;
 import reactor.core.publisher.Flux;
 import reactor.util.context.Context;
@@ -43,13 +45,15 @@ public class PolicyBodyImplCustom extends PolicyBodyImpl {
      */
     @Override
     public Flux<Val> evaluate() {
-        return evaluateStatements(Val.TRUE.withTrace(PolicyBody.class), 0);
+        return Flux.deferContextual(ctx -> evaluateStatements(
+                Val.TRUE.withTrace(AuthorizationContext.getTracingMode(ctx), PolicyBody.class), 0));
     }
 
     protected Flux<Val> evaluateStatements(Val previousResult, int statementId) {
         if (previousResult.isError() || !previousResult.getBoolean() || statementId == statements.size())
-            return Flux.just(previousResult.withTrace(PolicyBody.class, false,
-                    Map.of(Trace.PREVIOUS_CONDITION_RESULT, previousResult)));
+            return Flux.deferContextual(ctx -> Flux.just(previousResult.withTrace(
+                    AuthorizationContext.getTracingMode(ctx), PolicyBody.class, false,
+                    Trace.PREVIOUS_CONDITION_RESULT, previousResult)));
 
         var statement = statements.get(statementId);
 
@@ -61,27 +65,37 @@ protected Flux<Val> evaluateStatements(Val previousResult, int statementId) {
     }
 
     private Flux<Val> evaluateValueStatement(Val previousResult, int statementId, ValueDefinition valueDefinition) {
-        var valueStream = valueDefinition.getEval().evaluate().map(val -> val.withTrace(PolicyBody.class, true,
-                Map.of(Trace.VARIABLE_NAME, Val.of(valueDefinition.getName()))));
+        var valueStream = Flux.deferContextual(ctx -> {
+            var tracingMode = AuthorizationContext.getTracingMode(ctx);
+            return SynchronousEvaluation.evaluate(valueDefinition.getEval()).map(val -> tracingMode == TracingMode.OFF
+                    ? val
+                    : val.withTrace(tracingMode, PolicyBody.class, true, Trace.VARIABLE_NAME,
+                            Val.of(valueDefinition.getName())));
+        });
         return valueStream.switchMap(value -> evaluateStatements(previousResult, statementId + 1)
-                .contextWrite(setVariable(valueDefinition.getName(), value)));
+                .contextWrite(setVariable(valueDefinition, value)));
     }
 
-    private Function<Context, Context> setVariable(String name, Val value) {
-        return ctx -> AuthorizationContext.setVariable(ctx, name, value);
+    private Function<Context, Context> setVariable(ValueDefinition valueDefinition, Val value) {
+        var slot = VariableSlots.slotOf(valueDefinition);
+        return ctx -> AuthorizationContext.setVariable(ctx, slot, valueDefinition.getName(), value);
     }
 
     // protected to provide hook for test coverage calculations
     protected Flux<Val> evaluateCondition(Val previousResult, Condition condition) {
-        return condition.getExpression().evaluate().map(this::assertConditionResultIsBooleanOrError);
+        return Flux.deferContextual(ctx -> {
+            var tracingMode = AuthorizationContext.getTracingMode(ctx);
+            return SynchronousEvaluation.evaluate(condition.getExpression())
+                    .map(conditionResult -> assertConditionResultIsBooleanOrError(tracingMode, conditionResult));
+        });
     }
 
-    private Val assertConditionResultIsBooleanOrError(Val conditionResult) {
+    private Val assertConditionResultIsBooleanOrError(TracingMode tracingMode, Val conditionResult) {
         if (conditionResult.isBoolean() || conditionResult.isError())
             return conditionResult;
 
-        return Val.error(STATEMENT_NOT_BOOLEAN_ERROR, conditionResult).withTrace(PolicyBody.class, false,
-                Map.of(Trace.PREVIOUS_CONDITION_RESULT, conditionResult));
+        return Val.error(STATEMENT_NOT_BOOLEAN_ERROR, conditionResult).withTrace(tracingMode, PolicyBody.class, false,
+                Trace.PREVIOUS_CONDITION_RESULT, conditionResult);
     }
 
 }
@@ -26,15 +26,20 @@
 import io.sapl.grammar.sapl.Expression;
 import io.sapl.grammar.sapl.Policy;
 import io.sapl.grammar.sapl.impl.util.ImportsUtil;
+import io.sapl.grammar.sapl.impl.util.SynchronousEvaluation;
 import io.sapl.interpreter.DocumentEvaluationResult;
 import io.sapl.interpreter.PolicyDecision;
+import io.sapl.interpreter.context.AuthorizationContext;
 import reactor.core.publisher.Flux;
 
 public class PolicyImplCustom extends PolicyImpl {
 
     @Override
     public Flux<DocumentEvaluationResult> evaluate() {
-        var whereResult     = body == null ? Flux.just(Val.TRUE.withTrace(Policy.class)) : body.evaluate();
+        var whereResult     = body == null
+                ? Flux.deferContextual(
+                        ctx -> Flux.just(Val.TRUE.withTrace(AuthorizationContext.getTracingMode(ctx), Policy.class)))
+                : body.evaluate();
         var afterWhere      = whereResult
                 .map(where -> PolicyDecision.fromWhereResult(getSaplName(), entitlement.getDecision(), where));
         var withObligations = afterWhere
@@ -66,7 +71,8 @@ public DocumentEvaluationResult importError(String errorMessage) {
     private Flux<PolicyDecision> addResource(PolicyDecision policyDecision) {
         if (transformation == null || decisionMustNotCarryConstraints(policyDecision))
             return Flux.just(policyDecision);
-        return transformation.evaluate().map(policyDecision::withResource).defaultIfEmpty(policyDecision);
+        return SynchronousEvaluation.evaluate(transformation).map(policyDecision::withResource)
+                .defaultIfEmpty(policyDecision);
     }
 
     private Flux<PolicyDecision> addConstraints(PolicyDecision policyDecision, EList<Expression> constraints,
@@ -75,7 +81,7 @@ private Flux<PolicyDecision> addConstraints(PolicyDecision policyDecision, EList
                 || decisionMustNotCarryConstraints(policyDecision)) {
             return Flux.just(policyDecision);
         }
-        var constraint             = constraints.get(constraintIndex).evaluate();
+        var constraint             = SynchronousEvaluation.evaluate(constraints.get(constraintIndex));
         var decisionWithConstraint = constraint.map(val -> merge.apply(policyDecision, val));
         return decisionWithConstraint
                 .switchMap(decision -> addConstraints(decision, constraints, constraintIndex + 1, merge));
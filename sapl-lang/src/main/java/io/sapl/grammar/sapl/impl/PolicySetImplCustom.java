@@ -19,12 +19,16 @@
 
 import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.Map;
 
+import io.sapl.api.interpreter.ExpressionArgument;
 import io.sapl.api.interpreter.Trace;
+import io.sapl.api.interpreter.TracingMode;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.PolicySet;
+import io.sapl.grammar.sapl.ValueDefinition;
 import io.sapl.grammar.sapl.impl.util.ImportsUtil;
+import io.sapl.grammar.sapl.impl.util.SynchronousEvaluation;
+import io.sapl.grammar.sapl.impl.util.VariableSlots;
 import io.sapl.interpreter.CombinedDecision;
 import io.sapl.interpreter.DocumentEvaluationResult;
 import io.sapl.interpreter.PolicySetDecision;
@@ -90,11 +94,19 @@ private Flux<CombinedDecision> evaluateValueDefinitionsAndPolicies(int valueDefi
             return evaluateAndCombinePoliciesOfSet();
 
         var valueDefinition           = valueDefinitions.get(valueDefinitionId);
-        var evaluatedValueDefinitions = valueDefinition.getEval().evaluate();
+        var slot                      = VariableSlots.slotOf(valueDefinition);
+        var evaluatedValueDefinitions = SynchronousEvaluation.evaluate(valueDefinition.getEval());
         return evaluatedValueDefinitions.switchMap(value -> evaluateValueDefinitionsAndPolicies(valueDefinitionId + 1)
-                .contextWrite(ctx -> AuthorizationContext.setVariable(ctx, valueDefinition.getName(),
-                        value.withTrace(PolicySet.class, true, Map.of(Trace.POLICY_SET, Val.of(saplName),
-                                Trace.VARIABLE_NAME, Val.of(valueDefinition.getName()), Trace.VALUE, value)))));
+                .contextWrite(ctx -> AuthorizationContext.setVariable(ctx, slot, valueDefinition.getName(),
+                        traced(AuthorizationContext.getTracingMode(ctx), value, valueDefinition))));
+    }
+
+    private Val traced(TracingMode tracingMode, Val value, ValueDefinition valueDefinition) {
+        if (tracingMode == TracingMode.OFF)
+            return value;
+        return value.withTrace(tracingMode, PolicySet.class, true, new ExpressionArgument(Trace.POLICY_SET,
+                Val.of(saplName)), new ExpressionArgument(Trace.VARIABLE_NAME, Val.of(valueDefinition.getName())),
+                new ExpressionArgument(Trace.VALUE, value));
     }
 
     private Flux<CombinedDecision> evaluateAndCombinePoliciesOfSet() {
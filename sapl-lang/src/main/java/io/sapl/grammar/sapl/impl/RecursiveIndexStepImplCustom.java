@@ -18,13 +18,13 @@
 package io.sapl.grammar.sapl.impl;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Map;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 
 import io.sapl.api.interpreter.Trace;
+import io.sapl.api.interpreter.TracingMode;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.FilterStatement;
 import io.sapl.grammar.sapl.RecursiveIndexStep;
@@ -46,13 +46,19 @@ public class RecursiveIndexStepImplCustom extends RecursiveIndexStepImpl {
 
     @Override
     public Flux<Val> apply(@NonNull Val parentValue) {
-        return Flux.just(applyToValue(parentValue).withTrace(RecursiveIndexStep.class, true,
-                Map.of(Trace.PARENT_VALUE, parentValue, Trace.INDEX, Val.of(index.intValue()))));
+        return Flux.deferContextual(ctx -> {
+            var tracingMode = AuthorizationContext.getTracingMode(ctx);
+            var value       = applyToValue(tracingMode, parentValue);
+            if (tracingMode == TracingMode.OFF)
+                return Flux.just(parentValue.isSecret() ? value.asSecret() : value);
+            return Flux.just(value.withTrace(tracingMode, RecursiveIndexStep.class, true, Trace.PARENT_VALUE,
+                    parentValue, Trace.INDEX, Val.of(index.intValue())));
+        });
     }
 
-    public Val applyToValue(@NonNull Val parentValue) {
+    public Val applyToValue(TracingMode tracingMode, @NonNull Val parentValue) {
         if (parentValue.isError()) {
-            return parentValue.withParentTrace(RecursiveIndexStep.class, true, parentValue);
+            return parentValue.withParentTrace(tracingMode, RecursiveIndexStep.class, true, parentValue);
         }
         if (parentValue.isUndefined()) {
             return Val.ofEmptyArray();
@@ -85,25 +91,25 @@ private static int normalizeIndex(int idx, int size) {
 
     @Override
     public Flux<Val> applyFilterStatement(@NonNull Val parentValue, int stepId, @NonNull FilterStatement statement) {
-        return doApplyFilterStatement(index.intValue(), parentValue, stepId, statement);
+        return Flux.deferContextual(ctx -> doApplyFilterStatement(AuthorizationContext.getTracingMode(ctx),
+                index.intValue(), parentValue, stepId, statement));
     }
 
-    private static Flux<Val> doApplyFilterStatement(int index, Val parentValue, int stepId, FilterStatement statement) {
+    private static Flux<Val> doApplyFilterStatement(TracingMode tracingMode, int index, Val parentValue, int stepId,
+            FilterStatement statement) {
         if (parentValue.isObject()) {
-            return applyFilterStatementToObject(index, parentValue, stepId, statement);
+            return applyFilterStatementToObject(tracingMode, index, parentValue, stepId, statement);
         }
 
         if (!parentValue.isArray()) {
             // this means the element does not get selected does not get filtered
-            return Flux.just(parentValue.withTrace(RecursiveIndexStep.class, true,
-                    Map.of(Trace.PARENT_VALUE, parentValue, Trace.INDEX, Val.of(index))));
+            return Flux.just(traced(tracingMode, parentValue, parentValue, index));
         }
         var array         = parentValue.getArrayNode();
         var idx           = normalizeIndex(index, array.size());
         var elementFluxes = new ArrayList<Flux<Val>>(array.size());
         for (var i = 0; i < array.size(); i++) {
-            var element = Val.of(array.get(i)).withTrace(RecursiveIndexStep.class, true,
-                    Map.of(Trace.PARENT_VALUE, parentValue, Trace.INDEX, Val.of(index)));
+            var element = traced(tracingMode, Val.of(array.get(i)), parentValue, index);
             if (i == idx) {
                 if (stepId == statement.getTarget().getSteps().size() - 1) {
                     // this was the final step. apply filter
@@ -111,26 +117,29 @@ private static Flux<Val> doApplyFilterStatement(int index, Val parentValue, int
                             .applyFilterFunction(element, statement.getArguments(), statement.getFsteps(),
                                     statement.isEach())
                             .contextWrite(ctx -> AuthorizationContext.setRelativeNode(ctx, parentValue))
-                            .map(filteredValue -> {
-                                var trace = new HashMap<String, Val>();
-                                trace.put(Trace.UNFILTERED_VALUE, element);
-                                trace.put(Trace.FILTERED, filteredValue);
-                                return filteredValue.withTrace(RecursiveIndexStep.class, true, trace);
-                            }));
+                            .map(filteredValue -> filteredValue.withTrace(tracingMode, RecursiveIndexStep.class,
+                                    true, Trace.UNFILTERED_VALUE, element, Trace.FILTERED, filteredValue)));
                 } else {
                     // there are more steps. descent with them
                     elementFluxes.add(statement.getTarget().getSteps().get(stepId + 1).applyFilterStatement(element,
                             stepId + 1, statement));
                 }
             } else {
-                elementFluxes.add(doApplyFilterStatement(index, element, stepId, statement));
+                elementFluxes.add(doApplyFilterStatement(tracingMode, index, element, stepId, statement));
             }
         }
-        return Flux.combineLatest(elementFluxes, RepackageUtil::recombineArray);
+        return Flux.combineLatest(elementFluxes, latest -> RepackageUtil.recombineArray(tracingMode, latest));
     }
 
-    private static Flux<Val> applyFilterStatementToObject(int idx, Val parentValue, int stepId,
-            FilterStatement statement) {
+    private static Val traced(TracingMode tracingMode, Val value, Val parentValue, int index) {
+        if (tracingMode == TracingMode.OFF)
+            return parentValue.isSecret() ? value.asSecret() : value;
+        return value.withTrace(tracingMode, RecursiveIndexStep.class, true, Trace.PARENT_VALUE, parentValue,
+                Trace.INDEX, Val.of(index));
+    }
+
+    private static Flux<Val> applyFilterStatementToObject(TracingMode tracingMode, int idx, Val parentValue,
+            int stepId, FilterStatement statement) {
         var object      = parentValue.getObjectNode();
         var fieldFluxes = new ArrayList<Flux<Tuple2<String, Val>>>(object.size());
         var fields      = object.fields();
@@ -138,11 +147,18 @@ private static Flux<Val> applyFilterStatementToObject(int idx, Val parentValue,
             var field      = fields.next();
             var key        = field.getKey();
             var value      = field.getValue();
-            var fieldValue = Val.of(value).withTrace(RecursiveIndexStep.class, true,
-                    Map.of(Trace.PARENT_VALUE, parentValue, Trace.INDEX, Val.of(idx), Trace.KEY, Val.of(key)));
-            fieldFluxes.add(doApplyFilterStatement(idx, fieldValue, stepId, statement).map(val -> Tuples.of(key, val)));
+            var fieldValue = tracedField(tracingMode, Val.of(value), parentValue, idx, key);
+            fieldFluxes.add(doApplyFilterStatement(tracingMode, idx, fieldValue, stepId, statement)
+                    .map(val -> Tuples.of(key, val)));
         }
-        return Flux.combineLatest(fieldFluxes, RepackageUtil::recombineObject);
+        return Flux.combineLatest(fieldFluxes, latest -> RepackageUtil.recombineObject(tracingMode, latest));
+    }
+
+    private static Val tracedField(TracingMode tracingMode, Val value, Val parentValue, int index, String key) {
+        if (tracingMode == TracingMode.OFF)
+            return parentValue.isSecret() ? value.asSecret() : value;
+        return value.withTrace(tracingMode, RecursiveIndexStep.class, true,
+                Map.of(Trace.PARENT_VALUE, parentValue, Trace.INDEX, Val.of(index), Trace.KEY, Val.of(key)));
     }
 
 }
@@ -19,12 +19,12 @@
 
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Map;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 
 import io.sapl.api.interpreter.Trace;
+import io.sapl.api.interpreter.TracingMode;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.FilterStatement;
 import io.sapl.grammar.sapl.RecursiveKeyStep;
@@ -47,8 +47,14 @@ public class RecursiveKeyStepImplCustom extends RecursiveKeyStepImpl {
 
     @Override
     public Flux<Val> apply(@NonNull Val parentValue) {
-        return Flux.just(applyToValue(parentValue).withTrace(RecursiveKeyStep.class, true,
-                Map.of(Trace.PARENT_VALUE, parentValue, Trace.KEY, Val.of(id))));
+        return Flux.deferContextual(ctx -> {
+            var tracingMode = AuthorizationContext.getTracingMode(ctx);
+            var value       = applyToValue(parentValue);
+            if (tracingMode == TracingMode.OFF)
+                return Flux.just(parentValue.isSecret() ? value.asSecret() : value);
+            return Flux.just(value.withTrace(tracingMode, RecursiveKeyStep.class, true, Trace.PARENT_VALUE,
+                    parentValue, Trace.KEY, Val.of(id)));
+        });
     }
 
     public Val applyToValue(@NonNull Val parentValue) {
@@ -82,26 +88,44 @@ private ArrayNode collect(JsonNode node, ArrayNode results) {
     @Override
     public Flux<Val> applyFilterStatement(@NonNull Val unfilteredValue, int stepId,
             @NonNull FilterStatement statement) {
-        return applyKeyStepFilterStatement(id, unfilteredValue, stepId, statement);
+        return Flux.deferContextual(ctx -> applyKeyStepFilterStatement(AuthorizationContext.getTracingMode(ctx), id,
+                unfilteredValue, stepId, statement));
     }
 
-    private static Flux<Val> applyKeyStepFilterStatement(String id, Val unfilteredValue, int stepId,
-            FilterStatement statement) {
+    private static Flux<Val> applyKeyStepFilterStatement(TracingMode tracingMode, String id, Val unfilteredValue,
+            int stepId, FilterStatement statement) {
         if (unfilteredValue.isObject()) {
-            return applyFilterStatementToObject(id, unfilteredValue, stepId, statement);
+            return applyFilterStatementToObject(tracingMode, id, unfilteredValue, stepId, statement);
         }
 
         if (unfilteredValue.isArray()) {
-            return applyFilterStatementToArray(id, unfilteredValue, stepId, statement);
+            return applyFilterStatementToArray(tracingMode, id, unfilteredValue, stepId, statement);
         }
 
         // this means the element does not get selected does not get filtered
-        return Flux.just(unfilteredValue.withTrace(RecursiveKeyStep.class, true,
-                Map.of(Trace.UNFILTERED_VALUE, unfilteredValue, Trace.KEY, Val.of(id))));
+        return Flux.just(traced(tracingMode, unfilteredValue, unfilteredValue, id));
     }
 
-    private static Flux<Val> applyFilterStatementToObject(String id, Val unfilteredValue, int stepId,
-            FilterStatement statement) {
+    private static Val traced(TracingMode tracingMode, Val value, Val unfilteredValue, String id) {
+        if (tracingMode == TracingMode.OFF)
+            return unfilteredValue.isSecret() ? value.asSecret() : value;
+        return value.withTrace(tracingMode, RecursiveKeyStep.class, true, Trace.UNFILTERED_VALUE, unfilteredValue,
+                Trace.KEY, Val.of(id));
+    }
+
+    private static Val traced(TracingMode tracingMode, Val value, Val unfilteredValue, String id, String traceKey,
+            Val traceValue) {
+        if (tracingMode == TracingMode.OFF)
+            return unfilteredValue.isSecret() ? value.asSecret() : value;
+        var trace = new HashMap<String, Val>();
+        trace.put(Trace.UNFILTERED_VALUE, unfilteredValue);
+        trace.put(Trace.KEY, Val.of(id));
+        trace.put(traceKey, traceValue);
+        return value.withTrace(tracingMode, RecursiveKeyStep.class, true, trace);
+    }
+
+    private static Flux<Val> applyFilterStatementToObject(TracingMode tracingMode, String id, Val unfilteredValue,
+            int stepId, FilterStatement statement) {
         var object      = unfilteredValue.getObjectNode();
         var fieldFluxes = new ArrayList<Flux<Tuple2<String, Val>>>(object.size());
         var fields      = object.fields();
@@ -109,11 +133,7 @@ private static Flux<Val> applyFilterStatementToObject(String id, Val unfilteredV
         while (fields.hasNext()) {
             var field = fields.next();
             var key   = field.getKey();
-            var trace = new HashMap<String, Val>();
-            trace.put(Trace.UNFILTERED_VALUE, unfilteredValue);
-            trace.put(Trace.KEY, Val.of(id));
-            trace.put("[\"+key+\"]", Val.of(key));
-            var value = Val.of(field.getValue()).withTrace(RecursiveKeyStep.class, true, trace);
+            var value = traced(tracingMode, Val.of(field.getValue()), unfilteredValue, id, "[\"+key+\"]", Val.of(key));
             if (field.getKey().equals(id)) {
                 if (stepId == statement.getTarget().getSteps().size() - 1) {
                     // this was the final step. apply filter
@@ -130,39 +150,35 @@ private static Flux<Val> applyFilterStatementToObject(String id, Val unfilteredV
                 }
             } else {
                 // field not matching. Do recursive search for first match.
-                fieldFluxes.add(applyKeyStepFilterStatement(id, value, stepId, statement)
+                fieldFluxes.add(applyKeyStepFilterStatement(tracingMode, id, value, stepId, statement)
                         .map(val -> Tuples.of(field.getKey(), val)));
             }
         }
-        return Flux.combineLatest(fieldFluxes, RepackageUtil::recombineObject);
+        return Flux.combineLatest(fieldFluxes, latest -> RepackageUtil.recombineObject(tracingMode, latest));
     }
 
-    private static Flux<Val> applyFilterStatementToArray(String id, Val unfilteredValue, int stepId,
-            FilterStatement statement) {
+    private static Flux<Val> applyFilterStatementToArray(TracingMode tracingMode, String id, Val unfilteredValue,
+            int stepId, FilterStatement statement) {
         var array = unfilteredValue.getArrayNode();
 
         if (array.isEmpty()) {
-            return Flux.just(unfilteredValue.withTrace(RecursiveKeyStep.class, true,
-                    Map.of(Trace.UNFILTERED_VALUE, unfilteredValue, Trace.KEY, Val.of(id))));
+            return Flux.just(traced(tracingMode, unfilteredValue, unfilteredValue, id));
         }
         var elementFluxes = new ArrayList<Flux<Val>>(array.size());
         var elements      = array.elements();
         var index         = 0;
         while (elements.hasNext()) {
-            var trace = new HashMap<String, Val>();
-            trace.put(Trace.UNFILTERED_VALUE, unfilteredValue);
-            trace.put(Trace.KEY, Val.of(id));
-            trace.put(Trace.INDEX, Val.of(index++));
-            var element = Val.of(elements.next()).withTrace(RecursiveKeyStep.class, true, trace);
+            var element = traced(tracingMode, Val.of(elements.next()), unfilteredValue, id, Trace.INDEX,
+                    Val.of(index++));
             if (element.isObject()) {
                 // array element is an object. apply this step to the object.
-                elementFluxes.add(applyFilterStatementToObject(id, element, stepId, statement));
+                elementFluxes.add(applyFilterStatementToObject(tracingMode, id, element, stepId, statement));
             } else {
                 // array element not an object. Do recursive search for first match.
-                elementFluxes.add(applyKeyStepFilterStatement(id, element, stepId, statement));
+                elementFluxes.add(applyKeyStepFilterStatement(tracingMode, id, element, stepId, statement));
             }
         }
-        return Flux.combineLatest(elementFluxes, RepackageUtil::recombineArray);
+        return Flux.combineLatest(elementFluxes, latest -> RepackageUtil.recombineArray(tracingMode, latest));
     }
 
 }
@@ -17,17 +17,15 @@
  */
 package io.sapl.grammar.sapl.impl;
 
-import java.util.Map;
-
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 
-import io.sapl.api.interpreter.Trace;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.FilterStatement;
 import io.sapl.grammar.sapl.RecursiveWildcardStep;
 import io.sapl.grammar.sapl.WildcardStep;
 import io.sapl.grammar.sapl.impl.util.FilterAlgorithmUtil;
+import io.sapl.interpreter.context.AuthorizationContext;
 import lombok.NonNull;
 import reactor.core.publisher.Flux;
 
@@ -43,8 +41,8 @@ public class RecursiveWildcardStepImplCustom extends RecursiveWildcardStepImpl {
 
     @Override
     public Flux<Val> apply(@NonNull Val parentValue) {
-        return Flux.just(applyToValue(parentValue).withTrace(RecursiveWildcardStep.class, true,
-                Map.of(Trace.PARENT_VALUE, parentValue)));
+        return Flux.deferContextual(ctx -> Flux.just(applyToValue(parentValue).withParentTrace(
+                AuthorizationContext.getTracingMode(ctx), RecursiveWildcardStep.class, true, parentValue)));
     }
 
     public Val applyToValue(@NonNull Val parentValue) {
@@ -17,14 +17,25 @@
  */
 package io.sapl.grammar.sapl.impl;
 
-import java.util.Map;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
 import io.sapl.api.interpreter.Trace;
+import io.sapl.api.interpreter.TracingMode;
 import io.sapl.api.interpreter.Val;
+import io.sapl.grammar.sapl.BasicValue;
 import io.sapl.grammar.sapl.Regex;
+import io.sapl.grammar.sapl.StringLiteral;
+import io.sapl.grammar.sapl.impl.util.ConstantFoldable;
+import io.sapl.grammar.sapl.impl.util.SynchronousEvaluation;
+import io.sapl.grammar.sapl.impl.util.RegexUtil;
+import io.sapl.grammar.sapl.impl.util.RegexUtil.MatchTimeoutException;
+import io.sapl.grammar.sapl.impl.util.SynchronousExpression;
+import io.sapl.interpreter.context.AuthorizationContext;
+import lombok.AccessLevel;
+import lombok.Getter;
 import reactor.core.publisher.Flux;
+import reactor.util.context.ContextView;
 
 /**
  * Checks for a value matching a regular expression.
@@ -32,18 +43,66 @@
  * Grammar: {@code Comparison returns Expression: Prefixed
  * (({Regex.left=current} '=~') right=Prefixed)? ;}
  */
-public class RegexImplCustom extends RegexImpl {
+public class RegexImplCustom extends RegexImpl implements SynchronousExpression, ConstantFoldable {
 
-    private static final String REGEX_SYNTAX_ERROR = "Syntax error in regular expression '%s'.";
+    private static final String REGEX_SYNTAX_ERROR  = "Syntax error in regular expression '%s'.";
+    private static final String REGEX_TIMEOUT_ERROR = "Matching regular expression '%s' timed out.";
+
+    private static final Pattern INVALID_LITERAL_PATTERN = Pattern.compile("");
+
+    /**
+     * The compiled pattern of a constant right-hand side, compiled when the
+     * document is loaded. Null if the right-hand side is not a string literal.
+     */
+    @Getter(AccessLevel.PACKAGE)
+    private Pattern literalPattern;
 
     @Override
     public Flux<Val> evaluate() {
-        var leftFlux  = getLeft().evaluate();
-        var rightFlux = getRight().evaluate().map(Val::requireText);
-        return Flux.combineLatest(leftFlux, rightFlux, this::matchRegexp);
+        if (isFolded())
+            return foldedValue();
+        var leftFlux  = SynchronousEvaluation.evaluate(getLeft());
+        var rightFlux = SynchronousEvaluation.evaluate(getRight()).map(Val::requireText);
+        return Flux.deferContextual(ctx -> {
+            var tracingMode = AuthorizationContext.getTracingMode(ctx);
+            return Flux.combineLatest(leftFlux, rightFlux, (left, right) -> matchRegexp(tracingMode, left, right));
+        });
+    }
+
+    @Override
+    public Val evaluate(ContextView ctx) {
+        if (isFolded())
+            return foldedValue(ctx);
+        var left  = SynchronousEvaluation.evaluate(getLeft(), ctx);
+        var right = Val.requireText(SynchronousEvaluation.evaluate(getRight(), ctx));
+        return matchRegexp(AuthorizationContext.getTracingMode(ctx), left, right);
+    }
+
+    /**
+     * Compiles the right-hand side once, if it is a string literal. Called when
+     * the document is loaded.
+     */
+    public void compileLiteralPattern() {
+        if (getRight() instanceof BasicValue basicValue && basicValue.getSteps().isEmpty()
+                && basicValue.getFilter() == null && basicValue.getSubtemplate() == null
+                && basicValue.getValue() instanceof StringLiteral literal) {
+            try {
+                literalPattern = Pattern.compile(literal.getString());
+            } catch (PatternSyntaxException e) {
+                literalPattern = INVALID_LITERAL_PATTERN;
+            }
+        }
+    }
+
+    private Pattern compile(String regex) {
+        if (literalPattern == null)
+            return RegexUtil.compile(regex);
+        if (literalPattern == INVALID_LITERAL_PATTERN)
+            throw new PatternSyntaxException("Invalid literal pattern.", regex, -1);
+        return literalPattern;
     }
 
-    private Val matchRegexp(Val left, Val right) {
+    private Val matchRegexp(TracingMode tracingMode, Val left, Val right) {
         if (left.isError()) {
             return left;
         }
@@ -51,15 +110,20 @@ private Val matchRegexp(Val left, Val right) {
             return right;
         }
         if (!left.isTextual()) {
-            return Val.FALSE.withTrace(Regex.class, false, Map.of(Trace.LEFT, left, Trace.RIGHT, right));
+            return traced(tracingMode, Val.FALSE, left, right);
         }
         try {
-            return Val.of(Pattern.matches(right.getText(), left.getText())).withTrace(Regex.class, false,
-                    Map.of(Trace.LEFT, left, Trace.RIGHT, right));
+            var matches = RegexUtil.matches(compile(right.getText()), left.getText());
+            return traced(tracingMode, Val.of(matches), left, right);
         } catch (PatternSyntaxException e) {
-            return Val.error(REGEX_SYNTAX_ERROR, right).withTrace(Regex.class, false,
-                    Map.of(Trace.LEFT, left, Trace.RIGHT, right));
+            return traced(tracingMode, Val.error(REGEX_SYNTAX_ERROR, right), left, right);
+        } catch (MatchTimeoutException e) {
+            return traced(tracingMode, Val.error(REGEX_TIMEOUT_ERROR, right), left, right);
         }
     }
 
+    private static Val traced(TracingMode tracingMode, Val result, Val left, Val right) {
+        return result.withTrace(tracingMode, Regex.class, false, Trace.LEFT, left, Trace.RIGHT, right);
+    }
+
 }
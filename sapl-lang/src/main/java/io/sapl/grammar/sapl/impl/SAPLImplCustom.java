@@ -18,6 +18,7 @@
 package io.sapl.grammar.sapl.impl;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -35,12 +36,38 @@
 import io.sapl.grammar.sapl.impl.util.ImportsUtil;
 import io.sapl.grammar.sapl.impl.util.MatchingUtil;
 import io.sapl.interpreter.DocumentEvaluationResult;
+import io.sapl.interpreter.functions.FunctionContext;
+import io.sapl.interpreter.pip.AttributeContext;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.util.function.Tuple2;
 
 public class SAPLImplCustom extends SAPLImpl {
 
+    private record ResolvedImports(AttributeContext attributeContext, FunctionContext functionContext,
+            Map<String, String> imports) {}
+
+    private volatile ResolvedImports resolvedImports;
+
+    /**
+     * Resolves the imports of the document against the functions and attributes
+     * provided by the given contexts. The result is kept on the document and only
+     * resolved again if the document is evaluated with different contexts.
+     *
+     * @param attributeContext the attribute context
+     * @param functionContext  the function context
+     * @return a map from the imported short names to fully qualified names
+     */
+    public Map<String, String> resolveImports(AttributeContext attributeContext, FunctionContext functionContext) {
+        var resolved = resolvedImports;
+        if (resolved != null && resolved.attributeContext() == attributeContext
+                && resolved.functionContext() == functionContext)
+            return resolved.imports();
+        var imports = Collections.unmodifiableMap(ImportsUtil.fetchImports(this, attributeContext, functionContext));
+        resolvedImports = new ResolvedImports(attributeContext, functionContext, imports);
+        return imports;
+    }
+
     @Override
     public Mono<Val> matches() {
         // this does not use the implicit expression to not disrupt hit recording with
@@ -19,13 +19,21 @@
 
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.StringLiteral;
+import io.sapl.grammar.sapl.impl.util.SynchronousEvaluable;
+import io.sapl.interpreter.context.AuthorizationContext;
 import reactor.core.publisher.Flux;
+import reactor.util.context.ContextView;
 
-public class StringLiteralImplCustom extends StringLiteralImpl {
+public class StringLiteralImplCustom extends StringLiteralImpl implements SynchronousEvaluable {
 
     @Override
     public Flux<Val> evaluate() {
-        return Flux.just(Val.of(getString()).withTrace(StringLiteral.class));
+        return Flux.deferContextual(ctx -> Flux.just(evaluate(ctx)));
+    }
+
+    @Override
+    public Val evaluate(ContextView ctx) {
+        return Val.of(getString()).withTrace(AuthorizationContext.getTracingMode(ctx), StringLiteral.class);
     }
 
 }
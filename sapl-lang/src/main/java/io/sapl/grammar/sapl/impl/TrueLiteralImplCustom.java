@@ -19,7 +19,10 @@
 
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.TrueLiteral;
+import io.sapl.grammar.sapl.impl.util.SynchronousEvaluable;
+import io.sapl.interpreter.context.AuthorizationContext;
 import reactor.core.publisher.Flux;
+import reactor.util.context.ContextView;
 
 /**
  * Implements the boolean value 'true'.
@@ -27,14 +30,19 @@
  * Grammar: BooleanLiteral returns Value: {TrueLiteral} 'true' | {FalseLiteral}
  * 'false' ;
  */
-public class TrueLiteralImplCustom extends TrueLiteralImpl {
+public class TrueLiteralImplCustom extends TrueLiteralImpl implements SynchronousEvaluable {
 
     /*
      * Returns a constant value of false.
      */
     @Override
     public Flux<Val> evaluate() {
-        return Flux.just(Val.TRUE.withTrace(TrueLiteral.class));
+        return Flux.deferContextual(ctx -> Flux.just(evaluate(ctx)));
+    }
+
+    @Override
+    public Val evaluate(ContextView ctx) {
+        return Val.TRUE.withTrace(AuthorizationContext.getTracingMode(ctx), TrueLiteral.class);
     }
 
 }
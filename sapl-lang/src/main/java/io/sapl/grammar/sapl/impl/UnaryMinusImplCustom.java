@@ -19,19 +19,28 @@
 
 import static io.sapl.grammar.sapl.impl.util.OperatorUtil.arithmeticOperator;
 
+import io.sapl.api.interpreter.TracingMode;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.UnaryMinus;
+import io.sapl.grammar.sapl.impl.util.ConstantFoldable;
+import io.sapl.grammar.sapl.impl.util.SynchronousExpression;
 import reactor.core.publisher.Flux;
+import reactor.util.context.ContextView;
 
-public class UnaryMinusImplCustom extends UnaryMinusImpl {
+public class UnaryMinusImplCustom extends UnaryMinusImpl implements SynchronousExpression, ConstantFoldable {
 
     @Override
     public Flux<Val> evaluate() {
         return arithmeticOperator(this, this::negate);
     }
 
-    private Val negate(Val value) {
-        return Val.of(value.decimalValue().negate()).withTrace(UnaryMinus.class, true, value);
+    @Override
+    public Val evaluate(ContextView ctx) {
+        return arithmeticOperator(this, ctx, this::negate);
+    }
+
+    private Val negate(TracingMode tracingMode, Val value) {
+        return Val.of(value.decimalValue().negate()).withTrace(tracingMode, UnaryMinus.class, true, value);
     }
 
 }
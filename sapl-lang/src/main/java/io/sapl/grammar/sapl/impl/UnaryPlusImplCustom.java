@@ -19,15 +19,28 @@
 
 import static io.sapl.grammar.sapl.impl.util.OperatorUtil.arithmeticOperator;
 
+import io.sapl.api.interpreter.TracingMode;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.UnaryPlus;
+import io.sapl.grammar.sapl.impl.util.ConstantFoldable;
+import io.sapl.grammar.sapl.impl.util.SynchronousExpression;
 import reactor.core.publisher.Flux;
+import reactor.util.context.ContextView;
 
-public class UnaryPlusImplCustom extends UnaryPlusImpl {
+public class UnaryPlusImplCustom extends UnaryPlusImpl implements SynchronousExpression, ConstantFoldable {
 
     @Override
     public Flux<Val> evaluate() {
-        return arithmeticOperator(this, val -> val.withTrace(UnaryPlus.class, true, val));
+        return arithmeticOperator(this, UnaryPlusImplCustom::plus);
+    }
+
+    @Override
+    public Val evaluate(ContextView ctx) {
+        return arithmeticOperator(this, ctx, UnaryPlusImplCustom::plus);
+    }
+
+    private static Val plus(TracingMode tracingMode, Val value) {
+        return value.withTrace(tracingMode, UnaryPlus.class, true, value);
     }
 
 }
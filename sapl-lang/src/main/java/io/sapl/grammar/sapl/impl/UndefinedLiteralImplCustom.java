@@ -19,7 +19,10 @@
 
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.UndefinedLiteral;
+import io.sapl.grammar.sapl.impl.util.SynchronousEvaluable;
+import io.sapl.interpreter.context.AuthorizationContext;
 import reactor.core.publisher.Flux;
+import reactor.util.context.ContextView;
 
 /**
  * Implements a constant value of 'undefined'. The value of 'undefined' is
@@ -27,14 +30,19 @@
  * <p>
  * Grammar: UndefinedLiteral returns Value: {UndefinedLiteral} 'undefined' ;
  */
-public class UndefinedLiteralImplCustom extends UndefinedLiteralImpl {
+public class UndefinedLiteralImplCustom extends UndefinedLiteralImpl implements SynchronousEvaluable {
 
     /**
      * A FLux only containing the 'undefined' value, i.e. Optional.empty();
      */
     @Override
     public Flux<Val> evaluate() {
-        return Flux.just(Val.UNDEFINED.withTrace(UndefinedLiteral.class));
+        return Flux.deferContextual(ctx -> Flux.just(evaluate(ctx)));
+    }
+
+    @Override
+    public Val evaluate(ContextView ctx) {
+        return Val.UNDEFINED.withTrace(AuthorizationContext.getTracingMode(ctx), UndefinedLiteral.class);
     }
 
 }
@@ -0,0 +1,39 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.grammar.sapl.impl;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * A variable definition in a policy set or policy body.
+ * <p>
+ * Grammar: {@code ValueDefinition: 'var' name=ID '=' eval=Expression ('schema'
+ * schemaVarExpression+=Expression (',' schemaVarExpression+=Expression)*)?;}
+ */
+public class ValueDefinitionImplCustom extends ValueDefinitionImpl {
+
+    /**
+     * The slot of the variable name in its document, assigned when the document
+     * is loaded. -1 if no slot has been assigned.
+     */
+    @Getter
+    @Setter
+    private int variableSlot = -1;
+
+}
@@ -22,6 +22,7 @@
 import io.sapl.grammar.sapl.WildcardStep;
 import io.sapl.grammar.sapl.impl.util.FilterAlgorithmUtil;
 import io.sapl.grammar.sapl.impl.util.StepAlgorithmUtil;
+import io.sapl.interpreter.context.AuthorizationContext;
 import lombok.NonNull;
 import reactor.core.publisher.Flux;
 
@@ -46,7 +47,8 @@ public Flux<Val> applyFilterStatement(@NonNull Val unfilteredValue, int stepId,
     }
 
     public static Flux<Val> wildcard() {
-        return Flux.just(Val.TRUE.withTrace(WildcardStep.class));
+        return Flux.deferContextual(
+                ctx -> Flux.just(Val.TRUE.withTrace(AuthorizationContext.getTracingMode(ctx), WildcardStep.class)));
     }
 
 }
@@ -19,12 +19,14 @@
 
 import static io.sapl.grammar.sapl.impl.util.OperatorUtil.booleanOperator;
 
-import java.util.Map;
-
 import io.sapl.api.interpreter.Trace;
+import io.sapl.api.interpreter.TracingMode;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.XOr;
+import io.sapl.grammar.sapl.impl.util.ConstantFoldable;
+import io.sapl.grammar.sapl.impl.util.SynchronousExpression;
 import reactor.core.publisher.Flux;
+import reactor.util.context.ContextView;
 
 /**
  * Implements the eager logical OR operation, noted as '|' in the grammar.
@@ -32,16 +34,21 @@
  * Grammar: Addition returns Expression: Multiplication (('|'
  * {EagerOr.left=current}) right=Multiplication)* ;
  */
-public class XOrImplCustom extends XOrImpl {
+public class XOrImplCustom extends XOrImpl implements SynchronousExpression, ConstantFoldable {
 
     @Override
     public Flux<Val> evaluate() {
         return booleanOperator(this, this::xor);
     }
 
-    private Val xor(Val left, Val right) {
-        return Val.of(left.getBoolean() ^ right.getBoolean()).withTrace(XOr.class, true,
-                Map.of(Trace.LEFT, left, Trace.RIGHT, right));
+    @Override
+    public Val evaluate(ContextView ctx) {
+        return booleanOperator(this, ctx, this::xor);
+    }
+
+    private Val xor(TracingMode tracingMode, Val left, Val right) {
+        return Val.of(left.getBoolean() ^ right.getBoolean()).withTrace(tracingMode, XOr.class, true, Trace.LEFT,
+                left, Trace.RIGHT, right);
     }
 
 }
@@ -23,18 +23,46 @@
 import java.util.List;
 import java.util.function.Function;
 
+import io.sapl.api.interpreter.TracingMode;
 import io.sapl.api.interpreter.Val;
 import io.sapl.api.pdp.AuthorizationDecision;
+import io.sapl.api.pdp.Decision;
 import io.sapl.grammar.sapl.CombiningAlgorithm;
+import io.sapl.grammar.sapl.Policy;
 import io.sapl.grammar.sapl.PolicyElement;
 import io.sapl.interpreter.CombinedDecision;
 import io.sapl.interpreter.DocumentEvaluationResult;
+import io.sapl.interpreter.context.AuthorizationContext;
 import lombok.experimental.UtilityClass;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 @UtilityClass
 public class CombiningAlgorithmUtil {
 
+    /**
+     * Combines the policy elements with an algorithm in which the
+     * overridingDecision prevails. The elements are combined lazily if the
+     * evaluation context enables lazy overrides, and eagerly otherwise.
+     *
+     * @param policyElements         the policy elements to combine
+     * @param combinator             the combining function
+     * @param algorithmName          the name of the algorithm
+     * @param defaultDecisionIfEmpty the decision if there are no elements
+     * @param overridingDecision     the decision prevailing in the algorithm
+     * @return the combined decisions
+     */
+    public static Flux<CombinedDecision> combineOverridingPolicyElements(Collection<PolicyElement> policyElements,
+            Function<DocumentEvaluationResult[], CombinedDecision> combinator, String algorithmName,
+            AuthorizationDecision defaultDecisionIfEmpty, Decision overridingDecision) {
+        return Flux.deferContextual(ctx -> {
+            if (AuthorizationContext.isLazyOverrides(ctx))
+                return lazilyCombinePolicyElements(policyElements, combinator, algorithmName, defaultDecisionIfEmpty,
+                        overridingDecision);
+            return eagerlyCombinePolicyElements(policyElements, combinator, algorithmName, defaultDecisionIfEmpty);
+        });
+    }
+
     public static Flux<CombinedDecision> eagerlyCombinePolicyElements(Collection<PolicyElement> policyElements,
             Function<DocumentEvaluationResult[], CombinedDecision> combinator, String algorithmName,
             AuthorizationDecision defaultDecisionIfEmpty) {
@@ -45,6 +73,93 @@ public static Flux<CombinedDecision> eagerlyCombinePolicyElements(Collection<Pol
                 .apply(Arrays.copyOf(decisionObjects, decisionObjects.length, DocumentEvaluationResult[].class)));
     }
 
+    /**
+     * Combines the policy elements of an algorithm in which the
+     * overridingDecision prevails, e.g., DENY for DENY_OVERRIDES.
+     * <p>
+     * Policies with the opposite entitlement and without a transformation can
+     * neither contribute the overriding decision, nor a resource, nor
+     * constraints to an overriding final decision. Thus, these policies are only
+     * subscribed to as long as none of the remaining policy elements evaluates
+     * to the overridingDecision. As soon as one does, their evaluation (and with
+     * it any attribute stream they depend on) is cancelled and resumed once the
+     * overriding decision vanishes again. In the meantime their results are
+     * omitted from the combined decision's list of document results.
+     *
+     * @param policyElements         the policy elements to combine
+     * @param combinator             the combining function
+     * @param algorithmName          the name of the algorithm
+     * @param defaultDecisionIfEmpty the decision if there are no elements
+     * @param overridingDecision     the decision prevailing in the algorithm
+     * @return the combined decisions
+     */
+    public static Flux<CombinedDecision> lazilyCombinePolicyElements(Collection<PolicyElement> policyElements,
+            Function<DocumentEvaluationResult[], CombinedDecision> combinator, String algorithmName,
+            AuthorizationDecision defaultDecisionIfEmpty, Decision overridingDecision) {
+        var decidingIndexes    = new ArrayList<Integer>(policyElements.size());
+        var suspendableIndexes = new ArrayList<Integer>(policyElements.size());
+        var deciding           = new ArrayList<PolicyElement>(policyElements.size());
+        var suspendable        = new ArrayList<PolicyElement>(policyElements.size());
+        var index              = 0;
+        for (var policyElement : policyElements) {
+            if (isSuspendable(policyElement, overridingDecision)) {
+                suspendableIndexes.add(index);
+                suspendable.add(policyElement);
+            } else {
+                decidingIndexes.add(index);
+                deciding.add(policyElement);
+            }
+            index++;
+        }
+
+        if (deciding.isEmpty() || suspendable.isEmpty())
+            return eagerlyCombinePolicyElements(policyElements, combinator, algorithmName, defaultDecisionIfEmpty);
+
+        var decidingResults    = combineToArray(eagerPolicyElementDecisionFluxes(deciding));
+        var suspendableResults = combineToArray(eagerPolicyElementDecisionFluxes(suspendable));
+
+        return decidingResults.windowUntilChanged(results -> containsDecision(results, overridingDecision))
+                .switchMap(window -> window.switchOnFirst((first, results) -> {
+                    if (first.hasValue() && containsDecision(first.get(), overridingDecision))
+                        return results.map(combinator);
+                    return Flux
+                            .combineLatest(results, suspendableResults,
+                                    (decidingResult, suspendableResult) -> mergeInOriginalOrder(decidingResult,
+                                            decidingIndexes, suspendableResult, suspendableIndexes))
+                            .map(combinator);
+                }));
+    }
+
+    private static boolean isSuspendable(PolicyElement policyElement, Decision overridingDecision) {
+        return policyElement instanceof Policy policy && policy.getEntitlement().getDecision() != overridingDecision
+                && policy.getTransformation() == null;
+    }
+
+    private static boolean containsDecision(DocumentEvaluationResult[] results, Decision decision) {
+        for (var result : results) {
+            if (result.getAuthorizationDecision().getDecision() == decision)
+                return true;
+        }
+        return false;
+    }
+
+    private static DocumentEvaluationResult[] mergeInOriginalOrder(DocumentEvaluationResult[] decidingResults,
+            List<Integer> decidingIndexes, DocumentEvaluationResult[] suspendableResults,
+            List<Integer> suspendableIndexes) {
+        var merged = new DocumentEvaluationResult[decidingResults.length + suspendableResults.length];
+        for (var i = 0; i < decidingResults.length; i++)
+            merged[decidingIndexes.get(i)] = decidingResults[i];
+        for (var i = 0; i < suspendableResults.length; i++)
+            merged[suspendableIndexes.get(i)] = suspendableResults[i];
+        return merged;
+    }
+
+    private static Flux<DocumentEvaluationResult[]> combineToArray(
+            List<Flux<DocumentEvaluationResult>> policyDecisions) {
+        return Flux.combineLatest(policyDecisions, decisionObjects -> Arrays.copyOf(decisionObjects,
+                decisionObjects.length, DocumentEvaluationResult[].class));
+    }
+
     private static List<Flux<DocumentEvaluationResult>> eagerPolicyElementDecisionFluxes(
             Collection<PolicyElement> policyElements) {
         var policyDecisions = new ArrayList<Flux<DocumentEvaluationResult>>(policyElements.size());
@@ -56,7 +171,11 @@ private static List<Flux<DocumentEvaluationResult>> eagerPolicyElementDecisionFl
 
     private static Flux<DocumentEvaluationResult> evaluatePolicyElementTargetAndPolicyIfApplicable(
             PolicyElement policyElement) {
-        var matches = policyElement.matches().map(CombiningAlgorithmUtil::requireTargetExpressionEvaluatesToBoolean);
+        var matches = Mono.deferContextual(ctx -> {
+            var tracingMode = AuthorizationContext.getTracingMode(ctx);
+            return policyElement.matches()
+                    .map(targetResult -> requireTargetExpressionEvaluatesToBoolean(tracingMode, targetResult));
+        });
         return matches.flatMapMany(evaluatePolicyIfApplicable(policyElement));
     }
 
@@ -70,14 +189,15 @@ private static Function<Val, Flux<DocumentEvaluationResult>> evaluatePolicyIfApp
         };
     }
 
-    private static Val requireTargetExpressionEvaluatesToBoolean(Val targetExpressionResult) {
+    private static Val requireTargetExpressionEvaluatesToBoolean(TracingMode tracingMode,
+            Val targetExpressionResult) {
         if (targetExpressionResult.isBoolean())
             return targetExpressionResult;
 
         return Val
                 .error("Type mismatch. Target expression must evaluate to Boolean. Was: %s",
                         targetExpressionResult.getValType())
-                .withTrace(CombiningAlgorithm.class, false, targetExpressionResult);
+                .withTrace(tracingMode, CombiningAlgorithm.class, false, targetExpressionResult);
     }
 
 }
@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.grammar.sapl.impl.util;
+
+import io.sapl.api.interpreter.TracingMode;
+import io.sapl.api.interpreter.Val;
+
+/**
+ * Implemented by expressions which can be folded into a constant by
+ * {@link ConstantFolding}. The folded value is kept on the node itself, so that
+ * evaluating the node only reads a field. As the tracing mode is only known at
+ * evaluation time, the node keeps the value once without and once with its
+ * trace.
+ */
+public interface ConstantFoldable {
+
+    /**
+     * @return the pre-evaluated value of the node without trace, or null if the
+     *         node has not been folded into a constant.
+     */
+    Val getConstantValue();
+
+    /**
+     * @param constantValue the pre-evaluated value of the node without trace
+     */
+    void setConstantValue(Val constantValue);
+
+    /**
+     * @return the pre-evaluated value of the node with its full trace, or null
+     *         if the node has not been folded into a constant.
+     */
+    Val getTracedConstantValue();
+
+    /**
+     * @param tracedConstantValue the pre-evaluated value of the node with its
+     *                            full trace
+     */
+    void setTracedConstantValue(Val tracedConstantValue);
+
+    /**
+     * @param tracingMode the tracing mode of the evaluation
+     * @return the pre-evaluated value of the node traced as required by the
+     *         tracing mode, or null if the node has not been folded into a
+     *         constant.
+     */
+    default Val getConstantValue(TracingMode tracingMode) {
+        return tracingMode == TracingMode.OFF ? getConstantValue() : getTracedConstantValue();
+    }
+
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.grammar.sapl.impl.util;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.eclipse.emf.ecore.EObject;
+
+import io.sapl.api.interpreter.TracingMode;
+import io.sapl.api.interpreter.Val;
+import io.sapl.grammar.sapl.Arguments;
+import io.sapl.grammar.sapl.Array;
+import io.sapl.grammar.sapl.ArraySlicingStep;
+import io.sapl.grammar.sapl.AttributeUnionStep;
+import io.sapl.grammar.sapl.BasicGroup;
+import io.sapl.grammar.sapl.BasicValue;
+import io.sapl.grammar.sapl.BinaryOperator;
+import io.sapl.grammar.sapl.EscapedKeyStep;
+import io.sapl.grammar.sapl.Evaluable;
+import io.sapl.grammar.sapl.FalseLiteral;
+import io.sapl.grammar.sapl.IndexStep;
+import io.sapl.grammar.sapl.IndexUnionStep;
+import io.sapl.grammar.sapl.KeyStep;
+import io.sapl.grammar.sapl.NullLiteral;
+import io.sapl.grammar.sapl.NumberLiteral;
+import io.sapl.grammar.sapl.Pair;
+import io.sapl.grammar.sapl.RecursiveIndexStep;
+import io.sapl.grammar.sapl.RecursiveKeyStep;
+import io.sapl.grammar.sapl.RecursiveWildcardStep;
+import io.sapl.grammar.sapl.StringLiteral;
+import io.sapl.grammar.sapl.TrueLiteral;
+import io.sapl.grammar.sapl.UnaryOperator;
+import io.sapl.grammar.sapl.UndefinedLiteral;
+import io.sapl.grammar.sapl.WildcardStep;
+import io.sapl.interpreter.context.AuthorizationContext;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Pre-evaluates constant sub-expressions of a document once when it is loaded.
+ * <p>
+ * A node of the syntax tree is constant if it is a literal, an array or object
+ * of constants, an operator on constants, or a group or value of a constant
+ * with steps which only select from their parent value. Attributes,
+ * identifiers, relative values, filters, and functions are never constant.
+ * Calls of pure functions with constant parameters are memoized separately at
+ * evaluation time, because the function context is not known at load time.
+ * <p>
+ * The value of each maximal constant sub-expression is stored in its node, see
+ * {@link ConstantFoldable}. The evaluation of the node returns it directly
+ * instead of combining the values of its children. Arrays and objects are
+ * values and not expressions and hold no state, so for a constant array or
+ * object whose enclosing expression is not constant, its items are folded.
+ * <p>
+ * The tracing mode is only known at evaluation time. Hence, each constant is
+ * evaluated once without and once with tracing, and the evaluation returns the
+ * value matching its mode.
+ */
+@UtilityClass
+public class ConstantFolding {
+
+    /**
+     * Pre-evaluates all constant sub-expressions in the tree below the given
+     * node.
+     *
+     * @param root the root of a parsed document
+     */
+    public static void foldConstants(EObject root) {
+        if (fold(root))
+            precompute(root);
+    }
+
+    /**
+     * @param node a node of the syntax tree
+     * @return the pre-evaluated value of the node without trace, or null if the
+     *         node has not been folded into a constant.
+     */
+    public static Val constantValue(EObject node) {
+        return constantValue(node, TracingMode.OFF);
+    }
+
+    /**
+     * @param node        a node of the syntax tree
+     * @param tracingMode the tracing mode of the evaluation
+     * @return the pre-evaluated value of the node traced as required by the
+     *         tracing mode, or null if the node has not been folded into a
+     *         constant.
+     */
+    public static Val constantValue(EObject node, TracingMode tracingMode) {
+        if (node instanceof ConstantFoldable foldable)
+            return foldable.getConstantValue(tracingMode);
+        return null;
+    }
+
+    /**
+     * @param arguments the arguments of a function call
+     * @return true, if all arguments have been folded into constants.
+     */
+    public static boolean isConstant(Arguments arguments) {
+        if (arguments == null)
+            return true;
+        for (var argument : arguments.getArgs()) {
+            if (constantValue(argument) == null)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * @param arguments   the arguments of a function call
+     * @param tracingMode the tracing mode of the evaluation
+     * @return the pre-evaluated values of all arguments traced as required by
+     *         the tracing mode, or null if at least one of the arguments is not
+     *         constant.
+     */
+    public static Val[] constantValues(Arguments arguments, TracingMode tracingMode) {
+        if (arguments == null || arguments.getArgs().isEmpty())
+            return new Val[0];
+        var values = new Val[arguments.getArgs().size()];
+        for (var i = 0; i < values.length; i++) {
+            values[i] = constantValue(arguments.getArgs().get(i), tracingMode);
+            if (values[i] == null)
+                return null;
+        }
+        return values;
+    }
+
+    private static boolean fold(EObject node) {
+        var constantChildren = new ArrayList<EObject>();
+        var allConstant      = true;
+        for (var child : node.eContents()) {
+            if (fold(child))
+                constantChildren.add(child);
+            else
+                allConstant = false;
+        }
+        if (allConstant && isConstantIfChildrenAreConstant(node))
+            return true;
+
+        for (var child : constantChildren)
+            precompute(child);
+        return false;
+    }
+
+    private static void precompute(EObject node) {
+        if (!(node instanceof ConstantFoldable foldable) || !(node instanceof Evaluable evaluable)) {
+            for (var child : node.eContents())
+                precompute(child);
+            return;
+        }
+        foldable.setConstantValue(evaluate(evaluable, TracingMode.OFF));
+        foldable.setTracedConstantValue(evaluate(evaluable, TracingMode.FULL));
+    }
+
+    private static Val evaluate(Evaluable evaluable, TracingMode tracingMode) {
+        var value = new AtomicReference<Val>();
+        evaluable.evaluate().contextWrite(ctx -> AuthorizationContext.setTracingMode(ctx, tracingMode)).take(1)
+                .subscribe(value::set, error -> value.set(null));
+        return value.get();
+    }
+
+    private static boolean isConstantIfChildrenAreConstant(EObject node) {
+        return node instanceof StringLiteral || node instanceof NumberLiteral || node instanceof TrueLiteral
+                || node instanceof FalseLiteral || node instanceof NullLiteral || node instanceof UndefinedLiteral
+                || node instanceof Array || node instanceof io.sapl.grammar.sapl.Object || node instanceof Pair
+                || node instanceof BasicValue || node instanceof BasicGroup || node instanceof BinaryOperator
+                || node instanceof UnaryOperator || isSelectionStep(node);
+    }
+
+    private static boolean isSelectionStep(EObject node) {
+        return node instanceof KeyStep || node instanceof EscapedKeyStep || node instanceof WildcardStep
+                || node instanceof IndexStep || node instanceof ArraySlicingStep || node instanceof IndexUnionStep
+                || node instanceof AttributeUnionStep || node instanceof RecursiveKeyStep
+                || node instanceof RecursiveWildcardStep || node instanceof RecursiveIndexStep;
+    }
+
+}
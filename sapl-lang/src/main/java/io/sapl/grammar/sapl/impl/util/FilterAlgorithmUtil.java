@@ -18,13 +18,14 @@
 package io.sapl.grammar.sapl.impl.util;
 
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Map;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
 import com.fasterxml.jackson.databind.node.ArrayNode;
 
+import io.sapl.api.interpreter.ExpressionArgument;
+import io.sapl.api.interpreter.Trace;
+import io.sapl.api.interpreter.TracingMode;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.Arguments;
 import io.sapl.grammar.sapl.ConditionStep;
@@ -47,126 +48,162 @@ public class FilterAlgorithmUtil {
 
     public static Flux<Val> applyFilter(@NonNull Val unfilteredValue, int stepId, Supplier<Flux<Val>> selector,
             @NonNull FilterStatement statement, Class<?> operationType) {
+        return Flux.deferContextual(ctx -> applyFilter(AuthorizationContext.getTracingMode(ctx), unfilteredValue,
+                stepId, selector, statement, operationType));
+    }
+
+    private static Flux<Val> applyFilter(TracingMode tracingMode, Val unfilteredValue, int stepId,
+            Supplier<Flux<Val>> selector, FilterStatement statement, Class<?> operationType) {
         if (unfilteredValue.isError()) {
-            return Flux.just(unfilteredValue.withParentTrace(ConditionStep.class, true, unfilteredValue));
+            return Flux.just(unfilteredValue.withParentTrace(tracingMode, ConditionStep.class, true, unfilteredValue));
         }
         if (unfilteredValue.isArray()) {
-            return applyFilterOnArray(unfilteredValue, stepId, selector, statement, operationType);
+            return applyFilterOnArray(tracingMode, unfilteredValue, stepId, selector, statement, operationType);
         }
         if (unfilteredValue.isObject()) {
-            return applyFilterOnObject(unfilteredValue, stepId, selector, statement, operationType);
+            return applyFilterOnObject(tracingMode, unfilteredValue, stepId, selector, statement, operationType);
         }
-        return Flux
-                .just(unfilteredValue.withTrace(ConditionStep.class, true, Map.of(UNFILTERED_VALUE, unfilteredValue)));
+        return Flux.just(unfilteredValue.withTrace(tracingMode, ConditionStep.class, true, UNFILTERED_VALUE,
+                unfilteredValue));
     }
 
     public static Flux<Val> applyFilterOnArray(Val unfilteredValue, int stepId, Supplier<Flux<Val>> selector,
             FilterStatement statement, Class<?> operationType) {
+        return Flux.deferContextual(ctx -> applyFilterOnArray(AuthorizationContext.getTracingMode(ctx),
+                unfilteredValue, stepId, selector, statement, operationType));
+    }
+
+    private static Flux<Val> applyFilterOnArray(TracingMode tracingMode, Val unfilteredValue, int stepId,
+            Supplier<Flux<Val>> selector, FilterStatement statement, Class<?> operationType) {
         if (!unfilteredValue.isArray()) {
-            return Flux.just(
-                    unfilteredValue.withTrace(ConditionStep.class, true, Map.of(UNFILTERED_VALUE, unfilteredValue)));
+            return Flux.just(unfilteredValue.withTrace(tracingMode, ConditionStep.class, true, UNFILTERED_VALUE,
+                    unfilteredValue));
         }
         var array = unfilteredValue.getArrayNode();
         if (array.isEmpty()) {
-            return Flux.just(unfilteredValue.withTrace(operationType, true, Map.of(UNFILTERED_VALUE, unfilteredValue)));
+            return Flux.just(
+                    unfilteredValue.withTrace(tracingMode, operationType, true, UNFILTERED_VALUE, unfilteredValue));
         }
         var elementFluxes = new ArrayList<Flux<Val>>(array.size());
         var iter          = array.elements();
         var elementCount  = 0;
         while (iter.hasNext()) {
             var element       = iter.next();
-            var elementValue  = Val.of(element).withTrace(operationType, true, Map.of("from", unfilteredValue));
+            var elementValue  = Val.of(element).withTrace(tracingMode, operationType, true, "from", unfilteredValue);
             var index         = elementCount++;
             var conditions    = selector.get()
                     .contextWrite(ctx -> AuthorizationContext.setRelativeNodeWithIndex(ctx, elementValue, index));
-            var moddedElement = conditions.concatMap(
-                    applyFilterIfConditionMet(elementValue, unfilteredValue, stepId, statement, "[" + index + "]"));
+            var moddedElement = conditions.concatMap(applyFilterIfConditionMet(tracingMode, elementValue,
+                    unfilteredValue, stepId, statement, "[" + index + "]"));
             elementFluxes.add(moddedElement);
         }
-        return Flux.combineLatest(elementFluxes, RepackageUtil::recombineArray);
+        return Flux.combineLatest(elementFluxes, elements -> RepackageUtil.recombineArray(tracingMode, elements));
     }
 
     public static Flux<Val> applyFilterOnObject(Val unfilteredValue, int stepId, Supplier<Flux<Val>> selector,
             FilterStatement statement, Class<?> operationType) {
-        if (!unfilteredValue.isObject()) {
-            return Flux.just(
-                    unfilteredValue.withTrace(ConditionStep.class, true, Map.of(UNFILTERED_VALUE, unfilteredValue)));
-        }
-        var object = unfilteredValue.getObjectNode();
-        if (object.isEmpty()) {
-            return Flux.just(
-                    unfilteredValue.withTrace(ConditionStep.class, true, Map.of(UNFILTERED_VALUE, unfilteredValue)));
+        return Flux.deferContextual(ctx -> applyFilterOnObject(AuthorizationContext.getTracingMode(ctx),
+                unfilteredValue, stepId, selector, statement, operationType));
+    }
+
+    private static Flux<Val> applyFilterOnObject(TracingMode tracingMode, Val unfilteredValue, int stepId,
+            Supplier<Flux<Val>> selector, FilterStatement statement, Class<?> operationType) {
+        if (!unfilteredValue.isObject() || unfilteredValue.getObjectNode().isEmpty()) {
+            return Flux.just(unfilteredValue.withTrace(tracingMode, ConditionStep.class, true, UNFILTERED_VALUE,
+                    unfilteredValue));
         }
+        var object      = unfilteredValue.getObjectNode();
         var fieldFluxes = new ArrayList<Flux<Tuple2<String, Val>>>(object.size());
         var iter        = object.fields();
         while (iter.hasNext()) {
             var field          = iter.next();
             var key            = field.getKey();
-            var originalValue  = Val.of(field.getValue()).withTrace(operationType, true,
-                    Map.of("from", unfilteredValue));
+            var originalValue  = Val.of(field.getValue()).withTrace(tracingMode, operationType, true, "from",
+                    unfilteredValue);
             var conditions     = selector.get()
                     .contextWrite(ctx -> AuthorizationContext.setRelativeNodeWithKey(ctx, originalValue, key));
-            var filteredFields = conditions
-                    .concatMap(applyFilterIfConditionMet(originalValue, unfilteredValue, stepId, statement, key));
+            var filteredFields = conditions.concatMap(
+                    applyFilterIfConditionMet(tracingMode, originalValue, unfilteredValue, stepId, statement, key));
             var keyValuePairs  = filteredFields.map(filteredField -> Tuples.of(key, filteredField));
             fieldFluxes.add(keyValuePairs);
         }
-        return Flux.combineLatest(fieldFluxes, RepackageUtil::recombineObject);
+        return Flux.combineLatest(fieldFluxes, fields -> RepackageUtil.recombineObject(tracingMode, fields));
     }
 
-    private static Function<Val, Flux<Val>> applyFilterIfConditionMet(Val elementValue, Val unfilteredValue, int stepId,
-            FilterStatement statement, String elementIdentifier) {
+    private static Function<Val, Flux<Val>> applyFilterIfConditionMet(TracingMode tracingMode, Val elementValue,
+            Val unfilteredValue, int stepId, FilterStatement statement, String elementIdentifier) {
         return conditionResult -> {
-            var trace = Map.<String, Val>of(UNFILTERED_VALUE, unfilteredValue, "conditionResult", conditionResult,
-                    elementIdentifier, elementValue);
             if (conditionResult.isError()) {
-                return Flux.just(conditionResult.withTrace(ConditionStep.class, true, trace));
+                return Flux.just(conditionTraced(tracingMode, conditionResult, unfilteredValue, conditionResult,
+                        elementIdentifier, elementValue));
             }
             if (!conditionResult.isBoolean()) {
-                return Flux.just(Val.error(TYPE_MISMATCH_CONDITION_NOT_BOOLEAN_S, conditionResult)
-                        .withTrace(ConditionStep.class, true, trace));
+                return Flux.just(conditionTraced(tracingMode,
+                        Val.error(TYPE_MISMATCH_CONDITION_NOT_BOOLEAN_S, conditionResult), unfilteredValue,
+                        conditionResult, elementIdentifier, elementValue));
             }
             if (conditionResult.getBoolean()) {
-                var elementValueTraced = elementValue.withTrace(ConditionStep.class, true, trace);
+                var elementValueTraced = conditionTraced(tracingMode, elementValue, unfilteredValue, conditionResult,
+                        elementIdentifier, elementValue);
                 if (stepId == statement.getTarget().getSteps().size() - 1) {
                     // this was the final step. apply filter
-                    return applyFilterFunction(elementValueTraced, statement.getArguments(), statement.getFsteps(),
-                            statement.isEach())
+                    return applyFilterFunction(tracingMode, elementValueTraced, statement.getArguments(),
+                            statement.getFsteps(), statement.isEach())
                             .contextWrite(ctx -> AuthorizationContext.setRelativeNode(ctx,
-                                    unfilteredValue.withTrace(ConditionStep.class, true, trace)));
+                                    conditionTraced(tracingMode, unfilteredValue, unfilteredValue, conditionResult,
+                                            elementIdentifier, elementValue)));
                 } else {
                     // there are more steps. descent with them
                     return statement.getTarget().getSteps().get(stepId + 1).applyFilterStatement(elementValueTraced,
                             stepId + 1, statement);
                 }
             } else {
-                return Flux.just(elementValue.withTrace(ConditionStep.class, true, trace));
+                return Flux.just(conditionTraced(tracingMode, elementValue, unfilteredValue, conditionResult,
+                        elementIdentifier, elementValue));
             }
         };
     }
 
+    private static Val conditionTraced(TracingMode tracingMode, Val value, Val unfilteredValue, Val conditionResult,
+            String elementIdentifier, Val elementValue) {
+        if (tracingMode == TracingMode.OFF) {
+            var secret = unfilteredValue.isSecret() || conditionResult.isSecret() || elementValue.isSecret();
+            return secret ? value.asSecret() : value;
+        }
+        return value.withTrace(tracingMode, ConditionStep.class, true,
+                new ExpressionArgument(UNFILTERED_VALUE, unfilteredValue),
+                new ExpressionArgument("conditionResult", conditionResult),
+                new ExpressionArgument(elementIdentifier, elementValue));
+    }
+
     public static Flux<Val> applyFilterFunction(Val unfilteredValue, Arguments arguments, Iterable<String> fsteps,
             boolean each) {
+        return Flux.deferContextual(ctx -> applyFilterFunction(AuthorizationContext.getTracingMode(ctx),
+                unfilteredValue, arguments, fsteps, each));
+    }
+
+    private static Flux<Val> applyFilterFunction(TracingMode tracingMode, Val unfilteredValue, Arguments arguments,
+            Iterable<String> fsteps, boolean each) {
         if (unfilteredValue.isError()) {
-            return Flux.just(unfilteredValue.withTrace(FilterComponent.class, true, unfilteredValue));
+            return Flux.just(unfilteredValue.withTrace(tracingMode, FilterComponent.class, true, unfilteredValue));
         }
         if (unfilteredValue.isUndefined()) {
-            return Flux.just(Val.error(TYPE_MISMATCH_UNFILTERED_UNDEFINED).withTrace(FilterComponent.class, true,
-                    unfilteredValue));
+            return Flux.just(Val.error(TYPE_MISMATCH_UNFILTERED_UNDEFINED).withTrace(tracingMode,
+                    FilterComponent.class, true, unfilteredValue));
         }
 
         if (!each) {
             return FunctionUtil.combineArgumentFluxes(arguments)
                     .concatMap(parameters -> FunctionUtil.evaluateFunctionWithLeftHandArgumentMono(fsteps,
                             unfilteredValue, parameters))
-                    .map(val -> val.withTrace(FilterComponent.class, true,
-                            Map.of(UNFILTERED_VALUE, unfilteredValue, "filterResult", val)));
+                    .map(val -> val.withTrace(tracingMode, FilterComponent.class, true, UNFILTERED_VALUE,
+                            unfilteredValue, "filterResult", val));
         }
 
         // "|- each" may only be applied to arrays
         if (!unfilteredValue.isArray()) {
             return Flux.just(Val.error(TYPE_MISMATCH_EACH_ON_NON_ARRAY + unfilteredValue.getValType())
-                    .withTrace(FilterComponent.class, true, unfilteredValue));
+                    .withTrace(tracingMode, FilterComponent.class, true, unfilteredValue));
         }
 
         var rootArray      = (ArrayNode) unfilteredValue.get();
@@ -175,14 +212,20 @@ public static Flux<Val> applyFilterFunction(Val unfilteredValue, Arguments argum
             var elementsEvaluations = new ArrayList<Mono<Val>>(rootArray.size());
             var index               = 0;
             for (var element : rootArray) {
-                var elementVal = Val.of(element).withTrace(FilterComponent.class, true,
-                        Map.of(UNFILTERED_VALUE, unfilteredValue, "index", Val.of(index++)));
+                var elementVal = eachElementTraced(tracingMode, Val.of(element), unfilteredValue, index++);
                 elementsEvaluations
                         .add(FunctionUtil.evaluateFunctionWithLeftHandArgumentMono(fsteps, elementVal, parameters));
             }
-            return Flux.combineLatest(elementsEvaluations, e -> Arrays.copyOf(e, e.length, Val[].class))
-                    .map(RepackageUtil::recombineArray);
+            return Flux.combineLatest(elementsEvaluations,
+                    elements -> RepackageUtil.recombineArray(tracingMode, elements));
         });
     }
 
+    private static Val eachElementTraced(TracingMode tracingMode, Val element, Val unfilteredValue, int index) {
+        if (tracingMode == TracingMode.OFF)
+            return unfilteredValue.isSecret() ? element.asSecret() : element;
+        return element.withTrace(tracingMode, FilterComponent.class, true, UNFILTERED_VALUE, unfilteredValue,
+                Trace.INDEX, Val.of(index));
+    }
+
 }
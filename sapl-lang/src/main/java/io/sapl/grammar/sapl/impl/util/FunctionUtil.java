@@ -29,6 +29,7 @@
 import lombok.experimental.UtilityClass;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
 
 @UtilityClass
 public class FunctionUtil {
@@ -40,6 +41,17 @@ public Flux<Val[]> combineArgumentFluxes(Arguments arguments) {
         return combine(argumentFluxes(arguments));
     }
 
+    public Val[] evaluateArgumentsSynchronously(Arguments arguments, ContextView ctx) {
+        if (arguments == null || arguments.getArgs().isEmpty())
+            return new Val[0];
+
+        var args       = arguments.getArgs();
+        var parameters = new Val[args.size()];
+        for (var i = 0; i < parameters.length; i++)
+            parameters[i] = SynchronousEvaluation.evaluate(args.get(i), ctx);
+        return parameters;
+    }
+
     public String resolveAbsoluteFunctionName(Iterable<String> steps, Map<String, String> imports) {
         var functionName = mergeStepsToName(steps);
         return imports.getOrDefault(functionName, functionName);
@@ -49,12 +61,24 @@ public String resolveAbsoluteFunctionName(String unresolvedFunctionName, Map<Str
         return imports.getOrDefault(unresolvedFunctionName, unresolvedFunctionName);
     }
 
+    public Mono<Val> evaluateFunctionMono(QualifiedNameCache functionName, Iterable<String> fsteps,
+            Val... parameters) {
+        return Mono.deferContextual(ctx -> Mono.just(evaluateFunction(functionName, fsteps, ctx, parameters)));
+    }
+
+    public Val evaluateFunction(QualifiedNameCache functionName, Iterable<String> fsteps, ContextView ctx,
+            Val... parameters) {
+        return AuthorizationContext.functionContext(ctx).evaluate(AuthorizationContext.getTracingMode(ctx),
+                functionName.resolve(fsteps, AuthorizationContext.getImports(ctx)), parameters);
+    }
+
     public Mono<Val> evaluateFunctionMono(Iterable<String> fsteps, Val... parameters) {
         return evaluateFunctionMono(mergeStepsToName(fsteps), parameters);
     }
 
     public Mono<Val> evaluateFunctionMono(String unresolvedFunctionName, Val... parameters) {
         return Mono.deferContextual(ctx -> Mono.just(AuthorizationContext.functionContext(ctx).evaluate(
+                AuthorizationContext.getTracingMode(ctx),
                 resolveAbsoluteFunctionName(unresolvedFunctionName, AuthorizationContext.getImports(ctx)),
                 parameters)));
     }
@@ -68,7 +92,7 @@ public Mono<Val> evaluateFunctionWithLeftHandArgumentMono(Iterable<String> fstep
     }
 
     private Stream<Flux<Val>> argumentFluxes(Arguments arguments) {
-        return arguments.getArgs().stream().map(Expression::evaluate);
+        return arguments.getArgs().stream().map(SynchronousEvaluation::evaluate);
     }
 
     private Flux<Val[]> combine(Stream<Flux<Val>> argumentFluxes) {
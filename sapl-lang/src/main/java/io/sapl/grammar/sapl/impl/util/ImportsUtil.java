@@ -27,6 +27,7 @@
 import io.sapl.grammar.sapl.LibraryImport;
 import io.sapl.grammar.sapl.SAPL;
 import io.sapl.grammar.sapl.WildcardImport;
+import io.sapl.grammar.sapl.impl.SAPLImplCustom;
 import io.sapl.interpreter.context.AuthorizationContext;
 import io.sapl.interpreter.functions.FunctionContext;
 import io.sapl.interpreter.pip.AttributeContext;
@@ -52,6 +53,9 @@ private static Map<String, String> fetchImportsFromParents(EObject startNode, At
         if (startNode == null)
             return Map.of();
 
+        if (startNode instanceof SAPLImplCustom sapl)
+            return sapl.resolveImports(attributeContext, functionContext);
+
         if (startNode instanceof SAPL sapl)
             return fetchImports(sapl, attributeContext, functionContext);
 
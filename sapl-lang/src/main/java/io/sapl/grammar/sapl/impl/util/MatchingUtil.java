@@ -22,6 +22,7 @@
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.Expression;
 import io.sapl.grammar.sapl.PolicyElement;
+import io.sapl.interpreter.context.AuthorizationContext;
 import lombok.experimental.UtilityClass;
 import reactor.core.publisher.Mono;
 
@@ -42,12 +43,14 @@ public static Mono<Val> matches(Expression targetExpression, EObject startObject
             return Mono.just(Val.TRUE);
         }
 
-        return targetExpression.evaluate().contextWrite(ctx -> ImportsUtil.loadImportsIntoContext(startObject, ctx))
+        return SynchronousEvaluation.evaluate(targetExpression)
+                .contextWrite(ctx -> ImportsUtil.loadImportsIntoContext(startObject, ctx))
                 .onErrorResume(error -> Mono.just(Val.error(error))).next().defaultIfEmpty(Val.FALSE)
                 .flatMap(result -> {
                     if (result.isError() || !result.isBoolean()) {
-                        return Mono.just(Val.error(CONDITION_NOT_BOOLEAN_ERROR, result).withTrace(PolicyElement.class,
-                                false, result));
+                        return Mono.deferContextual(ctx -> Mono.just(Val.error(CONDITION_NOT_BOOLEAN_ERROR, result)
+                                .withTrace(AuthorizationContext.getTracingMode(ctx), PolicyElement.class, false,
+                                        result)));
                     }
                     return Mono.just(result);
                 });
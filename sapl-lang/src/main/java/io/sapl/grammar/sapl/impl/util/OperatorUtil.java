@@ -17,65 +17,143 @@
  */
 package io.sapl.grammar.sapl.impl.util;
 
+import org.eclipse.emf.ecore.EObject;
+
+import io.sapl.api.interpreter.TracingMode;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.BinaryOperator;
 import io.sapl.grammar.sapl.UnaryOperator;
+import io.sapl.interpreter.context.AuthorizationContext;
 import lombok.experimental.UtilityClass;
 import reactor.core.publisher.Flux;
+import reactor.util.context.ContextView;
 
+/**
+ * Evaluates operators. The transformations receive the tracing mode of the
+ * evaluation, so that they only trace their operands if tracing is enabled.
+ */
 @UtilityClass
 public class OperatorUtil {
 
+    /**
+     * Transformation of the operands of a binary operator.
+     */
+    @FunctionalInterface
+    public interface TracedBinaryOperator {
+        Val apply(TracingMode tracingMode, Val left, Val right);
+    }
+
+    /**
+     * Transformation of the operand of a unary operator.
+     */
+    @FunctionalInterface
+    public interface TracedUnaryOperator {
+        Val apply(TracingMode tracingMode, Val value);
+    }
+
     public static Flux<Val> operator(BinaryOperator operator, java.util.function.UnaryOperator<Val> leftTypeRequirement,
-            java.util.function.UnaryOperator<Val> rightTypeRequirement,
-            java.util.function.BinaryOperator<Val> transformation) {
-        var left  = operator.getLeft().evaluate().map(leftTypeRequirement);
-        var right = operator.getRight().evaluate().map(rightTypeRequirement);
-        return Flux.combineLatest(left, right, errorOrDo(transformation));
+            java.util.function.UnaryOperator<Val> rightTypeRequirement, TracedBinaryOperator transformation) {
+        if (ConstantFolding.constantValue(operator) != null)
+            return foldedValue(operator);
+        var left  = SynchronousEvaluation.evaluate(operator.getLeft()).map(leftTypeRequirement);
+        var right = SynchronousEvaluation.evaluate(operator.getRight()).map(rightTypeRequirement);
+        return Flux.deferContextual(ctx -> Flux.combineLatest(left, right,
+                errorOrDo(AuthorizationContext.getTracingMode(ctx), transformation)));
     }
 
-    public static Flux<Val> arithmeticOperator(BinaryOperator operator,
-            java.util.function.BinaryOperator<Val> transformation) {
+    public static Flux<Val> arithmeticOperator(BinaryOperator operator, TracedBinaryOperator transformation) {
         return operator(operator, Val::requireBigDecimal, Val::requireBigDecimal, transformation);
     }
 
-    public static Flux<Val> arithmeticOperator(UnaryOperator unaryOperator,
-            java.util.function.UnaryOperator<Val> transformation) {
+    public static Flux<Val> arithmeticOperator(UnaryOperator unaryOperator, TracedUnaryOperator transformation) {
         return operator(unaryOperator, Val::requireBigDecimal, transformation);
     }
 
-    public static Flux<Val> booleanOperator(BinaryOperator operator,
-            java.util.function.BinaryOperator<Val> transformation) {
+    public static Flux<Val> booleanOperator(BinaryOperator operator, TracedBinaryOperator transformation) {
         return operator(operator, Val::requireBoolean, Val::requireBoolean, transformation);
     }
 
-    public static Flux<Val> operator(BinaryOperator operator, java.util.function.BinaryOperator<Val> transformation) {
+    public static Flux<Val> operator(BinaryOperator operator, TracedBinaryOperator transformation) {
         return operator(operator, java.util.function.UnaryOperator.identity(),
                 java.util.function.UnaryOperator.identity(), transformation);
     }
 
     public static Flux<Val> operator(UnaryOperator unaryOperator, java.util.function.UnaryOperator<Val> typeRequirement,
-            java.util.function.UnaryOperator<Val> transformation) {
-        return unaryOperator.getExpression().evaluate().map(typeRequirement).map(errorOrDo(transformation));
+            TracedUnaryOperator transformation) {
+        if (ConstantFolding.constantValue(unaryOperator) != null)
+            return foldedValue(unaryOperator);
+        var values = SynchronousEvaluation.evaluate(unaryOperator.getExpression()).map(typeRequirement);
+        return Flux.deferContextual(
+                ctx -> values.map(errorOrDo(AuthorizationContext.getTracingMode(ctx), transformation)));
+    }
+
+    public static Val operator(BinaryOperator operator, ContextView ctx,
+            java.util.function.UnaryOperator<Val> leftTypeRequirement,
+            java.util.function.UnaryOperator<Val> rightTypeRequirement, TracedBinaryOperator transformation) {
+        var constant = ConstantFolding.constantValue(operator, AuthorizationContext.getTracingMode(ctx));
+        if (constant != null)
+            return constant;
+        var left  = leftTypeRequirement.apply(SynchronousEvaluation.evaluate(operator.getLeft(), ctx));
+        var right = rightTypeRequirement.apply(SynchronousEvaluation.evaluate(operator.getRight(), ctx));
+        if (left.isError())
+            return left;
+        if (right.isError())
+            return right;
+        return transformation.apply(AuthorizationContext.getTracingMode(ctx), left, right);
+    }
+
+    public static Val arithmeticOperator(BinaryOperator operator, ContextView ctx,
+            TracedBinaryOperator transformation) {
+        return operator(operator, ctx, Val::requireBigDecimal, Val::requireBigDecimal, transformation);
+    }
+
+    public static Val arithmeticOperator(UnaryOperator unaryOperator, ContextView ctx,
+            TracedUnaryOperator transformation) {
+        return operator(unaryOperator, ctx, Val::requireBigDecimal, transformation);
+    }
+
+    public static Val booleanOperator(BinaryOperator operator, ContextView ctx, TracedBinaryOperator transformation) {
+        return operator(operator, ctx, Val::requireBoolean, Val::requireBoolean, transformation);
+    }
+
+    public static Val operator(BinaryOperator operator, ContextView ctx, TracedBinaryOperator transformation) {
+        return operator(operator, ctx, java.util.function.UnaryOperator.identity(),
+                java.util.function.UnaryOperator.identity(), transformation);
+    }
+
+    public static Val operator(UnaryOperator unaryOperator, ContextView ctx,
+            java.util.function.UnaryOperator<Val> typeRequirement, TracedUnaryOperator transformation) {
+        var constant = ConstantFolding.constantValue(unaryOperator, AuthorizationContext.getTracingMode(ctx));
+        if (constant != null)
+            return constant;
+        var value = typeRequirement.apply(SynchronousEvaluation.evaluate(unaryOperator.getExpression(), ctx));
+        if (value.isError())
+            return value;
+        return transformation.apply(AuthorizationContext.getTracingMode(ctx), value);
+    }
+
+    private static Flux<Val> foldedValue(EObject operator) {
+        return Flux.deferContextual(
+                ctx -> Flux.just(ConstantFolding.constantValue(operator, AuthorizationContext.getTracingMode(ctx))));
     }
 
-    public static java.util.function.BinaryOperator<Val> errorOrDo(
-            java.util.function.BinaryOperator<Val> transformation) {
+    private static java.util.function.BinaryOperator<Val> errorOrDo(TracingMode tracingMode,
+            TracedBinaryOperator transformation) {
         return (left, right) -> {
             if (left.isError())
                 return left;
             if (right.isError())
                 return right;
-            return transformation.apply(left, right);
+            return transformation.apply(tracingMode, left, right);
         };
     }
 
-    public static java.util.function.UnaryOperator<Val> errorOrDo(
-            java.util.function.UnaryOperator<Val> transformation) {
+    private static java.util.function.UnaryOperator<Val> errorOrDo(TracingMode tracingMode,
+            TracedUnaryOperator transformation) {
         return value -> {
             if (value.isError())
                 return value;
-            return transformation.apply(value);
+            return transformation.apply(tracingMode, value);
         };
     }
 
@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.grammar.sapl.impl.util;
+
+import java.util.Map;
+
+/**
+ * Remembers the fully qualified name of a function or attribute reference in a
+ * document. The imports of a document are resolved once per function and
+ * attribute context, see {@link ImportsUtil}. Thus, as long as a reference is
+ * evaluated with the same imports, its name is resolved only once instead of
+ * for every value.
+ */
+public class QualifiedNameCache {
+
+    private record Resolution(Map<String, String> imports, String name) {}
+
+    private volatile Resolution resolution;
+
+    /**
+     * @param steps   the steps of the name as written in the document
+     * @param imports the imports of the document
+     * @return the fully qualified name
+     */
+    public String resolve(Iterable<String> steps, Map<String, String> imports) {
+        var current = resolution;
+        if (current != null && current.imports() == imports)
+            return current.name();
+        var name = FunctionUtil.resolveAbsoluteFunctionName(steps, imports);
+        resolution = new Resolution(imports, name);
+        return name;
+    }
+
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.grammar.sapl.impl.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.eclipse.emf.ecore.EObject;
+
+import io.sapl.grammar.sapl.impl.RegexImplCustom;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Compiles and matches regular expressions for the regex operator and function
+ * libraries.
+ * <p>
+ * Compiled patterns are kept in a bounded cache shared by all users. Its size
+ * is set by the system property {@value #CACHE_SIZE_PROPERTY}. The cache is
+ * split into segments, each guarded by its own lock and evicting its least
+ * recently used pattern once full. Patterns are compiled outside of the locks.
+ * <p>
+ * Matching is aborted with a {@link MatchTimeoutException} if it takes longer
+ * than the number of milliseconds set by the system property
+ * {@value #MATCH_TIMEOUT_PROPERTY}, to protect the PDP against catastrophic
+ * backtracking. A value of 0 disables the timeout.
+ */
+@UtilityClass
+public class RegexUtil {
+
+    public static final String CACHE_SIZE_PROPERTY    = "io.sapl.regex.cache-size";
+    public static final String MATCH_TIMEOUT_PROPERTY = "io.sapl.regex.match-timeout-ms";
+
+    private static final int  DEFAULT_CACHE_SIZE       = 1024;
+    private static final long DEFAULT_MATCH_TIMEOUT_MS = 1000L;
+
+    static final int          CACHE_SIZE             = Integer.getInteger(CACHE_SIZE_PROPERTY,
+            DEFAULT_CACHE_SIZE);
+    private static final long MATCH_TIMEOUT_NANOS    = TimeUnit.MILLISECONDS
+            .toNanos(Long.getLong(MATCH_TIMEOUT_PROPERTY, DEFAULT_MATCH_TIMEOUT_MS));
+    private static final int  CHECKS_PER_CLOCK_QUERY = 1024;
+    private static final int  MAX_CACHE_SEGMENTS     = 16;
+
+    private static final PatternCacheSegment[] SEGMENTS = createSegments();
+
+    /**
+     * Indicates that matching a regular expression took longer than permitted.
+     */
+    public static class MatchTimeoutException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        MatchTimeoutException() {
+            super("Matching the regular expression timed out.");
+        }
+
+    }
+
+    /**
+     * Returns the compiled pattern of the regular expression, compiling it only
+     * if it is not present in the cache.
+     *
+     * @param regex a regular expression
+     * @return the compiled pattern
+     * @throws PatternSyntaxException if the expression's syntax is invalid
+     */
+    public static Pattern compile(String regex) {
+        var segment = segmentOf(regex);
+        var pattern = segment.get(regex);
+        if (pattern != null)
+            return pattern;
+        return segment.putIfAbsent(regex, Pattern.compile(regex));
+    }
+
+    /**
+     * Compiles the constant patterns of all regex operators in the tree below
+     * the given node.
+     *
+     * @param root the root of a parsed document
+     */
+    public static void compileLiteralPatterns(EObject root) {
+        var contents = root.eAllContents();
+        while (contents.hasNext()) {
+            if (contents.next() instanceof RegexImplCustom regex)
+                regex.compileLiteralPattern();
+        }
+    }
+
+    static int numberOfCachedPatterns() {
+        var size = 0;
+        for (var segment : SEGMENTS)
+            size += segment.size();
+        return size;
+    }
+
+    private static PatternCacheSegment segmentOf(String regex) {
+        var hash = regex.hashCode();
+        return SEGMENTS[((hash ^ (hash >>> 16)) & Integer.MAX_VALUE) % SEGMENTS.length];
+    }
+
+    private static PatternCacheSegment[] createSegments() {
+        var numberOfSegments = Math.max(1, Math.min(MAX_CACHE_SEGMENTS, CACHE_SIZE));
+        var segmentCapacity  = Math.max(1, CACHE_SIZE / numberOfSegments);
+        var segments         = new PatternCacheSegment[numberOfSegments];
+        for (var i = 0; i < numberOfSegments; i++)
+            segments[i] = new PatternCacheSegment(segmentCapacity);
+        return segments;
+    }
+
+    /**
+     * Matches the entire input against the pattern.
+     *
+     * @param pattern a compiled pattern
+     * @param input   the input to match
+     * @return true, if the input matches the pattern
+     * @throws MatchTimeoutException if matching exceeds the configured timeout
+     */
+    public static boolean matches(Pattern pattern, CharSequence input) {
+        if (MATCH_TIMEOUT_NANOS <= 0L)
+            return pattern.matcher(input).matches();
+        return pattern.matcher(new DeadlineCharSequence(input, System.nanoTime() + MATCH_TIMEOUT_NANOS)).matches();
+    }
+
+    /**
+     * Matches the entire input against the regular expression, using the cache
+     * of compiled patterns.
+     *
+     * @param regex a regular expression
+     * @param input the input to match
+     * @return true, if the input matches the regular expression
+     * @throws PatternSyntaxException if the expression's syntax is invalid
+     * @throws MatchTimeoutException  if matching exceeds the configured timeout
+     */
+    public static boolean matches(String regex, CharSequence input) {
+        return matches(compile(regex), input);
+    }
+
+    /**
+     * Part of the pattern cache holding at most capacity patterns in access
+     * order.
+     */
+    private static final class PatternCacheSegment {
+
+        private final Map<String, Pattern> patterns;
+
+        PatternCacheSegment(int capacity) {
+            patterns = new LinkedHashMap<>(16, 0.75F, true) {
+
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Pattern> eldest) {
+                    return size() > capacity;
+                }
+
+            };
+        }
+
+        synchronized Pattern get(String regex) {
+            return patterns.get(regex);
+        }
+
+        synchronized Pattern putIfAbsent(String regex, Pattern pattern) {
+            var cached = patterns.putIfAbsent(regex, pattern);
+            return cached != null ? cached : pattern;
+        }
+
+        synchronized int size() {
+            return patterns.size();
+        }
+
+    }
+
+    /**
+     * The regex engine reads its input exclusively via charAt. Checking the clock
+     * there periodically aborts runaway backtracking, which is impossible to
+     * interrupt otherwise.
+     */
+    private static final class DeadlineCharSequence implements CharSequence {
+
+        private final CharSequence delegate;
+        private final long         deadline;
+        private int                checksUntilClockQuery = CHECKS_PER_CLOCK_QUERY;
+
+        DeadlineCharSequence(CharSequence delegate, long deadline) {
+            this.delegate = delegate;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (--checksUntilClockQuery == 0) {
+                checksUntilClockQuery = CHECKS_PER_CLOCK_QUERY;
+                if (System.nanoTime() - deadline > 0L)
+                    throw new MatchTimeoutException();
+            }
+            return delegate.charAt(index);
+        }
+
+        @Override
+        public int length() {
+            return delegate.length();
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new DeadlineCharSequence(delegate.subSequence(start, end), deadline);
+        }
+
+        @Override
+        public String toString() {
+            return delegate.toString();
+        }
+
+    }
+
+}
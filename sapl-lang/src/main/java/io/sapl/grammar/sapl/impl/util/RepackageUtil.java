@@ -17,46 +17,77 @@
  */
 package io.sapl.grammar.sapl.impl.util;
 
+import java.util.List;
+
 import io.sapl.api.interpreter.ExpressionArgument;
+import io.sapl.api.interpreter.TracingMode;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.Array;
+import io.sapl.interpreter.context.AuthorizationContext;
 import lombok.experimental.UtilityClass;
+import reactor.core.publisher.Flux;
 import reactor.util.function.Tuple2;
 
 @UtilityClass
 public class RepackageUtil {
 
-    public Val recombineObject(Object[] oElements) {
-        var object         = Val.JSON.objectNode();
-        var tracedElements = new ExpressionArgument[oElements.length];
-        var elementCount   = 0;
-        Val error          = null;
-        for (var elem : oElements) {
+    /**
+     * Combines the latest values of the fields into an object, traced as selected
+     * by the tracing mode of the subscriber.
+     */
+    public Flux<Val> combineObject(List<Flux<Tuple2<String, Val>>> fieldFluxes) {
+        return Flux.deferContextual(ctx -> {
+            var tracingMode = AuthorizationContext.getTracingMode(ctx);
+            return Flux.combineLatest(fieldFluxes, fields -> recombineObject(tracingMode, fields));
+        });
+    }
+
+    /**
+     * Combines the latest values of the elements into an array, traced as selected
+     * by the tracing mode of the subscriber.
+     */
+    public Flux<Val> combineArray(List<Flux<Val>> elementFluxes) {
+        return Flux.deferContextual(ctx -> {
+            var tracingMode = AuthorizationContext.getTracingMode(ctx);
+            return Flux.combineLatest(elementFluxes, elements -> recombineArray(tracingMode, elements));
+        });
+    }
+
+    public Val recombineObject(TracingMode tracingMode, Object[] oElements) {
+        var object = Val.JSON.objectNode();
+        var values = new Val[oElements.length];
+        Val error  = null;
+        for (var i = 0; i < oElements.length; i++) {
             @SuppressWarnings("unchecked")
-            var element = (Tuple2<String, Val>) elem;
-            var key     = element.getT1();
+            var element = (Tuple2<String, Val>) oElements[i];
             var value   = element.getT2();
-            tracedElements[elementCount++] = new ExpressionArgument(key, value);
+            values[i] = value;
             if (value.isError() && error == null) {
                 error = value;
             } else if (value.isDefined()) { // drop undefined
-                object.set(element.getT1(), element.getT2().get());
+                object.set(element.getT1(), value.get());
             }
         }
-        if (error != null)
-            return error.withTrace(Object.class, true, tracedElements);
-        return Val.of(object).withTrace(Object.class, true, tracedElements);
-    }
+        var result = error != null ? error : Val.of(object);
+        if (tracingMode == TracingMode.OFF)
+            return result.withTrace(tracingMode, Object.class, true, values);
 
-    public Val recombineArray(Object[] oElements) {
-        var array          = Val.JSON.arrayNode();
         var tracedElements = new ExpressionArgument[oElements.length];
-        var elementCount   = 0;
-        Val error          = null;
-        for (var elem : oElements) {
-            var element = (Val) elem;
-            tracedElements[elementCount] = new ExpressionArgument("array[" + elementCount + "]", element);
-            elementCount++;
+        for (var i = 0; i < oElements.length; i++) {
+            @SuppressWarnings("unchecked")
+            var element = (Tuple2<String, Val>) oElements[i];
+            tracedElements[i] = new ExpressionArgument(element.getT1(), element.getT2());
+        }
+        return result.withTrace(tracingMode, Object.class, true, tracedElements);
+    }
+
+    public Val recombineArray(TracingMode tracingMode, Object[] oElements) {
+        var array    = Val.JSON.arrayNode();
+        var elements = new Val[oElements.length];
+        Val error    = null;
+        for (var i = 0; i < oElements.length; i++) {
+            var element = (Val) oElements[i];
+            elements[i] = element;
             if (element.isError() && error == null) {
                 error = element;
             }
@@ -65,9 +96,14 @@ public Val recombineArray(Object[] oElements) {
                 array.add(element.get());
             }
         }
-        if (error != null)
-            return error.withTrace(Array.class, true, tracedElements);
-        return Val.of(array).withTrace(Array.class, true, tracedElements);
+        var result = error != null ? error : Val.of(array);
+        if (tracingMode == TracingMode.OFF)
+            return result.withTrace(tracingMode, Array.class, true, elements);
+
+        var tracedElements = new ExpressionArgument[elements.length];
+        for (var i = 0; i < elements.length; i++)
+            tracedElements[i] = new ExpressionArgument("array[" + i + "]", elements[i]);
+        return result.withTrace(tracingMode, Array.class, true, tracedElements);
     }
 
 }
@@ -19,10 +19,10 @@
 
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Map;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
+import io.sapl.api.interpreter.TracingMode;
 import io.sapl.api.interpreter.Val;
 import io.sapl.interpreter.context.AuthorizationContext;
 import lombok.experimental.UtilityClass;
@@ -36,32 +36,44 @@ public class StepAlgorithmUtil {
 
     public Flux<Val> apply(Val parentValue, Supplier<Flux<Val>> selector, String stepParameters,
             Class<?> operationType) {
-        if (parentValue.isError()) {
-            return Flux.just(parentValue.withParentTrace(operationType, true, parentValue));
-        }
-        if (parentValue.isArray()) {
-            return applyOnArray(parentValue, selector, stepParameters, operationType);
-        }
-        if (parentValue.isObject()) {
-            return applyOnObject(parentValue, selector, stepParameters, operationType);
-        }
-        return Flux.just(Val.error(STEP_ACCESS_TYPE_MISMATCH, parentValue).withTrace(operationType, true, parentValue));
+        return Flux.deferContextual(ctx -> {
+            var tracingMode = AuthorizationContext.getTracingMode(ctx);
+            if (parentValue.isError())
+                return Flux.just(parentValue.withParentTrace(tracingMode, operationType, true, parentValue));
+            if (parentValue.isArray())
+                return applyOnArray(tracingMode, parentValue, selector, stepParameters, operationType);
+            if (parentValue.isObject())
+                return applyOnObject(tracingMode, parentValue, selector, stepParameters, operationType);
+            return Flux.just(Val.error(STEP_ACCESS_TYPE_MISMATCH, parentValue).withTrace(tracingMode, operationType,
+                    true, parentValue));
+        });
     }
 
     public static Flux<Val> applyOnArray(Val parentValue, Supplier<Flux<Val>> selector, String stepParameters,
             Class<?> operationType) {
+        return Flux.deferContextual(ctx -> applyOnArray(AuthorizationContext.getTracingMode(ctx), parentValue,
+                selector, stepParameters, operationType));
+    }
+
+    private static Flux<Val> applyOnArray(TracingMode tracingMode, Val parentValue, Supplier<Flux<Val>> selector,
+            String stepParameters, Class<?> operationType) {
         if (parentValue.isError()) {
-            return Flux.just(parentValue.withParentTrace(operationType, true, parentValue));
+            return Flux.just(parentValue.withParentTrace(tracingMode, operationType, true, parentValue));
         }
 
         if (!parentValue.isArray()) {
-            return Flux.just(Val.error(ARRAY_ACCESS_TYPE_MISMATCH, parentValue).withParentTrace(operationType, true,
-                    parentValue));
+            return Flux.just(Val.error(ARRAY_ACCESS_TYPE_MISMATCH, parentValue).withParentTrace(tracingMode,
+                    operationType, true, parentValue));
         }
 
         if (parentValue.isEmpty()) {
-            return Flux.just(Val.ofEmptyArray().withParentTrace(operationType, true, parentValue));
+            return Flux.just(Val.ofEmptyArray().withParentTrace(tracingMode, operationType, true, parentValue));
         }
+        return selectFromArray(parentValue, selector, stepParameters, operationType, tracingMode);
+    }
+
+    private static Flux<Val> selectFromArray(Val parentValue, Supplier<Flux<Val>> selector, String stepParameters,
+            Class<?> operationType, TracingMode tracingMode) {
         var array   = parentValue.getArrayNode();
         var results = new ArrayList<Flux<Val>>(array.size());
         for (int i = 0; i < array.size(); i++) {
@@ -69,29 +81,39 @@ public static Flux<Val> applyOnArray(Val parentValue, Supplier<Flux<Val>> select
             var elementValue    = Val.of(element);
             var index           = i;
             var condition       = selector.get().contextWrite(ctx -> AuthorizationContext.setRelativeNodeWithIndex(ctx,
-                    elementValue.withTrace(operationType, true, Map.of("from", parentValue)), index));
-            var selectedElement = condition.map(applySelectionToElement(elementValue, stepParameters, operationType,
-                    parentValue, "array[" + index + "]"));
+                    tracedFrom(tracingMode, elementValue, operationType, parentValue), index));
+            var selectedElement = condition.map(applySelectionToElement(tracingMode, elementValue, stepParameters,
+                    operationType, parentValue, "array[" + index + "]"));
             results.add(selectedElement);
         }
-        return Flux.combineLatest(results, RepackageUtil::recombineArray);
+        return Flux.combineLatest(results, elements -> RepackageUtil.recombineArray(tracingMode, elements));
     }
 
     public static Flux<Val> applyOnObject(Val parentValue, Supplier<Flux<Val>> selector, String stepParameters,
             Class<?> operationType) {
+        return Flux.deferContextual(ctx -> applyOnObject(AuthorizationContext.getTracingMode(ctx), parentValue,
+                selector, stepParameters, operationType));
+    }
+
+    private static Flux<Val> applyOnObject(TracingMode tracingMode, Val parentValue, Supplier<Flux<Val>> selector,
+            String stepParameters, Class<?> operationType) {
         if (parentValue.isError()) {
-            return Flux.just(parentValue.withParentTrace(operationType, true, parentValue));
+            return Flux.just(parentValue.withParentTrace(tracingMode, operationType, true, parentValue));
         }
 
         if (!parentValue.isObject()) {
-            return Flux.just(Val.error(OBJECT_ACCESS_TYPE_MISMATCH, parentValue).withParentTrace(operationType, true,
-                    parentValue));
+            return Flux.just(Val.error(OBJECT_ACCESS_TYPE_MISMATCH, parentValue).withParentTrace(tracingMode,
+                    operationType, true, parentValue));
         }
 
         if (parentValue.isEmpty()) {
-            return Flux.just(Val.ofEmptyArray().withParentTrace(operationType, true, parentValue));
+            return Flux.just(Val.ofEmptyArray().withParentTrace(tracingMode, operationType, true, parentValue));
         }
+        return selectFromObject(parentValue, selector, stepParameters, operationType, tracingMode);
+    }
 
+    private static Flux<Val> selectFromObject(Val parentValue, Supplier<Flux<Val>> selector, String stepParameters,
+            Class<?> operationType, TracingMode tracingMode) {
         var object  = parentValue.getObjectNode();
         var results = new ArrayList<Flux<Val>>(object.size());
         var fields  = object.fields();
@@ -100,31 +122,50 @@ public static Flux<Val> applyOnObject(Val parentValue, Supplier<Flux<Val>> selec
             var key       = field.getKey();
             var value     = Val.of(field.getValue());
             var condition = selector.get().contextWrite(ctx -> AuthorizationContext.setRelativeNodeWithKey(ctx,
-                    value.withTrace(operationType, true, Map.of("from", parentValue)), key));
+                    tracedFrom(tracingMode, value, operationType, parentValue), key));
             var selected  = condition
-                    .map(applySelectionToElement(value, stepParameters, operationType, parentValue, key));
+                    .map(applySelectionToElement(tracingMode, value, stepParameters, operationType, parentValue, key));
             results.add(selected);
         }
-        return Flux.combineLatest(results, RepackageUtil::recombineArray);
+        return Flux.combineLatest(results, elements -> RepackageUtil.recombineArray(tracingMode, elements));
     }
 
-    private static Function<Val, Val> applySelectionToElement(Val elementValue, String stepParameters,
-            Class<?> operationType, Val parentValue, String elementIdentifier) {
+    private static Function<Val, Val> applySelectionToElement(TracingMode tracingMode, Val elementValue,
+            String stepParameters, Class<?> operationType, Val parentValue, String elementIdentifier) {
         return conditionResult -> {
+            if (tracingMode == TracingMode.OFF)
+                return untracedSelection(elementValue, parentValue, conditionResult);
             var trace = new HashMap<String, Val>();
             trace.put("parentValue", parentValue);
             trace.put("stepParameters", Val.of(stepParameters));
-            trace.put(elementIdentifier, elementValue.withTrace(operationType, true, Map.of("from", parentValue)));
+            trace.put(elementIdentifier, tracedFrom(tracingMode, elementValue, operationType, parentValue));
             trace.put("conditionResult", conditionResult);
             if (conditionResult.isError()) {
-                return conditionResult.withTrace(operationType, true, trace);
+                return conditionResult.withTrace(tracingMode, operationType, true, trace);
             }
             if (conditionResult.isBoolean() && conditionResult.getBoolean()) {
-                return elementValue.withTrace(operationType, true, trace);
+                return elementValue.withTrace(tracingMode, operationType, true, trace);
             }
             // Treat non-boolean as FALSE
-            return Val.UNDEFINED.withTrace(operationType, true, trace);
+            return Val.UNDEFINED.withTrace(tracingMode, operationType, true, trace);
         };
     }
 
+    private static Val tracedFrom(TracingMode tracingMode, Val value, Class<?> operationType, Val parentValue) {
+        return value.withTrace(tracingMode, operationType, true, "from", parentValue);
+    }
+
+    private static Val untracedSelection(Val elementValue, Val parentValue, Val conditionResult) {
+        Val selection;
+        if (conditionResult.isError())
+            selection = conditionResult;
+        else if (conditionResult.isBoolean() && conditionResult.getBoolean())
+            selection = elementValue;
+        else
+            selection = Val.UNDEFINED;
+        if (parentValue.isSecret() || elementValue.isSecret() || conditionResult.isSecret())
+            return selection.asSecret();
+        return selection;
+    }
+
 }
@@ -0,0 +1,39 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.grammar.sapl.impl.util;
+
+import io.sapl.api.interpreter.Val;
+import reactor.util.context.ContextView;
+
+/**
+ * Implemented by expressions and values which can be evaluated directly,
+ * without building a reactive pipeline. This is only valid if no attribute is
+ * accessed in the expression, which is checked by
+ * {@link SynchronousEvaluation}.
+ */
+public interface SynchronousEvaluable {
+
+    /**
+     * Evaluates the expression once.
+     *
+     * @param ctx the evaluation context
+     * @return the value of the expression
+     */
+    Val evaluate(ContextView ctx);
+
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.grammar.sapl.impl.util;
+
+import java.util.ArrayList;
+
+import org.eclipse.emf.ecore.EObject;
+
+import io.sapl.api.interpreter.Val;
+import io.sapl.grammar.sapl.Arguments;
+import io.sapl.grammar.sapl.BasicExpression;
+import io.sapl.grammar.sapl.Evaluable;
+import io.sapl.grammar.sapl.Expression;
+import io.sapl.grammar.sapl.Pair;
+import lombok.experimental.UtilityClass;
+import reactor.core.publisher.Flux;
+import reactor.util.context.ContextView;
+
+/**
+ * Evaluates attribute-free expressions without a reactive pipeline per node.
+ * <p>
+ * An expression is synchronous if all of its nodes are
+ * {@link SynchronousEvaluable} or {@link SynchronousStep}, and it contains no
+ * filters or sub-templates. Such an expression cannot access attributes, so it
+ * emits exactly one value per evaluation. When a document is parsed, the
+ * maximal synchronous expressions are marked, see {@link SynchronousExpression}.
+ * Where an expression is evaluated, e.g., in a policy body or as an operand of
+ * an operator depending on an attribute, a marked expression is evaluated
+ * directly and wrapped in a single {@link Flux}.
+ */
+@UtilityClass
+public class SynchronousEvaluation {
+
+    /**
+     * Marks all maximal synchronous expressions in the tree below the given node.
+     *
+     * @param root the root of a parsed document
+     */
+    public static void markSynchronousExpressions(EObject root) {
+        if (classify(root))
+            mark(root);
+    }
+
+    /**
+     * @param expression an expression
+     * @return true, if the expression has been marked as synchronous.
+     */
+    public static boolean isSynchronous(EObject expression) {
+        return expression instanceof SynchronousExpression synchronousExpression
+                && synchronousExpression.isSynchronous();
+    }
+
+    /**
+     * Evaluates an expression. Synchronous expressions are evaluated directly,
+     * all others are evaluated reactively.
+     *
+     * @param expression an expression
+     * @return the values of the expression.
+     */
+    public static Flux<Val> evaluate(Expression expression) {
+        if (expression instanceof SynchronousExpression synchronousExpression && synchronousExpression.isSynchronous())
+            return Flux.deferContextual(ctx -> Flux.just(synchronousExpression.evaluate(ctx)));
+        return expression.evaluate();
+    }
+
+    /**
+     * Evaluates a child of a synchronous expression.
+     *
+     * @param evaluable a child of a synchronous expression
+     * @param ctx       the evaluation context
+     * @return the value of the child.
+     */
+    public static Val evaluate(Evaluable evaluable, ContextView ctx) {
+        return ((SynchronousEvaluable) evaluable).evaluate(ctx);
+    }
+
+    private static boolean classify(EObject node) {
+        var synchronousChildren = new ArrayList<EObject>();
+        var allSynchronous      = true;
+        for (var child : node.eContents()) {
+            if (classify(child))
+                synchronousChildren.add(child);
+            else
+                allSynchronous = false;
+        }
+        if (allSynchronous && isSynchronousIfChildrenAreSynchronous(node))
+            return true;
+
+        for (var child : synchronousChildren)
+            mark(child);
+        return false;
+    }
+
+    private static void mark(EObject node) {
+        if (node instanceof SynchronousExpression synchronousExpression) {
+            synchronousExpression.setSynchronous(true);
+            return;
+        }
+        for (var child : node.eContents())
+            mark(child);
+    }
+
+    private static boolean isSynchronousIfChildrenAreSynchronous(EObject node) {
+        if (node instanceof BasicExpression basicExpression
+                && (basicExpression.getFilter() != null || basicExpression.getSubtemplate() != null))
+            return false;
+        return node instanceof SynchronousEvaluable || node instanceof SynchronousStep || node instanceof Pair
+                || node instanceof Arguments;
+    }
+
+}
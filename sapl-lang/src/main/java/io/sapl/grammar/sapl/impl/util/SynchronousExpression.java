@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.grammar.sapl.impl.util;
+
+/**
+ * Implemented by expressions which can be evaluated synchronously. Whether an
+ * expression is the root of a maximal synchronous expression is determined once
+ * by {@link SynchronousEvaluation} when the document is parsed and kept on the
+ * node itself.
+ */
+public interface SynchronousExpression extends SynchronousEvaluable {
+
+    /**
+     * @return true, if the expression has been marked as synchronous.
+     */
+    boolean isSynchronous();
+
+    /**
+     * @param synchronous true, if the expression is synchronous
+     */
+    void setSynchronous(boolean synchronous);
+
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.grammar.sapl.impl.util;
+
+import java.util.HashMap;
+
+import org.eclipse.emf.ecore.EObject;
+
+import io.sapl.grammar.sapl.ValueDefinition;
+import io.sapl.grammar.sapl.impl.BasicIdentifierImplCustom;
+import io.sapl.grammar.sapl.impl.ValueDefinitionImplCustom;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Resolves the variables defined in a document to array slots once when the
+ * document is loaded.
+ * <p>
+ * Each distinct name of a value definition in the document gets one slot. All
+ * value definitions and identifiers with this name refer to the slot. A policy
+ * redefining a variable of its policy set therefore overwrites the slot, just
+ * as it replaced the variable by name before. Identifiers without a matching
+ * value definition only refer to global variables.
+ */
+@UtilityClass
+public class VariableSlots {
+
+    /**
+     * Assigns the variable slots of all value definitions and identifiers in the
+     * tree below the given node.
+     *
+     * @param root the root of a parsed document
+     */
+    public static void assignVariableSlots(EObject root) {
+        var slots    = new HashMap<String, Integer>();
+        var contents = root.eAllContents();
+        while (contents.hasNext()) {
+            if (contents.next() instanceof ValueDefinitionImplCustom valueDefinition) {
+                var slot = slots.get(valueDefinition.getName());
+                if (slot == null) {
+                    slot = slots.size();
+                    slots.put(valueDefinition.getName(), slot);
+                }
+                valueDefinition.setVariableSlot(slot);
+            }
+        }
+        if (slots.isEmpty())
+            return;
+
+        contents = root.eAllContents();
+        while (contents.hasNext()) {
+            if (contents.next() instanceof BasicIdentifierImplCustom identifier)
+                identifier.setVariableSlot(slots.getOrDefault(identifier.getIdentifier(), -1));
+        }
+    }
+
+    /**
+     * @param valueDefinition a value definition
+     * @return the slot of the defined variable, or -1 if no slot has been
+     *         assigned.
+     */
+    public static int slotOf(ValueDefinition valueDefinition) {
+        if (valueDefinition instanceof ValueDefinitionImplCustom custom)
+            return custom.getVariableSlot();
+        return -1;
+    }
+
+}
@@ -43,6 +43,10 @@
 import io.sapl.grammar.SAPLStandaloneSetup;
 import io.sapl.grammar.sapl.PolicySet;
 import io.sapl.grammar.sapl.SAPL;
+import io.sapl.grammar.sapl.impl.util.ConstantFolding;
+import io.sapl.grammar.sapl.impl.util.RegexUtil;
+import io.sapl.grammar.sapl.impl.util.SynchronousEvaluation;
+import io.sapl.grammar.sapl.impl.util.VariableSlots;
 import io.sapl.interpreter.context.AuthorizationContext;
 import io.sapl.interpreter.functions.FunctionContext;
 import io.sapl.interpreter.pip.AttributeContext;
@@ -80,8 +84,13 @@ public SAPL parse(InputStream saplInputStream) {
 
         var sapl       = loadAsResource(saplInputStream);
         var diagnostic = Diagnostician.INSTANCE.validate(sapl);
-        if (diagnostic.getSeverity() == Diagnostic.OK)
+        if (diagnostic.getSeverity() == Diagnostic.OK) {
+            ConstantFolding.foldConstants(sapl);
+            SynchronousEvaluation.markSynchronousExpressions(sapl);
+            VariableSlots.assignVariableSlots(sapl);
+            RegexUtil.compileLiteralPatterns(sapl);
             return sapl;
+        }
 
         throw new PolicyEvaluationException(composeReason(diagnostic));
     }
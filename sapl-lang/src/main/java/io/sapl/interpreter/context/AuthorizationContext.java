@@ -17,13 +17,11 @@
  */
 package io.sapl.interpreter.context;
 
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
-import java.util.NoSuchElementException;
-import java.util.Objects;
+import java.util.function.UnaryOperator;
 
 import io.sapl.api.interpreter.PolicyEvaluationException;
+import io.sapl.api.interpreter.TracingMode;
 import io.sapl.api.interpreter.Val;
 import io.sapl.api.pdp.AuthorizationSubscription;
 import io.sapl.interpreter.functions.FunctionContext;
@@ -33,67 +31,71 @@
 import reactor.util.context.Context;
 import reactor.util.context.ContextView;
 
+/**
+ * Accessors for the evaluation state of a policy evaluation. All state is held
+ * in a single {@link EvaluationContext} stored under one key of the Reactor
+ * context.
+ */
 @UtilityClass
 public class AuthorizationContext {
 
     static final String CANNOT_OVERWRITE_REQUEST_VARIABLE_S_ERROR = "Cannot overwrite request variable: %s";
 
-    private static final String INDEX         = "index";
-    private static final String KEY           = "key";
-    private static final String ATTRIBUTE_CTX = "attributeCtx";
-    private static final String FUNCTION_CTX  = "functionCtx";
-    private static final String VARIABLES     = "variables";
-    private static final String IMPORTS       = "imports";
-    private static final String SUBJECT       = "subject";
-    private static final String ACTION        = "action";
-    private static final String RESOURCE      = "resource";
-    private static final String ENVIRONMENT   = "environment";
-    private static final String RELATIVE_NODE = "relativeNode";
+    private static final String EVALUATION_CTX = "io.sapl.evaluationCtx";
+    private static final String SUBJECT        = "subject";
+    private static final String ACTION         = "action";
+    private static final String RESOURCE       = "resource";
+    private static final String ENVIRONMENT    = "environment";
+
+    private static EvaluationContext evaluationContext(ContextView ctx) {
+        return ctx.getOrDefault(EVALUATION_CTX, EvaluationContext.EMPTY);
+    }
+
+    private static Context update(Context ctx, UnaryOperator<EvaluationContext> modification) {
+        return ctx.put(EVALUATION_CTX, modification.apply(evaluationContext(ctx)));
+    }
 
     public static Map<String, String> getImports(ContextView ctx) {
-        return ctx.getOrDefault(IMPORTS, Collections.emptyMap());
+        return evaluationContext(ctx).imports();
     }
 
     public static Val getRelativeNode(ContextView ctx) {
-        return ctx.getOrDefault(RELATIVE_NODE, Val.UNDEFINED);
+        return evaluationContext(ctx).relativeNode();
     }
 
     public static Integer getIndex(ContextView ctx) {
-        return ctx.get(INDEX);
+        return evaluationContext(ctx).index();
     }
 
     public static String getKey(ContextView ctx) {
-        return ctx.get(KEY);
+        return evaluationContext(ctx).key();
     }
 
     public static Context setRelativeNode(Context ctx, Val relativeNode) {
-        return ctx.put(RELATIVE_NODE, relativeNode);
+        return update(ctx, evaluationCtx -> evaluationCtx.withRelativeNode(relativeNode));
     }
 
     public static Context setRelativeNodeWithIndex(Context ctx, Val relativeNode, Integer index) {
-        return ctx.put(RELATIVE_NODE, relativeNode).put(INDEX, index);
+        return update(ctx, evaluationCtx -> evaluationCtx.withRelativeNode(relativeNode, index));
     }
 
     public static Context setRelativeNodeWithKey(Context ctx, Val relativeNode, String key) {
-        return ctx.put(RELATIVE_NODE, relativeNode).put(KEY, key);
+        return update(ctx, evaluationCtx -> evaluationCtx.withRelativeNode(relativeNode, key));
     }
 
     public static AttributeContext getAttributeContext(ContextView ctx) {
-        return ctx.get(ATTRIBUTE_CTX);
+        return evaluationContext(ctx).attributeContext();
     }
 
     public Context setAttributeContext(Context ctx, AttributeContext attributeContext) {
-        return ctx.put(ATTRIBUTE_CTX, attributeContext);
+        return update(ctx, evaluationCtx -> evaluationCtx.withAttributeContext(attributeContext));
     }
 
     public static Context setVariables(@NonNull Context ctx, Map<String, Val> environmentVariables) {
-        Map<String, Val> variables = new HashMap<>(ctx.getOrDefault(VARIABLES, new HashMap<>()));
-        for (var variable : environmentVariables.entrySet()) {
-            var name = variable.getKey();
+        for (var name : environmentVariables.keySet()) {
             assertVariableNameNotReserved(name);
-            variables.put(name, variable.getValue());
         }
-        return ctx.put(VARIABLES, variables);
+        return update(ctx, evaluationCtx -> evaluationCtx.withGlobalVariables(environmentVariables));
     }
 
     public Context setVariable(@NonNull Context ctx, String name, Val value) {
@@ -102,13 +104,19 @@ public Context setVariable(@NonNull Context ctx, String name, Val value) {
         if (value.isError())
             throw new PolicyEvaluationException(value.getMessage());
 
-        Map<String, Val> variables = new HashMap<>(ctx.getOrDefault(VARIABLES, new HashMap<>()));
+        return update(ctx, evaluationCtx -> evaluationCtx.withVariable(name, value));
+    }
+
+    public Context setVariable(@NonNull Context ctx, int slot, String name, Val value) {
+        if (slot < 0)
+            return setVariable(ctx, name, value);
 
-        if (value.isUndefined())
-            variables.remove(name);
-        else
-            variables.put(name, value);
-        return ctx.put(VARIABLES, variables);
+        assertVariableNameNotReserved(name);
+
+        if (value.isError())
+            throw new PolicyEvaluationException(value.getMessage());
+
+        return update(ctx, evaluationCtx -> evaluationCtx.withLocalVariable(slot, name, value));
     }
 
     private void assertVariableNameNotReserved(String name) {
@@ -118,49 +126,53 @@ private void assertVariableNameNotReserved(String name) {
     }
 
     public Context setSubscriptionVariables(@NonNull Context ctx, AuthorizationSubscription authorizationSubscription) {
-
-        Map<String, Val> variables = new HashMap<>(
-                Objects.requireNonNull(ctx.getOrDefault(VARIABLES, new HashMap<>())));
-
-        variables.put(SUBJECT, Val.of(authorizationSubscription.getSubject()));
-        variables.put(ACTION, Val.of(authorizationSubscription.getAction()));
-        variables.put(RESOURCE, Val.of(authorizationSubscription.getResource()));
-        variables.put(ENVIRONMENT, Val.of(authorizationSubscription.getEnvironment()));
-        return ctx.put(VARIABLES, variables);
+        var subscriptionVariables = Map.of(SUBJECT, Val.of(authorizationSubscription.getSubject()), ACTION,
+                Val.of(authorizationSubscription.getAction()), RESOURCE,
+                Val.of(authorizationSubscription.getResource()), ENVIRONMENT,
+                Val.of(authorizationSubscription.getEnvironment()));
+        return update(ctx, evaluationCtx -> evaluationCtx.withGlobalVariables(subscriptionVariables));
     }
 
-    @SuppressWarnings("unchecked")
-    // In this case the catch clause takes care of making it fail-safe and solves
-    // the runtime type erasure problem for this case.
     public static Map<String, Val> getVariables(ContextView ctx) {
-        Map<String, Val> result = null;
-        try {
-            result = (Map<String, Val>) ctx.get(VARIABLES);
-        } catch (ClassCastException | NoSuchElementException e) {
-            // NOOP continue with result == null
-        }
-        if (result == null)
-            result = new HashMap<>();
-        return result;
+        return evaluationContext(ctx).variables();
     }
 
     public static Val getVariable(ContextView ctx, String name) {
-        var value = getVariables(ctx).get(name);
-        if (value == null)
-            return Val.UNDEFINED;
-        return value;
+        return evaluationContext(ctx).variable(name);
+    }
+
+    public static Val getVariable(ContextView ctx, int slot, String name) {
+        if (slot < 0)
+            return getVariable(ctx, name);
+        return evaluationContext(ctx).variable(slot, name);
     }
 
     public static FunctionContext functionContext(ContextView ctx) {
-        return ctx.get(FUNCTION_CTX);
+        return evaluationContext(ctx).functionContext();
     }
 
     public Context setFunctionContext(Context ctx, FunctionContext functionContext) {
-        return ctx.put(FUNCTION_CTX, functionContext);
+        return update(ctx, evaluationCtx -> evaluationCtx.withFunctionContext(functionContext));
+    }
+
+    public static TracingMode getTracingMode(ContextView ctx) {
+        return evaluationContext(ctx).tracingMode();
+    }
+
+    public Context setTracingMode(Context ctx, @NonNull TracingMode tracingMode) {
+        return update(ctx, evaluationCtx -> evaluationCtx.withTracingMode(tracingMode));
+    }
+
+    public static boolean isLazyOverrides(ContextView ctx) {
+        return evaluationContext(ctx).lazyOverrides();
+    }
+
+    public Context setLazyOverrides(Context ctx, boolean lazyOverrides) {
+        return update(ctx, evaluationCtx -> evaluationCtx.withLazyOverrides(lazyOverrides));
     }
 
     public Context setImports(Context ctx, Map<String, String> imports) {
-        return ctx.put(IMPORTS, imports);
+        return update(ctx, evaluationCtx -> evaluationCtx.withImports(imports));
     }
 
 }
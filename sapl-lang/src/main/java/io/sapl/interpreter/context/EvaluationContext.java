@@ -0,0 +1,270 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.interpreter.context;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import io.sapl.api.interpreter.TracingMode;
+import io.sapl.api.interpreter.Val;
+import io.sapl.interpreter.functions.FunctionContext;
+import io.sapl.interpreter.pip.AttributeContext;
+
+/**
+ * Immutable state of a policy evaluation carried as a single entry of the
+ * Reactor context. Each modification returns a shallow copy, so a nested
+ * expression only allocates one small object instead of a new context holding
+ * all evaluation state as separate entries.
+ * <p>
+ * Variables are split into two layers. Environment and subscription variables
+ * are set once per subscription and kept in a map. Variables defined in a
+ * document are stored in small arrays indexed by the slot of their name, which
+ * is resolved when the document is loaded. Defining a variable only copies the
+ * local variables of the current document and never the global ones, and
+ * reading a variable with a known slot is a single array access.
+ */
+final class EvaluationContext {
+
+    static final EvaluationContext EMPTY = new EvaluationContext(null, null, Map.of(), new String[0], new Val[0],
+            Map.of(), Val.UNDEFINED, null, null, TracingMode.defaultMode(), false);
+
+    private final AttributeContext    attributeContext;
+    private final FunctionContext     functionContext;
+    private final Map<String, Val>    globalVariables;
+    private final String[]            localVariableNames;
+    private final Val[]               localVariableValues;
+    private final Map<String, String> imports;
+    private final Val                 relativeNode;
+    private final Integer             index;
+    private final String              key;
+    private final TracingMode         tracingMode;
+    private final boolean             lazyOverrides;
+
+    private Map<String, Val> variables;
+
+    private EvaluationContext(AttributeContext attributeContext, FunctionContext functionContext,
+            Map<String, Val> globalVariables, String[] localVariableNames, Val[] localVariableValues,
+            Map<String, String> imports, Val relativeNode, Integer index, String key, TracingMode tracingMode,
+            boolean lazyOverrides) {
+        this.attributeContext    = attributeContext;
+        this.functionContext     = functionContext;
+        this.globalVariables     = globalVariables;
+        this.localVariableNames  = localVariableNames;
+        this.localVariableValues = localVariableValues;
+        this.imports             = imports;
+        this.relativeNode        = relativeNode;
+        this.index               = index;
+        this.key                 = key;
+        this.tracingMode         = tracingMode;
+        this.lazyOverrides       = lazyOverrides;
+    }
+
+    AttributeContext attributeContext() {
+        if (attributeContext == null)
+            throw new NoSuchElementException("No attribute context present.");
+        return attributeContext;
+    }
+
+    FunctionContext functionContext() {
+        if (functionContext == null)
+            throw new NoSuchElementException("No function context present.");
+        return functionContext;
+    }
+
+    Map<String, String> imports() {
+        return imports;
+    }
+
+    Val relativeNode() {
+        return relativeNode;
+    }
+
+    Integer index() {
+        if (index == null)
+            throw new NoSuchElementException("No index present.");
+        return index;
+    }
+
+    String key() {
+        if (key == null)
+            throw new NoSuchElementException("No key present.");
+        return key;
+    }
+
+    TracingMode tracingMode() {
+        return tracingMode;
+    }
+
+    boolean lazyOverrides() {
+        return lazyOverrides;
+    }
+
+    /**
+     * @param name a variable name
+     * @return the value of the variable or UNDEFINED if not defined.
+     */
+    Val variable(String name) {
+        for (var i = 0; i < localVariableNames.length; i++) {
+            if (name.equals(localVariableNames[i]))
+                return localVariableValues[i];
+        }
+        return globalVariables.getOrDefault(name, Val.UNDEFINED);
+    }
+
+    /**
+     * @param slot the slot of the variable name in the current document
+     * @param name the variable name, used if no local variable is defined in the
+     *             slot
+     * @return the value of the variable or UNDEFINED if not defined.
+     */
+    Val variable(int slot, String name) {
+        if (slot < localVariableValues.length) {
+            var value = localVariableValues[slot];
+            if (value != null)
+                return value;
+        }
+        return globalVariables.getOrDefault(name, Val.UNDEFINED);
+    }
+
+    /**
+     * @return all defined variables as an unmodifiable map.
+     */
+    Map<String, Val> variables() {
+        var result = variables;
+        if (result == null) {
+            if (localVariableNames.length == 0) {
+                result = Collections.unmodifiableMap(globalVariables);
+            } else {
+                var allVariables = new HashMap<>(globalVariables);
+                putLocalVariables(allVariables);
+                result = Collections.unmodifiableMap(allVariables);
+            }
+            variables = result;
+        }
+        return result;
+    }
+
+    private void putLocalVariables(Map<String, Val> target) {
+        for (var i = 0; i < localVariableNames.length; i++) {
+            if (localVariableNames[i] == null)
+                continue;
+            if (localVariableValues[i].isUndefined())
+                target.remove(localVariableNames[i]);
+            else
+                target.put(localVariableNames[i], localVariableValues[i]);
+        }
+    }
+
+    EvaluationContext withAttributeContext(AttributeContext newAttributeContext) {
+        return new EvaluationContext(newAttributeContext, functionContext, globalVariables, localVariableNames,
+                localVariableValues, imports, relativeNode, index, key, tracingMode, lazyOverrides);
+    }
+
+    EvaluationContext withFunctionContext(FunctionContext newFunctionContext) {
+        return new EvaluationContext(attributeContext, newFunctionContext, globalVariables, localVariableNames,
+                localVariableValues, imports, relativeNode, index, key, tracingMode, lazyOverrides);
+    }
+
+    EvaluationContext withImports(Map<String, String> newImports) {
+        return new EvaluationContext(attributeContext, functionContext, globalVariables, localVariableNames,
+                localVariableValues, newImports, relativeNode, index, key, tracingMode, lazyOverrides);
+    }
+
+    EvaluationContext withRelativeNode(Val newRelativeNode) {
+        return new EvaluationContext(attributeContext, functionContext, globalVariables, localVariableNames,
+                localVariableValues, imports, newRelativeNode, index, key, tracingMode, lazyOverrides);
+    }
+
+    EvaluationContext withRelativeNode(Val newRelativeNode, Integer newIndex) {
+        return new EvaluationContext(attributeContext, functionContext, globalVariables, localVariableNames,
+                localVariableValues, imports, newRelativeNode, newIndex, key, tracingMode, lazyOverrides);
+    }
+
+    EvaluationContext withRelativeNode(Val newRelativeNode, String newKey) {
+        return new EvaluationContext(attributeContext, functionContext, globalVariables, localVariableNames,
+                localVariableValues, imports, newRelativeNode, index, newKey, tracingMode, lazyOverrides);
+    }
+
+    EvaluationContext withTracingMode(TracingMode newTracingMode) {
+        return new EvaluationContext(attributeContext, functionContext, globalVariables, localVariableNames,
+                localVariableValues, imports, relativeNode, index, key, newTracingMode, lazyOverrides);
+    }
+
+    EvaluationContext withLazyOverrides(boolean newLazyOverrides) {
+        return new EvaluationContext(attributeContext, functionContext, globalVariables, localVariableNames,
+                localVariableValues, imports, relativeNode, index, key, tracingMode, newLazyOverrides);
+    }
+
+    /**
+     * Merges variables into the global variables. Used for the environment and
+     * subscription variables, which are set once per subscription.
+     *
+     * @param newVariables variables to add or replace
+     * @return the new context
+     */
+    EvaluationContext withGlobalVariables(Map<String, Val> newVariables) {
+        var mergedVariables = new HashMap<>(globalVariables);
+        putLocalVariables(mergedVariables);
+        mergedVariables.putAll(newVariables);
+        return new EvaluationContext(attributeContext, functionContext, mergedVariables, new String[0], new Val[0],
+                imports, relativeNode, index, key, tracingMode, lazyOverrides);
+    }
+
+    /**
+     * Defines a variable outside of a document, e.g., for evaluating a single
+     * expression. The variable is merged into the global variables. An
+     * UNDEFINED value removes the variable.
+     *
+     * @param name  variable name
+     * @param value variable value
+     * @return the new context
+     */
+    EvaluationContext withVariable(String name, Val value) {
+        var mergedVariables = new HashMap<>(globalVariables);
+        if (value.isUndefined())
+            mergedVariables.remove(name);
+        else
+            mergedVariables.put(name, value);
+        return new EvaluationContext(attributeContext, functionContext, mergedVariables, localVariableNames,
+                localVariableValues, imports, relativeNode, index, key, tracingMode, lazyOverrides);
+    }
+
+    /**
+     * Defines a local variable of a document in the slot of its name. An
+     * UNDEFINED value hides a global variable of the same name.
+     *
+     * @param slot  the slot of the variable name in the current document
+     * @param name  variable name
+     * @param value variable value
+     * @return the new context
+     */
+    EvaluationContext withLocalVariable(int slot, String name, Val value) {
+        var size   = Math.max(localVariableNames.length, slot + 1);
+        var names  = Arrays.copyOf(localVariableNames, size);
+        var values = Arrays.copyOf(localVariableValues, size);
+
+        names[slot]  = name;
+        values[slot] = value;
+        return new EvaluationContext(attributeContext, functionContext, globalVariables, names, values, imports,
+                relativeNode, index, key, tracingMode, lazyOverrides);
+    }
+
+}
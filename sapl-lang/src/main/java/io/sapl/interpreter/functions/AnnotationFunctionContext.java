@@ -19,7 +19,7 @@
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
-import java.lang.reflect.Parameter;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -38,15 +38,17 @@
 import io.sapl.api.functions.FunctionLibrarySupplier;
 import io.sapl.api.functions.StaticFunctionLibrarySupplier;
 import io.sapl.api.interpreter.ExpressionArgument;
+import io.sapl.api.interpreter.TracingMode;
 import io.sapl.api.interpreter.Val;
 import io.sapl.interpreter.InitializationException;
 import io.sapl.interpreter.SchemaLoadingUtil;
 import io.sapl.interpreter.pip.LibraryEntryMetadata;
 import io.sapl.interpreter.validation.IllegalParameterType;
-import io.sapl.interpreter.validation.ParameterTypeValidator;
-import lombok.AllArgsConstructor;
+import io.sapl.interpreter.validation.ParameterValidator;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 /**
  * Context to hold functions libraries during policy evaluation.
@@ -110,34 +112,45 @@ public final void loadLibraries(FunctionLibrarySupplier librariesSupplier) throw
 
     @Override
     public Val evaluate(String function, Val... parameters) {
-        var functionTrace = new ExpressionArgument[parameters.length + 1];
-        functionTrace[0] = new ExpressionArgument("functionName", Val.of(function));
-        for (var parameter = 0; parameter < parameters.length; parameter++) {
-            functionTrace[parameter + 1] = new ExpressionArgument("parameter[" + parameter + "]",
-                    parameters[parameter]);
-        }
+        return evaluate(TracingMode.LAZY, function, parameters);
+    }
+
+    @Override
+    public Val evaluate(TracingMode tracingMode, String function, Val... parameters) {
+        var result = invokeFunction(function, parameters);
+        if (tracingMode == TracingMode.OFF)
+            return result;
+        return result.withTrace(tracingMode, FunctionContext.class, () -> functionTrace(function, parameters));
+    }
+
+    private Val invokeFunction(String function, Val... parameters) {
         var metadata = functions.get(function);
         if (metadata == null)
-            return Val.error(UNKNOWN_FUNCTION_ERROR, function).withTrace(FunctionContext.class, false, functionTrace);
-
-        var funParams = metadata.getFunction().getParameters();
+            return Val.error(UNKNOWN_FUNCTION_ERROR, function);
 
         if (metadata.isVarArgsParameters()) {
-            return evaluateVarArgsFunction(metadata, funParams, parameters).withTrace(FunctionContext.class, false,
-                    functionTrace);
+            return evaluateVarArgsFunction(metadata, parameters);
         }
         if (metadata.getNumberOfParameters() == parameters.length) {
-            return evaluateFixedParametersFunction(metadata, funParams, parameters).withTrace(FunctionContext.class,
-                    false, functionTrace);
+            return evaluateFixedParametersFunction(metadata, parameters);
+        }
+        return Val.error(ILLEGAL_NUMBER_OF_PARAMETERS_ERROR, metadata.getNumberOfParameters(), parameters.length);
+    }
+
+    private static List<ExpressionArgument> functionTrace(String function, Val... parameters) {
+        var functionTrace = new ArrayList<ExpressionArgument>(parameters.length + 1);
+        functionTrace.add(new ExpressionArgument("functionName", Val.of(function)));
+        for (var parameter = 0; parameter < parameters.length; parameter++) {
+            functionTrace.add(new ExpressionArgument("parameter[" + parameter + "]", parameters[parameter]));
         }
-        return Val.error(ILLEGAL_NUMBER_OF_PARAMETERS_ERROR, metadata.getNumberOfParameters(), parameters.length)
-                .withTrace(FunctionContext.class, false, functionTrace);
+        return functionTrace;
     }
 
-    private Val evaluateFixedParametersFunction(FunctionMetadata metadata, Parameter[] funParams, Val... parameters) {
+    private Val evaluateFixedParametersFunction(FunctionMetadata metadata, Val... parameters) {
+        var validators = metadata.getParameterValidators();
         for (int i = 0; i < parameters.length; i++) {
             try {
-                ParameterTypeValidator.validateType(parameters[i], funParams[i]);
+                validators[i].validate(parameters[i]);
             } catch (IllegalParameterType e) {
                 return Val.error(e);
             }
@@ -145,10 +158,11 @@ private Val evaluateFixedParametersFunction(FunctionMetadata metadata, Parameter
         return invokeFunction(metadata, (Object[]) parameters);
     }
 
-    private Val evaluateVarArgsFunction(FunctionMetadata metadata, Parameter[] funParams, Val... parameters) {
+    private Val evaluateVarArgsFunction(FunctionMetadata metadata, Val... parameters) {
+        var validator = metadata.getParameterValidators()[0];
         for (Val parameter : parameters) {
             try {
-                ParameterTypeValidator.validateType(parameter, funParams[0]);
+                validator.validate(parameter);
             } catch (IllegalParameterType e) {
                 return Val.error(e);
             }
@@ -250,7 +264,8 @@ private void importFunction(Object library, String libName, LibraryDocumentation
             }
         }
 
-        var funMeta = new FunctionMetadata(libName, funName, processedSchemaDefinition, library, parameters, method);
+        var funMeta = new FunctionMetadata(libName, funName, processedSchemaDefinition, library, parameters, method,
+                funAnnotation.pure());
         functions.put(funMeta.fullyQualifiedName(), funMeta);
         libMeta.documentation.put(funMeta.getDocumentationCodeTemplate(), funAnnotation.docs());
 
@@ -271,6 +286,12 @@ public Boolean isProvidedFunction(String function) {
         return functions.containsKey(function);
     }
 
+    @Override
+    public boolean isPureFunction(String function) {
+        var metadata = functions.get(function);
+        return metadata != null && metadata.isPure();
+    }
+
     @Override
     public Collection<LibraryDocumentation> getDocumentation() {
         return Collections.unmodifiableCollection(documentation);
@@ -289,7 +310,6 @@ public Collection<String> providedFunctionsOfLibrary(String libraryName) {
      * Metadata for individual functions.
      */
     @Data
-    @AllArgsConstructor
     public static class FunctionMetadata implements LibraryEntryMetadata {
 
         String libraryName;
@@ -304,6 +324,24 @@ public static class FunctionMetadata implements LibraryEntryMetadata {
 
         Method function;
 
+        boolean pure;
+
+        @ToString.Exclude
+        @EqualsAndHashCode.Exclude
+        ParameterValidator[] parameterValidators;
+
+        public FunctionMetadata(String libraryName, String functionName, JsonNode functionSchema, Object library,
+                int numberOfParameters, Method function, boolean pure) {
+            this.libraryName         = libraryName;
+            this.functionName        = functionName;
+            this.functionSchema      = functionSchema;
+            this.library             = library;
+            this.numberOfParameters  = numberOfParameters;
+            this.function            = function;
+            this.pure                = pure;
+            this.parameterValidators = ParameterValidator.forParametersOf(function);
+        }
+
         @Override
         public boolean isVarArgsParameters() {
             return numberOfParameters == VAR_ARGS;
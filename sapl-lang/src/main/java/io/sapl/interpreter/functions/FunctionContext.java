@@ -23,6 +23,7 @@
 
 import com.fasterxml.jackson.databind.JsonNode;
 
+import io.sapl.api.interpreter.TracingMode;
 import io.sapl.api.interpreter.Val;
 import io.sapl.interpreter.pip.LibraryFunctionProvider;
 
@@ -30,6 +31,19 @@ public interface FunctionContext extends LibraryFunctionProvider {
 
     Val evaluate(String function, Val... parameters);
 
+    /**
+     * Evaluates a function and traces the result as selected by the tracing mode
+     * of the evaluation.
+     *
+     * @param tracingMode the tracing mode of the evaluation
+     * @param function    a fully qualified function name
+     * @param parameters  the function parameters
+     * @return the function result
+     */
+    default Val evaluate(TracingMode tracingMode, String function, Val... parameters) {
+        return evaluate(function, parameters);
+    }
+
     Collection<LibraryDocumentation> getDocumentation();
 
     List<String> getCodeTemplates();
@@ -38,4 +52,13 @@ public interface FunctionContext extends LibraryFunctionProvider {
 
     Map<String, JsonNode> getFunctionSchemas();
 
+    /**
+     * @param function a fully qualified function name
+     * @return true, if the function is declared to be pure and calls with constant
+     *         parameters may be evaluated only once.
+     */
+    default boolean isPureFunction(String function) {
+        return false;
+    }
+
 }
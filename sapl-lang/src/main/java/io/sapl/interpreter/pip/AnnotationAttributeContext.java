@@ -20,8 +20,8 @@
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
-import java.lang.reflect.Parameter;
 import java.lang.reflect.ParameterizedType;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -39,6 +39,8 @@
 
 import com.fasterxml.jackson.databind.JsonNode;
 
+import io.sapl.api.interpreter.ExpressionArgument;
+import io.sapl.api.interpreter.TracingMode;
 import io.sapl.api.interpreter.Val;
 import io.sapl.api.pip.Attribute;
 import io.sapl.api.pip.EnvironmentAttribute;
@@ -48,7 +50,8 @@
 import io.sapl.grammar.sapl.Arguments;
 import io.sapl.interpreter.InitializationException;
 import io.sapl.interpreter.SchemaLoadingUtil;
-import io.sapl.interpreter.validation.ParameterTypeValidator;
+import io.sapl.interpreter.context.AuthorizationContext;
+import io.sapl.interpreter.validation.ParameterValidator;
 import lombok.NoArgsConstructor;
 import reactor.core.publisher.Flux;
 
@@ -80,6 +83,8 @@ public class AnnotationAttributeContext implements AttributeContext {
 
     private List<String> templatesCache;
 
+    private AttributeStreamBroker attributeStreamBroker;
+
     /**
      * Create context from a supplied PIPs.
      *
@@ -121,6 +126,30 @@ public final void loadPolicyInformationPoints(PolicyInformationPointSupplier pip
         }
     }
 
+    /**
+     * Shares the streams of all attribute finders between all policies and
+     * subscriptions which reference the same attribute with equal left-hand and
+     * argument values. By default, each attribute occurrence invokes its attribute
+     * finder individually.
+     *
+     * @param timeToLive    the time a shared stream stays connected after its
+     *                      last subscriber cancelled.
+     * @param eagerPrefetch if true, streams are connected as soon as they are
+     *                      requested and stay connected for at least the
+     *                      time-to-live.
+     */
+    public final void enableAttributeStreamSharing(Duration timeToLive, boolean eagerPrefetch) {
+        attributeStreamBroker = new AttributeStreamBroker(timeToLive, eagerPrefetch);
+    }
+
+    /**
+     * @return the broker sharing the attribute streams, if stream sharing is
+     *         enabled.
+     */
+    public Optional<AttributeStreamBroker> getAttributeStreamBroker() {
+        return Optional.ofNullable(attributeStreamBroker);
+    }
+
     @Override
     public Flux<Val> evaluateAttribute(String attributeName, Val leftHandValue, Arguments arguments,
             Map<String, Val> variables) {
@@ -141,10 +170,9 @@ public Flux<Val> evaluateEnvironmentAttribute(String attributeName, Arguments ar
 
     private Flux<Val> evaluateEnvironmentAttribute(String attributeName, AttributeFinderMetadata attributeMetadata,
             Arguments arguments, Map<String, Val> variables) {
-        var pip    = attributeMetadata.getPolicyInformationPoint();
-        var method = attributeMetadata.getFunction();
-        return attributeFinderArguments(attributeMetadata, arguments, variables)
-                .switchMap(invokeAttributeFinderMethod(attributeName, pip, method));
+        return Flux.deferContextual(ctx -> attributeFinderArguments(attributeMetadata, arguments, variables)
+                .switchMap(invokeAttributeFinderMethod(AuthorizationContext.getTracingMode(ctx), attributeName,
+                        attributeMetadata)));
     }
 
     private AttributeFinderMetadata lookupAttribute(String attributeName, int numberOfParameters,
@@ -166,36 +194,58 @@ else if (candidate.numberOfParameters == numberOfParameters)
 
     private Flux<Val> evaluateAttribute(String attributeName, AttributeFinderMetadata attributeMetadata,
             Val leftHandValue, Arguments arguments, Map<String, Val> variables) {
+        return Flux.deferContextual(ctx -> attributeFinderArguments(attributeMetadata, leftHandValue, arguments,
+                variables).switchMap(invokeAttributeFinderMethod(AuthorizationContext.getTracingMode(ctx),
+                        attributeName, attributeMetadata)));
+    }
 
+    private Function<Object[], Publisher<? extends Val>> invokeAttributeFinderMethod(TracingMode tracingMode,
+            String attributeName, AttributeFinderMetadata attributeMetadata) {
         var pip    = attributeMetadata.getPolicyInformationPoint();
         var method = attributeMetadata.getFunction();
-
-        return attributeFinderArguments(attributeMetadata, leftHandValue, arguments, variables)
-                .switchMap(invokeAttributeFinderMethod(attributeName, pip, method));
+        if (attributeStreamBroker == null)
+            return invocationParameters -> traced(tracingMode, attributeName, invocationParameters,
+                    invokeAttributeFinder(pip, method, invocationParameters));
+        return invocationParameters -> traced(tracingMode, attributeName, invocationParameters,
+                attributeStreamBroker.attributeStream(method, invocationParameters,
+                        () -> invokeAttributeFinder(pip, method, invocationParameters)));
     }
 
     @SuppressWarnings("unchecked")
-    private Function<Object[], Publisher<? extends Val>> invokeAttributeFinderMethod(String attributeName, Object pip,
-            Method method) {
-        return invocationParameters -> {
-            try {
-                return ((Flux<Val>) method.invoke(pip, invocationParameters)).map(val -> {
-                    var trace = new HashMap<String, Val>();
-                    trace.put("attribute", Val.of(attributeName));
-                    for (int i = 0; i < invocationParameters.length; i++) {
-                        if (invocationParameters[i] instanceof Val)
-                            trace.put("argument[" + i + "]", (Val) (invocationParameters[i]));
-                        if (invocationParameters[i] instanceof Map) {
-                            trace.put("argument[" + i + "]", Val.of("VARIABLES OMITTED"));
-                        }
-                    }
-                    trace.put("timestamp", Val.of(Instant.now().toString()));
-                    return val.withTrace(AttributeContext.class, false, trace);
-                });
-            } catch (InvocationTargetException | IllegalAccessException | IllegalArgumentException e) {
-                return Flux.just(ErrorUtil.causeOrMessage(e));
+    private Flux<Val> invokeAttributeFinder(Object pip, Method method, Object[] invocationParameters) {
+        try {
+            return (Flux<Val>) method.invoke(pip, invocationParameters);
+        } catch (InvocationTargetException | IllegalAccessException | IllegalArgumentException e) {
+            return Flux.just(ErrorUtil.causeOrMessage(e));
+        }
+    }
+
+    private static Flux<Val> traced(TracingMode tracingMode, String attributeName, Object[] invocationParameters,
+            Flux<Val> attributeStream) {
+        // Attribute streams may be shared by evaluations with different tracing
+        // modes. Hence, the values are traced per subscriber and not at the source.
+        if (tracingMode == TracingMode.OFF)
+            return attributeStream;
+        return attributeStream.map(val -> {
+            var timestamp = Instant.now();
+            return val.withTrace(tracingMode, AttributeContext.class,
+                    () -> attributeTrace(attributeName, invocationParameters, timestamp));
+        });
+    }
+
+    private static List<ExpressionArgument> attributeTrace(String attributeName, Object[] invocationParameters,
+            Instant timestamp) {
+        var trace = new ArrayList<ExpressionArgument>(invocationParameters.length + 2);
+        trace.add(new ExpressionArgument("attribute", Val.of(attributeName)));
+        for (int i = 0; i < invocationParameters.length; i++) {
+            if (invocationParameters[i] instanceof Val)
+                trace.add(new ExpressionArgument("argument[" + i + "]", (Val) (invocationParameters[i])));
+            if (invocationParameters[i] instanceof Map) {
+                trace.add(new ExpressionArgument("argument[" + i + "]", Val.of("VARIABLES OMITTED")));
             }
-        };
+        }
+        trace.add(new ExpressionArgument("timestamp", Val.of(timestamp.toString())));
+        return trace;
     }
 
     private List<Flux<Val>> validatedArguments(AttributeFinderMetadata attributeMetadata, Arguments arguments) {
@@ -206,14 +256,15 @@ private List<Flux<Val>> validatedArguments(AttributeFinderMetadata attributeMeta
         if (attributeMetadata.isAttributeWithVariableParameter())
             indexOfArgumentParameterOfMethod++; // skip variablesMap
 
+        var validators = attributeMetadata.getParameterValidators();
         for (var argument : arguments.getArgs()) {
-            Parameter parameter;
+            ParameterValidator validator;
             if (attributeMetadata.isVarArgsParameters()) {
-                parameter = attributeMetadata.function.getParameters()[indexOfArgumentParameterOfMethod];
+                validator = validators[indexOfArgumentParameterOfMethod];
             } else {
-                parameter = attributeMetadata.function.getParameters()[indexOfArgumentParameterOfMethod++];
+                validator = validators[indexOfArgumentParameterOfMethod++];
             }
-            argumentFluxes.add(ParameterTypeValidator.validateType(argument.evaluate(), parameter));
+            argumentFluxes.add(validator.validate(argument.evaluate()));
         }
         return argumentFluxes;
     }
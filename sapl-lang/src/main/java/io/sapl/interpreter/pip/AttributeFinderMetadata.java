@@ -21,14 +21,15 @@
 
 import com.fasterxml.jackson.databind.JsonNode;
 
-import lombok.AllArgsConstructor;
+import io.sapl.interpreter.validation.ParameterValidator;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 /**
  * Metadata for attribute finders.
  */
 @Data
-@AllArgsConstructor
 public class AttributeFinderMetadata implements LibraryEntryMetadata {
 
     Object   policyInformationPoint;
@@ -41,6 +42,25 @@ public class AttributeFinderMetadata implements LibraryEntryMetadata {
     boolean  varArgsParameters;
     int      numberOfParameters;
 
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    ParameterValidator[] parameterValidators;
+
+    public AttributeFinderMetadata(Object policyInformationPoint, Method function, String libraryName,
+            String functionName, JsonNode functionSchema, boolean environmentAttribute,
+            boolean attributeWithVariableParameter, boolean varArgsParameters, int numberOfParameters) {
+        this.policyInformationPoint         = policyInformationPoint;
+        this.function                       = function;
+        this.libraryName                    = libraryName;
+        this.functionName                   = functionName;
+        this.functionSchema                 = functionSchema;
+        this.environmentAttribute           = environmentAttribute;
+        this.attributeWithVariableParameter = attributeWithVariableParameter;
+        this.varArgsParameters              = varArgsParameters;
+        this.numberOfParameters             = numberOfParameters;
+        this.parameterValidators            = ParameterValidator.forParametersOf(function);
+    }
+
     @Override
     public String getDocumentationCodeTemplate() {
         var sb                             = new StringBuilder();
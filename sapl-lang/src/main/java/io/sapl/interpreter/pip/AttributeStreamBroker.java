@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.interpreter.pip;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import io.sapl.api.interpreter.Val;
+import lombok.Getter;
+import reactor.core.publisher.Flux;
+
+/**
+ * Shares attribute streams between all policies and subscriptions which
+ * reference the same attribute with equal left-hand and argument values.
+ * <p>
+ * The first subscriber of an attribute stream invokes the attribute finder.
+ * All further subscribers receive the latest value of the stream immediately
+ * and then follow the shared stream. Once the last subscriber cancels, the
+ * shared stream stays connected for the configured time-to-live before it is
+ * disconnected and removed from the broker. With eager prefetch enabled, a
+ * stream is connected as soon as it is requested and stays connected for at
+ * least the time-to-live, even if its first subscriber cancels right away.
+ */
+public class AttributeStreamBroker {
+
+    private record AttributeStreamKey(Method attributeFinder, List<Object> invocationParameters) {}
+
+    private final Map<AttributeStreamKey, Flux<Val>> sharedStreams = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits   = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    @Getter
+    private final Duration timeToLive;
+
+    @Getter
+    private final boolean eagerPrefetch;
+
+    /**
+     * @param timeToLive    the time a shared stream stays connected after its
+     *                      last subscriber cancelled.
+     * @param eagerPrefetch if true, streams are connected as soon as they are
+     *                      requested and stay connected for at least the
+     *                      time-to-live.
+     */
+    public AttributeStreamBroker(Duration timeToLive, boolean eagerPrefetch) {
+        if (timeToLive.isNegative())
+            throw new IllegalArgumentException("The time-to-live must not be negative. Was: " + timeToLive);
+        this.timeToLive    = timeToLive;
+        this.eagerPrefetch = eagerPrefetch;
+    }
+
+    /**
+     * Returns the shared stream of the attribute finder for the given invocation
+     * parameters, creating it if no stream for equal parameters exists.
+     *
+     * @param attributeFinder      the attribute finder method
+     * @param invocationParameters the left-hand value, variables and argument
+     *                             values the attribute finder is invoked with
+     * @param attributeStream      invokes the attribute finder for parameters
+     *                             not yet shared
+     * @return the shared attribute stream
+     */
+    public Flux<Val> attributeStream(Method attributeFinder, Object[] invocationParameters,
+            Supplier<Flux<Val>> attributeStream) {
+        var key    = new AttributeStreamKey(attributeFinder, keyOf(invocationParameters));
+        var shared = sharedStreams.get(key);
+        if (shared != null) {
+            hits.incrementAndGet();
+            return shared;
+        }
+        var created = new AtomicReference<Flux<Val>>();
+        shared = sharedStreams.computeIfAbsent(key, k -> {
+            created.set(share(k, attributeStream));
+            return created.get();
+        });
+        if (created.get() != shared) {
+            hits.incrementAndGet();
+            return shared;
+        }
+        misses.incrementAndGet();
+        // Subscribing inside computeIfAbsent would run synchronously completing
+        // attribute finders and thus the removal in doFinally while the map is
+        // being updated.
+        if (eagerPrefetch)
+            (timeToLive.isZero() ? shared.take(1L) : shared.take(timeToLive)).subscribe();
+        return shared;
+    }
+
+    private Flux<Val> share(AttributeStreamKey key, Supplier<Flux<Val>> attributeStream) {
+        var self     = new AtomicReference<Flux<Val>>();
+        var replayed = Flux.defer(attributeStream).doFinally(signal -> sharedStreams.remove(key, self.get()))
+                .replay(1);
+        var shared   = timeToLive.isZero() ? replayed.refCount() : replayed.refCount(1, timeToLive);
+        self.set(shared);
+        return shared;
+    }
+
+    private static List<Object> keyOf(Object[] invocationParameters) {
+        var key = new ArrayList<>(invocationParameters.length);
+        for (var parameter : invocationParameters) {
+            if (parameter instanceof Val[] varArgs)
+                key.add(Arrays.asList(varArgs));
+            else
+                key.add(parameter);
+        }
+        return key;
+    }
+
+    /**
+     * @return the number of attribute subscriptions which joined an already
+     *         shared stream.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of attribute subscriptions which required a new
+     *         invocation of an attribute finder.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return the ratio of attribute subscriptions which joined an already shared
+     *         stream. 0.0 if there were no attribute subscriptions yet.
+     */
+    public double getHitRatio() {
+        var hitCount = hits.get();
+        var total    = hitCount + misses.get();
+        return total == 0L ? 0.0D : (double) hitCount / total;
+    }
+
+    /**
+     * @return the number of currently shared attribute streams.
+     */
+    public int size() {
+        return sharedStreams.size();
+    }
+
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.interpreter.validation;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.sapl.api.interpreter.Val;
+import io.sapl.api.validation.Array;
+import io.sapl.api.validation.Bool;
+import io.sapl.api.validation.Int;
+import io.sapl.api.validation.JsonObject;
+import io.sapl.api.validation.Long;
+import io.sapl.api.validation.Number;
+import io.sapl.api.validation.Schema;
+import io.sapl.api.validation.Text;
+import io.sapl.functions.SchemaValidationLibrary;
+import reactor.core.publisher.Flux;
+
+/**
+ * Validates values against the validation annotations of a single parameter of
+ * a function or attribute finder. All reflective work, i.e., reading the
+ * annotations, parsing an embedded schema and assembling the error messages, is
+ * done once when the validator is created, so that validating a value does not
+ * touch the reflection API.
+ */
+public final class ParameterValidator {
+
+    private static final String ILLEGAL_PARAMETER_TYPE_ERROR    = "Illegal parameter type. Got: %s Expected: %s";
+    private static final String NON_COMPLIANT_WITH_SCHEMA_ERROR = "Illegal parameter type. Parameter does not comply with required schema. Got: %s Expected schema: %s";
+
+    private static final List<Class<? extends Annotation>> VALIDATION_ANNOTATIONS = List.of(Number.class, Int.class,
+            Long.class, Bool.class, Text.class, Array.class, JsonObject.class, Schema.class);
+
+    private static final ParameterValidator NO_VALIDATION = new ParameterValidator(List.of(), null, null, "", "");
+
+    private final List<Class<? extends Annotation>> allowedTypes;
+    private final Schema                            schemaAnnotation;
+    private final Val                               schema;
+    private final String                            declaredTypes;
+    private final String                            expectedTypes;
+
+    private ParameterValidator(List<Class<? extends Annotation>> allowedTypes, Schema schemaAnnotation, Val schema,
+            String declaredTypes, String expectedTypes) {
+        this.allowedTypes     = allowedTypes;
+        this.schemaAnnotation = schemaAnnotation;
+        this.schema           = schema;
+        this.declaredTypes    = declaredTypes;
+        this.expectedTypes    = expectedTypes;
+    }
+
+    /**
+     * Creates a validator for the given parameter.
+     *
+     * @param parameter a parameter of a function or attribute finder method
+     * @return a validator enforcing the validation annotations of the parameter.
+     */
+    public static ParameterValidator of(Parameter parameter) {
+        var    annotations      = parameter.getAnnotations();
+        var    allowedTypes     = new ArrayList<Class<? extends Annotation>>(annotations.length);
+        var    declaredTypes    = new StringBuilder();
+        var    expectedTypes    = new StringBuilder();
+        var    hasValidation    = false;
+        Schema schemaAnnotation = null;
+
+        for (var annotation : annotations) {
+            var validationType = validationTypeOf(annotation);
+            if (validationType == null)
+                continue;
+            hasValidation = true;
+            declaredTypes.append(annotation).append(' ');
+            if (annotation instanceof Schema schemaTypeAnnotation && schemaAnnotation == null) {
+                schemaAnnotation = schemaTypeAnnotation;
+            } else {
+                allowedTypes.add(validationType);
+                expectedTypes.append(annotation).append(' ');
+            }
+        }
+
+        if (!hasValidation)
+            return NO_VALIDATION;
+
+        if (schemaAnnotation != null)
+            expectedTypes.append(schemaAnnotation).append(' ');
+
+        return new ParameterValidator(List.copyOf(allowedTypes), schemaAnnotation, parseSchema(schemaAnnotation),
+                declaredTypes.toString(), expectedTypes.toString());
+    }
+
+    /**
+     * Creates validators for all parameters of a method.
+     *
+     * @param method a function or attribute finder method
+     * @return the validators, indexed like the parameters of the method.
+     */
+    public static ParameterValidator[] forParametersOf(Method method) {
+        var parameters = method.getParameters();
+        var validators = new ParameterValidator[parameters.length];
+        for (int i = 0; i < parameters.length; i++)
+            validators[i] = of(parameters[i]);
+        return validators;
+    }
+
+    /**
+     * @return true, if the parameter has no validation annotations and any value
+     *         is accepted.
+     */
+    public boolean acceptsAnyValue() {
+        return this == NO_VALIDATION;
+    }
+
+    /**
+     * Validates a value.
+     *
+     * @param parameterValue a value to be passed to the parameter
+     * @throws IllegalParameterType if the value does not match the declared
+     *                              types of the parameter.
+     */
+    public void validate(Val parameterValue) throws IllegalParameterType {
+        if (acceptsAnyValue())
+            return;
+
+        if (parameterValue.isError())
+            throw new IllegalParameterType(String.format(ILLEGAL_PARAMETER_TYPE_ERROR, "error", declaredTypes));
+
+        if (parameterValue.isUndefined())
+            throw new IllegalParameterType(String.format(ILLEGAL_PARAMETER_TYPE_ERROR, "undefined", declaredTypes));
+
+        validateJsonNodeType(parameterValue.get());
+    }
+
+    /**
+     * Validates all values of a stream. Invalid values are replaced with errors.
+     *
+     * @param parameterFlux a stream of values to be passed to the parameter
+     * @return the validated stream
+     */
+    public Flux<Val> validate(Flux<Val> parameterFlux) {
+        if (acceptsAnyValue())
+            return parameterFlux;
+        return parameterFlux.map(this::validOrError);
+    }
+
+    private Val validOrError(Val value) {
+        try {
+            validate(value);
+        } catch (IllegalParameterType e) {
+            return Val.error(e);
+        }
+        return value;
+    }
+
+    private void validateJsonNodeType(JsonNode node) throws IllegalParameterType {
+        for (var allowedType : allowedTypes)
+            if (nodeContentsMatchesType(node, allowedType))
+                return;
+
+        if (schemaAnnotation != null) {
+            if (nodeCompliantWithSchema(node))
+                return;
+            var errorText = schemaAnnotation.errorText();
+            if (!"".equals(errorText))
+                throw new IllegalParameterType(errorText);
+            throw new IllegalParameterType(
+                    String.format(NON_COMPLIANT_WITH_SCHEMA_ERROR, node.toString(), schemaAnnotation.value()));
+        }
+
+        throw new IllegalParameterType(
+                String.format(ILLEGAL_PARAMETER_TYPE_ERROR, node.getNodeType().toString(), expectedTypes));
+    }
+
+    private static boolean nodeContentsMatchesType(JsonNode node, Class<? extends Annotation> type) {
+        return (type == Number.class && node.isNumber())
+                || (type == Int.class && node.isNumber() && node.canConvertToInt())
+                || (type == Long.class && node.isNumber() && node.canConvertToLong())
+                || (type == Bool.class && node.isBoolean()) || (type == Text.class && node.isTextual())
+                || (type == Array.class && node.isArray()) || (type == JsonObject.class && node.isObject());
+    }
+
+    private boolean nodeCompliantWithSchema(JsonNode node) {
+        if ("".equals(schemaAnnotation.value()))
+            return true;
+        if (schema == null)
+            return false;
+        return SchemaValidationLibrary.isCompliant(Val.of(node), schema).getBoolean();
+    }
+
+    private static Val parseSchema(Schema schemaAnnotation) {
+        if (schemaAnnotation == null || "".equals(schemaAnnotation.value()))
+            return null;
+        try {
+            return Val.ofJson(schemaAnnotation.value());
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private static Class<? extends Annotation> validationTypeOf(Annotation annotation) {
+        for (var validationType : VALIDATION_ANNOTATIONS)
+            if (validationType.isAssignableFrom(annotation.getClass()))
+                return validationType;
+        return null;
+    }
+
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.pip.http;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Optional;
+
+import org.springframework.http.HttpHeaders;
+
+import io.sapl.api.interpreter.Val;
+
+/**
+ * Remembers the last response of a poller together with its validator and
+ * freshness, as advertised by the ETag and Cache-Control response headers.
+ * <p>
+ * While the response is fresh (max-age), the poller reuses it without a
+ * request. Afterwards, the poller revalidates it with a conditional request
+ * (If-None-Match) and reuses it if the server answers 304 Not Modified.
+ * Responses marked no-store are not remembered at all. Each poller owns its
+ * instance and accesses it sequentially.
+ */
+class CachedResponse {
+
+    private static final String NO_STORE = "no-store";
+    private static final String NO_CACHE = "no-cache";
+    private static final String MAX_AGE  = "max-age=";
+
+    private final Clock clock;
+
+    private volatile Val     value;
+    private volatile String  eTag;
+    private volatile Instant freshUntil;
+
+    CachedResponse(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * @return the remembered value, if it is still fresh
+     */
+    Optional<Val> freshValue() {
+        var until = freshUntil;
+        if (value == null || until == null || !clock.instant().isBefore(until))
+            return Optional.empty();
+        return Optional.of(value);
+    }
+
+    /**
+     * @return the remembered value, if any
+     */
+    Optional<Val> value() {
+        return Optional.ofNullable(value);
+    }
+
+    /**
+     * @return the entity tag to revalidate the remembered value with, if any
+     */
+    Optional<String> eTag() {
+        return value == null ? Optional.empty() : Optional.ofNullable(eTag);
+    }
+
+    void store(Val newValue, HttpHeaders headers) {
+        var cacheControl = headers.getCacheControl();
+        if (cacheControl != null && cacheControl.toLowerCase(Locale.ROOT).contains(NO_STORE)) {
+            clear();
+            return;
+        }
+        value = newValue;
+        eTag  = headers.getETag();
+        refresh(headers);
+    }
+
+    void refresh(HttpHeaders headers) {
+        freshUntil = maxAge(headers.getCacheControl()).map(clock.instant()::plus).orElse(null);
+    }
+
+    private void clear() {
+        value      = null;
+        eTag       = null;
+        freshUntil = null;
+    }
+
+    static Optional<Duration> maxAge(String cacheControl) {
+        if (cacheControl == null)
+            return Optional.empty();
+        var directives = cacheControl.toLowerCase(Locale.ROOT);
+        if (directives.contains(NO_CACHE) || directives.contains(NO_STORE))
+            return Optional.empty();
+        for (var directive : directives.split(",")) {
+            var trimmed = directive.trim();
+            if (trimmed.startsWith(MAX_AGE)) {
+                try {
+                    var seconds = Long.parseLong(trimmed.substring(MAX_AGE.length()).replace("\"", ""));
+                    return seconds > 0L ? Optional.of(Duration.ofSeconds(seconds)) : Optional.empty();
+                } catch (NumberFormatException e) {
+                    return Optional.empty();
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+}
@@ -0,0 +1,459 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.pip.http;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Provides shared {@link WebClient}s backed by one pooled Reactor Netty
+ * {@link ConnectionProvider} per origin, i.e., per scheme, host and port. Thus,
+ * repeated and polling requests to the same service reuse connections and TLS
+ * sessions instead of opening a new connection for each request.
+ * <p>
+ * The number of origins is bounded. If it is exceeded, the least recently used
+ * origin is evicted. Origins not used for the configured idle time are evicted
+ * in the background. The connection provider of an evicted origin is disposed.
+ * <p>
+ * For each origin, the pool keeps simple statistics about the requests, see
+ * {@link Statistics}. If Micrometer is on the class path, Reactor Netty's own
+ * pool and client metrics can be enabled in addition.
+ */
+public class HttpConnectionPool implements Disposable {
+
+    private final Map<String, PooledClient> clients        = new ConcurrentHashMap<>();
+    private final AtomicInteger             createdClients = new AtomicInteger();
+    private final Disposable                idleClientEviction;
+
+    private final int      maxOrigins;
+    private final Duration maxOriginIdleTime;
+    private final int      maxConnections;
+    private final int      pendingAcquireMaxCount;
+    private final Duration pendingAcquireTimeout;
+    private final Duration maxIdleTime;
+    private final Duration maxLifeTime;
+    private final Duration evictionInterval;
+    private final boolean  keepAlive;
+    private final boolean  http2;
+    private final boolean  micrometerMetrics;
+
+    private HttpConnectionPool(HttpConnectionPoolBuilder builder) {
+        maxOrigins             = builder.maxOrigins;
+        maxOriginIdleTime      = builder.maxOriginIdleTime;
+        maxConnections         = builder.maxConnections;
+        pendingAcquireMaxCount = builder.pendingAcquireMaxCount;
+        pendingAcquireTimeout  = builder.pendingAcquireTimeout;
+        maxIdleTime            = builder.maxIdleTime;
+        maxLifeTime            = builder.maxLifeTime;
+        evictionInterval       = builder.evictionInterval;
+        keepAlive              = builder.keepAlive;
+        http2                  = builder.http2;
+        micrometerMetrics      = builder.micrometerMetrics;
+        if (evictionInterval.isZero() || evictionInterval.isNegative())
+            idleClientEviction = Disposables.single();
+        else
+            idleClientEviction = Flux.interval(evictionInterval, evictionInterval)
+                    .subscribe(tick -> evictIdleClients());
+    }
+
+    /**
+     * @return a pool with default settings
+     */
+    public static HttpConnectionPool withDefaults() {
+        return builder().build();
+    }
+
+    public static HttpConnectionPoolBuilder builder() {
+        return new HttpConnectionPoolBuilder();
+    }
+
+    /**
+     * @param baseUrl the base URL of the requests
+     * @return a client for the base URL sharing the connections to its origin
+     */
+    public WebClient webClient(String baseUrl) {
+        var origin = originOf(baseUrl);
+        var client = clients.get(origin);
+        if (client == null) {
+            var created = createClient(origin);
+            client = clients.putIfAbsent(origin, created);
+            if (client == null) {
+                client = created;
+                evictLeastRecentlyUsedClients();
+            } else {
+                created.connectionProvider().dispose();
+            }
+        }
+        return client.webClient(baseUrl);
+    }
+
+    /**
+     * @param baseUrl the base URL of the requests
+     * @return the statistics of the requests to the origin of the base URL, if
+     *         any request was made
+     */
+    public Optional<Statistics> statistics(String baseUrl) {
+        return Optional.ofNullable(clients.get(originOf(baseUrl))).map(PooledClient::statistics);
+    }
+
+    /**
+     * @return the number of origins with a pooled client
+     */
+    public int size() {
+        return clients.size();
+    }
+
+    @Override
+    public void dispose() {
+        idleClientEviction.dispose();
+        clients.values().forEach(client -> client.connectionProvider().dispose());
+        clients.clear();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return idleClientEviction.isDisposed();
+    }
+
+    private PooledClient createClient(String origin) {
+        var connectionProvider = ConnectionProvider.builder("sapl-http-pip-" + createdClients.getAndIncrement())
+                .maxConnections(maxConnections).pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(pendingAcquireTimeout).maxIdleTime(maxIdleTime).maxLifeTime(maxLifeTime)
+                .evictInBackground(evictionInterval).metrics(micrometerMetrics).build();
+        var httpClient         = HttpClient.create(connectionProvider).keepAlive(keepAlive)
+                .protocol(protocols(origin));
+        if (micrometerMetrics)
+            httpClient = httpClient.metrics(true, uri -> origin);
+        var statistics = new Statistics(maxConnections);
+        var webClient  = WebClient.builder().clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filter(statistics::record).build();
+        return new PooledClient(connectionProvider, webClient, statistics);
+    }
+
+    private void evictLeastRecentlyUsedClients() {
+        while (clients.size() > maxOrigins) {
+            clients.entrySet().stream().min(Comparator.comparingLong(entry -> entry.getValue().lastUsed()))
+                    .ifPresent(entry -> evict(entry.getKey(), entry.getValue()));
+        }
+    }
+
+    void evictIdleClients() {
+        var idleSince = System.nanoTime() - maxOriginIdleTime.toNanos();
+        clients.forEach((origin, client) -> {
+            if (client.lastUsed() - idleSince < 0L)
+                evict(origin, client);
+        });
+    }
+
+    private void evict(String origin, PooledClient client) {
+        if (clients.remove(origin, client))
+            client.connectionProvider().disposeLater().subscribe();
+    }
+
+    static String originOf(String baseUrl) {
+        try {
+            var uri  = URI.create(baseUrl);
+            var host = uri.getHost();
+            if (host == null)
+                return baseUrl;
+            var scheme = uri.getScheme() == null ? "http" : uri.getScheme().toLowerCase(Locale.ROOT);
+            var port   = uri.getPort();
+            if (port == -1)
+                port = isSecureScheme(scheme) ? 443 : 80;
+            return scheme + "://" + host.toLowerCase(Locale.ROOT) + ':' + port;
+        } catch (IllegalArgumentException e) {
+            return baseUrl;
+        }
+    }
+
+    private HttpProtocol[] protocols(String baseUrl) {
+        if (!http2)
+            return new HttpProtocol[] { HttpProtocol.HTTP11 };
+        if (isSecure(baseUrl))
+            return new HttpProtocol[] { HttpProtocol.H2, HttpProtocol.HTTP11 };
+        return new HttpProtocol[] { HttpProtocol.H2C, HttpProtocol.HTTP11 };
+    }
+
+    private static boolean isSecure(String baseUrl) {
+        try {
+            return isSecureScheme(URI.create(baseUrl).getScheme());
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static boolean isSecureScheme(String scheme) {
+        return "https".equalsIgnoreCase(scheme) || "wss".equalsIgnoreCase(scheme);
+    }
+
+    /**
+     * The connections to one origin. Remembers the client of the most recently
+     * requested base URL, so that the client of an origin mostly accessed via
+     * one base URL is not rebuilt for each request.
+     */
+    private static final class PooledClient {
+
+        private final ConnectionProvider connectionProvider;
+        private final WebClient          webClient;
+        private final Statistics         statistics;
+
+        private volatile long          lastUsed = System.nanoTime();
+        private volatile BaseUrlClient lastBaseUrlClient;
+
+        private record BaseUrlClient(String baseUrl, WebClient webClient) {
+        }
+
+        PooledClient(ConnectionProvider connectionProvider, WebClient webClient, Statistics statistics) {
+            this.connectionProvider = connectionProvider;
+            this.webClient          = webClient;
+            this.statistics         = statistics;
+        }
+
+        WebClient webClient(String baseUrl) {
+            lastUsed = System.nanoTime();
+            var last = lastBaseUrlClient;
+            if (last != null && last.baseUrl().equals(baseUrl))
+                return last.webClient();
+            var client = webClient.mutate().baseUrl(baseUrl).build();
+            lastBaseUrlClient = new BaseUrlClient(baseUrl, client);
+            return client;
+        }
+
+        ConnectionProvider connectionProvider() {
+            return connectionProvider;
+        }
+
+        Statistics statistics() {
+            return statistics;
+        }
+
+        long lastUsed() {
+            return lastUsed;
+        }
+
+    }
+
+    /**
+     * Statistics of the requests made to one origin. The latency is measured
+     * until the response headers are received.
+     */
+    public static class Statistics {
+
+        private final int        maxConnections;
+        private final AtomicLong requests          = new AtomicLong();
+        private final AtomicLong failures          = new AtomicLong();
+        private final AtomicLong totalLatencyNanos = new AtomicLong();
+
+        private final AtomicInteger activeRequests    = new AtomicInteger();
+        private final AtomicInteger maxActiveRequests = new AtomicInteger();
+
+        Statistics(int maxConnections) {
+            this.maxConnections = maxConnections;
+        }
+
+        Mono<ClientResponse> record(ClientRequest request, ExchangeFunction next) {
+            return Mono.defer(() -> {
+                var start  = System.nanoTime();
+                maxActiveRequests.accumulateAndGet(activeRequests.incrementAndGet(), Math::max);
+                return next.exchange(request).doOnError(error -> failures.incrementAndGet()).doFinally(signal -> {
+                    activeRequests.decrementAndGet();
+                    requests.incrementAndGet();
+                    totalLatencyNanos.addAndGet(System.nanoTime() - start);
+                });
+            });
+        }
+
+        /**
+         * @return the number of completed requests
+         */
+        public long getRequests() {
+            return requests.get();
+        }
+
+        /**
+         * @return the number of requests failed before a response was received
+         */
+        public long getFailures() {
+            return failures.get();
+        }
+
+        /**
+         * @return the number of requests currently awaiting a response
+         */
+        public int getActiveRequests() {
+            return activeRequests.get();
+        }
+
+        /**
+         * @return the maximal number of requests concurrently awaiting a response
+         */
+        public int getMaxActiveRequests() {
+            return maxActiveRequests.get();
+        }
+
+        /**
+         * @return the ratio of requests currently awaiting a response to the maximal
+         *         number of pooled connections. Values of 1.0 and above indicate that
+         *         requests are waiting for a connection.
+         */
+        public double getSaturation() {
+            return (double) activeRequests.get() / maxConnections;
+        }
+
+        /**
+         * @return the average latency of the completed requests
+         */
+        public Duration getAverageLatency() {
+            var completed = requests.get();
+            if (completed == 0L)
+                return Duration.ZERO;
+            return Duration.ofNanos(totalLatencyNanos.get() / completed);
+        }
+
+    }
+
+    public static class HttpConnectionPoolBuilder {
+        private int      maxOrigins             = 256;
+        private Duration maxOriginIdleTime      = Duration.ofMinutes(10L);
+        private int      maxConnections         = 500;
+        private int      pendingAcquireMaxCount = 1000;
+        private Duration pendingAcquireTimeout  = Duration.ofSeconds(45L);
+        private Duration maxIdleTime            = Duration.ofSeconds(30L);
+        private Duration maxLifeTime            = Duration.ofMinutes(5L);
+        private Duration evictionInterval       = Duration.ofSeconds(60L);
+        private boolean  keepAlive              = true;
+        private boolean  http2                  = false;
+        private boolean  micrometerMetrics      = false;
+
+        /**
+         * @param maxOrigins        the maximal number of origins with pooled
+         *                          connections. Default: 256
+         * @param maxOriginIdleTime the time after which the connections of an
+         *                          unused origin are disposed. Default: 10 minutes
+         * @return the builder
+         */
+        public HttpConnectionPoolBuilder origins(int maxOrigins, Duration maxOriginIdleTime) {
+            if (maxOrigins < 1)
+                throw new IllegalArgumentException("maxOrigins must be positive. Was: " + maxOrigins);
+            this.maxOrigins        = maxOrigins;
+            this.maxOriginIdleTime = maxOriginIdleTime;
+            return this;
+        }
+
+        /**
+         * @param maxConnections the maximal number of connections per origin.
+         *                       Default: 500
+         * @return the builder
+         */
+        public HttpConnectionPoolBuilder maxConnections(int maxConnections) {
+            if (maxConnections < 1)
+                throw new IllegalArgumentException("maxConnections must be positive. Was: " + maxConnections);
+            this.maxConnections = maxConnections;
+            return this;
+        }
+
+        /**
+         * @param pendingAcquireMaxCount the maximal number of requests waiting for a
+         *                               connection per origin. Default: 1000
+         * @param pendingAcquireTimeout  the time a request waits for a connection
+         *                               before failing. Default: 45 seconds
+         * @return the builder
+         */
+        public HttpConnectionPoolBuilder pendingAcquire(int pendingAcquireMaxCount, Duration pendingAcquireTimeout) {
+            this.pendingAcquireMaxCount = pendingAcquireMaxCount;
+            this.pendingAcquireTimeout  = pendingAcquireTimeout;
+            return this;
+        }
+
+        /**
+         * @param maxIdleTime      the time after which an idle connection is closed.
+         *                         Default: 30 seconds
+         * @param maxLifeTime      the time after which a connection is closed.
+         *                         Default: 5 minutes
+         * @param evictionInterval the interval of the background eviction of idle
+         *                         and expired connections. Default: 60 seconds
+         * @return the builder
+         */
+        public HttpConnectionPoolBuilder eviction(Duration maxIdleTime, Duration maxLifeTime,
+                Duration evictionInterval) {
+            this.maxIdleTime      = maxIdleTime;
+            this.maxLifeTime      = maxLifeTime;
+            this.evictionInterval = evictionInterval;
+            return this;
+        }
+
+        /**
+         * @param keepAlive whether to keep connections alive. Default: true
+         * @return the builder
+         */
+        public HttpConnectionPoolBuilder keepAlive(boolean keepAlive) {
+            this.keepAlive = keepAlive;
+            return this;
+        }
+
+        /**
+         * Enables HTTP/2, negotiated via TLS for https, and via upgrade (h2c)
+         * otherwise, falling back to HTTP/1.1. Default: disabled
+         *
+         * @param http2 whether to use HTTP/2
+         * @return the builder
+         */
+        public HttpConnectionPoolBuilder http2(boolean http2) {
+            this.http2 = http2;
+            return this;
+        }
+
+        /**
+         * Enables Reactor Netty's connection pool and client metrics. Requires
+         * Micrometer on the class path. Default: disabled
+         *
+         * @param micrometerMetrics whether to record Micrometer metrics
+         * @return the builder
+         */
+        public HttpConnectionPoolBuilder micrometerMetrics(boolean micrometerMetrics) {
+            this.micrometerMetrics = micrometerMetrics;
+            return this;
+        }
+
+        public HttpConnectionPool build() {
+            return new HttpConnectionPool(this);
+        }
+    }
+
+}
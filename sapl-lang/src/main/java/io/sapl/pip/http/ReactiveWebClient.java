@@ -18,19 +18,20 @@
 package io.sapl.pip.http;
 
 import java.net.URI;
+import java.time.Clock;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
-import org.springframework.http.HttpStatusCode;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.codec.ServerSentEvent;
-import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClient.RequestHeadersSpec;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import org.springframework.web.reactive.socket.WebSocketMessage;
@@ -47,6 +48,7 @@
 
 import io.sapl.api.interpreter.PolicyEvaluationException;
 import io.sapl.api.interpreter.Val;
+import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -54,7 +56,7 @@
 import reactor.core.publisher.Sinks.Many;
 import reactor.retry.Repeat;
 
-@RequiredArgsConstructor
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
 public class ReactiveWebClient {
 
     static final String NO_BASE_URL_SPECIFIED_FOR_WEB_REQUEST_ERROR = "No base URL specified for web request.";
@@ -73,7 +75,39 @@ public class ReactiveWebClient {
     private static final JsonNodeFactory JSON             = JsonNodeFactory.instance;
     private static final TextNode        APPLICATION_JSON = JSON.textNode(MediaType.APPLICATION_JSON.toString());
 
-    private final ObjectMapper mapper;
+    private final ObjectMapper       mapper;
+    private final HttpConnectionPool connectionPool;
+    private final SharedPollers      sharedPollers;
+    private final Clock              clock;
+
+    /**
+     * Creates a client with its own connection pool and pollers using the
+     * default settings.
+     *
+     * @param mapper the mapper used to convert JSON
+     */
+    public ReactiveWebClient(ObjectMapper mapper) {
+        this(mapper, HttpConnectionPool.withDefaults());
+    }
+
+    /**
+     * Creates a client with its own pollers using the default settings.
+     *
+     * @param mapper         the mapper used to convert JSON
+     * @param connectionPool the pool providing the connections
+     */
+    public ReactiveWebClient(ObjectMapper mapper, HttpConnectionPool connectionPool) {
+        this(mapper, connectionPool, new SharedPollers(SharedPollers.DEFAULT_MAX_POLLERS));
+    }
+
+    /**
+     * @param mapper         the mapper used to convert JSON
+     * @param connectionPool the pool providing the connections
+     * @param sharedPollers  coalesces identical polling requests
+     */
+    public ReactiveWebClient(ObjectMapper mapper, HttpConnectionPool connectionPool, SharedPollers sharedPollers) {
+        this(mapper, connectionPool, sharedPollers, Clock.systemUTC());
+    }
 
     /**
      * <p>
@@ -96,29 +130,29 @@ public Flux<Val> httpRequest(HttpMethod method, Val requestSettings) {
         var contentType        = toMediaType(requestSettings.fieldJsonNodeOrElse(CONTENT_MEDIATYPE, APPLICATION_JSON));
         var body               = requestSettings.fieldJsonNodeOrElse(BODY, (JsonNode) null);
 
-        // @formatter:off
-        var spec = WebClient.builder()
-                            .baseUrl(baseUrl).build()
-                            .method(method)
-                            .uri(u -> setUrlParams(u, urlParameters).path(path).build())
-                            .headers(h -> setHeaders(h,requestHeaders))
-                            .accept(accept);
-        // @formatter:on
-
-        RequestHeadersSpec<?> client = spec;
-        if (method != HttpMethod.GET && body != null) {
-            client = spec.contentType(contentType).bodyValue(body);
-        }
+        Supplier<RequestHeadersSpec<?>> client = () -> {
+            // @formatter:off
+            var spec = connectionPool.webClient(baseUrl)
+                                .method(method)
+                                .uri(u -> setUrlParams(u, urlParameters).path(path).build())
+                                .headers(h -> setHeaders(h,requestHeaders))
+                                .accept(accept);
+            // @formatter:on
+            if (method != HttpMethod.GET && body != null) {
+                return spec.contentType(contentType).bodyValue(body);
+            }
+            return spec;
+        };
 
         switch (accept.toString()) {
         case MediaType.TEXT_EVENT_STREAM_VALUE:
-            return retrieveSSE(client).map(Val::of).onErrorResume(this::mapError);
+            return retrieveSSE(client.get()).map(Val::of).onErrorResume(this::mapError);
         case MediaType.APPLICATION_JSON_VALUE:
-            return poll(exchangeToMono(JsonNode.class, client).map(Val::of).onErrorResume(this::mapError),
-                    pollingIntervallMs, repetitions);
+            return sharedPollers.poll(method, requestSettings,
+                    () -> poll(JsonNode.class, client, pollingIntervallMs, repetitions));
         default:
-            return poll(exchangeToMono(String.class, client).map(Val::of).onErrorResume(this::mapError),
-                    pollingIntervallMs, repetitions);
+            return sharedPollers.poll(method, requestSettings,
+                    () -> poll(String.class, client, pollingIntervallMs, repetitions));
         }
     }
 
@@ -199,16 +233,31 @@ private Flux<JsonNode> retrieveSSE(RequestHeadersSpec<?> client) {
         return client.retrieve().bodyToFlux(type).map(ServerSentEvent::data);
     }
 
-    private Flux<Val> poll(Mono<Val> in, long pollingInterval, long repeatTimes) {
+    private <T> Flux<Val> poll(Class<T> clazz, Supplier<RequestHeadersSpec<?>> client, long pollingInterval,
+            long repeatTimes) {
+        var cachedResponse = new CachedResponse(clock);
+        var in             = Mono.defer(() -> exchangeToMono(clazz, client.get(), cachedResponse))
+                .onErrorResume(this::mapError);
         return in.repeatWhen((Repeat.times(repeatTimes - 1).fixedBackoff(Duration.ofMillis(pollingInterval))));
     }
 
-    private <T> Mono<T> exchangeToMono(Class<T> clazz, RequestHeadersSpec<?> in) {
-        return in.retrieve()
-                .onStatus(HttpStatusCode::isError,
-                        clientResponse -> clientResponse.createException()
-                                .flatMap(error -> Mono.error(new PolicyEvaluationException(error.getMessage()))))
-                .bodyToMono(clazz);
+    private <T> Mono<Val> exchangeToMono(Class<T> clazz, RequestHeadersSpec<?> in, CachedResponse cachedResponse) {
+        var fresh = cachedResponse.freshValue();
+        if (fresh.isPresent())
+            return Mono.just(fresh.get());
+        cachedResponse.eTag().ifPresent(eTag -> in.header(HttpHeaders.IF_NONE_MATCH, eTag));
+        return in.exchangeToMono(response -> {
+            var cached = cachedResponse.value();
+            if (response.statusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED) && cached.isPresent()) {
+                cachedResponse.refresh(response.headers().asHttpHeaders());
+                return response.releaseBody().thenReturn(cached.get());
+            }
+            if (response.statusCode().isError())
+                return response.createException()
+                        .flatMap(error -> Mono.error(new PolicyEvaluationException(error.getMessage())));
+            return response.bodyToMono(clazz).map(Val::of)
+                    .doOnNext(value -> cachedResponse.store(value, response.headers().asHttpHeaders()));
+        });
     }
 
     private Mono<Val> mapError(Throwable e) {
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.pip.http;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import org.springframework.http.HttpMethod;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.sapl.api.interpreter.Val;
+import lombok.Getter;
+import reactor.core.publisher.Flux;
+
+/**
+ * Coalesces polling HTTP requests. All concurrent subscriptions with identical
+ * request settings share a single upstream poller, which fans out its results.
+ * A subscriber joining a running poller immediately receives the latest result
+ * and then follows the shared schedule. The poller stops once the last
+ * subscriber cancels.
+ * <p>
+ * The number of concurrently running upstream pollers is bounded. Requests
+ * which would exceed the bound evaluate to an error.
+ */
+public class SharedPollers {
+
+    static final String TOO_MANY_POLLERS_ERROR = "Maximum number of %d concurrent HTTP pollers exceeded.";
+
+    public static final int DEFAULT_MAX_POLLERS = 10_000;
+
+    private final Map<PollerKey, Flux<Val>> pollers = new ConcurrentHashMap<>();
+
+    @Getter
+    private final int maxPollers;
+
+    /**
+     * @param maxPollers the maximal number of concurrently running upstream
+     *                   pollers
+     */
+    public SharedPollers(int maxPollers) {
+        if (maxPollers < 1)
+            throw new IllegalArgumentException("maxPollers must be positive. Was: " + maxPollers);
+        this.maxPollers = maxPollers;
+    }
+
+    /**
+     * Returns the shared poller for the request, starting it with the given
+     * supplier if no poller for identical request settings is running.
+     *
+     * @param method          the HTTP method
+     * @param requestSettings the request settings
+     * @param poller          creates the upstream poller
+     * @return the shared results of the poller
+     */
+    public Flux<Val> poll(HttpMethod method, Val requestSettings, Supplier<Flux<Val>> poller) {
+        var key = new PollerKey(method, requestSettings.get());
+        return Flux.defer(() -> {
+            var shared = pollers.get(key);
+            if (shared == null)
+                shared = pollers.computeIfAbsent(key, k -> pollers.size() < maxPollers ? share(k, poller) : null);
+            if (shared == null)
+                return Flux.just(Val.error(TOO_MANY_POLLERS_ERROR, maxPollers));
+            return shared;
+        });
+    }
+
+    /**
+     * @return the number of running upstream pollers
+     */
+    public int size() {
+        return pollers.size();
+    }
+
+    private Flux<Val> share(PollerKey key, Supplier<Flux<Val>> poller) {
+        var self   = new AtomicReference<Flux<Val>>();
+        var shared = Flux.defer(poller).doFinally(signal -> pollers.remove(key, self.get())).replay(1).refCount();
+        self.set(shared);
+        return shared;
+    }
+
+    private record PollerKey(HttpMethod method, JsonNode requestSettings) {
+    }
+
+}
@@ -17,13 +17,18 @@
  */
 package io.sapl.prp;
 
+import java.util.List;
+
 import io.sapl.prp.index.ImmutableParsedDocumentIndex;
 import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+import reactor.util.function.Tuple2;
 
 public class GenericInMemoryIndexedPolicyRetrievalPoint implements PolicyRetrievalPoint, Disposable {
 
-    private final Flux<ImmutableParsedDocumentIndex> index;
+    private final Flux<Tuple2<Long, ImmutableParsedDocumentIndex>> index;
 
     private final Disposable indexSubscription;
 
@@ -33,14 +38,24 @@ public GenericInMemoryIndexedPolicyRetrievalPoint(ImmutableParsedDocumentIndex s
             PrpUpdateEventSource eventSource) {
         this.eventSource = eventSource;
         index            = Flux.from(eventSource.getUpdates()).scan(seedIndex, ImmutableParsedDocumentIndex::apply)
-                .skip(1L).share().cache(1);
+                .skip(1L).index().share().cache(1);
         // initial subscription, so that the index starts building upon startup
         indexSubscription = Flux.from(index).subscribe();
     }
 
     @Override
     public Flux<PolicyRetrievalResult> retrievePolicies() {
-        return Flux.from(index).flatMap(ImmutableParsedDocumentIndex::retrievePolicies);
+        return Flux.from(index).map(Tuple2::getT2).flatMap(ImmutableParsedDocumentIndex::retrievePolicies);
+    }
+
+    @Override
+    public Mono<List<PolicyRetrievalResult>> retrievePolicies(List<? extends ContextView> subscriptionContexts) {
+        return Flux.from(index).next().flatMap(indexed -> indexed.getT2().retrievePolicies(subscriptionContexts));
+    }
+
+    @Override
+    public Flux<Long> policyUpdates() {
+        return Flux.from(index).map(Tuple2::getT1);
     }
 
     @Override
@@ -17,7 +17,11 @@
  */
 package io.sapl.prp;
 
+import java.util.List;
+
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
 
 /**
  * A policy retrieval point is responsible for selecting all the policies
@@ -37,6 +41,34 @@ public interface PolicyRetrievalPoint {
      */
     Flux<PolicyRetrievalResult> retrievePolicies();
 
+    /**
+     * Retrieves the policies matching each of a batch of authorization
+     * subscriptions once, based on the same state of the policy documents where
+     * the implementation supports it. Implementations may share work between the
+     * subscriptions of the batch.
+     *
+     * @param subscriptionContexts the subscription scoped contexts, one per
+     *                             authorization subscription
+     * @return a {@link Mono} of the policy retrieval results in the order of the
+     *         contexts
+     */
+    default Mono<List<PolicyRetrievalResult>> retrievePolicies(List<? extends ContextView> subscriptionContexts) {
+        return Flux.fromIterable(subscriptionContexts).concatMap(ctx -> retrievePolicies().next().contextWrite(ctx))
+                .collectList();
+    }
+
+    /**
+     * Returns a {@link Flux} emitting whenever the policy documents the retrieval
+     * is based on have been updated. Consumers can use this to invalidate
+     * anything derived from previously retrieved documents.
+     *
+     * @return a {@link Flux} of consecutive update numbers. Never emits for a
+     *         fixed set of documents.
+     */
+    default Flux<Long> policyUpdates() {
+        return Flux.never();
+    }
+
     /**
      * Release all claimed resources
      */
@@ -17,14 +17,29 @@
  */
 package io.sapl.prp.index;
 
+import java.util.List;
+
 import io.sapl.prp.PolicyRetrievalResult;
 import io.sapl.prp.PrpUpdateEvent;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
 
 public interface ImmutableParsedDocumentIndex {
 
     Mono<PolicyRetrievalResult> retrievePolicies();
 
+    /**
+     * Retrieves the policies for a batch of subscriptions.
+     *
+     * @param subscriptionContexts the subscription scoped contexts
+     * @return the retrieval results in the order of the contexts
+     */
+    default Mono<List<PolicyRetrievalResult>> retrievePolicies(List<? extends ContextView> subscriptionContexts) {
+        return Flux.fromIterable(subscriptionContexts).concatMap(ctx -> retrievePolicies().contextWrite(ctx))
+                .collectList();
+    }
+
     ImmutableParsedDocumentIndex apply(PrpUpdateEvent event);
 
 }
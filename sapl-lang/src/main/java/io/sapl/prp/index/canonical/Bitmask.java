@@ -18,16 +18,18 @@
 package io.sapl.prp.index.canonical;
 
 import java.util.BitSet;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
 import com.google.common.base.Preconditions;
 
+/**
+ * Mutable set of non-negative integers used to represent sets of conjunctions
+ * in the canonical index.
+ */
 public class Bitmask {
 
     private final BitSet impl;
 
-    // force initial capacity?
     public Bitmask() {
         impl = new BitSet();
     }
@@ -40,6 +42,19 @@ public void and(Bitmask mask) {
         impl.and(mask.impl);
     }
 
+    /**
+     * Sets this mask to the intersection of the given masks without creating an
+     * intermediate copy.
+     *
+     * @param left  a mask
+     * @param right another mask
+     */
+    public void setToAnd(Bitmask left, Bitmask right) {
+        impl.clear();
+        impl.or(left.impl);
+        impl.and(right.impl);
+    }
+
     public void andNot(Bitmask mask) {
         impl.andNot(mask.impl);
     }
@@ -48,6 +63,10 @@ public void clear(int bitIndex) {
         impl.clear(bitIndex);
     }
 
+    public void clear() {
+        impl.clear();
+    }
+
     public void flip(int fromIndex, int toIndex) {
         impl.flip(fromIndex, toIndex);
     }
@@ -69,21 +88,28 @@ public void set(int fromIndex, int toIndex) {
     }
 
     public int numberOfBitsSet() {
-        AtomicInteger numberOfBitsSets = new AtomicInteger();
-        forEachSetBit(index -> numberOfBitsSets.getAndIncrement());
-
-        return numberOfBitsSets.get();
+        return impl.cardinality();
     }
 
-    public void forEachSetBit(final Consumer<Integer> action) {
+    public void forEachSetBit(final IntConsumer action) {
         Preconditions.checkNotNull(action);
-        impl.stream().forEach(action::accept);
+        for (int index = impl.nextSetBit(0); index >= 0; index = impl.nextSetBit(index + 1)) {
+            action.accept(index);
+        }
     }
 
     public boolean isSet(int bitIndex) {
         return impl.get(bitIndex);
     }
 
+    public int nextSetBit(int fromIndex) {
+        return impl.nextSetBit(fromIndex);
+    }
+
+    public boolean isEmpty() {
+        return impl.isEmpty();
+    }
+
     @Override
     public String toString() {
         return String.valueOf(impl.toString());
@@ -17,16 +17,32 @@
  */
 package io.sapl.prp.index.canonical;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
+import org.eclipse.emf.ecore.EObject;
+import org.reactivestreams.Subscription;
+
 import com.google.common.base.Preconditions;
 
+import io.sapl.api.interpreter.PolicyEvaluationException;
 import io.sapl.api.interpreter.Val;
+import io.sapl.grammar.sapl.AttributeFinderStep;
+import io.sapl.grammar.sapl.BasicEnvironmentAttribute;
+import io.sapl.grammar.sapl.BasicEnvironmentHeadAttribute;
+import io.sapl.grammar.sapl.BasicFunction;
+import io.sapl.grammar.sapl.BasicIdentifier;
+import io.sapl.grammar.sapl.BasicRelative;
 import io.sapl.grammar.sapl.Expression;
+import io.sapl.grammar.sapl.FilterComponent;
+import io.sapl.grammar.sapl.HeadAttributeFinderStep;
 import io.sapl.interpreter.context.AuthorizationContext;
+import reactor.core.publisher.BaseSubscriber;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
 
 public class Bool {
 
@@ -44,6 +60,10 @@ public class Bool {
 
     private boolean isConstantExpression;
 
+    private boolean hasReferencedVariables;
+
+    private List<String> referencedVariables;
+
     public Bool(boolean value) {
         isConstantExpression = true;
         constant             = value;
@@ -54,6 +74,38 @@ public Bool(final Expression expression, final Map<String, String> imports) {
         this.imports    = imports;
     }
 
+    /**
+     * @return the names of the variables the expression depends on, if its value
+     *         is fully determined by the values of these variables. Then, the
+     *         result of an evaluation can be reused for other subscriptions with
+     *         equal values of these variables. {@code null}, if the expression
+     *         calls functions or attribute finders, or if the Bool is constant.
+     */
+    public List<String> getReferencedVariables() {
+        if (!hasReferencedVariables) {
+            referencedVariables    = isConstantExpression ? null
+                    : referencedVariablesIfOnlyDependingOnVariables(expression);
+            hasReferencedVariables = true;
+        }
+        return referencedVariables;
+    }
+
+    private static List<String> referencedVariablesIfOnlyDependingOnVariables(Expression expression) {
+        var     variables = new ArrayList<String>();
+        var     contents  = expression.eAllContents();
+        EObject node      = expression;
+        while (node != null) {
+            if (node instanceof BasicFunction || node instanceof FilterComponent || node instanceof BasicRelative
+                    || node instanceof AttributeFinderStep || node instanceof HeadAttributeFinderStep
+                    || node instanceof BasicEnvironmentAttribute || node instanceof BasicEnvironmentHeadAttribute)
+                return null;
+            if (node instanceof BasicIdentifier identifier && !variables.contains(identifier.getIdentifier()))
+                variables.add(identifier.getIdentifier());
+            node = contents.hasNext() ? contents.next() : null;
+        }
+        return List.copyOf(variables);
+    }
+
     public boolean evaluate() {
         if (isConstantExpression) {
             return constant;
@@ -69,6 +121,36 @@ public Mono<Val> evaluateExpression() {
                 .next();
     }
 
+    /**
+     * Evaluates the expression by directly subscribing to it with the given
+     * context. Targets cannot contain attribute finders, so their evaluation
+     * usually completes during subscription and no Reactor operators have to be
+     * assembled around the result.
+     *
+     * @param ctx the subscription scoped context
+     * @return the result of the evaluation, or {@code null} if the expression did
+     * not emit a value synchronously. In that case the caller must fall back to
+     * {@link #evaluateExpression()}.
+     * @throws PolicyEvaluationException if the expression signalled an error
+     */
+    public Val evaluateExpressionSynchronously(ContextView ctx) {
+        if (isConstantExpression) {
+            return Val.of(constant);
+        }
+        var firstValue = new FirstValueSubscriber();
+        expression.evaluate().contextWrite(c -> AuthorizationContext.setImports(c, imports)).contextWrite(ctx)
+                .subscribe(firstValue);
+        if (firstValue.error != null) {
+            throw new PolicyEvaluationException(firstValue.error);
+        }
+        var result = firstValue.value;
+        if (result == null) {
+            firstValue.dispose();
+            return null;
+        }
+        return result.isError() || result.isBoolean() ? result : Val.error("expression not boolean");
+    }
+
     public boolean isImmutable() {
         return isConstantExpression;
     }
@@ -114,4 +196,28 @@ public boolean equals(Object obj) {
         }
     }
 
+    private static final class FirstValueSubscriber extends BaseSubscriber<Val> {
+
+        private Val value;
+
+        private Throwable error;
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            request(1);
+        }
+
+        @Override
+        protected void hookOnNext(Val value) {
+            this.value = value;
+            cancel();
+        }
+
+        @Override
+        protected void hookOnError(Throwable throwable) {
+            error = throwable;
+        }
+
+    }
+
 }
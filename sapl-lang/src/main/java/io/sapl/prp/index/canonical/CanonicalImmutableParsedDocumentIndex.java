@@ -20,6 +20,7 @@
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.stream.Collectors;
@@ -37,6 +38,7 @@
 import io.sapl.prp.index.canonical.ordering.DefaultPredicateOrderStrategy;
 import io.sapl.prp.index.canonical.ordering.PredicateOrderStrategy;
 import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
 
 public class CanonicalImmutableParsedDocumentIndex implements ImmutableParsedDocumentIndex {
 
@@ -44,6 +46,8 @@ public class CanonicalImmutableParsedDocumentIndex implements ImmutableParsedDoc
 
     private final Map<String, SAPL> documents;
 
+    private final Map<String, DisjunctiveFormula> targets;
+
     private final PredicateOrderStrategy predicateOrderStrategy;
 
     private final boolean consistent;
@@ -70,18 +74,67 @@ private CanonicalImmutableParsedDocumentIndex(Map<String, SAPL> updatedDocuments
         this.attributeCtx           = attributeCtx;
         this.functionCtx            = functionCtx;
 
-        Map<String, DisjunctiveFormula> targets = this.documents.entrySet().stream()
+        this.targets = this.documents.entrySet().stream()
                 .collect(Collectors.toMap(Entry::getKey, entry -> retainTarget(entry.getValue())));
 
         this.indexDataContainer = new CanonicalIndexDataCreationStrategy(predicateOrderStrategy).constructNew(documents,
                 targets);
     }
 
+    private CanonicalImmutableParsedDocumentIndex(Map<String, SAPL> updatedDocuments,
+            Map<String, DisjunctiveFormula> updatedTargets, CanonicalIndexDataContainer updatedIndexDataContainer,
+            PredicateOrderStrategy predicateOrderStrategy, boolean consistent, AttributeContext attributeCtx,
+            FunctionContext functionCtx) {
+        this.documents              = updatedDocuments;
+        this.targets                = updatedTargets;
+        this.indexDataContainer     = updatedIndexDataContainer;
+        this.predicateOrderStrategy = predicateOrderStrategy;
+        this.consistent             = consistent;
+        this.attributeCtx           = attributeCtx;
+        this.functionCtx            = functionCtx;
+    }
+
     CanonicalImmutableParsedDocumentIndex recreateIndex(Map<String, SAPL> updatedDocuments, boolean consistent) {
         return new CanonicalImmutableParsedDocumentIndex(updatedDocuments, predicateOrderStrategy, consistent,
                 attributeCtx, functionCtx);
     }
 
+    /**
+     * Derives the index for the updated documents from this index. Only the
+     * targets of documents which have been published or withdrawn are walked and
+     * only the affected parts of the index data are rebuilt. This index remains
+     * unchanged.
+     */
+    CanonicalImmutableParsedDocumentIndex updateIndex(Map<String, SAPL> updatedDocuments, boolean consistent) {
+        if (indexDataContainer == null || !indexDataContainer.isIncrementallyUpdatable()) {
+            return recreateIndex(updatedDocuments, consistent);
+        }
+
+        var updatedTargets     = new HashMap<>(targets);
+        var withdrawnDocuments = new HashMap<SAPL, DisjunctiveFormula>();
+        var publishedDocuments = new HashMap<SAPL, DisjunctiveFormula>();
+        for (var entry : documents.entrySet()) {
+            if (updatedDocuments.get(entry.getKey()) != entry.getValue()) {
+                withdrawnDocuments.put(entry.getValue(), updatedTargets.remove(entry.getKey()));
+            }
+        }
+        for (var entry : updatedDocuments.entrySet()) {
+            if (documents.get(entry.getKey()) != entry.getValue()) {
+                var target = retainTarget(entry.getValue());
+                updatedTargets.put(entry.getKey(), target);
+                publishedDocuments.put(entry.getValue(), target);
+            }
+        }
+
+        var updatedIndexDataContainer = indexDataContainer;
+        if (!withdrawnDocuments.isEmpty() || !publishedDocuments.isEmpty()) {
+            updatedIndexDataContainer = new CanonicalIndexDataCreationStrategy(predicateOrderStrategy)
+                    .constructUpdated(indexDataContainer, withdrawnDocuments, publishedDocuments);
+        }
+        return new CanonicalImmutableParsedDocumentIndex(updatedDocuments, updatedTargets, updatedIndexDataContainer,
+                predicateOrderStrategy, consistent, attributeCtx, functionCtx);
+    }
+
     @Override
     public Mono<PolicyRetrievalResult> retrievePolicies() {
         if (!consistent) {
@@ -94,6 +147,15 @@ public Mono<PolicyRetrievalResult> retrievePolicies() {
         }
     }
 
+    @Override
+    public Mono<List<PolicyRetrievalResult>> retrievePolicies(List<? extends ContextView> subscriptionContexts) {
+        if (!consistent) {
+            return Mono.just(subscriptionContexts.stream()
+                    .map(ctx -> new PolicyRetrievalResult(new ArrayList<>(), true, false)).toList());
+        }
+        return CanonicalIndexAlgorithm.matchAll(indexDataContainer, subscriptionContexts);
+    }
+
     @Override
     public ImmutableParsedDocumentIndex apply(PrpUpdateEvent event) {
         var newDocuments        = new HashMap<>(documents);
@@ -107,7 +169,7 @@ public ImmutableParsedDocumentIndex apply(PrpUpdateEvent event) {
                 applyUpdate(newDocuments, update);
             }
         }
-        return recreateIndex(newDocuments, newConsistencyState);
+        return updateIndex(newDocuments, newConsistencyState);
     }
 
     // only PUBLISH or WITHDRAW
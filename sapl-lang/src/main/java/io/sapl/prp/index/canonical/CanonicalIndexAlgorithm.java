@@ -17,8 +17,10 @@
  */
 package io.sapl.prp.index.canonical;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -26,17 +28,209 @@
 
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.SAPL;
+import io.sapl.interpreter.context.AuthorizationContext;
 import io.sapl.prp.PolicyRetrievalResult;
 import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
 import lombok.experimental.UtilityClass;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
 
+@Slf4j
 @UtilityClass
 public class CanonicalIndexAlgorithm {
 
+    private final ThreadLocal<CanonicalIndexMatchingContext> MATCHING_CONTEXTS = ThreadLocal
+            .withInitial(() -> new CanonicalIndexMatchingContext(0));
+
     public Mono<PolicyRetrievalResult> match(CanonicalIndexDataContainer dataContainer) {
-        return matchCollectorNewest(dataContainer);
+        return Mono.deferContextual(ctx -> {
+            var result = matchSynchronously(dataContainer, ctx);
+            return result != null ? Mono.just(result) : matchCollectorNewest(dataContainer);
+        });
+    }
+
+    /**
+     * Matches the index without assembling Reactor operators per predicate.
+     * Predicates are evaluated directly against the subscription scoped context
+     * and candidates are updated in place, using a matching context and scratch
+     * masks which are reused by the current thread. If the index adapts its
+     * predicate order, the evaluations of sampled matchings are recorded.
+     *
+     * @param dataContainer the index data
+     * @param ctx           the subscription scoped context
+     * @return the retrieval result, or {@code null} if a predicate did not
+     *         evaluate synchronously. Then the reactive matching has to be used.
+     */
+    PolicyRetrievalResult matchSynchronously(CanonicalIndexDataContainer dataContainer, ContextView ctx) {
+        var matchingCtx = MATCHING_CONTEXTS.get();
+        matchingCtx.reset(dataContainer.getNumberOfConjunctions());
+        var sampling = dataContainer.startMatching();
+        for (Predicate predicate : dataContainer.getPredicateOrder()) {
+            if (!matchingCtx.isPredicateReferencedInCandidates(predicate))
+                continue;
+
+            var evaluationResult = evaluateSynchronously(predicate, ctx, sampling, dataContainer);
+            if (evaluationResult == null)
+                return null;
+
+            if (evaluationResult.isError()) {
+                handleErrorEvaluationResult(predicate, matchingCtx);
+            } else {
+                updateCandidatesInPlace(predicate, evaluationResult.getBoolean(), matchingCtx, dataContainer);
+            }
+        }
+        var formulas = fetchFormulas(matchingCtx.getMatchingCandidatesMask(), dataContainer);
+        var policies = fetchPolicies(formulas, dataContainer);
+        return new PolicyRetrievalResult(policies, matchingCtx.isErrorsInTargets(), true);
+    }
+
+    /**
+     * Matches the index for a batch of subscriptions. The predicates are walked
+     * once in index order and each predicate is evaluated for all subscriptions
+     * which still reference it in their candidates. If the value of a predicate
+     * is fully determined by variables, e.g., {@code subject.role == "admin"},
+     * it is only evaluated once for each distinct combination of the values of
+     * these variables within the batch.
+     *
+     * @param dataContainer        the index data
+     * @param subscriptionContexts the subscription scoped contexts
+     * @return the retrieval results in the order of the contexts
+     */
+    public Mono<List<PolicyRetrievalResult>> matchAll(CanonicalIndexDataContainer dataContainer,
+            List<? extends ContextView> subscriptionContexts) {
+        return Mono.defer(() -> {
+            var results = matchAllSynchronously(dataContainer, subscriptionContexts);
+            return Flux.range(0, results.length)
+                    .concatMap(i -> results[i] != null ? Mono.just(results[i])
+                            : matchCollectorNewest(dataContainer).contextWrite(subscriptionContexts.get(i)))
+                    .collectList();
+        });
+    }
+
+    /**
+     * Synchronous part of {@link #matchAll(CanonicalIndexDataContainer, List)}.
+     *
+     * @return the retrieval results in the order of the contexts. An entry is
+     *         {@code null} if a predicate did not evaluate synchronously for the
+     *         subscription. Then the reactive matching has to be used for it.
+     */
+    PolicyRetrievalResult[] matchAllSynchronously(CanonicalIndexDataContainer dataContainer,
+            List<? extends ContextView> subscriptionContexts) {
+        var numberOfSubscriptions = subscriptionContexts.size();
+        var results               = new PolicyRetrievalResult[numberOfSubscriptions];
+        var matchingCtxs          = new CanonicalIndexMatchingContext[numberOfSubscriptions];
+        var active                = new Bitmask();
+        for (int i = 0; i < numberOfSubscriptions; i++) {
+            matchingCtxs[i] = new CanonicalIndexMatchingContext(dataContainer.getNumberOfConjunctions());
+        }
+        active.set(0, numberOfSubscriptions);
+        var sampling = dataContainer.startMatching();
+
+        var memo = new HashMap<List<Object>, Val>();
+        for (Predicate predicate : dataContainer.getPredicateOrder()) {
+            memo.clear();
+            var variables = predicate.getBool().getReferencedVariables();
+            for (int i = active.nextSetBit(0); i >= 0; i = active.nextSetBit(i + 1)) {
+                var matchingCtx = matchingCtxs[i];
+                if (!matchingCtx.isPredicateReferencedInCandidates(predicate))
+                    continue;
+
+                var ctx              = subscriptionContexts.get(i);
+                var evaluationResult = variables == null
+                        ? evaluateSynchronously(predicate, ctx, sampling, dataContainer)
+                        : memo.computeIfAbsent(memoKey(variables, ctx),
+                                key -> evaluateSynchronously(predicate, ctx, sampling, dataContainer));
+                if (evaluationResult == null) {
+                    active.clear(i);
+                } else if (evaluationResult.isError()) {
+                    handleErrorEvaluationResult(predicate, matchingCtx);
+                } else {
+                    updateCandidatesInPlace(predicate, evaluationResult.getBoolean(), matchingCtx, dataContainer);
+                }
+            }
+        }
+
+        for (int i = active.nextSetBit(0); i >= 0; i = active.nextSetBit(i + 1)) {
+            var formulas = fetchFormulas(matchingCtxs[i].getMatchingCandidatesMask(), dataContainer);
+            var policies = fetchPolicies(formulas, dataContainer);
+            results[i] = new PolicyRetrievalResult(policies, matchingCtxs[i].isErrorsInTargets(), true);
+        }
+        return results;
+    }
+
+    private Val evaluateSynchronously(Predicate predicate, ContextView ctx, boolean sampling,
+            CanonicalIndexDataContainer dataContainer) {
+        if (!sampling)
+            return evaluatePredicateSynchronously(predicate, ctx);
+
+        var start  = System.nanoTime();
+        var result = evaluatePredicateSynchronously(predicate, ctx);
+        if (result != null)
+            dataContainer.recordEvaluation(predicate, result, System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * An exception thrown while evaluating a target expression is treated like an
+     * error value of the predicate. Failures of the index itself are not caught.
+     */
+    private Val evaluatePredicateSynchronously(Predicate predicate, ContextView ctx) {
+        try {
+            return predicate.evaluateSynchronously(ctx);
+        } catch (RuntimeException e) {
+            log.warn("Evaluation of an indexed target expression failed: {}", e.getMessage(), e);
+            return Val.error(e);
+        }
+    }
+
+    private List<Object> memoKey(List<String> variables, ContextView ctx) {
+        var key = new ArrayList<>(variables.size());
+        for (var variable : variables) {
+            // Val equality is numeric-aware, the memo must distinguish e.g. 1 and 1.0
+            var value = AuthorizationContext.getVariable(ctx, variable);
+            key.add(value.isDefined() ? value.get() : value);
+        }
+        return key;
+    }
+
+    private void updateCandidatesInPlace(Predicate predicate, boolean evaluationResult,
+            CanonicalIndexMatchingContext matchingCtx, CanonicalIndexDataContainer dataContainer) {
+        var candidates  = matchingCtx.getCandidates();
+        var satisfied   = matchingCtx.satisfiedCandidatesScratch;
+        var unsatisfied = matchingCtx.unsatisfiedCandidatesScratch;
+        var orphaned    = matchingCtx.orphanedCandidatesScratch;
+
+        // first use the unsatisfied mask for the candidates with a true literal
+        unsatisfied.setToAnd(candidates,
+                evaluationResult ? predicate.getFalseForFalsePredicate() : predicate.getFalseForTruePredicate());
+
+        satisfied.clear();
+        for (int index = unsatisfied.nextSetBit(0); index >= 0; index = unsatisfied.nextSetBit(index + 1)) {
+            matchingCtx.incrementTrueLiteralsForConjunction(index);
+            if (matchingCtx.isConjunctionSatisfied(index, dataContainer.getNumberOfLiteralsInConjunction(index)))
+                satisfied.set(index);
+        }
+        matchingCtx.addSatisfiedCandidates(satisfied);
+
+        unsatisfied.setToAnd(candidates,
+                evaluationResult ? predicate.getFalseForTruePredicate() : predicate.getFalseForFalsePredicate());
+
+        orphaned.clear();
+        for (int index = satisfied.nextSetBit(0); index >= 0; index = satisfied.nextSetBit(index + 1)) {
+            for (CTuple cTuple : dataContainer.getConjunctionsInFormulasReferencingConjunction(index)) {
+                if (!matchingCtx.isRemainingCandidate(cTuple.getCI()))
+                    continue;
+
+                matchingCtx.increaseNumberOfEliminatedFormulasForConjunction(cTuple.getCI(), cTuple.getN());
+                if (matchingCtx.areAllFunctionsEliminated(cTuple.getCI(),
+                        dataContainer.getNumberOfFormulasWithConjunction(cTuple.getCI())))
+                    orphaned.set(cTuple.getCI());
+            }
+        }
+
+        reduceCandidates(matchingCtx, unsatisfied, satisfied, orphaned);
     }
 
     public Mono<PolicyRetrievalResult> matchCollectorNewest(CanonicalIndexDataContainer dataContainer) {
@@ -169,8 +363,8 @@ Bitmask findSatisfiableCandidates(final Predicate predicate, final boolean evalu
 
     private List<SAPL> fetchPolicies(final Set<DisjunctiveFormula> formulas,
             CanonicalIndexDataContainer dataContainer) {
-        return formulas.parallelStream().map(dataContainer::getPoliciesIncludingFormula)
-                .flatMap(Collection::parallelStream).distinct().toList();
+        return formulas.stream().map(dataContainer::getPoliciesIncludingFormula).flatMap(Collection::stream)
+                .distinct().toList();
     }
 
     Bitmask findUnsatisfiableCandidates(final CanonicalIndexMatchingContext matchingCtx, final Predicate predicate,
@@ -24,25 +24,30 @@
 
 import com.google.common.collect.ImmutableList;
 
+import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.SAPL;
+import io.sapl.prp.index.canonical.ordering.AdaptivePredicateOrderStrategy;
 import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
 
 @EqualsAndHashCode
 @FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
 public class CanonicalIndexDataContainer {
 
+    @Getter(AccessLevel.PACKAGE)
     private final Map<DisjunctiveFormula, Set<SAPL>> formulaToDocuments;
 
+    @Getter(AccessLevel.PACKAGE)
     private final Map<ConjunctiveClause, Set<DisjunctiveFormula>> clauseToFormulas;
 
-    @Getter
     private final ImmutableList<Predicate> predicateOrder;
 
     private final List<Set<DisjunctiveFormula>> relatedFormulas;
 
+    @Getter(AccessLevel.PACKAGE)
     private final Map<DisjunctiveFormula, Bitmask> relatedCandidates;
 
     private final Map<Integer, Set<CTuple>> conjunctionsInFormulasReferencingConjunction;
@@ -51,9 +56,23 @@ public class CanonicalIndexDataContainer {
 
     private final int[] numberOfFormulasWithConjunction;
 
+    @Getter(AccessLevel.PACKAGE)
+    private final Map<ConjunctiveClause, Integer> clauseToIndex;
+
+    @Getter(AccessLevel.PACKAGE)
+    private final Map<Bool, PredicateInfo> boolToPredicateInfo;
+
     @Getter
     private final int numberOfConjunctions;
 
+    @EqualsAndHashCode.Exclude
+    private final AdaptivePredicateOrderStrategy adaptiveOrderStrategy;
+
+    // published by adaptive ordering, null as long as the initial order is used
+    @NonFinal
+    @EqualsAndHashCode.Exclude
+    private volatile ImmutableList<Predicate> adaptedPredicateOrder;
+
     public CanonicalIndexDataContainer(Map<DisjunctiveFormula, Set<SAPL>> formulaToDocuments,
             Map<ConjunctiveClause, Set<DisjunctiveFormula>> clauseToFormulas, Collection<Predicate> predicateOrder,
             List<Set<DisjunctiveFormula>> relatedFormulas, Map<DisjunctiveFormula, Bitmask> relatedCandidates,
@@ -70,6 +89,26 @@ public CanonicalIndexDataContainer(Map<DisjunctiveFormula, Set<SAPL>> formulaToD
             List<Set<DisjunctiveFormula>> relatedFormulas, Map<DisjunctiveFormula, Bitmask> relatedCandidates,
             Map<Integer, Set<CTuple>> conjunctionsInFormulasReferencingConjunction, int[] numberOfLiteralsInConjunction,
             int[] numberOfFormulasWithConjunction, int numberOfConjunctions) {
+        this(formulaToDocuments, clauseToFormulas, predicateOrder, relatedFormulas, relatedCandidates,
+                conjunctionsInFormulasReferencingConjunction, numberOfLiteralsInConjunction,
+                numberOfFormulasWithConjunction, numberOfConjunctions, null, null, null);
+    }
+
+    /**
+     * Creates a container which additionally retains the clause index and the
+     * predicate statistics it was built from. Only containers created this way
+     * can be incrementally updated by
+     * {@link CanonicalIndexDataCreationStrategy#constructUpdated}. If an
+     * adaptive order strategy is given, the predicate order is adapted to the
+     * behaviour of the predicates sampled while matching.
+     */
+    CanonicalIndexDataContainer(Map<DisjunctiveFormula, Set<SAPL>> formulaToDocuments,
+            Map<ConjunctiveClause, Set<DisjunctiveFormula>> clauseToFormulas, ImmutableList<Predicate> predicateOrder,
+            List<Set<DisjunctiveFormula>> relatedFormulas, Map<DisjunctiveFormula, Bitmask> relatedCandidates,
+            Map<Integer, Set<CTuple>> conjunctionsInFormulasReferencingConjunction, int[] numberOfLiteralsInConjunction,
+            int[] numberOfFormulasWithConjunction, int numberOfConjunctions,
+            Map<ConjunctiveClause, Integer> clauseToIndex, Map<Bool, PredicateInfo> boolToPredicateInfo,
+            AdaptivePredicateOrderStrategy adaptiveOrderStrategy) {
         this.formulaToDocuments                           = formulaToDocuments;
         this.clauseToFormulas                             = clauseToFormulas;
         this.predicateOrder                               = predicateOrder;
@@ -79,6 +118,38 @@ public CanonicalIndexDataContainer(Map<DisjunctiveFormula, Set<SAPL>> formulaToD
         this.numberOfLiteralsInConjunction                = numberOfLiteralsInConjunction.clone();
         this.numberOfFormulasWithConjunction              = numberOfFormulasWithConjunction.clone();
         this.numberOfConjunctions                         = numberOfConjunctions;
+        this.clauseToIndex                                = clauseToIndex;
+        this.boolToPredicateInfo                          = boolToPredicateInfo;
+        this.adaptiveOrderStrategy                        = adaptiveOrderStrategy;
+    }
+
+    /**
+     * @return the order in which the predicates are evaluated during matching
+     */
+    public ImmutableList<Predicate> getPredicateOrder() {
+        var adapted = adaptedPredicateOrder;
+        return adapted != null ? adapted : predicateOrder;
+    }
+
+    /**
+     * Notifies an adaptive predicate order about a matching against this index
+     * and reorders the predicates whenever the adaptive order strategy requests
+     * it.
+     *
+     * @return true, if the evaluations of the predicates during this matching
+     *         are to be recorded via {@link #recordEvaluation}
+     */
+    boolean startMatching() {
+        if (adaptiveOrderStrategy == null)
+            return false;
+        var matching = adaptiveOrderStrategy.nextMatching();
+        if (adaptiveOrderStrategy.isReorderDue(matching))
+            adaptedPredicateOrder = ImmutableList.copyOf(adaptiveOrderStrategy.reorder(getPredicateOrder()));
+        return adaptiveOrderStrategy.isSampled(matching);
+    }
+
+    void recordEvaluation(Predicate predicate, Val result, long evaluationTimeNanos) {
+        adaptiveOrderStrategy.recordEvaluation(predicate, result, evaluationTimeNanos);
     }
 
     public int getNumberOfLiteralsInConjunction(int conjunctionIndex) {
@@ -101,4 +172,24 @@ Set<SAPL> getPoliciesIncludingFormula(DisjunctiveFormula formula) {
         return formulaToDocuments.get(formula);
     }
 
+    boolean isIncrementallyUpdatable() {
+        return clauseToIndex != null && boolToPredicateInfo != null;
+    }
+
+    List<Set<DisjunctiveFormula>> getRelatedFormulaList() {
+        return relatedFormulas;
+    }
+
+    Map<Integer, Set<CTuple>> getConjunctionReferenceMap() {
+        return conjunctionsInFormulasReferencingConjunction;
+    }
+
+    int[] copyOfNumberOfLiteralsInConjunction() {
+        return numberOfLiteralsInConjunction.clone();
+    }
+
+    int[] copyOfNumberOfFormulasWithConjunction() {
+        return numberOfFormulasWithConjunction.clone();
+    }
+
 }
@@ -18,6 +18,7 @@
 package io.sapl.prp.index.canonical;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -28,10 +29,13 @@
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import com.google.common.base.Preconditions;
 import com.google.common.collect.BiMap;
 import com.google.common.collect.HashBiMap;
+import com.google.common.collect.ImmutableList;
 
 import io.sapl.grammar.sapl.SAPL;
+import io.sapl.prp.index.canonical.ordering.AdaptivePredicateOrderStrategy;
 import io.sapl.prp.index.canonical.ordering.DefaultPredicateOrderStrategy;
 import io.sapl.prp.index.canonical.ordering.PredicateOrderStrategy;
 import lombok.RequiredArgsConstructor;
@@ -58,11 +62,76 @@ public CanonicalIndexDataContainer constructNew(final Map<String, SAPL> document
         return constructContainerWithOrder(formulaToDocuments, clauseToFormulas);
     }
 
+    /**
+     * Derives a new container from a previous one by withdrawing and publishing
+     * the given documents. Only the formulas, clauses, predicates and bitmask
+     * columns touched by the update are recomputed. Everything else is shared
+     * with the previous container, which remains unchanged and can still be used
+     * for matching. Conjunction indexes freed by withdrawn clauses are reused for
+     * newly published clauses.
+     *
+     * @param previous the container to derive the new one from. Must have been
+     * created by this strategy.
+     * @param withdrawnDocuments documents to remove, mapped to their targets
+     * @param publishedDocuments documents to add, mapped to their targets
+     * @return a container yielding the same matches as a container constructed
+     * from scratch for the resulting set of documents
+     */
+    public CanonicalIndexDataContainer constructUpdated(final CanonicalIndexDataContainer previous,
+            final Map<SAPL, DisjunctiveFormula> withdrawnDocuments,
+            final Map<SAPL, DisjunctiveFormula> publishedDocuments) {
+        Preconditions.checkArgument(previous.isIncrementallyUpdatable(),
+                "The index data container does not support incremental updates.");
+
+        Map<DisjunctiveFormula, Set<SAPL>> formulaToDocuments = new HashMap<>(previous.getFormulaToDocuments());
+        Set<DisjunctiveFormula>            removedFormulas    = new HashSet<>();
+        Set<DisjunctiveFormula>            addedFormulas      = new HashSet<>();
+
+        for (Entry<SAPL, DisjunctiveFormula> entry : withdrawnDocuments.entrySet()) {
+            DisjunctiveFormula formula   = entry.getValue();
+            Set<SAPL>          documents = new HashSet<>(formulaToDocuments.getOrDefault(formula, Set.of()));
+            documents.remove(entry.getKey());
+            if (documents.isEmpty()) {
+                formulaToDocuments.remove(formula);
+                removedFormulas.add(formula);
+            } else {
+                formulaToDocuments.put(formula, documents);
+            }
+        }
+
+        for (Entry<SAPL, DisjunctiveFormula> entry : publishedDocuments.entrySet()) {
+            DisjunctiveFormula formula   = entry.getValue();
+            Set<SAPL>          existing  = formulaToDocuments.get(formula);
+            Set<SAPL>          documents = existing == null ? new HashSet<>() : new HashSet<>(existing);
+            documents.add(entry.getKey());
+            formulaToDocuments.put(formula, documents);
+            // a formula withdrawn and re-published within the same update is unchanged
+            if (existing == null && !removedFormulas.remove(formula)) {
+                addedFormulas.add(formula);
+            }
+        }
+
+        if (removedFormulas.isEmpty() && addedFormulas.isEmpty()) {
+            return new CanonicalIndexDataContainer(formulaToDocuments, previous.getClauseToFormulas(),
+                    previous.getPredicateOrder(), previous.getRelatedFormulaList(), previous.getRelatedCandidates(),
+                    previous.getConjunctionReferenceMap(), previous.copyOfNumberOfLiteralsInConjunction(),
+                    previous.copyOfNumberOfFormulasWithConjunction(), previous.getNumberOfConjunctions(),
+                    previous.getClauseToIndex(), previous.getBoolToPredicateInfo(), adaptiveOrderStrategy());
+        }
+
+        return new IndexUpdate(previous, formulaToDocuments).apply(removedFormulas, addedFormulas);
+    }
+
+    private AdaptivePredicateOrderStrategy adaptiveOrderStrategy() {
+        return predicateOrderStrategy instanceof AdaptivePredicateOrderStrategy adaptive ? adaptive : null;
+    }
+
     private CanonicalIndexDataContainer constructContainerWithOrder(
             Map<DisjunctiveFormula, Set<SAPL>> formulaToDocuments,
             Map<ConjunctiveClause, Set<DisjunctiveFormula>> clauseToFormulas) {
 
-        Collection<PredicateInfo> predicateInfos = collectPredicateInfos(formulaToDocuments.keySet());
+        Map<Bool, PredicateInfo>  boolToPredicateInfo = collectPredicateInfos(formulaToDocuments.keySet());
+        Collection<PredicateInfo> predicateInfos      = boolToPredicateInfo.values();
 
         // manipulates Bitmask of Predicates stored in PredicateInfo as a side effect
         BiMap<ConjunctiveClause, Integer> clauseToIndex = createCandidateIndex(predicateInfos);
@@ -84,9 +153,11 @@ private CanonicalIndexDataContainer constructContainerWithOrder(
 
         List<Set<DisjunctiveFormula>> relatedFormulas = flattenIndexMap(indexToTargets);
 
-        return new CanonicalIndexDataContainer(formulaToDocuments, clauseToFormulas, predicateOrder, relatedFormulas,
-                relatedCandidates, conjunctionsInFormulasReferencingConjunction, numberOfLiteralsInConjunction,
-                numberOfFormulasWithConjunction);
+        return new CanonicalIndexDataContainer(formulaToDocuments, clauseToFormulas,
+                ImmutableList.copyOf(predicateOrder), relatedFormulas, relatedCandidates,
+                conjunctionsInFormulasReferencingConjunction, numberOfLiteralsInConjunction,
+                numberOfFormulasWithConjunction, numberOfLiteralsInConjunction.length, new HashMap<>(clauseToIndex),
+                new HashMap<>(boolToPredicateInfo), adaptiveOrderStrategy());
     }
 
     private void addNewFormulasToClauseMapping(final Collection<DisjunctiveFormula> formulas,
@@ -119,28 +190,33 @@ private Map<Integer, Set<CTuple>> getConjunctionReferenceMap(
 
         for (Entry<ConjunctiveClause, Set<DisjunctiveFormula>> clauseToFormulaEntry : clauseToFormulas.entrySet()) {
 
-            Integer                 clauseIndex              = clauseToIndex.get(clauseToFormulaEntry.getKey());
-            Set<DisjunctiveFormula> formulasContainingClause = clauseToFormulaEntry.getValue();
-            Bitmask                 clausesInSameFormulas    = new Bitmask();
+            Integer clauseIndex = clauseToIndex.get(clauseToFormulaEntry.getKey());
+            conjunctionsInFormulasReferencingConjunction.put(clauseIndex,
+                    collectConjunctionsReferencingConjunction(clauseIndex, clauseToFormulaEntry.getValue(),
+                            formulaToClauses));
+        }
+        return conjunctionsInFormulasReferencingConjunction;
+    }
 
-            formulasContainingClause.forEach(
-                    formulaContainingClause -> clausesInSameFormulas.or(formulaToClauses.get(formulaContainingClause)));
-            clausesInSameFormulas.clear(clauseIndex);
+    private Set<CTuple> collectConjunctionsReferencingConjunction(int clauseIndex,
+            Set<DisjunctiveFormula> formulasContainingClause, Map<DisjunctiveFormula, Bitmask> formulaToClauses) {
+        Bitmask clausesInSameFormulas = new Bitmask();
 
-            Set<CTuple> cTupleSet = new HashSet<>(clausesInSameFormulas.numberOfBitsSet());
-            clausesInSameFormulas.forEachSetBit(relatedClauseIndex -> {
-                long numberOfSharedFormulas = formulasContainingClause.stream().map(formulaToClauses::get)
-                        .filter(bitmask -> bitmask.isSet(relatedClauseIndex)).count();
+        formulasContainingClause.forEach(
+                formulaContainingClause -> clausesInSameFormulas.or(formulaToClauses.get(formulaContainingClause)));
+        clausesInSameFormulas.clear(clauseIndex);
 
-                cTupleSet.add(new CTuple(relatedClauseIndex, numberOfSharedFormulas));
-            });
+        Set<CTuple> cTupleSet = new HashSet<>(clausesInSameFormulas.numberOfBitsSet());
+        clausesInSameFormulas.forEachSetBit(relatedClauseIndex -> {
+            long numberOfSharedFormulas = formulasContainingClause.stream().map(formulaToClauses::get)
+                    .filter(bitmask -> bitmask.isSet(relatedClauseIndex)).count();
 
-            conjunctionsInFormulasReferencingConjunction.put(clauseIndex, cTupleSet);
-        }
-        return conjunctionsInFormulasReferencingConjunction;
+            cTupleSet.add(new CTuple(relatedClauseIndex, numberOfSharedFormulas));
+        });
+        return cTupleSet;
     }
 
-    private Collection<PredicateInfo> collectPredicateInfos(Set<DisjunctiveFormula> formulas) {
+    private Map<Bool, PredicateInfo> collectPredicateInfos(Set<DisjunctiveFormula> formulas) {
         Map<Bool, PredicateInfo> boolToPredicateInfo       = new HashMap<>();
         Set<Bool>                negativesGroupedByFormula = new HashSet<>();
         Set<Bool>                positivesGroupedByFormula = new HashSet<>();
@@ -164,7 +240,7 @@ private Collection<PredicateInfo> collectPredicateInfos(Set<DisjunctiveFormula>
             predicateInfo.setRelevance(sum);
         }
 
-        return boolToPredicateInfo.values();
+        return boolToPredicateInfo;
     }
 
     void createPredicateInfo(final Literal literal, final ConjunctiveClause clause,
@@ -262,4 +338,239 @@ private Map<Integer, Set<DisjunctiveFormula>> mapIndexToFormulas(
                 .collect(Collectors.toMap(entry -> clauseToIndex.get(entry.getKey()), Entry::getValue));
     }
 
+    /**
+     * Working copy of the data of a container while an incremental update is
+     * applied. All collections are shallow copies of the previous container.
+     * Nested sets and predicate infos are copied before they are modified.
+     */
+    private final class IndexUpdate {
+
+        private final Map<DisjunctiveFormula, Set<SAPL>> formulaToDocuments;
+
+        private final Map<ConjunctiveClause, Set<DisjunctiveFormula>> clauseToFormulas;
+
+        private final List<Set<DisjunctiveFormula>> relatedFormulas;
+
+        private final Map<DisjunctiveFormula, Bitmask> relatedCandidates;
+
+        private final Map<Integer, Set<CTuple>> conjunctionsInFormulasReferencingConjunction;
+
+        private final Map<ConjunctiveClause, Integer> clauseToIndex;
+
+        private final Map<Bool, PredicateInfo> boolToPredicateInfo;
+
+        private final Set<Bool> modifiedPredicates = new HashSet<>();
+
+        private int[] numberOfLiteralsInConjunction;
+
+        private int[] numberOfFormulasWithConjunction;
+
+        private int nextFreeIndexCandidate;
+
+        private IndexUpdate(CanonicalIndexDataContainer previous,
+                Map<DisjunctiveFormula, Set<SAPL>> formulaToDocuments) {
+            this.formulaToDocuments                           = formulaToDocuments;
+            this.clauseToFormulas                             = new HashMap<>(previous.getClauseToFormulas());
+            this.relatedFormulas                              = new ArrayList<>(previous.getRelatedFormulaList());
+            this.relatedCandidates                            = new HashMap<>(previous.getRelatedCandidates());
+            this.conjunctionsInFormulasReferencingConjunction = new HashMap<>(previous.getConjunctionReferenceMap());
+            this.clauseToIndex                                = new HashMap<>(previous.getClauseToIndex());
+            this.boolToPredicateInfo                          = new HashMap<>(previous.getBoolToPredicateInfo());
+            this.numberOfLiteralsInConjunction                = previous.copyOfNumberOfLiteralsInConjunction();
+            this.numberOfFormulasWithConjunction              = previous.copyOfNumberOfFormulasWithConjunction();
+        }
+
+        private CanonicalIndexDataContainer apply(Set<DisjunctiveFormula> removedFormulas,
+                Set<DisjunctiveFormula> addedFormulas) {
+            Set<ConjunctiveClause> affectedClauses = new HashSet<>();
+            Set<ConjunctiveClause> removedClauses  = new HashSet<>();
+            Set<ConjunctiveClause> addedClauses    = new HashSet<>();
+
+            for (DisjunctiveFormula formula : removedFormulas) {
+                relatedCandidates.remove(formula);
+                updatePredicateStatistics(formula, false);
+                for (ConjunctiveClause clause : formula.getClauses()) {
+                    Set<DisjunctiveFormula> formulas = new HashSet<>(clauseToFormulas.getOrDefault(clause, Set.of()));
+                    formulas.remove(formula);
+                    if (formulas.isEmpty()) {
+                        clauseToFormulas.remove(clause);
+                        removedClauses.add(clause);
+                    } else {
+                        clauseToFormulas.put(clause, formulas);
+                    }
+                    affectedClauses.add(clause);
+                }
+            }
+
+            for (DisjunctiveFormula formula : addedFormulas) {
+                updatePredicateStatistics(formula, true);
+                for (ConjunctiveClause clause : formula.getClauses()) {
+                    Set<DisjunctiveFormula> existing = clauseToFormulas.get(clause);
+                    Set<DisjunctiveFormula> formulas = existing == null ? new HashSet<>() : new HashSet<>(existing);
+                    formulas.add(formula);
+                    clauseToFormulas.put(clause, formulas);
+                    // a clause removed and re-added within the same update keeps its index
+                    if (existing == null && !removedClauses.remove(clause)) {
+                        addedClauses.add(clause);
+                    }
+                    affectedClauses.add(clause);
+                }
+            }
+
+            // withdraw before publishing, so that freed indexes can be reused
+            removedClauses.forEach(this::withdrawClause);
+            addedClauses.forEach(this::publishClause);
+
+            for (DisjunctiveFormula formula : addedFormulas) {
+                Bitmask clauses = new Bitmask();
+                for (ConjunctiveClause clause : formula.getClauses()) {
+                    clauses.set(clauseToIndex.get(clause));
+                }
+                relatedCandidates.put(formula, clauses);
+            }
+
+            for (ConjunctiveClause clause : affectedClauses) {
+                Set<DisjunctiveFormula> formulas = clauseToFormulas.get(clause);
+                if (formulas != null) {
+                    int index = clauseToIndex.get(clause);
+                    relatedFormulas.set(index, formulas);
+                    numberOfFormulasWithConjunction[index] = formulas.size();
+                    conjunctionsInFormulasReferencingConjunction.put(index,
+                            collectConjunctionsReferencingConjunction(index, formulas, relatedCandidates));
+                }
+            }
+
+            for (Bool bool : modifiedPredicates) {
+                PredicateInfo predicateInfo = boolToPredicateInfo.get(bool);
+                if (predicateInfo.getPredicate().getConjunctions().isEmpty()) {
+                    boolToPredicateInfo.remove(bool);
+                } else {
+                    double sum = predicateInfo.getClauseRelevanceList().stream().mapToDouble(Double::doubleValue)
+                            .sum();
+                    sum /= predicateInfo.getNumberOfPositives() + predicateInfo.getNumberOfNegatives();
+                    predicateInfo.setRelevance(sum);
+                }
+            }
+
+            List<Predicate> predicateOrder       = predicateOrderStrategy
+                    .createPredicateOrder(boolToPredicateInfo.values());
+            int             numberOfConjunctions = relatedFormulas.size();
+
+            return new CanonicalIndexDataContainer(formulaToDocuments, clauseToFormulas,
+                    ImmutableList.copyOf(predicateOrder), relatedFormulas, relatedCandidates,
+                    conjunctionsInFormulasReferencingConjunction,
+                    Arrays.copyOf(numberOfLiteralsInConjunction, numberOfConjunctions),
+                    Arrays.copyOf(numberOfFormulasWithConjunction, numberOfConjunctions), numberOfConjunctions,
+                    clauseToIndex, boolToPredicateInfo, adaptiveOrderStrategy());
+        }
+
+        private void updatePredicateStatistics(DisjunctiveFormula formula, boolean isAdded) {
+            Set<Bool> negativesGroupedByFormula = new HashSet<>();
+            Set<Bool> positivesGroupedByFormula = new HashSet<>();
+            for (ConjunctiveClause clause : formula.getClauses()) {
+                final int sizeOfClause = clause.getLiterals().size();
+                for (Literal literal : clause.getLiterals()) {
+                    Bool          bool          = literal.getBool();
+                    PredicateInfo predicateInfo = modifiablePredicateInfo(bool);
+                    if (isAdded) {
+                        predicateInfo.addToClauseRelevanceList(1.0 / sizeOfClause);
+                    } else {
+                        predicateInfo.removeFromClauseRelevanceList(1.0 / sizeOfClause);
+                    }
+                    if (literal.isNegated()) {
+                        updateNegatives(predicateInfo, isAdded, negativesGroupedByFormula.add(bool));
+                    } else {
+                        updatePositives(predicateInfo, isAdded, positivesGroupedByFormula.add(bool));
+                    }
+                }
+            }
+        }
+
+        private void updateNegatives(PredicateInfo predicateInfo, boolean isAdded, boolean isFirstInFormula) {
+            if (isAdded) {
+                predicateInfo.incNumberOfNegatives();
+                if (isFirstInFormula) {
+                    predicateInfo.incGroupedNumberOfNegatives();
+                }
+            } else {
+                predicateInfo.decNumberOfNegatives();
+                if (isFirstInFormula) {
+                    predicateInfo.decGroupedNumberOfNegatives();
+                }
+            }
+        }
+
+        private void updatePositives(PredicateInfo predicateInfo, boolean isAdded, boolean isFirstInFormula) {
+            if (isAdded) {
+                predicateInfo.incNumberOfPositives();
+                if (isFirstInFormula) {
+                    predicateInfo.incGroupedNumberOfPositives();
+                }
+            } else {
+                predicateInfo.decNumberOfPositives();
+                if (isFirstInFormula) {
+                    predicateInfo.decGroupedNumberOfPositives();
+                }
+            }
+        }
+
+        private void withdrawClause(ConjunctiveClause clause) {
+            int index = clauseToIndex.remove(clause);
+            for (Literal literal : clause.getLiterals()) {
+                PredicateInfo predicateInfo = modifiablePredicateInfo(literal.getBool());
+                predicateInfo.getPredicate().clear(index);
+                predicateInfo.removeUnsatisfiableConjunction(clause);
+            }
+            numberOfLiteralsInConjunction[index]   = 0;
+            numberOfFormulasWithConjunction[index] = 0;
+            relatedFormulas.set(index, null);
+            conjunctionsInFormulasReferencingConjunction.remove(index);
+        }
+
+        private void publishClause(ConjunctiveClause clause) {
+            int index = nextFreeIndex();
+            clauseToIndex.put(clause, index);
+            relatedFormulas.set(index, clauseToFormulas.get(clause));
+            numberOfLiteralsInConjunction[index] = clause.size();
+            for (Literal literal : clause.getLiterals()) {
+                PredicateInfo predicateInfo = modifiablePredicateInfo(literal.getBool());
+                Predicate     predicate     = predicateInfo.getPredicate();
+                if (literal.isNegated()) {
+                    predicateInfo.addUnsatisfiableConjunctionIfTrue(clause);
+                    predicate.getFalseForTruePredicate().set(index);
+                } else {
+                    predicateInfo.addUnsatisfiableConjunctionIfFalse(clause);
+                    predicate.getFalseForFalsePredicate().set(index);
+                }
+                predicate.getConjunctions().set(index);
+            }
+        }
+
+        private int nextFreeIndex() {
+            while (nextFreeIndexCandidate < relatedFormulas.size()
+                    && relatedFormulas.get(nextFreeIndexCandidate) != null) {
+                nextFreeIndexCandidate += 1;
+            }
+            if (nextFreeIndexCandidate == relatedFormulas.size()) {
+                relatedFormulas.add(null);
+                if (numberOfLiteralsInConjunction.length < relatedFormulas.size()) {
+                    int capacity = Math.max(16, relatedFormulas.size() * 2);
+                    numberOfLiteralsInConjunction   = Arrays.copyOf(numberOfLiteralsInConjunction, capacity);
+                    numberOfFormulasWithConjunction = Arrays.copyOf(numberOfFormulasWithConjunction, capacity);
+                }
+            }
+            return nextFreeIndexCandidate++;
+        }
+
+        private PredicateInfo modifiablePredicateInfo(Bool bool) {
+            if (modifiedPredicates.add(bool)) {
+                PredicateInfo previousInfo = boolToPredicateInfo.get(bool);
+                boolToPredicateInfo.put(bool, previousInfo == null ? new PredicateInfo(new Predicate(bool))
+                        : new PredicateInfo(previousInfo));
+            }
+            return boolToPredicateInfo.get(bool);
+        }
+
+    }
+
 }
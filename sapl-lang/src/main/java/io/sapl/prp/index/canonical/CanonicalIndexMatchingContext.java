@@ -17,6 +17,8 @@
  */
 package io.sapl.prp.index.canonical;
 
+import java.util.Arrays;
+
 import lombok.Getter;
 import lombok.Setter;
 
@@ -27,9 +29,16 @@ public class CanonicalIndexMatchingContext {
     @Getter
     private final Bitmask matchingCandidatesMask;
 
-    private final int[] trueLiteralsOfConjunction;
+    private int[] trueLiteralsOfConjunction;
+
+    private int[] eliminatedFormulasWithConjunction;
+
+    // scratch masks reused between predicates by the synchronous matching
+    final Bitmask satisfiedCandidatesScratch = new Bitmask();
 
-    private final int[] eliminatedFormulasWithConjunction;
+    final Bitmask unsatisfiedCandidatesScratch = new Bitmask();
+
+    final Bitmask orphanedCandidatesScratch = new Bitmask();
 
     @Getter
     @Setter
@@ -45,6 +54,32 @@ public CanonicalIndexMatchingContext(int numberOfConjunctions) {
         eliminatedFormulasWithConjunction = new int[numberOfConjunctions];
     }
 
+    /**
+     * Resets this context, so that it can be reused for matching against an
+     * index with the given number of conjunctions. Arrays are only reallocated if
+     * they are too small.
+     *
+     * @param numberOfConjunctions the number of conjunctions of the index
+     */
+    void reset(int numberOfConjunctions) {
+        candidatesMask.clear();
+        candidatesMask.set(0, numberOfConjunctions);
+        matchingCandidatesMask.clear();
+        errorsInTargets = false;
+
+        if (trueLiteralsOfConjunction.length < numberOfConjunctions) {
+            trueLiteralsOfConjunction         = new int[numberOfConjunctions];
+            eliminatedFormulasWithConjunction = new int[numberOfConjunctions];
+        } else {
+            Arrays.fill(trueLiteralsOfConjunction, 0, numberOfConjunctions, 0);
+            Arrays.fill(eliminatedFormulasWithConjunction, 0, numberOfConjunctions, 0);
+        }
+    }
+
+    Bitmask getCandidates() {
+        return candidatesMask;
+    }
+
     Bitmask getCopyOfCandidates() {
         return new Bitmask(candidatesMask);
     }
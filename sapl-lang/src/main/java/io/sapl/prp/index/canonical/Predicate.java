@@ -22,6 +22,7 @@
 import io.sapl.api.interpreter.Val;
 import lombok.Getter;
 import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
 
 @Getter
 public class Predicate {
@@ -38,8 +39,25 @@ public Predicate(final Bool bool) {
         this.bool = Preconditions.checkNotNull(bool);
     }
 
+    Predicate(final Predicate predicate) {
+        this(predicate.bool);
+        conjunctions.or(predicate.conjunctions);
+        falseForTruePredicate.or(predicate.falseForTruePredicate);
+        falseForFalsePredicate.or(predicate.falseForFalsePredicate);
+    }
+
+    void clear(int conjunctionIndex) {
+        conjunctions.clear(conjunctionIndex);
+        falseForTruePredicate.clear(conjunctionIndex);
+        falseForFalsePredicate.clear(conjunctionIndex);
+    }
+
     public Mono<Val> evaluate() {
         return getBool().evaluateExpression();
     }
 
+    public Val evaluateSynchronously(ContextView ctx) {
+        return getBool().evaluateExpressionSynchronously(ctx);
+    }
+
 }
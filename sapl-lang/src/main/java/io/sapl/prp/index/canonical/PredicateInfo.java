@@ -68,6 +68,26 @@ public PredicateInfo(final Predicate predicate) {
         this.predicate = Preconditions.checkNotNull(predicate);
     }
 
+    /**
+     * Creates a copy of the given info including a copy of its predicate. Used
+     * when deriving a new index snapshot, so that the predicates referenced by
+     * the previous snapshot remain untouched.
+     *
+     * @param predicateInfo the info to copy
+     */
+    PredicateInfo(final PredicateInfo predicateInfo) {
+        this(new Predicate(predicateInfo.predicate));
+        unsatisfiableConjunctionsIfFalse.addAll(predicateInfo.unsatisfiableConjunctionsIfFalse);
+        unsatisfiableConjunctionsIfTrue.addAll(predicateInfo.unsatisfiableConjunctionsIfTrue);
+        relevanceList.addAll(predicateInfo.relevanceList);
+        groupedNumberOfNegatives = predicateInfo.groupedNumberOfNegatives;
+        groupedNumberOfPositives = predicateInfo.groupedNumberOfPositives;
+        numberOfNegatives        = predicateInfo.numberOfNegatives;
+        numberOfPositives        = predicateInfo.numberOfPositives;
+        relevance                = predicateInfo.relevance;
+        score                    = predicateInfo.score;
+    }
+
     public Set<ConjunctiveClause> getUnsatisfiableConjunctionsIfFalse() {
         return Collections.unmodifiableSet(unsatisfiableConjunctionsIfFalse);
     }
@@ -84,6 +104,11 @@ public void addUnsatisfiableConjunctionIfTrue(ConjunctiveClause clause) {
         unsatisfiableConjunctionsIfTrue.add(clause);
     }
 
+    public void removeUnsatisfiableConjunction(ConjunctiveClause clause) {
+        unsatisfiableConjunctionsIfFalse.remove(clause);
+        unsatisfiableConjunctionsIfTrue.remove(clause);
+    }
+
     public List<Double> getClauseRelevanceList() {
         return Collections.unmodifiableList(relevanceList);
     }
@@ -92,6 +117,10 @@ public void addToClauseRelevanceList(double relevanceForClause) {
         relevanceList.add(relevanceForClause);
     }
 
+    public void removeFromClauseRelevanceList(double relevanceForClause) {
+        relevanceList.remove(Double.valueOf(relevanceForClause));
+    }
+
     public void incGroupedNumberOfNegatives() {
         ++groupedNumberOfNegatives;
     }
@@ -108,6 +137,22 @@ public void incNumberOfPositives() {
         ++numberOfPositives;
     }
 
+    public void decGroupedNumberOfNegatives() {
+        --groupedNumberOfNegatives;
+    }
+
+    public void decGroupedNumberOfPositives() {
+        --groupedNumberOfPositives;
+    }
+
+    public void decNumberOfNegatives() {
+        --numberOfNegatives;
+    }
+
+    public void decNumberOfPositives() {
+        --numberOfPositives;
+    }
+
     @Override
     public int compareTo(PredicateInfo o) {
         double lhs = getScore();
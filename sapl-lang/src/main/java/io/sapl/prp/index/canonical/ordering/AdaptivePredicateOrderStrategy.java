@@ -0,0 +1,232 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.prp.index.canonical.ordering;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.base.Preconditions;
+
+import io.sapl.api.interpreter.Val;
+import io.sapl.prp.index.canonical.Bool;
+import io.sapl.prp.index.canonical.Predicate;
+import io.sapl.prp.index.canonical.PredicateInfo;
+
+/**
+ * Orders the predicates of the index by their behaviour at runtime. A new index
+ * starts with the order of the {@link DefaultPredicateOrderStrategy}. While
+ * matching, the results and evaluation times of the predicates are sampled.
+ * Periodically, each index using this strategy publishes a new order, in which
+ * predicates expected to eliminate many candidates per unit of evaluation time
+ * are evaluated first. Statistics are kept per {@link Bool}, so that they
+ * survive updates of the index. Statistics of Bools which are no longer part of
+ * the index are dropped when reordering.
+ */
+public class AdaptivePredicateOrderStrategy implements PredicateOrderStrategy {
+
+    public static final int DEFAULT_SAMPLING_INTERVAL = 16;
+
+    public static final int DEFAULT_REORDER_INTERVAL = 4096;
+
+    private final PredicateOrderStrategy initialOrderStrategy = new DefaultPredicateOrderStrategy();
+
+    private final Map<Bool, Statistics> statistics = new ConcurrentHashMap<>();
+
+    private final AtomicLong matchings = new AtomicLong();
+
+    private final int samplingInterval;
+
+    private final int reorderInterval;
+
+    public AdaptivePredicateOrderStrategy() {
+        this(DEFAULT_SAMPLING_INTERVAL, DEFAULT_REORDER_INTERVAL);
+    }
+
+    /**
+     * @param samplingInterval every how many matchings the evaluations of the
+     *                         predicates are recorded
+     * @param reorderInterval  every how many matchings the predicates are
+     *                         reordered
+     */
+    public AdaptivePredicateOrderStrategy(int samplingInterval, int reorderInterval) {
+        Preconditions.checkArgument(samplingInterval > 0, "samplingInterval must be positive");
+        Preconditions.checkArgument(reorderInterval > 0, "reorderInterval must be positive");
+        this.samplingInterval = samplingInterval;
+        this.reorderInterval  = reorderInterval;
+    }
+
+    @Override
+    public List<Predicate> createPredicateOrder(Collection<PredicateInfo> data) {
+        return reorder(initialOrderStrategy.createPredicateOrder(data));
+    }
+
+    /**
+     * Sorts the predicates by their expected number of eliminated candidates per
+     * nanosecond of evaluation time. Predicates which have not been sampled yet
+     * are evaluated first to learn about them. Otherwise, the given order is
+     * retained for predicates with equal scores. The statistics of all other
+     * predicates are dropped.
+     *
+     * @param currentOrder the current order of the predicates of an index
+     * @return the new order
+     */
+    public List<Predicate> reorder(List<Predicate> currentOrder) {
+        var scores       = new IdentityHashMap<Predicate, Double>(currentOrder.size());
+        var currentBools = new HashSet<Bool>(currentOrder.size() * 2);
+        for (var predicate : currentOrder) {
+            scores.put(predicate, score(predicate));
+            currentBools.add(predicate.getBool());
+        }
+        statistics.keySet().retainAll(currentBools);
+        return currentOrder.stream().sorted(Comparator.comparingDouble(scores::get).reversed()).toList();
+    }
+
+    private double score(Predicate predicate) {
+        var predicateStatistics = statistics.get(predicate.getBool());
+        if (predicateStatistics == null || predicateStatistics.getEvaluations() == 0L)
+            return Double.POSITIVE_INFINITY;
+
+        var expectedEliminations = predicateStatistics.getSelectivity()
+                * predicate.getFalseForTruePredicate().numberOfBitsSet()
+                + predicateStatistics.getFalseRatio() * predicate.getFalseForFalsePredicate().numberOfBitsSet()
+                + predicateStatistics.getErrorRatio() * predicate.getConjunctions().numberOfBitsSet();
+        return expectedEliminations / Math.max(1.0D, predicateStatistics.getAverageEvaluationTimeNanos());
+    }
+
+    /**
+     * @return the consecutive number of the matching starting
+     */
+    public long nextMatching() {
+        return matchings.incrementAndGet();
+    }
+
+    /**
+     * @param matching the number of a matching
+     * @return true, if the evaluations during the matching are to be recorded
+     */
+    public boolean isSampled(long matching) {
+        return matching % samplingInterval == 0L;
+    }
+
+    /**
+     * @param matching the number of a matching
+     * @return true, if the predicates are to be reordered before the matching
+     */
+    public boolean isReorderDue(long matching) {
+        return matching % reorderInterval == 0L;
+    }
+
+    /**
+     * Records a sampled evaluation of a predicate.
+     *
+     * @param predicate           the evaluated predicate
+     * @param result              the result of the evaluation
+     * @param evaluationTimeNanos the time the evaluation took
+     */
+    public void recordEvaluation(Predicate predicate, Val result, long evaluationTimeNanos) {
+        statistics.computeIfAbsent(predicate.getBool(), bool -> new Statistics()).record(result, evaluationTimeNanos);
+    }
+
+    /**
+     * @return the sampled statistics of the predicates, e.g., to expose their
+     *         selectivity as metrics
+     */
+    public Map<Bool, Statistics> getStatistics() {
+        return Collections.unmodifiableMap(statistics);
+    }
+
+    /**
+     * Sampled evaluations of one predicate.
+     */
+    public static class Statistics {
+
+        private final AtomicLong trueResults         = new AtomicLong();
+        private final AtomicLong falseResults        = new AtomicLong();
+        private final AtomicLong errors              = new AtomicLong();
+        private final AtomicLong evaluationTimeNanos = new AtomicLong();
+
+        void record(Val result, long nanos) {
+            if (result.isError())
+                errors.incrementAndGet();
+            else if (result.getBoolean())
+                trueResults.incrementAndGet();
+            else
+                falseResults.incrementAndGet();
+            evaluationTimeNanos.addAndGet(nanos);
+        }
+
+        /**
+         * @return the number of sampled evaluations
+         */
+        public long getEvaluations() {
+            return trueResults.get() + falseResults.get() + errors.get();
+        }
+
+        /**
+         * @return the ratio of sampled evaluations which returned true. 0.0 if no
+         *         evaluations were sampled yet.
+         */
+        public double getSelectivity() {
+            return ratio(trueResults.get());
+        }
+
+        /**
+         * @return the ratio of sampled evaluations which returned false
+         */
+        public double getFalseRatio() {
+            return ratio(falseResults.get());
+        }
+
+        /**
+         * @return the ratio of sampled evaluations which returned an error
+         */
+        public double getErrorRatio() {
+            return ratio(errors.get());
+        }
+
+        /**
+         * @return the average time of the sampled evaluations in nanoseconds
+         */
+        public double getAverageEvaluationTimeNanos() {
+            var evaluations = getEvaluations();
+            return evaluations == 0L ? 0.0D : (double) evaluationTimeNanos.get() / evaluations;
+        }
+
+        /**
+         * @return the average time of the sampled evaluations
+         */
+        public Duration getAverageEvaluationTime() {
+            return Duration.ofNanos((long) getAverageEvaluationTimeNanos());
+        }
+
+        private double ratio(long count) {
+            var evaluations = getEvaluations();
+            return evaluations == 0L ? 0.0D : (double) count / evaluations;
+        }
+
+    }
+
+}
@@ -664,6 +664,16 @@ void evaluateRegExPatternError() {
         assertExpressionReturnsErrors("\"test\"=~\"***\"");
     }
 
+    @Test
+    void evaluateRegExCatastrophicBacktrackingReturnsError() {
+        assertExpressionReturnsErrors("\"" + "a".repeat(64) + "\" =~ \"(a+)+b\"");
+    }
+
+    @Test
+    void evaluateRegExDynamicPattern() {
+        assertExpressionEvaluatesTo("\"test\" =~ (\"te\" + \".*\")", "true");
+    }
+
     @Test
     void evaluateRegExLeftNull() {
         assertExpressionEvaluatesTo("null =~ \"\"", "false");
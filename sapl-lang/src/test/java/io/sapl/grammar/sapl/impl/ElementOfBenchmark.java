@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.grammar.sapl.impl;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.sapl.api.interpreter.Val;
+
+/**
+ * Compares the two lookups of the 'in' operator for a haystack of a given
+ * size: the linear scan and the lookup in the hashed, normalized elements. The
+ * size from which the hashed lookup is faster determines
+ * {@code ElementOfImplCustom.MINIMUM_SIZE_FOR_HASHED_LOOKUP}.
+ * <p>
+ * The needle is either the middle element of the haystack or missing from it.
+ * Numbers are hashed by their normalized decimal value, which the hashed lookup
+ * has to compute for the needle each time.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class ElementOfBenchmark {
+
+    @Param({ "1", "2", "4", "8", "16", "32", "64" })
+    int size;
+
+    @Param({ "TEXT", "NUMBER" })
+    String type;
+
+    @Param({ "true", "false" })
+    boolean contained;
+
+    JsonNode haystack;
+
+    Set<Object> elements;
+
+    Val needle;
+
+    @Setup
+    public void setUp() {
+        var array = Val.JSON.arrayNode();
+        for (int i = 0; i < size; i++)
+            array.add(element(i));
+        haystack = array;
+        elements = ElementOfImplCustom.normalizedElements(haystack);
+        needle   = Val.of(element(contained ? size / 2 : size));
+    }
+
+    private JsonNode element(int i) {
+        if ("NUMBER".equals(type))
+            return Val.JSON.numberNode(i * 7);
+        return Val.JSON.textNode("role_" + i * 7);
+    }
+
+    @Benchmark
+    public boolean linear() {
+        return ElementOfImplCustom.linearlyContains(haystack, needle);
+    }
+
+    @Benchmark
+    public boolean hashed() {
+        return elements.contains(ElementOfImplCustom.normalized(needle.get()));
+    }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.grammar.sapl.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import io.sapl.api.interpreter.Trace;
+import io.sapl.api.interpreter.TracingMode;
+import io.sapl.api.interpreter.Val;
+import io.sapl.grammar.sapl.ElementOf;
+import io.sapl.grammar.sapl.impl.util.ConstantFolding;
+import io.sapl.interpreter.context.AuthorizationContext;
+import io.sapl.testutil.MockUtil;
+import io.sapl.testutil.ParserUtil;
+import reactor.test.StepVerifier;
+
+class ElementOfImplCustomTests {
+
+    private static final String LARGE_HAYSTACK = "[\"a\", \"b\", \"c\", \"d\", \"e\", \"f\", 1.0, 2000.0, null, "
+            + "{\"key\": 1}]";
+
+    @ParameterizedTest
+    @CsvSource(delimiter = ';', value = { "\"a\"; true", "\"f\"; true", "\"x\"; false", "1; true", "1.000; true",
+            "2000; true", "\"1.0\"; false", "null; true", "{\"key\": 1}; true", "{\"key\": 2}; false",
+            "undefined; false" })
+    void when_haystackIsConstant_then_resultMatchesLinearSearch(String needle, boolean expected) throws IOException {
+        var expression = (ElementOf) ParserUtil.expression(needle + " in " + LARGE_HAYSTACK);
+        var unfolded   = ParserUtil.expression(needle + " in " + LARGE_HAYSTACK);
+        ConstantFolding.foldConstants(expression.getRight());
+
+        StepVerifier.create(expression.evaluate().contextWrite(MockUtil::setUpAuthorizationContext))
+                .expectNext(Val.of(expected)).verifyComplete();
+        StepVerifier.create(unfolded.evaluate().contextWrite(MockUtil::setUpAuthorizationContext))
+                .expectNext(Val.of(expected)).verifyComplete();
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = ';', value = { "\"a\"; true", "\"x\"; false", "1; true", "2000.0; true" })
+    void when_haystackIsRepeated_then_repeatedLookupsMatchLinearSearch(String needle, boolean expected)
+            throws IOException {
+        var expression = ParserUtil.expression("needle in haystack");
+        var haystack   = Val.ofJson(LARGE_HAYSTACK);
+        var needleVal  = Val.ofJson(needle);
+
+        for (int i = 0; i < 3; i++) {
+            StepVerifier.create(expression.evaluate().contextWrite(ctx -> {
+                ctx = MockUtil.setUpAuthorizationContext(ctx);
+                ctx = AuthorizationContext.setVariable(ctx, "haystack", haystack);
+                return AuthorizationContext.setVariable(ctx, "needle", needleVal);
+            })).expectNext(Val.of(expected)).verifyComplete();
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource({ "OFF, false", "LAZY, true", "FULL, true" })
+    void when_tracingModeIsSetInContext_then_onlyThatEvaluationIsTracedAccordingly(TracingMode tracingMode,
+            boolean expectTrace) throws IOException {
+        var haystack = Val.ofJson(LARGE_HAYSTACK);
+        var result   = ParserUtil.expression("needle in haystack").evaluate().contextWrite(ctx -> {
+            ctx = MockUtil.setUpAuthorizationContext(ctx);
+            ctx = AuthorizationContext.setVariable(ctx, "haystack", haystack);
+            ctx = AuthorizationContext.setVariable(ctx, "needle", Val.of("a"));
+            return AuthorizationContext.setTracingMode(ctx, tracingMode);
+        }).blockFirst();
+
+        assertThat(result).isEqualTo(Val.TRUE);
+        assertThat(result.getTrace().has(Trace.TRACE_KEY)).isEqualTo(expectTrace);
+    }
+
+}
@@ -52,6 +52,12 @@ private static Stream<Arguments> provideTestCases() {
 	 			// valueDefinitionsEvaluateAndScope
 	 			Arguments.of("policy \"p\" permit true where variable == undefined; var variable = 1; variable == 1;", PERMIT),
 
+	 			// valueDefinitionsRedefineInSameSlot
+	 			Arguments.of("policy \"p\" permit where var variable = 1; var variable = variable + 1; variable == 2;", PERMIT),
+
+	 			// valueDefinitionsShadowGlobalVariable
+	 			Arguments.of("policy \"p\" permit where nullVariable == null; var nullVariable = 1; nullVariable == 1;", PERMIT),
+
 	 			// valueDefinitionsDefineUndefined
 	 			Arguments.of("policy \"p\" permit true where variable == undefined; var variable = undefined; variable == undefined;", PERMIT),
 
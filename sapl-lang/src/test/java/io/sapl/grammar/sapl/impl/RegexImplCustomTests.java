@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.grammar.sapl.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+
+import org.eclipse.xtext.EcoreUtil2;
+import org.junit.jupiter.api.Test;
+
+import io.sapl.api.interpreter.Val;
+import io.sapl.grammar.sapl.Regex;
+import io.sapl.interpreter.DefaultSAPLInterpreter;
+import io.sapl.testutil.MockUtil;
+import io.sapl.testutil.ParserUtil;
+import reactor.test.StepVerifier;
+
+class RegexImplCustomTests {
+
+    @Test
+    void when_documentIsLoaded_then_literalPatternIsCompiled() {
+        var document = new DefaultSAPLInterpreter().parse("policy \"p\" permit where \"/api/x\" =~ \"^/api/.*\";");
+        var regex    = (RegexImplCustom) EcoreUtil2.getAllContentsOfType(document, Regex.class).get(0);
+
+        assertThat(regex.getLiteralPattern()).isNotNull();
+        assertThat(regex.getLiteralPattern().pattern()).isEqualTo("^/api/.*");
+        StepVerifier.create(regex.evaluate().contextWrite(MockUtil::setUpAuthorizationContext)).expectNext(Val.TRUE)
+                .verifyComplete();
+    }
+
+    @Test
+    void when_parsedWithoutLoading_then_patternIsCompiledOnDemand() throws IOException {
+        var expression = (RegexImplCustom) ParserUtil.expression("\"/api/test\" =~ \"^/api/.*\"");
+
+        assertThat(expression.getLiteralPattern()).isNull();
+        StepVerifier.create(expression.evaluate().contextWrite(MockUtil::setUpAuthorizationContext))
+                .expectNext(Val.TRUE).verifyComplete();
+    }
+
+    @Test
+    void when_rightHandSideIsDynamic_then_noPatternIsCompiledWhenLoaded() throws IOException {
+        var expression = (RegexImplCustom) ParserUtil.expression("\"test\" =~ (\"te\" + \".*\")");
+
+        expression.compileLiteralPattern();
+
+        assertThat(expression.getLiteralPattern()).isNull();
+        StepVerifier.create(expression.evaluate().contextWrite(MockUtil::setUpAuthorizationContext))
+                .expectNext(Val.TRUE).verifyComplete();
+    }
+
+    @Test
+    void when_literalPatternIsInvalid_then_evaluationReturnsError() throws IOException {
+        var expression = (RegexImplCustom) ParserUtil.expression("\"test\" =~ \"***\"");
+
+        expression.compileLiteralPattern();
+
+        StepVerifier.create(expression.evaluate().contextWrite(MockUtil::setUpAuthorizationContext))
+                .expectNextMatches(Val::isError).verifyComplete();
+    }
+
+}
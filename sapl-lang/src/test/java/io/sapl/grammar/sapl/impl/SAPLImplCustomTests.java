@@ -20,10 +20,12 @@
 import static io.sapl.api.pdp.AuthorizationDecision.INDETERMINATE;
 import static io.sapl.api.pdp.AuthorizationDecision.PERMIT;
 import static io.sapl.testutil.TestUtil.hasDecision;
+import static org.assertj.core.api.Assertions.assertThat;
 
 import java.util.Map;
 import java.util.stream.Stream;
 
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -31,9 +33,13 @@
 
 import io.sapl.api.interpreter.Val;
 import io.sapl.api.pdp.AuthorizationDecision;
+import io.sapl.functions.FilterFunctionLibrary;
 import io.sapl.interpreter.DefaultSAPLInterpreter;
+import io.sapl.interpreter.InitializationException;
 import io.sapl.interpreter.SAPLInterpreter;
 import io.sapl.interpreter.context.AuthorizationContext;
+import io.sapl.interpreter.functions.AnnotationFunctionContext;
+import io.sapl.interpreter.pip.AnnotationAttributeContext;
 import io.sapl.testutil.MockUtil;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
@@ -122,4 +128,22 @@ void documentEvaluatesToExpectedValue(String policySource, AuthorizationDecision
         StepVerifier.create(policy.evaluate().contextWrite(MockUtil::setUpAuthorizationContext))
                 .expectNextMatches(hasDecision(expected)).verifyComplete();
     }
+
+    @Test
+    void importsAreResolvedOncePerContexts() throws InitializationException {
+        var attributeCtx = new AnnotationAttributeContext();
+        var functionCtx  = new AnnotationFunctionContext();
+        functionCtx.loadLibrary(FilterFunctionLibrary.class);
+        var document = (SAPLImplCustom) INTERPRETER.parse("import filter.blacken policy \"policy\" permit true");
+
+        var imports = document.resolveImports(attributeCtx, functionCtx);
+        assertThat(imports).isEqualTo(Map.of("blacken", "filter.blacken"));
+        assertThat(document.resolveImports(attributeCtx, functionCtx)).isSameAs(imports);
+
+        var otherFunctionCtx = new AnnotationFunctionContext();
+        otherFunctionCtx.loadLibrary(FilterFunctionLibrary.class);
+        var reresolvedImports = document.resolveImports(attributeCtx, otherFunctionCtx);
+        assertThat(reresolvedImports).isNotSameAs(imports).isEqualTo(imports);
+    }
+
 }
@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.grammar.sapl.impl.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.sapl.api.interpreter.Val;
+import io.sapl.api.pdp.AuthorizationDecision;
+import io.sapl.api.pdp.Decision;
+import io.sapl.grammar.sapl.Entitlement;
+import io.sapl.grammar.sapl.Policy;
+import io.sapl.grammar.sapl.PolicyElement;
+import io.sapl.interpreter.CombinedDecision;
+import io.sapl.interpreter.DocumentEvaluationResult;
+import io.sapl.interpreter.PolicyDecision;
+import io.sapl.interpreter.context.AuthorizationContext;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+class CombiningAlgorithmUtilTests {
+
+    @Test
+    void lazyCombinationSuspendsPoliciesThatCannotChangeTheDecision() {
+        var denyWhereResults = Sinks.many().replay().<Val>latest();
+        var subscriptions    = new AtomicInteger();
+        var cancellations    = new AtomicInteger();
+        var permitResults    = Flux.<Val>never().startWith(Val.TRUE)
+                .doOnSubscribe(subscription -> subscriptions.incrementAndGet())
+                .doOnCancel(cancellations::incrementAndGet);
+        var policies         = List.<PolicyElement>of(policy("deny", Decision.DENY, denyWhereResults.asFlux()),
+                policy("permit", Decision.PERMIT, permitResults));
+
+        var combined = CombiningAlgorithmUtil.lazilyCombinePolicyElements(policies,
+                CombiningAlgorithmUtilTests::denyOverrides, "TEST", AuthorizationDecision.NOT_APPLICABLE,
+                Decision.DENY).map(combinedDecision -> combinedDecision.getAuthorizationDecision().getDecision());
+
+        StepVerifier.create(combined).then(() -> denyWhereResults.tryEmitNext(Val.FALSE)).expectNext(Decision.PERMIT)
+                .then(() -> assertThat(subscriptions.get(), is(1)))
+                .then(() -> denyWhereResults.tryEmitNext(Val.TRUE)).expectNext(Decision.DENY)
+                .then(() -> assertThat(cancellations.get(), is(1)))
+                .then(() -> denyWhereResults.tryEmitNext(Val.TRUE)).expectNext(Decision.DENY)
+                .then(() -> assertThat(subscriptions.get(), is(1)))
+                .then(() -> denyWhereResults.tryEmitNext(Val.FALSE)).expectNext(Decision.PERMIT)
+                .then(() -> assertThat(subscriptions.get(), is(2))).thenCancel().verify();
+    }
+
+    @Test
+    void lazyCombinationDoesNotSubscribeToSuspendablePoliciesIfDecisionIsOverridden() {
+        var subscriptions = new AtomicInteger();
+        var permitResults = Flux.just(Val.TRUE).doOnSubscribe(subscription -> subscriptions.incrementAndGet());
+        var policies      = List.<PolicyElement>of(policy("deny", Decision.DENY, Flux.just(Val.TRUE)),
+                policy("permit", Decision.PERMIT, permitResults));
+
+        var combined = CombiningAlgorithmUtil.lazilyCombinePolicyElements(policies,
+                CombiningAlgorithmUtilTests::denyOverrides, "TEST", AuthorizationDecision.NOT_APPLICABLE,
+                Decision.DENY).map(combinedDecision -> combinedDecision.getAuthorizationDecision().getDecision());
+
+        StepVerifier.create(combined).expectNext(Decision.DENY).verifyComplete();
+        assertThat(subscriptions.get(), is(0));
+    }
+
+    @Test
+    void lazyCombinationWithoutSuspendablePoliciesIsEager() {
+        var policies = List.<PolicyElement>of(policy("deny", Decision.DENY, Flux.just(Val.FALSE)),
+                policy("deny2", Decision.DENY, Flux.just(Val.FALSE)));
+
+        var combined = CombiningAlgorithmUtil.lazilyCombinePolicyElements(policies,
+                CombiningAlgorithmUtilTests::denyOverrides, "TEST", AuthorizationDecision.NOT_APPLICABLE,
+                Decision.DENY).map(combinedDecision -> combinedDecision.getAuthorizationDecision().getDecision());
+
+        StepVerifier.create(combined).expectNext(Decision.NOT_APPLICABLE).verifyComplete();
+    }
+
+    @Test
+    void lazyCombinationOfNoPoliciesIsDefault() {
+        var combined = CombiningAlgorithmUtil.lazilyCombinePolicyElements(List.of(),
+                CombiningAlgorithmUtilTests::denyOverrides, "TEST", AuthorizationDecision.NOT_APPLICABLE,
+                Decision.DENY).map(combinedDecision -> combinedDecision.getAuthorizationDecision().getDecision());
+
+        StepVerifier.create(combined).expectNext(Decision.NOT_APPLICABLE).verifyComplete();
+    }
+
+    @Test
+    void overridingCombinationIsLazyOnlyIfEnabledInTheContext() {
+        var subscriptions = new AtomicInteger();
+        var permitResults = Flux.just(Val.TRUE).doOnSubscribe(subscription -> subscriptions.incrementAndGet());
+        var policies      = List.<PolicyElement>of(policy("deny", Decision.DENY, Flux.just(Val.TRUE)),
+                policy("permit", Decision.PERMIT, permitResults));
+
+        var combined = CombiningAlgorithmUtil.combineOverridingPolicyElements(policies,
+                CombiningAlgorithmUtilTests::denyOverrides, "TEST", AuthorizationDecision.NOT_APPLICABLE,
+                Decision.DENY).map(combinedDecision -> combinedDecision.getAuthorizationDecision().getDecision());
+
+        StepVerifier.create(combined.contextWrite(ctx -> AuthorizationContext.setLazyOverrides(ctx, true)))
+                .expectNext(Decision.DENY).verifyComplete();
+        assertThat(subscriptions.get(), is(0));
+
+        StepVerifier.create(combined).expectNext(Decision.DENY).verifyComplete();
+        assertThat(subscriptions.get(), is(1));
+    }
+
+    private static Policy policy(String name, Decision decision, Flux<Val> whereResults) {
+        var entitlement = mock(Entitlement.class);
+        when(entitlement.getDecision()).thenReturn(decision);
+        var policy = mock(Policy.class);
+        when(policy.getEntitlement()).thenReturn(entitlement);
+        when(policy.matches()).thenReturn(Mono.just(Val.TRUE));
+        when(policy.evaluate()).thenReturn(whereResults
+                .map(where -> (DocumentEvaluationResult) PolicyDecision.fromWhereResult(name, decision, where)));
+        return policy;
+    }
+
+    private static CombinedDecision denyOverrides(DocumentEvaluationResult[] results) {
+        var entitlement = Decision.NOT_APPLICABLE;
+        for (var result : results) {
+            var decision = result.getAuthorizationDecision().getDecision();
+            if (decision == Decision.DENY)
+                entitlement = Decision.DENY;
+            if (decision == Decision.PERMIT && entitlement == Decision.NOT_APPLICABLE)
+                entitlement = Decision.PERMIT;
+        }
+        return CombinedDecision.of(new AuthorizationDecision(entitlement), "TEST", List.of(results));
+    }
+
+}
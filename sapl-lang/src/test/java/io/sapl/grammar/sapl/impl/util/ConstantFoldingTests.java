@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.grammar.sapl.impl.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.HashMap;
+
+import org.junit.jupiter.api.Test;
+
+import io.sapl.api.interpreter.Trace;
+import io.sapl.api.interpreter.TracingMode;
+import io.sapl.api.interpreter.Val;
+import io.sapl.grammar.sapl.Array;
+import io.sapl.grammar.sapl.BasicFunction;
+import io.sapl.grammar.sapl.BasicValue;
+import io.sapl.grammar.sapl.ElementOf;
+import io.sapl.interpreter.context.AuthorizationContext;
+import io.sapl.interpreter.functions.FunctionContext;
+import io.sapl.testutil.MockUtil;
+import io.sapl.testutil.ParserUtil;
+import reactor.test.StepVerifier;
+import reactor.util.context.Context;
+
+class ConstantFoldingTests {
+
+    @Test
+    void when_expressionIsConstant_then_itIsFoldedIntoItsValue() throws IOException {
+        var expression = ParserUtil.expression("[1 + 2, \"a\" + \"b\", { \"k\": 3 * 4 }, !false][1:]");
+        ConstantFolding.foldConstants(expression);
+
+        var expected = Val.ofJson("[\"ab\", { \"k\": 12 }, true]");
+        assertThat(ConstantFolding.constantValue(expression)).isEqualTo(expected);
+        assertThat(((ConstantFoldable) expression).getConstantValue()).isEqualTo(expected);
+        assertThat(expression.eAdapters()).isEmpty();
+        StepVerifier.create(expression.evaluate()).expectNext(expected).verifyComplete();
+    }
+
+    @Test
+    void when_expressionIsPartiallyConstant_then_onlyConstantSubExpressionsAreFolded() throws IOException {
+        var expression = (ElementOf) ParserUtil.expression("nullVariable in [\"a\", 1 + 1]");
+        ConstantFolding.foldConstants(expression);
+
+        assertThat(ConstantFolding.constantValue(expression)).isNull();
+        assertThat(ConstantFolding.constantValue(expression.getLeft())).isNull();
+        assertThat(ConstantFolding.constantValue(expression.getRight())).isEqualTo(Val.ofJson("[\"a\", 2]"));
+        StepVerifier.create(expression.evaluate().contextWrite(MockUtil::setUpAuthorizationContext))
+                .expectNext(Val.FALSE).verifyComplete();
+    }
+
+    @Test
+    void when_expressionContainsFunctionOrAttribute_then_itIsNotFolded() throws IOException {
+        for (var sapl : new String[] { "filter.blacken(\"abc\")", "[1, nullVariable]", "\"x\".<test.numbers>",
+                "[1,2] :: @" }) {
+            var expression = ParserUtil.expression(sapl);
+            ConstantFolding.foldConstants(expression);
+            assertThat(ConstantFolding.constantValue(expression)).isNull();
+        }
+    }
+
+    @Test
+    void when_constantArrayHasNonConstantSteps_then_itsItemsAreFolded() throws IOException {
+        var expression = (BasicValue) ParserUtil.expression("[1 + 1, 3].<test.numbers>");
+        ConstantFolding.foldConstants(expression);
+
+        var items = ((Array) expression.getValue()).getItems();
+        assertThat(ConstantFolding.constantValue(expression)).isNull();
+        assertThat(ConstantFolding.constantValue(items.get(0))).isEqualTo(Val.of(2));
+        assertThat(ConstantFolding.constantValue(items.get(1))).isEqualTo(Val.of(3));
+    }
+
+    @Test
+    void when_foldedExpressionIsEvaluated_then_itIsTracedAsRequiredByTracingMode() throws IOException {
+        var expression = ParserUtil.expression("1 + 2");
+        ConstantFolding.foldConstants(expression);
+
+        var untraced = ConstantFolding.constantValue(expression, TracingMode.OFF);
+        var traced   = ConstantFolding.constantValue(expression, TracingMode.FULL);
+        assertThat(untraced.getTrace().has(Trace.TRACE_KEY)).isFalse();
+        assertThat(traced.getTrace().has(Trace.TRACE_KEY)).isTrue();
+        assertThat(ConstantFolding.constantValue(expression, TracingMode.LAZY)).isSameAs(traced);
+        StepVerifier.create(expression.evaluate().contextWrite(tracingMode(TracingMode.OFF)))
+                .expectNextMatches(value -> value == untraced).verifyComplete();
+        StepVerifier.create(expression.evaluate().contextWrite(tracingMode(TracingMode.FULL)))
+                .expectNextMatches(value -> value == traced).verifyComplete();
+    }
+
+    @Test
+    void when_constantExpressionIsAnError_then_errorIsFolded() throws IOException {
+        var expression = ParserUtil.expression("1 / 0");
+        ConstantFolding.foldConstants(expression);
+        assertThat(ConstantFolding.constantValue(expression).isError()).isTrue();
+    }
+
+    @Test
+    void when_pureFunctionIsCalledWithConstantParameters_then_itIsEvaluatedOnce() throws IOException {
+        var function = (BasicFunction) ParserUtil.expression("math.double(21)");
+        ConstantFolding.foldConstants(function);
+
+        var functionContext = mock(FunctionContext.class);
+        when(functionContext.evaluate(any(TracingMode.class), eq("math.double"), any(Val.class)))
+                .thenReturn(Val.of(42));
+        when(functionContext.isPureFunction("math.double")).thenReturn(true);
+        var ctx = functionContext(functionContext);
+
+        for (int i = 0; i < 3; i++)
+            StepVerifier.create(function.evaluate().contextWrite(ctx)).expectNext(Val.of(42)).verifyComplete();
+
+        verify(functionContext, times(1)).evaluate(any(TracingMode.class), eq("math.double"), any(Val.class));
+    }
+
+    @Test
+    void when_impureFunctionIsCalledWithConstantParameters_then_itIsEvaluatedEachTime() throws IOException {
+        var function = (BasicFunction) ParserUtil.expression("math.random(21)");
+        ConstantFolding.foldConstants(function);
+
+        var functionContext = mock(FunctionContext.class);
+        when(functionContext.evaluate(any(TracingMode.class), eq("math.random"), any(Val.class)))
+                .thenReturn(Val.of(4));
+        var ctx = functionContext(functionContext);
+
+        for (int i = 0; i < 3; i++)
+            StepVerifier.create(function.evaluate().contextWrite(ctx)).expectNext(Val.of(4)).verifyComplete();
+
+        verify(functionContext, times(3)).evaluate(any(TracingMode.class), eq("math.random"), any(Val.class));
+    }
+
+    @Test
+    void when_notFolded_then_constantValuesOfArgumentsIsNull() throws IOException {
+        var function = (BasicFunction) ParserUtil.expression("math.double(21)");
+        assertThat(ConstantFolding.isConstant(function.getArguments())).isFalse();
+        assertThat(ConstantFolding.constantValues(function.getArguments(), TracingMode.OFF)).isNull();
+        ConstantFolding.foldConstants(function);
+        assertThat(ConstantFolding.isConstant(function.getArguments())).isTrue();
+        assertThat(ConstantFolding.constantValues(function.getArguments(), TracingMode.OFF))
+                .containsExactly(Val.of(21));
+    }
+
+    private static Context tracingMode(TracingMode tracingMode) {
+        return AuthorizationContext.setTracingMode(Context.empty(), tracingMode);
+    }
+
+    private static Context functionContext(FunctionContext functionContext) {
+        var ctx = AuthorizationContext.setFunctionContext(Context.empty(), functionContext);
+        return AuthorizationContext.setImports(ctx, new HashMap<>());
+    }
+
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.grammar.sapl.impl.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.regex.PatternSyntaxException;
+
+import org.junit.jupiter.api.Test;
+
+import io.sapl.grammar.sapl.impl.util.RegexUtil.MatchTimeoutException;
+
+class RegexUtilTests {
+
+    private static final String CATASTROPHIC_INPUT = "a".repeat(64);
+
+    @Test
+    void compiledPatternsAreCached() {
+        assertThat(RegexUtil.compile("^/api/.*"), is(sameInstance(RegexUtil.compile("^/api/.*"))));
+    }
+
+    @Test
+    void cacheIsBounded() {
+        for (int i = 0; i < 2 * RegexUtil.CACHE_SIZE; i++) {
+            assertThat(RegexUtil.compile("^/bounded/" + i + "$").pattern(), is("^/bounded/" + i + "$"));
+        }
+        assertThat(RegexUtil.numberOfCachedPatterns(), is(lessThanOrEqualTo(RegexUtil.CACHE_SIZE)));
+    }
+
+    @Test
+    void recentlyUsedPatternsAreNotEvicted() {
+        var hot = RegexUtil.compile("^/hot$");
+        for (int i = 0; i < 2 * RegexUtil.CACHE_SIZE; i++) {
+            RegexUtil.compile("^/churn/" + i + "$");
+            assertThat(RegexUtil.compile("^/hot$"), is(sameInstance(hot)));
+        }
+    }
+
+    @Test
+    void invalidPatternThrows() {
+        assertThrows(PatternSyntaxException.class, () -> RegexUtil.compile("***"));
+    }
+
+    @Test
+    void matchesEntireInput() {
+        assertThat(RegexUtil.matches("^/api/.*", "/api/test"), is(true));
+        assertThat(RegexUtil.matches("api", "/api/test"), is(false));
+        assertThat(RegexUtil.matches("a(b+)c", "abbbc"), is(true));
+    }
+
+    @Test
+    void catastrophicBacktrackingTimesOut() {
+        var pattern = RegexUtil.compile("(a+)+b");
+        assertThrows(MatchTimeoutException.class, () -> RegexUtil.matches(pattern, CATASTROPHIC_INPUT));
+    }
+
+}
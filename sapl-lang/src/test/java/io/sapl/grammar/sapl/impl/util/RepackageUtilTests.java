@@ -21,6 +21,7 @@
 
 import org.junit.jupiter.api.Test;
 
+import io.sapl.api.interpreter.TracingMode;
 import io.sapl.api.interpreter.Val;
 import reactor.util.function.Tuples;
 
@@ -32,7 +33,7 @@ void testObjectCombiningOnErrors1() {
         var t2     = Tuples.of("key2", Val.error("error1"));
         var t3     = Tuples.of("key3", Val.of("value3"));
         var t4     = Tuples.of("key4", Val.of("value4"));
-        var actual = RepackageUtil.recombineObject(new Object[] { t1, t2, t3, t4 });
+        var actual = RepackageUtil.recombineObject(TracingMode.FULL, new Object[] { t1, t2, t3, t4 });
         assertThat(actual).isEqualTo(Val.error("error1"));
     }
 
@@ -42,7 +43,7 @@ void testObjectCombiningOnErrors2() {
         var t2     = Tuples.of("key2", Val.error("error1"));
         var t3     = Tuples.of("key3", Val.error("error2"));
         var t4     = Tuples.of("key4", Val.of("value4"));
-        var actual = RepackageUtil.recombineObject(new Object[] { t1, t2, t3, t4 });
+        var actual = RepackageUtil.recombineObject(TracingMode.FULL, new Object[] { t1, t2, t3, t4 });
         assertThat(actual).isEqualTo(Val.error("error1"));
     }
 }
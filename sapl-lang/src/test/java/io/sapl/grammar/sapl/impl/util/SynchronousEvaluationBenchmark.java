@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.grammar.sapl.impl.util;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.sapl.api.interpreter.Val;
+import io.sapl.grammar.sapl.Expression;
+import io.sapl.testutil.MockUtil;
+import io.sapl.testutil.ParserUtil;
+import reactor.util.context.Context;
+
+/**
+ * Compares the evaluation of an attribute-free expression through a reactive
+ * pipeline per node with its synchronous evaluation, once wrapped in a single
+ * {@link reactor.core.publisher.Flux} as done where expressions are evaluated,
+ * and once called directly as done for the operands of a synchronous
+ * expression.
+ * <p>
+ * The expressions access variables, so they are not folded into constants.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class SynchronousEvaluationBenchmark {
+
+    @Param({ "nullVariable == null", "(nullVariable == null) && 1 in [3, 2, nullVariable]",
+            "{ \"a\": [nullVariable, 1 + 2, -(2 % 3)] }.a[1] * 2 > 5 || false" })
+    String sapl;
+
+    Expression reactive;
+
+    Expression synchronous;
+
+    Context ctx;
+
+    @Setup
+    public void setUp() throws IOException {
+        reactive    = ParserUtil.expression(sapl);
+        synchronous = ParserUtil.expression(sapl);
+        SynchronousEvaluation.markSynchronousExpressions(synchronous);
+        ctx = MockUtil.setUpAuthorizationContext(Context.empty());
+    }
+
+    @Benchmark
+    public Val reactive() {
+        return reactive.evaluate().contextWrite(ctx).blockFirst();
+    }
+
+    @Benchmark
+    public Val synchronousInFlux() {
+        return SynchronousEvaluation.evaluate(synchronous).contextWrite(ctx).blockFirst();
+    }
+
+    @Benchmark
+    public Val synchronous() {
+        return SynchronousEvaluation.evaluate(synchronous, ctx);
+    }
+
+}
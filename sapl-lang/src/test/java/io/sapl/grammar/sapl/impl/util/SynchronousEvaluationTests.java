@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.grammar.sapl.impl.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+import io.sapl.api.interpreter.Val;
+import io.sapl.grammar.sapl.BasicIdentifier;
+import io.sapl.grammar.sapl.Expression;
+import io.sapl.testutil.MockUtil;
+import io.sapl.testutil.ParserUtil;
+import reactor.test.StepVerifier;
+import reactor.util.context.Context;
+
+class SynchronousEvaluationTests {
+
+    @Test
+    void when_expressionHasNoAttributes_then_itIsEvaluatedSynchronouslyWithSameResult() throws IOException {
+        for (var sapl : new String[] { "[nullVariable, 1 + 2, nullVariable == null, \"abc\" =~ \"a.*\"]",
+                "{ \"a\": { \"b\": [nullVariable, 5] } }.a.b[-1] * 2", "(nullVariable == null) && 1 in [3, 2, 1]",
+                "false || nullVariable", "filter.blacken(\"abcdef\", 1, nullVariable == null)",
+                "mock.parameters(nullVariable, -(2 % 3))", "undefinedVariable", "1 / 0 > 2" }) {
+            var expression = ParserUtil.expression(sapl);
+            SynchronousEvaluation.markSynchronousExpressions(expression);
+
+            assertThat(SynchronousEvaluation.isSynchronous(expression)).as(sapl).isTrue();
+            assertThat(expression.eAdapters()).as(sapl).isEmpty();
+            var ctx                = MockUtil.setUpAuthorizationContext(Context.empty());
+            var synchronousResult  = SynchronousEvaluation.evaluate(expression, ctx);
+            var reactiveExpression = ParserUtil.expression(sapl);
+            StepVerifier.create(reactiveExpression.evaluate().contextWrite(MockUtil::setUpAuthorizationContext))
+                    .expectNext(synchronousResult).verifyComplete();
+            StepVerifier.create(SynchronousEvaluation.evaluate(expression).contextWrite(ctx))
+                    .expectNext(synchronousResult).verifyComplete();
+        }
+    }
+
+    @Test
+    void when_expressionAccessesAttributes_then_onlyAttributeFreeSubExpressionsAreSynchronous() throws IOException {
+        var expression = ParserUtil.expression("[nullVariable == null, \"x\".<test.numbers>]");
+        SynchronousEvaluation.markSynchronousExpressions(expression);
+
+        assertThat(SynchronousEvaluation.isSynchronous(expression)).isFalse();
+        var identifier = firstIdentifier(expression);
+        assertThat(SynchronousEvaluation.isSynchronous(identifier)).isFalse();
+        assertThat(SynchronousEvaluation.isSynchronous((Expression) identifier.eContainer())).isTrue();
+    }
+
+    @Test
+    void when_expressionHasFilterOrSubtemplate_then_itIsNotSynchronous() throws IOException {
+        for (var sapl : new String[] { "nullVariable |- filter.remove", "[1, 2] :: { \"x\": @ }",
+                "[1, 2][?(@ > 1)]" }) {
+            var expression = ParserUtil.expression(sapl);
+            SynchronousEvaluation.markSynchronousExpressions(expression);
+            assertThat(SynchronousEvaluation.isSynchronous(expression)).as(sapl).isFalse();
+        }
+    }
+
+    @Test
+    void when_expressionIsNotMarked_then_itIsEvaluatedReactively() throws IOException {
+        var expression = ParserUtil.expression("1 + 2");
+        assertThat(SynchronousEvaluation.isSynchronous(expression)).isFalse();
+        StepVerifier.create(SynchronousEvaluation.evaluate(expression)).expectNext(Val.of(3)).verifyComplete();
+    }
+
+    private static BasicIdentifier firstIdentifier(Expression expression) {
+        var contents = expression.eAllContents();
+        while (contents.hasNext()) {
+            if (contents.next() instanceof BasicIdentifier identifier)
+                return identifier;
+        }
+        throw new IllegalStateException("no identifier in expression");
+    }
+
+}
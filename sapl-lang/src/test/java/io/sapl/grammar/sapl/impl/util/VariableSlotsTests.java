@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.grammar.sapl.impl.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import io.sapl.grammar.sapl.impl.BasicIdentifierImplCustom;
+import io.sapl.grammar.sapl.impl.ValueDefinitionImplCustom;
+import io.sapl.interpreter.DefaultSAPLInterpreter;
+import io.sapl.interpreter.SAPLInterpreter;
+
+class VariableSlotsTests {
+
+    private static final SAPLInterpreter INTERPRETER = new DefaultSAPLInterpreter();
+
+    @Test
+    void when_documentIsLoaded_then_equalNamesShareASlotAndGlobalsHaveNone() {
+        var sapl = INTERPRETER.parse("""
+                set "set" first-applicable
+                var a = 1;
+                policy "p1" permit where var b = a; var a = b; subject == b;
+                policy "p2" permit where var c = a; c == environment;
+                """);
+
+        var definitionSlots = new HashMap<String, Set<Integer>>();
+        var identifierSlots = new HashMap<String, Set<Integer>>();
+        var contents        = sapl.eAllContents();
+        while (contents.hasNext()) {
+            var node = contents.next();
+            if (node instanceof ValueDefinitionImplCustom definition)
+                definitionSlots.computeIfAbsent(definition.getName(), name -> new HashSet<>())
+                        .add(definition.getVariableSlot());
+            if (node instanceof BasicIdentifierImplCustom identifier)
+                identifierSlots.computeIfAbsent(identifier.getIdentifier(), name -> new HashSet<>())
+                        .add(identifier.getVariableSlot());
+        }
+
+        assertThat(definitionSlots).containsOnly(entry("a", Set.of(0)), entry("b", Set.of(1)), entry("c", Set.of(2)));
+        assertThat(identifierSlots).containsOnly(entry("a", Set.of(0)), entry("b", Set.of(1)), entry("c", Set.of(2)),
+                entry("subject", Set.of(-1)), entry("environment", Set.of(-1)));
+    }
+
+}
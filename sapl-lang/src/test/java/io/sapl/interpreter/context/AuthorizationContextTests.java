@@ -17,11 +17,17 @@
  */
 package io.sapl.interpreter.context;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+import java.util.Map;
+import java.util.NoSuchElementException;
 
 import org.junit.jupiter.api.Test;
 
 import io.sapl.api.interpreter.Val;
+import io.sapl.api.pdp.AuthorizationSubscription;
 import reactor.util.context.Context;
 
 class AuthorizationContextTests {
@@ -38,4 +44,70 @@ void when_setReservedVariableName_then_throw() {
         assertThatThrownBy(() -> AuthorizationContext.setVariable(ctx, "environment", Val.NULL)).hasMessage(
                 String.format(AuthorizationContext.CANNOT_OVERWRITE_REQUEST_VARIABLE_S_ERROR, "environment"));
     }
+
+    @Test
+    void when_evaluationStateIsSet_then_contextHoldsASingleEntry() {
+        var ctx = AuthorizationContext.setVariables(Context.empty(), Map.of("a", Val.of(1)));
+        ctx = AuthorizationContext.setSubscriptionVariables(ctx, AuthorizationSubscription.of("s", "a", "r"));
+        ctx = AuthorizationContext.setImports(ctx, Map.of("f", "lib.f"));
+        ctx = AuthorizationContext.setVariable(ctx, "b", Val.of(2));
+        ctx = AuthorizationContext.setRelativeNodeWithIndex(ctx, Val.of(3), 4);
+
+        assertThat(ctx.size()).isOne();
+        assertThat(AuthorizationContext.getVariable(ctx, "a")).isEqualTo(Val.of(1));
+        assertThat(AuthorizationContext.getVariable(ctx, "b")).isEqualTo(Val.of(2));
+        assertThat(AuthorizationContext.getVariable(ctx, "subject")).isEqualTo(Val.of("s"));
+        assertThat(AuthorizationContext.getImports(ctx)).containsEntry("f", "lib.f");
+        assertThat(AuthorizationContext.getRelativeNode(ctx)).isEqualTo(Val.of(3));
+        assertThat(AuthorizationContext.getIndex(ctx)).isEqualTo(4);
+    }
+
+    @Test
+    void when_localVariablesAreRedefinedOrRemoved_then_latestDefinitionWins() {
+        var ctx = AuthorizationContext.setVariables(Context.empty(), Map.of("a", Val.of(1), "b", Val.of(2)));
+        ctx = AuthorizationContext.setVariable(ctx, "a", Val.of(10));
+        ctx = AuthorizationContext.setVariable(ctx, "c", Val.of(3));
+        ctx = AuthorizationContext.setVariable(ctx, "b", Val.UNDEFINED);
+
+        assertThat(AuthorizationContext.getVariable(ctx, "a")).isEqualTo(Val.of(10));
+        assertThat(AuthorizationContext.getVariable(ctx, "b")).isEqualTo(Val.UNDEFINED);
+        assertThat(AuthorizationContext.getVariables(ctx)).containsOnly(entry("a", Val.of(10)), entry("c", Val.of(3)));
+    }
+
+    @Test
+    void when_slottedVariablesAreDefined_then_slotShadowsGlobalAndFallsBackToIt() {
+        var ctx = AuthorizationContext.setVariables(Context.empty(), Map.of("a", Val.of(1), "b", Val.of(2)));
+        ctx = AuthorizationContext.setVariable(ctx, 1, "b", Val.of(20));
+        ctx = AuthorizationContext.setVariable(ctx, 2, "c", Val.UNDEFINED);
+
+        assertThat(AuthorizationContext.getVariable(ctx, 0, "a")).isEqualTo(Val.of(1));
+        assertThat(AuthorizationContext.getVariable(ctx, 1, "b")).isEqualTo(Val.of(20));
+        assertThat(AuthorizationContext.getVariable(ctx, 5, "a")).isEqualTo(Val.of(1));
+        assertThat(AuthorizationContext.getVariable(ctx, "b")).isEqualTo(Val.of(20));
+        assertThat(AuthorizationContext.getVariable(ctx, 2, "c")).isEqualTo(Val.UNDEFINED);
+        assertThat(AuthorizationContext.getVariables(ctx)).containsOnly(entry("a", Val.of(1)), entry("b", Val.of(20)));
+
+        var redefined = AuthorizationContext.setVariable(ctx, 1, "b", Val.of(200));
+        assertThat(AuthorizationContext.getVariable(redefined, 1, "b")).isEqualTo(Val.of(200));
+        assertThat(AuthorizationContext.getVariable(ctx, 1, "b")).isEqualTo(Val.of(20));
+    }
+
+    @Test
+    void when_slottedVariableIsReserved_then_throw() {
+        var ctx = Context.empty();
+        assertThatThrownBy(() -> AuthorizationContext.setVariable(ctx, 0, "subject", Val.NULL))
+                .hasMessage(String.format(AuthorizationContext.CANNOT_OVERWRITE_REQUEST_VARIABLE_S_ERROR, "subject"));
+    }
+
+    @Test
+    void when_nothingIsSet_then_defaultsOrNoSuchElement() {
+        var ctx = Context.empty();
+        assertThat(AuthorizationContext.getVariables(ctx)).isEmpty();
+        assertThat(AuthorizationContext.getImports(ctx)).isEmpty();
+        assertThat(AuthorizationContext.getRelativeNode(ctx)).isEqualTo(Val.UNDEFINED);
+        assertThatThrownBy(() -> AuthorizationContext.getAttributeContext(ctx))
+                .isInstanceOf(NoSuchElementException.class);
+        assertThatThrownBy(() -> AuthorizationContext.getKey(ctx)).isInstanceOf(NoSuchElementException.class);
+    }
+
 }
@@ -26,9 +26,11 @@
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
@@ -1016,6 +1018,36 @@ public Flux<Val> attribute(Val leftHand, Map<String, Val> variables, @Text Val..
                 .expectNextMatches(valErrorText("Unknown attribute test.attribute")).verifyComplete();
     }
 
+    @Test
+    void when_attributeStreamSharingEnabled_then_equalAttributesShareOneInvocation()
+            throws InitializationException, IOException {
+        var invocations = new AtomicInteger();
+        @PolicyInformationPoint(name = "test")
+        class PIP {
+
+            @Attribute
+            public Flux<Val> attribute(Val leftHand, @Text Val param) {
+                invocations.incrementAndGet();
+                return Flux.<Val>never().startWith(param);
+            }
+
+        }
+
+        var pip          = new PIP();
+        var attributeCtx = new AnnotationAttributeContext(() -> List.of(pip), List::of);
+        attributeCtx.enableAttributeStreamSharing(Duration.ZERO, false);
+        var variables = Map.<String, Val>of();
+        var first     = ParserUtil.expression("\"\".<test.attribute(\"A\")>").evaluate();
+        var second    = ParserUtil.expression("\"\".<test.attribute(\"A\")>").evaluate();
+        var other     = ParserUtil.expression("\"\".<test.attribute(\"B\")>").evaluate();
+        StepVerifier
+                .create(Flux.merge(first, second, other).contextWrite(this.constructContext(attributeCtx, variables)))
+                .expectNextCount(3L).thenCancel().verify();
+        assertThat(invocations.get(), is(2));
+        assertThat(attributeCtx.getAttributeStreamBroker().orElseThrow().getHits(), is(1L));
+        assertThat(attributeCtx.getAttributeStreamBroker().orElseThrow().size(), is(0));
+    }
+
     private Function<Context, Context> constructContext(AttributeContext attributeCtx, Map<String, Val> variables) {
         return ctx -> {
             ctx = AuthorizationContext.setAttributeContext(ctx, attributeCtx);
@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.interpreter.pip;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.sapl.api.interpreter.Val;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+class AttributeStreamBrokerTests {
+
+    private static final Method ATTRIBUTE_FINDER = attributeFinder();
+
+    private final AtomicInteger invocations = new AtomicInteger();
+
+    @Test
+    void when_timeToLiveNegative_then_throw() {
+        var timeToLive = Duration.ofSeconds(-1L);
+        assertThatThrownBy(() -> new AttributeStreamBroker(timeToLive, false))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void when_equalParameters_then_streamIsShared() {
+        var broker = new AttributeStreamBroker(Duration.ZERO, false);
+        var first  = broker.attributeStream(ATTRIBUTE_FINDER, parameters("a", "b"), this::attribute);
+        var second = broker.attributeStream(ATTRIBUTE_FINDER, parameters("a", "b"), this::attribute);
+        var other  = broker.attributeStream(ATTRIBUTE_FINDER, parameters("a", "c"), this::attribute);
+
+        StepVerifier.create(Flux.merge(first, second, other)).expectNextCount(3L).thenCancel().verify();
+        assertThat(invocations.get()).isEqualTo(2);
+        assertThat(broker.getHits()).isEqualTo(1L);
+        assertThat(broker.getMisses()).isEqualTo(2L);
+        assertThat(broker.getHitRatio()).isEqualTo(1.0D / 3.0D);
+        assertThat(broker.size()).isZero();
+    }
+
+    @Test
+    void when_variablesDiffer_then_streamIsNotShared() {
+        var broker = new AttributeStreamBroker(Duration.ZERO, false);
+        var first  = broker.attributeStream(ATTRIBUTE_FINDER,
+                new Object[] { Val.of("a"), Map.of("x", Val.of(1)) }, this::attribute);
+        var second = broker.attributeStream(ATTRIBUTE_FINDER,
+                new Object[] { Val.of("a"), Map.of("x", Val.of(2)) }, this::attribute);
+
+        StepVerifier.create(Flux.merge(first, second)).expectNextCount(2L).thenCancel().verify();
+        assertThat(invocations.get()).isEqualTo(2);
+    }
+
+    @Test
+    void when_timeToLive_then_streamSurvivesLastSubscriber() {
+        var broker = new AttributeStreamBroker(Duration.ofMinutes(1L), false);
+        StepVerifier.create(broker.attributeStream(ATTRIBUTE_FINDER, parameters("a"), this::attribute))
+                .expectNextCount(1L).thenCancel().verify();
+        assertThat(broker.size()).isEqualTo(1);
+        StepVerifier.create(broker.attributeStream(ATTRIBUTE_FINDER, parameters("a"), this::attribute))
+                .expectNextCount(1L).thenCancel().verify();
+        assertThat(invocations.get()).isEqualTo(1);
+    }
+
+    @Test
+    void when_eagerPrefetch_then_streamIsConnectedBeforeSubscription() {
+        var broker = new AttributeStreamBroker(Duration.ofMinutes(1L), true);
+        var stream = broker.attributeStream(ATTRIBUTE_FINDER, parameters("a"), this::attribute);
+        assertThat(invocations.get()).isEqualTo(1);
+        StepVerifier.create(stream).expectNext(Val.of("a")).thenCancel().verify();
+        assertThat(invocations.get()).isEqualTo(1);
+    }
+
+    @Test
+    void when_eagerPrefetchOfSynchronouslyCompletingAttribute_then_streamIsRemovedAndResubscribable() {
+        var broker = new AttributeStreamBroker(Duration.ofMinutes(1L), true);
+        var stream = broker.attributeStream(ATTRIBUTE_FINDER, parameters("a"), this::completingAttribute);
+        assertThat(invocations.get()).isEqualTo(1);
+        assertThat(broker.size()).isZero();
+        assertThat(broker.getMisses()).isEqualTo(1L);
+
+        StepVerifier.create(stream).expectNext(Val.of("a")).verifyComplete();
+        StepVerifier.create(broker.attributeStream(ATTRIBUTE_FINDER, parameters("a"), this::completingAttribute))
+                .expectNext(Val.of("a")).verifyComplete();
+        assertThat(invocations.get()).isEqualTo(2);
+        assertThat(broker.getMisses()).isEqualTo(2L);
+        assertThat(broker.size()).isZero();
+    }
+
+    private Flux<Val> completingAttribute() {
+        invocations.incrementAndGet();
+        return Flux.just(Val.of("a"));
+    }
+
+    private Flux<Val> attribute() {
+        invocations.incrementAndGet();
+        return Flux.<Val>never().startWith(Val.of("a"));
+    }
+
+    private static Object[] parameters(String leftHand, String... varArgs) {
+        var arguments = new Val[varArgs.length];
+        for (var i = 0; i < varArgs.length; i++)
+            arguments[i] = Val.of(varArgs[i]);
+        return new Object[] { Val.of(leftHand), arguments };
+    }
+
+    private static Method attributeFinder() {
+        try {
+            return AttributeStreamBrokerTests.class.getDeclaredMethod("attribute");
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.interpreter.validation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Parameter;
+
+import org.junit.jupiter.api.Test;
+
+import io.sapl.api.interpreter.Val;
+import io.sapl.api.validation.Bool;
+import io.sapl.api.validation.Schema;
+import io.sapl.api.validation.Text;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+class ParameterValidatorTests {
+
+    private static final String PERSON_SCHEMA = "{\"type\": \"object\", \"required\": [\"name\"]}";
+
+    @SuppressWarnings("unused")
+    private static void parameters(Val unvalidated, @Text Val text, @Schema(PERSON_SCHEMA) @Text Val textOrPerson,
+            @Schema(value = PERSON_SCHEMA, errorText = "not a person") Val person) {
+        // only used for reflection
+    }
+
+    private static Parameter parameter(int index) throws NoSuchMethodException {
+        return ParameterValidatorTests.class
+                .getDeclaredMethod("parameters", Val.class, Val.class, Val.class, Val.class).getParameters()[index];
+    }
+
+    @Test
+    void when_parameterHasNoValidationAnnotations_then_anyValueIsAccepted() throws NoSuchMethodException {
+        var validator = ParameterValidator.of(parameter(0));
+        assertThat(validator.acceptsAnyValue()).isTrue();
+        assertDoesNotThrow(() -> validator.validate(Val.error("error")));
+        assertDoesNotThrow(() -> validator.validate(Val.UNDEFINED));
+    }
+
+    @Test
+    void when_valueMatchesType_then_valid() throws NoSuchMethodException {
+        var validator = ParameterValidator.of(parameter(1));
+        assertThat(validator.acceptsAnyValue()).isFalse();
+        assertDoesNotThrow(() -> validator.validate(Val.of("text")));
+        assertThatThrownBy(() -> validator.validate(Val.of(1))).isInstanceOf(IllegalParameterType.class)
+                .hasMessageStartingWith("Illegal parameter type. Got: NUMBER Expected: @io.sapl.api.validation.Text");
+        assertThatThrownBy(() -> validator.validate(Val.UNDEFINED)).isInstanceOf(IllegalParameterType.class)
+                .hasMessageStartingWith("Illegal parameter type. Got: undefined");
+    }
+
+    @Test
+    void when_typesAndSchemaAreDeclared_then_typesAreCheckedBeforeSchema() throws NoSuchMethodException {
+        var validator = ParameterValidator.of(parameter(2));
+        assertDoesNotThrow(() -> validator.validate(Val.of("text")));
+        assertDoesNotThrow(() -> validator.validate(Val.ofJson("{\"name\": \"Willi\"}")));
+        assertThatThrownBy(() -> validator.validate(Val.ofJson("{\"age\": 1}")))
+                .isInstanceOf(IllegalParameterType.class).hasMessageContaining("does not comply with required schema");
+    }
+
+    @Test
+    void when_schemaDeclaresErrorText_then_errorTextIsUsed() throws NoSuchMethodException {
+        var validator = ParameterValidator.of(parameter(3));
+        assertThatThrownBy(() -> validator.validate(Val.of(1))).isInstanceOf(IllegalParameterType.class)
+                .hasMessage("not a person");
+    }
+
+    @Test
+    void when_validatingFlux_then_invalidValuesBecomeErrors() throws NoSuchMethodException {
+        var validator = ParameterValidator.of(parameter(1));
+        StepVerifier.create(validator.validate(Flux.just(Val.of("a"), Val.TRUE)))
+                .expectNext(Val.of("a")).expectNextMatches(Val::isError).verifyComplete();
+    }
+
+    @Test
+    void when_validatingRepeatedly_then_annotationsAreOnlyReadOnce() {
+        var parameter   = mock(Parameter.class);
+        var annotations = new Annotation[] { mock(Bool.class) };
+        when(parameter.getAnnotations()).thenReturn(annotations);
+
+        var validator = ParameterValidator.of(parameter);
+        for (int i = 0; i < 10; i++)
+            assertDoesNotThrow(() -> validator.validate(Val.TRUE));
+
+        verify(parameter, times(1)).getAnnotations();
+    }
+
+}
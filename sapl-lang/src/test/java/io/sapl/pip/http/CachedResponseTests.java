@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.pip.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import io.sapl.api.interpreter.Val;
+
+class CachedResponseTests {
+
+    @Test
+    void when_parsingMaxAge_then_onlyPositiveCacheableAgesAreReturned() {
+        assertThat(CachedResponse.maxAge(null)).isEmpty();
+        assertThat(CachedResponse.maxAge("public, max-age=60")).contains(Duration.ofSeconds(60L));
+        assertThat(CachedResponse.maxAge("max-age=0")).isEmpty();
+        assertThat(CachedResponse.maxAge("max-age=abc")).isEmpty();
+        assertThat(CachedResponse.maxAge("no-cache, max-age=60")).isEmpty();
+        assertThat(CachedResponse.maxAge("private")).isEmpty();
+    }
+
+    @Test
+    void when_storedWithMaxAge_then_freshUntilExpired() {
+        var clock = mock(Clock.class);
+        var now   = Instant.parse("2024-01-01T00:00:00Z");
+        when(clock.instant()).thenReturn(now);
+        var cachedResponse = new CachedResponse(clock);
+        var headers        = new HttpHeaders();
+        headers.setCacheControl("max-age=10");
+        headers.setETag("\"v1\"");
+
+        cachedResponse.store(Val.of(1), headers);
+        assertThat(cachedResponse.freshValue()).contains(Val.of(1));
+        assertThat(cachedResponse.eTag()).contains("\"v1\"");
+
+        when(clock.instant()).thenReturn(now.plusSeconds(10L));
+        assertThat(cachedResponse.freshValue()).isEmpty();
+        assertThat(cachedResponse.value()).contains(Val.of(1));
+    }
+
+    @Test
+    void when_storedWithNoStore_then_nothingIsRemembered() {
+        var cachedResponse = new CachedResponse(Clock.systemUTC());
+        var headers        = new HttpHeaders();
+        headers.setETag("\"v1\"");
+        cachedResponse.store(Val.of(1), headers);
+        headers.setCacheControl("no-store");
+        cachedResponse.store(Val.of(2), headers);
+
+        assertThat(cachedResponse.value()).isEmpty();
+        assertThat(cachedResponse.eTag()).isEmpty();
+        assertThat(cachedResponse.freshValue()).isEmpty();
+    }
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.pip.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import reactor.test.StepVerifier;
+
+class HttpConnectionPoolTests {
+
+    private String        baseUrl;
+    private MockWebServer mockBackEnd;
+
+    @BeforeEach
+    void initialize() throws IOException {
+        mockBackEnd = new MockWebServer();
+        mockBackEnd.start();
+        baseUrl = String.format("http://localhost:%s", mockBackEnd.getPort());
+    }
+
+    @AfterEach
+    void stopBackEnd() throws IOException {
+        mockBackEnd.shutdown();
+    }
+
+    @Test
+    void when_sameBaseUrl_then_clientIsShared() {
+        var pool = HttpConnectionPool.withDefaults();
+        assertThat(pool.webClient(baseUrl)).isSameAs(pool.webClient(baseUrl));
+        assertThat(pool.webClient("http://localhost:1")).isNotSameAs(pool.webClient(baseUrl));
+        assertThat(pool.size()).isEqualTo(2);
+        pool.dispose();
+        assertThat(pool.size()).isZero();
+    }
+
+    @Test
+    void when_sameOrigin_then_connectionsAreShared() {
+        var pool = HttpConnectionPool.withDefaults();
+        pool.webClient(baseUrl + "/a");
+        pool.webClient(baseUrl + "/b");
+        assertThat(pool.size()).isEqualTo(1);
+        assertThat(pool.statistics(baseUrl + "/c")).isPresent();
+        pool.dispose();
+        assertThat(pool.isDisposed()).isTrue();
+    }
+
+    @Test
+    void when_originOf_then_schemeHostAndPortAreNormalized() {
+        assertThat(HttpConnectionPool.originOf("HTTP://LocalHost/path?q=1")).isEqualTo("http://localhost:80");
+        assertThat(HttpConnectionPool.originOf("https://example.com")).isEqualTo("https://example.com:443");
+        assertThat(HttpConnectionPool.originOf("http://example.com:8080/a")).isEqualTo("http://example.com:8080");
+        assertThat(HttpConnectionPool.originOf("not a url")).isEqualTo("not a url");
+    }
+
+    @Test
+    void when_maxOriginsExceeded_then_leastRecentlyUsedOriginIsEvicted() throws InterruptedException {
+        var pool = HttpConnectionPool.builder().origins(2, Duration.ofMinutes(1L)).build();
+        pool.webClient("http://localhost:1");
+        Thread.sleep(2L);
+        pool.webClient("http://localhost:2");
+        Thread.sleep(2L);
+        pool.webClient("http://localhost:1");
+        Thread.sleep(2L);
+        pool.webClient("http://localhost:3");
+        assertThat(pool.size()).isEqualTo(2);
+        assertThat(pool.statistics("http://localhost:1")).isPresent();
+        assertThat(pool.statistics("http://localhost:2")).isEmpty();
+        assertThat(pool.statistics("http://localhost:3")).isPresent();
+        pool.dispose();
+    }
+
+    @Test
+    void when_originIdle_then_itIsEvicted() {
+        var pool = HttpConnectionPool.builder().origins(10, Duration.ZERO).build();
+        pool.webClient(baseUrl);
+        assertThat(pool.size()).isEqualTo(1);
+        pool.evictIdleClients();
+        assertThat(pool.size()).isZero();
+        pool.dispose();
+    }
+
+    @Test
+    void when_requestsAreMade_then_statisticsAreRecorded() {
+        var pool = HttpConnectionPool.builder().maxConnections(4)
+                .eviction(Duration.ofSeconds(10L), Duration.ofMinutes(1L), Duration.ofSeconds(30L)).keepAlive(true)
+                .build();
+        assertThat(pool.statistics(baseUrl)).isEmpty();
+
+        mockBackEnd.enqueue(new MockResponse().setBody("first"));
+        mockBackEnd.enqueue(new MockResponse().setBody("second"));
+        var request = pool.webClient(baseUrl).get().retrieve().bodyToMono(String.class);
+        StepVerifier.create(request.concatWith(request)).expectNext("first", "second").verifyComplete();
+
+        var statistics = pool.statistics(baseUrl).orElseThrow();
+        assertThat(statistics.getRequests()).isEqualTo(2L);
+        assertThat(statistics.getFailures()).isZero();
+        assertThat(statistics.getActiveRequests()).isZero();
+        assertThat(statistics.getMaxActiveRequests()).isEqualTo(1);
+        assertThat(statistics.getSaturation()).isZero();
+        assertThat(statistics.getAverageLatency()).isPositive();
+        pool.dispose();
+    }
+
+    @Test
+    void when_noRequestCompleted_then_averageLatencyIsZero() {
+        var statistics = new HttpConnectionPool.Statistics(1);
+        assertThat(statistics.getAverageLatency()).isZero();
+    }
+
+    @Test
+    void when_maxConnectionsNotPositive_then_throw() {
+        var builder = HttpConnectionPool.builder();
+        assertThatThrownBy(() -> builder.maxConnections(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> builder.origins(0, Duration.ofMinutes(1L)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+}
@@ -17,6 +17,7 @@
  */
 package io.sapl.pip.http;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import java.io.IOException;
@@ -36,6 +37,7 @@
 import io.sapl.api.interpreter.Val;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
+import reactor.core.publisher.Flux;
 import reactor.test.StepVerifier;
 
 class ReactiveWebClientTests {
@@ -287,4 +289,41 @@ void testSSE() throws JsonProcessingException {
                 .expectComplete().verify();
     }
 
+    @Test
+    void when_responseHasETag_then_pollerRevalidatesConditionally()
+            throws JsonProcessingException, InterruptedException {
+        mockBackEnd.enqueue(new MockResponse().setBody(DEFAULT_BODY).addHeader("ETag", "\"v1\"")
+                .addHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE));
+        mockBackEnd.enqueue(new MockResponse().setResponseCode(304).addHeader("ETag", "\"v1\""));
+        var httpTestRequest = defaultRequest(MediaType.APPLICATION_JSON_VALUE);
+        var response        = clientUnderTest.httpRequest(HttpMethod.GET, httpTestRequest).map(Val::toString);
+        StepVerifier.create(response).expectNext(DEFAULT_BODY).expectNext(DEFAULT_BODY).verifyComplete();
+
+        var firstRequest  = mockBackEnd.takeRequest(1, TimeUnit.SECONDS);
+        var secondRequest = mockBackEnd.takeRequest(1, TimeUnit.SECONDS);
+        assertThat(firstRequest.getHeader("If-None-Match")).isNull();
+        assertThat(secondRequest.getHeader("If-None-Match")).isEqualTo("\"v1\"");
+    }
+
+    @Test
+    void when_responseIsFresh_then_pollerDoesNotRequestAgain() throws JsonProcessingException {
+        mockBackEnd.enqueue(new MockResponse().setBody(DEFAULT_BODY).addHeader("Cache-Control", "max-age=60")
+                .addHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE));
+        var httpTestRequest = defaultRequest(MediaType.APPLICATION_JSON_VALUE);
+        var response        = clientUnderTest.httpRequest(HttpMethod.GET, httpTestRequest).map(Val::toString);
+        StepVerifier.create(response).expectNext(DEFAULT_BODY).expectNext(DEFAULT_BODY).verifyComplete();
+        assertThat(mockBackEnd.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    void when_identicalRequestsConcurrently_then_theyShareOnePoller() throws JsonProcessingException {
+        mockBackEnd.enqueue(DEFAULT_RESPONSE);
+        mockBackEnd.enqueue(DEFAULT_RESPONSE);
+        var httpTestRequest = defaultRequest(MediaType.APPLICATION_JSON_VALUE);
+        var first           = clientUnderTest.httpRequest(HttpMethod.GET, httpTestRequest);
+        var second          = clientUnderTest.httpRequest(HttpMethod.GET, httpTestRequest);
+        StepVerifier.create(Flux.merge(first, second)).expectNextCount(4L).verifyComplete();
+        assertThat(mockBackEnd.getRequestCount()).isEqualTo(2);
+    }
+
 }
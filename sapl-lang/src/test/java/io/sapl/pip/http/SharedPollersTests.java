@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.pip.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+
+import io.sapl.api.interpreter.Val;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+class SharedPollersTests {
+
+    @Test
+    void when_maxPollersNotPositive_then_throw() {
+        assertThatThrownBy(() -> new SharedPollers(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void when_identicalSettings_then_pollerIsShared() {
+        var pollers       = new SharedPollers(10);
+        var subscriptions = new AtomicInteger();
+        var poller        = Flux.<Val>never().startWith(Val.of(1))
+                .doOnSubscribe(subscription -> subscriptions.incrementAndGet());
+
+        var first  = pollers.poll(HttpMethod.GET, Val.of("settings"), () -> poller);
+        var second = pollers.poll(HttpMethod.GET, Val.of("settings"), () -> poller);
+        var other  = pollers.poll(HttpMethod.POST, Val.of("settings"), () -> poller);
+
+        StepVerifier.create(Flux.merge(first, second, other)).expectNextCount(3L)
+                .then(() -> assertThat(pollers.size()).isEqualTo(2)).thenCancel().verify();
+        assertThat(subscriptions.get()).isEqualTo(2);
+        assertThat(pollers.size()).isZero();
+    }
+
+    @Test
+    void when_maxPollersExceeded_then_error() {
+        var pollers = new SharedPollers(1);
+        var first   = pollers.poll(HttpMethod.GET, Val.of("first"), () -> Flux.<Val>never().startWith(Val.of(1)));
+        var second  = pollers.poll(HttpMethod.GET, Val.of("second"), () -> Flux.<Val>never().startWith(Val.of(2)));
+
+        StepVerifier.create(Flux.merge(first, second)).expectNext(Val.of(1))
+                .expectNextMatches(value -> value.isError() && value.getMessage().contains("1 concurrent"))
+                .thenCancel().verify();
+    }
+
+}
@@ -34,6 +34,7 @@
 import io.sapl.prp.index.ImmutableParsedDocumentIndex;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
 class GenericInMemoryIndexedPolicyRetrievalPointTests {
 
@@ -131,4 +132,14 @@ void testConstructAndRetrieveWithNonSAPLResult() {
 
     }
 
+    @Test
+    void testPolicyUpdatesEmitsNumberOfEachUpdate() {
+        var eventMock = mock(PrpUpdateEvent.class);
+        when(sourceMock.getUpdates()).thenReturn(Flux.just(eventMock, eventMock, eventMock));
+
+        var prp = new GenericInMemoryIndexedPolicyRetrievalPoint(indexMock, sourceMock);
+        StepVerifier.create(prp.policyUpdates()).expectNext(2L).verifyComplete();
+        prp.dispose();
+    }
+
 }
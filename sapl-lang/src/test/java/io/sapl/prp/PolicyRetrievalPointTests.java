@@ -19,9 +19,12 @@
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 
+import java.time.Duration;
+
 import org.junit.jupiter.api.Test;
 
 import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
 
 class PolicyRetrievalPointTests {
 
@@ -39,4 +42,11 @@ void when_destroy_then_nothingThrown() {
         var sut = new TestPRP();
         assertDoesNotThrow(sut::destroy);
     }
+
+    @Test
+    void when_policyUpdates_then_neverEmits() {
+        var sut = new TestPRP();
+        StepVerifier.create(sut.policyUpdates()).expectSubscription().expectNoEvent(Duration.ofMillis(10L))
+                .thenCancel().verify();
+    }
 }
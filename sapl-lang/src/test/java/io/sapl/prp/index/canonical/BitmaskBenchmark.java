@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.prp.index.canonical;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the operations the canonical index performs per predicate while
+ * matching: an intersection test against the candidates, an intersection,
+ * removal from the candidates and iteration over the removed conjunctions.
+ * {@code matchInPlace} intersects into a reused scratch mask like the
+ * synchronous matcher, {@code matchWithCopies} copies the candidates for every
+ * intersection like the reactive matcher.
+ * <p>
+ * {@code conjunctions} is the number of conjunctions in the index and
+ * {@code predicateDensity} the fraction of them a single predicate occurs in.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class BitmaskBenchmark {
+
+    private static final int NUMBER_OF_PREDICATES = 64;
+
+    @Param({ "1000", "100000" })
+    int conjunctions;
+
+    @Param({ "0.001", "0.05" })
+    double predicateDensity;
+
+    Bitmask[] predicates;
+
+    Bitmask candidates;
+
+    Bitmask scratch;
+
+    @Setup
+    public void setUp() {
+        var random = new Random(42L);
+        predicates = new Bitmask[NUMBER_OF_PREDICATES];
+        for (int i = 0; i < NUMBER_OF_PREDICATES; i++) {
+            predicates[i] = new Bitmask();
+            var bits = Math.max(1, (int) (conjunctions * predicateDensity));
+            for (int j = 0; j < bits; j++) {
+                predicates[i].set(random.nextInt(conjunctions));
+            }
+        }
+        candidates = new Bitmask();
+        scratch    = new Bitmask();
+    }
+
+    @Benchmark
+    public void matchInPlace(Blackhole blackhole) {
+        candidates.clear();
+        candidates.set(0, conjunctions);
+        for (var predicate : predicates) {
+            if (predicate.intersects(candidates)) {
+                scratch.setToAnd(candidates, predicate);
+                candidates.andNot(scratch);
+                scratch.forEachSetBit(blackhole::consume);
+            }
+        }
+        blackhole.consume(candidates.numberOfBitsSet());
+    }
+
+    @Benchmark
+    public void matchWithCopies(Blackhole blackhole) {
+        candidates.clear();
+        candidates.set(0, conjunctions);
+        for (var predicate : predicates) {
+            if (predicate.intersects(candidates)) {
+                var affected = new Bitmask(candidates);
+                affected.and(predicate);
+                candidates.andNot(affected);
+                affected.forEachSetBit(blackhole::consume);
+            }
+        }
+        blackhole.consume(candidates.numberOfBitsSet());
+    }
+
+    @Benchmark
+    public Bitmask copy() {
+        return new Bitmask(predicates[0]);
+    }
+
+}
@@ -19,12 +19,16 @@
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
+import java.util.Random;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -57,4 +61,100 @@ void forEachSetBitTest() {
         verify(listMock, times(2)).add(anyInt());
     }
 
+    @Test
+    void basicOperationsTest() {
+        var mask = new Bitmask();
+        assertThat(mask.isEmpty(), is(true));
+        assertThat(mask.nextSetBit(0), is(-1));
+
+        mask.set(3);
+        mask.set(70_000);
+        mask.set(100, 104);
+        assertThat(mask.toString(), is("{3, 100, 101, 102, 103, 70000}"));
+        assertThat(mask.numberOfBitsSet(), is(6));
+        assertThat(mask.nextSetBit(104), is(70_000));
+        assertThat(mask.isSet(101), is(true));
+
+        mask.clear(101);
+        mask.flip(0, 5);
+        assertThat(mask.toString(), is("{0, 1, 2, 4, 100, 102, 103, 70000}"));
+
+        var copy = new Bitmask(mask);
+        mask.clear();
+        assertThat(mask.isEmpty(), is(true));
+        assertThat(copy.numberOfBitsSet(), is(8));
+        assertThrows(IndexOutOfBoundsException.class, () -> copy.set(-1));
+    }
+
+    @Test
+    void binaryOperationsBehaveLikeBitSet() {
+        var random = new Random(42L);
+        for (int run = 0; run < 50; run++) {
+            var left          = new Bitmask();
+            var right         = new Bitmask();
+            var expectedLeft  = new BitSet();
+            var expectedRight = new BitSet();
+            fill(random, left, expectedLeft, random.nextInt(6_000), 200_000);
+            fill(random, right, expectedRight, random.nextInt(6_000), 200_000);
+
+            assertThat(left.intersects(right), is(expectedLeft.intersects(expectedRight)));
+
+            var and = new Bitmask(left);
+            and.and(right);
+            assertSameBits(and, and(expectedLeft, expectedRight));
+
+            var andNot = new Bitmask(left);
+            andNot.andNot(right);
+            var expectedAndNot = (BitSet) expectedLeft.clone();
+            expectedAndNot.andNot(expectedRight);
+            assertSameBits(andNot, expectedAndNot);
+
+            var or = new Bitmask(left);
+            or.or(right);
+            var expectedOr = (BitSet) expectedLeft.clone();
+            expectedOr.or(expectedRight);
+            assertSameBits(or, expectedOr);
+
+            var setToAnd = new Bitmask();
+            setToAnd.set(7);
+            setToAnd.setToAnd(left, right);
+            assertSameBits(setToAnd, and(expectedLeft, expectedRight));
+
+            left.flip(1_000, 140_000);
+            expectedLeft.flip(1_000, 140_000);
+            assertSameBits(left, expectedLeft);
+        }
+    }
+
+    private static void fill(Random random, Bitmask mask, BitSet expected, int numberOfBits, int bound) {
+        for (int i = 0; i < numberOfBits; i++) {
+            var bit = random.nextInt(bound);
+            mask.set(bit);
+            expected.set(bit);
+        }
+        var from = random.nextInt(bound);
+        var to   = from + random.nextInt(10_000);
+        mask.set(from, to);
+        expected.set(from, to);
+    }
+
+    private static BitSet and(BitSet left, BitSet right) {
+        var result = (BitSet) left.clone();
+        result.and(right);
+        return result;
+    }
+
+    private static void assertSameBits(Bitmask actual, BitSet expected) {
+        assertThat(actual.numberOfBitsSet(), is(expected.cardinality()));
+        var actualBits = new ArrayList<Integer>();
+        actual.forEachSetBit(actualBits::add);
+        assertThat(actualBits, is(expected.stream().boxed().toList()));
+        var next = 0;
+        for (int bit : actualBits) {
+            assertThat(actual.nextSetBit(next), is(bit));
+            next = bit + 1;
+        }
+        assertThat(actual.nextSetBit(next), is(-1));
+    }
+
 }
@@ -17,10 +17,12 @@
  */
 package io.sapl.prp.index.canonical;
 
+import static io.sapl.testutil.ParserUtil.expression;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
@@ -28,15 +30,20 @@
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.when;
 
+import java.io.IOException;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockedStatic;
 
+import io.sapl.api.interpreter.PolicyEvaluationException;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.Expression;
 import reactor.core.publisher.Flux;
+import reactor.util.context.Context;
 
 class BoolTests {
 
@@ -66,6 +73,28 @@ void constructUsingExpressionTest() {
         assertThat(expressionBool.isImmutable(), is(false));
     }
 
+    @Test
+    void evaluateSynchronouslyTest() {
+        assertThat(constantBool.evaluateExpressionSynchronously(Context.empty()), is(Val.FALSE));
+        assertThat(expressionBool.evaluateExpressionSynchronously(Context.empty()), is(Val.TRUE));
+
+        var neverEmittingExpression = mock(Expression.class);
+        when(neverEmittingExpression.evaluate()).thenReturn(Flux.never());
+        var neverEmittingBool = new Bool(neverEmittingExpression, Collections.emptyMap());
+        assertThat(neverEmittingBool.evaluateExpressionSynchronously(Context.empty()), is(nullValue()));
+
+        var failingExpression = mock(Expression.class);
+        when(failingExpression.evaluate()).thenReturn(Flux.error(new RuntimeException("failure")));
+        var failingBool = new Bool(failingExpression, Collections.emptyMap());
+        assertThrows(PolicyEvaluationException.class,
+                () -> failingBool.evaluateExpressionSynchronously(Context.empty()));
+
+        var nonBooleanExpression = mock(Expression.class);
+        when(nonBooleanExpression.evaluate()).thenReturn(Flux.just(Val.of(1)));
+        var nonBooleanBool = new Bool(nonBooleanExpression, Collections.emptyMap());
+        assertThat(nonBooleanBool.evaluateExpressionSynchronously(Context.empty()).isError(), is(true));
+    }
+
     @Test
     @SuppressWarnings("unlikely-arg-type")
     void equalsTest() {
@@ -151,4 +180,18 @@ void evaluating_bool_with_impossible_expression_should_return_impossible_value()
         assertThat(result.isBoolean(), is(true));
     }
 
+    @Test
+    void referencedVariablesTest() throws IOException {
+        assertThat(constantBool.getReferencedVariables(), is(nullValue()));
+        assertThat(new Bool(expression("subject.role == \"admin\" && action == subject.role"), Map.of())
+                .getReferencedVariables(), is(List.of("subject", "action")));
+        assertThat(new Bool(expression("resource"), Map.of()).getReferencedVariables(), is(List.of("resource")));
+        assertThat(new Bool(expression("time.now() == subject"), Map.of()).getReferencedVariables(),
+                is(nullValue()));
+        assertThat(new Bool(expression("subject.<pip.attribute> == true"), Map.of()).getReferencedVariables(),
+                is(nullValue()));
+        assertThat(new Bool(expression("subject[?(@ > 1)] == []"), Map.of()).getReferencedVariables(),
+                is(nullValue()));
+    }
+
 }
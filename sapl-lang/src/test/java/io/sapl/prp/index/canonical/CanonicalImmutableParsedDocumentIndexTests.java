@@ -70,6 +70,7 @@
 import io.sapl.prp.PrpUpdateEvent.Type;
 import io.sapl.prp.PrpUpdateEvent.Update;
 import io.sapl.prp.index.ImmutableParsedDocumentIndex;
+import io.sapl.prp.index.canonical.ordering.AdaptivePredicateOrderStrategy;
 import io.sapl.prp.index.canonical.ordering.NoPredicateOrderStrategy;
 
 @Timeout(5)
@@ -125,7 +126,7 @@ void test_apply_update_events() {
 
         var updatedIndex = spyIndex.apply(prpUpdateEvent);
         verify(spyIndex, times(2)).applyUpdate(any(), argThat(e -> e.getType() == Type.PUBLISH));
-        verify(spyIndex, times(1)).recreateIndex(argThat(map -> map.size() == 2), eq(true));
+        verify(spyIndex, times(1)).updateIndex(argThat(map -> map.size() == 2), eq(true));
         spyIndex = (CanonicalImmutableParsedDocumentIndex) spy(updatedIndex);
 
         /* WITHDRAW + INCONSISTENT */
@@ -133,7 +134,7 @@ void test_apply_update_events() {
                 update(Type.INCONSISTENT, null));
         updatedIndex   = spyIndex.apply(prpUpdateEvent);
         verify(spyIndex, times(2)).applyUpdate(any(), argThat(e -> e.getType() == Type.WITHDRAW));
-        verify(spyIndex, times(1)).recreateIndex(argThat(Map::isEmpty), eq(false));
+        verify(spyIndex, times(1)).updateIndex(argThat(Map::isEmpty), eq(false));
         spyIndex = (CanonicalImmutableParsedDocumentIndex) spy(updatedIndex);
 
         assertFalse(updatedIndex.retrievePolicies().block().isPrpValidState());
@@ -142,7 +143,7 @@ void test_apply_update_events() {
         prpUpdateEvent = new PrpUpdateEvent();
         spyIndex.apply(prpUpdateEvent);
         verify(spyIndex, times(0)).applyUpdate(any(), any());
-        verify(spyIndex, times(1)).recreateIndex(argThat(Map::isEmpty), eq(false));
+        verify(spyIndex, times(1)).updateIndex(argThat(Map::isEmpty), eq(false));
     }
 
     private Update update(Type type, String name) {
@@ -224,6 +225,106 @@ void test_orphaned() {
         assertTrue(result.getMatchingDocuments().contains(doc2));
     }
 
+    @Test
+    void adaptive_predicate_order_samples_predicates_and_keeps_matching_results() {
+        var strategy = new AdaptivePredicateOrderStrategy(1, 2);
+        emptyIndex = new CanonicalImmutableParsedDocumentIndex(strategy, new AnnotationAttributeContext(),
+                new AnnotationFunctionContext());
+        var p1           = interpreter.parse("policy \"p1\" permit resource.x0 & !resource.x1");
+        var p2           = interpreter.parse("policy \"p2\" permit resource.x2");
+        var updatedIndex = emptyIndex.apply(
+                new PrpUpdateEvent(new Update(Type.PUBLISH, p1, ""), new Update(Type.PUBLISH, p2, "")));
+
+        bindings.put("x0", Boolean.TRUE);
+        bindings.put("x1", Boolean.FALSE);
+        bindings.put("x2", Boolean.FALSE);
+
+        for (int i = 0; i < 5; i++) {
+            var result = updatedIndex.retrievePolicies().contextWrite(ctx -> {
+                ctx = AuthorizationContext.setAttributeContext(ctx, new AnnotationAttributeContext());
+                ctx = AuthorizationContext.setFunctionContext(ctx, new AnnotationFunctionContext());
+                ctx = AuthorizationContext.setVariables(ctx, variables);
+                ctx = AuthorizationContext.setSubscriptionVariables(ctx, createRequestObject());
+                return ctx;
+            }).block();
+
+            assertNotNull(result);
+            assertThat(result.getMatchingDocuments(), hasSize(1));
+            assertTrue(result.getMatchingDocuments().contains(p1));
+        }
+        assertThat(strategy.getStatistics().values(), hasSize(3));
+        assertTrue(strategy.getStatistics().values().stream()
+                .allMatch(statistics -> statistics.getEvaluations() == 5L));
+    }
+
+    @Test
+    void incremental_updates_match_like_full_rebuild() {
+        var p1 = interpreter.parse("policy \"p1\" permit resource.x0 & !resource.x1");
+        var p2 = interpreter.parse("policy \"p2\" permit resource.x0 | resource.x2");
+        var p3 = interpreter.parse("policy \"p3\" permit resource.x0 & !resource.x1");
+        var p4 = interpreter.parse("policy \"p4\" permit (resource.x2 & resource.x3) | !resource.x0");
+        var p5 = interpreter.parse("policy \"p5\" permit resource.x3");
+
+        var updatedIndex = emptyIndex.apply(new PrpUpdateEvent(new Update(Type.PUBLISH, p1, ""),
+                new Update(Type.PUBLISH, p2, ""), new Update(Type.PUBLISH, p3, "")));
+        updatedIndex = updatedIndex.apply(new PrpUpdateEvent(new Update(Type.WITHDRAW, p1, ""),
+                new Update(Type.WITHDRAW, p2, ""), new Update(Type.PUBLISH, p4, "")));
+        updatedIndex = updatedIndex.apply(new PrpUpdateEvent(new Update(Type.PUBLISH, p5, "")));
+
+        var rebuiltIndex = emptyIndex.recreateIndex(Map.of("p3", p3, "p4", p4, "p5", p5), true);
+
+        bindings.put("x0", Boolean.TRUE);
+        bindings.put("x1", Boolean.FALSE);
+        bindings.put("x2", Boolean.TRUE);
+        bindings.put("x3", Boolean.TRUE);
+        assertSameMatches(updatedIndex, rebuiltIndex, 3);
+
+        bindings.put("x0", Boolean.FALSE);
+        assertSameMatches(updatedIndex, rebuiltIndex, 2);
+
+        bindings.put("x3", Boolean.FALSE);
+        assertSameMatches(updatedIndex, rebuiltIndex, 1);
+    }
+
+    @Test
+    void incremental_update_leaves_previous_index_unchanged() {
+        var p1 = interpreter.parse("policy \"p1\" permit resource.x0");
+        var p2 = interpreter.parse("policy \"p2\" permit resource.x0 & resource.x1");
+
+        var firstIndex  = emptyIndex.apply(new PrpUpdateEvent(new Update(Type.PUBLISH, p1, "")));
+        var secondIndex = firstIndex.apply(new PrpUpdateEvent(new Update(Type.WITHDRAW, p1, ""),
+                new Update(Type.PUBLISH, p2, "")));
+
+        bindings.put("x0", Boolean.TRUE);
+        bindings.put("x1", Boolean.FALSE);
+
+        var firstResult  = retrieve(firstIndex);
+        var secondResult = retrieve(secondIndex);
+        assertThat(firstResult.getMatchingDocuments(), hasSize(1));
+        assertTrue(firstResult.getMatchingDocuments().contains(p1));
+        assertTrue(secondResult.getMatchingDocuments().isEmpty());
+    }
+
+    private void assertSameMatches(ImmutableParsedDocumentIndex updatedIndex,
+            ImmutableParsedDocumentIndex rebuiltIndex, int expectedNumberOfMatches) {
+        var updatedResult = retrieve(updatedIndex);
+        var rebuiltResult = retrieve(rebuiltIndex);
+        assertThat(updatedResult.getMatchingDocuments(), hasSize(expectedNumberOfMatches));
+        assertThat(rebuiltResult.getMatchingDocuments(), hasSize(expectedNumberOfMatches));
+        assertTrue(updatedResult.getMatchingDocuments().containsAll(rebuiltResult.getMatchingDocuments()));
+        assertFalse(updatedResult.isErrorsInTarget());
+    }
+
+    private PolicyRetrievalResult retrieve(ImmutableParsedDocumentIndex index) {
+        return index.retrievePolicies().contextWrite(ctx -> {
+            ctx = AuthorizationContext.setAttributeContext(ctx, new AnnotationAttributeContext());
+            ctx = AuthorizationContext.setFunctionContext(ctx, new AnnotationFunctionContext());
+            ctx = AuthorizationContext.setVariables(ctx, variables);
+            ctx = AuthorizationContext.setSubscriptionVariables(ctx, createRequestObject());
+            return ctx;
+        }).block();
+    }
+
     @Test
     void testPutSimple() {
         // given
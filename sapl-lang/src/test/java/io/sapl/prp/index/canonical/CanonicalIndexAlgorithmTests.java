@@ -43,6 +43,7 @@
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.junit.jupiter.api.Test;
@@ -52,6 +53,14 @@
 
 import com.google.common.collect.ImmutableList;
 
+import io.sapl.api.interpreter.PolicyEvaluationException;
+import io.sapl.api.interpreter.Val;
+import io.sapl.grammar.sapl.SAPL;
+import io.sapl.interpreter.context.AuthorizationContext;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.util.context.Context;
+
 class CanonicalIndexAlgorithmTests {
 
     @Test
@@ -89,7 +98,7 @@ void skip_predicates_without_candidate_references() {
                             .thenAnswer(invocation -> matchingCtx
                                     .isPredicateReferencedInCandidates(invocation.getArgument(0, Predicate.class))))) {
 
-                var result = CanonicalIndexAlgorithm.match(dataContainer).block();
+                var result = CanonicalIndexAlgorithm.matchCollectorNewest(dataContainer).block();
 
                 assertThat(result, notNullValue());
 
@@ -103,6 +112,136 @@ void skip_predicates_without_candidate_references() {
         }
     }
 
+    @Test
+    void match_synchronously_without_reactive_evaluation() {
+        var bool          = mock(Bool.class);
+        var document      = mock(SAPL.class);
+        var dataContainer = singleConjunctionContainer(bool, document);
+        when(bool.evaluateExpressionSynchronously(any())).thenReturn(Val.TRUE);
+
+        var result = CanonicalIndexAlgorithm.match(dataContainer).block();
+
+        assertThat(result.getMatchingDocuments(), hasSize(1));
+        assertTrue(result.getMatchingDocuments().contains(document));
+        verify(bool, times(0)).evaluateExpression();
+    }
+
+    @Test
+    void fall_back_to_reactive_matching_if_predicate_does_not_evaluate_synchronously() {
+        var bool          = mock(Bool.class);
+        var document      = mock(SAPL.class);
+        var dataContainer = singleConjunctionContainer(bool, document);
+        when(bool.evaluateExpressionSynchronously(any())).thenReturn(null);
+        when(bool.evaluateExpression()).thenReturn(Mono.just(Val.TRUE));
+
+        var result = CanonicalIndexAlgorithm.match(dataContainer).block();
+
+        assertThat(result.getMatchingDocuments(), hasSize(1));
+        assertTrue(result.getMatchingDocuments().contains(document));
+        verify(bool, times(1)).evaluateExpression();
+    }
+
+    @Test
+    void return_error_result_if_synchronous_evaluation_fails() {
+        var bool          = mock(Bool.class);
+        var dataContainer = singleConjunctionContainer(bool, mock(SAPL.class));
+        when(bool.evaluateExpressionSynchronously(any())).thenThrow(new PolicyEvaluationException());
+
+        var result = CanonicalIndexAlgorithm.match(dataContainer).block();
+
+        assertThat(result.getMatchingDocuments(), is(empty()));
+        assertTrue(result.isErrorsInTarget());
+    }
+
+    @Test
+    void signal_failures_of_the_index_instead_of_reporting_errors_in_target() {
+        var bool          = mock(Bool.class);
+        var document      = mock(SAPL.class);
+        var dataContainer = singleConjunctionContainer(bool, document);
+        when(bool.evaluateExpressionSynchronously(any())).thenReturn(Val.TRUE);
+        when(dataContainer.getPoliciesIncludingFormula(any())).thenThrow(new IllegalStateException());
+
+        StepVerifier.create(CanonicalIndexAlgorithm.match(dataContainer)).expectError(IllegalStateException.class)
+                .verify();
+    }
+
+    @Test
+    void match_all_evaluates_predicate_once_per_distinct_values_of_referenced_variables() {
+        var bool          = mock(Bool.class);
+        var document      = mock(SAPL.class);
+        var dataContainer = singleConjunctionContainer(bool, document);
+        when(bool.getReferencedVariables()).thenReturn(List.of("role"));
+        when(bool.evaluateExpressionSynchronously(any())).thenReturn(Val.TRUE);
+        var contexts = List.of(contextWithRole(Val.of("admin")), contextWithRole(Val.of("user")),
+                contextWithRole(Val.of("admin")), contextWithRole(Val.of(1)), contextWithRole(Val.of(1.0D)));
+
+        var results = CanonicalIndexAlgorithm.matchAll(dataContainer, contexts).block();
+
+        assertThat(results, hasSize(5));
+        for (var result : results) {
+            assertTrue(result.getMatchingDocuments().contains(document));
+        }
+        verify(bool, times(4)).evaluateExpressionSynchronously(any());
+        verify(bool, times(0)).evaluateExpression();
+    }
+
+    @Test
+    void match_all_evaluates_predicate_for_each_subscription_without_referenced_variables() {
+        var bool          = mock(Bool.class);
+        var dataContainer = singleConjunctionContainer(bool, mock(SAPL.class));
+        when(bool.evaluateExpressionSynchronously(any())).thenReturn(Val.FALSE);
+        var contexts = List.of(contextWithRole(Val.of("admin")), contextWithRole(Val.of("admin")));
+
+        var results = CanonicalIndexAlgorithm.matchAll(dataContainer, contexts).block();
+
+        assertThat(results, hasSize(2));
+        assertThat(results.get(0).getMatchingDocuments(), is(empty()));
+        assertThat(results.get(1).getMatchingDocuments(), is(empty()));
+        verify(bool, times(2)).evaluateExpressionSynchronously(any());
+    }
+
+    @Test
+    void match_all_falls_back_to_reactive_matching_and_reports_errors_per_subscription() {
+        var bool          = mock(Bool.class);
+        var document      = mock(SAPL.class);
+        var dataContainer = singleConjunctionContainer(bool, document);
+        var pending       = contextWithRole(Val.of("pending"));
+        var failing       = contextWithRole(Val.of("failing"));
+        when(bool.evaluateExpressionSynchronously(pending)).thenReturn(null);
+        when(bool.evaluateExpressionSynchronously(failing)).thenThrow(new PolicyEvaluationException());
+        when(bool.evaluateExpression()).thenReturn(Mono.just(Val.TRUE));
+
+        var results = CanonicalIndexAlgorithm.matchAll(dataContainer, List.of(pending, failing)).block();
+
+        assertThat(results, hasSize(2));
+        assertTrue(results.get(0).getMatchingDocuments().contains(document));
+        assertFalse(results.get(0).isErrorsInTarget());
+        assertThat(results.get(1).getMatchingDocuments(), is(empty()));
+        assertTrue(results.get(1).isErrorsInTarget());
+        verify(bool, times(1)).evaluateExpression();
+    }
+
+    private Context contextWithRole(Val role) {
+        return AuthorizationContext.setVariables(Context.empty(), Map.of("role", role));
+    }
+
+    private CanonicalIndexDataContainer singleConjunctionContainer(Bool bool, SAPL document) {
+        var predicate = new Predicate(bool);
+        predicate.getConjunctions().set(0);
+        predicate.getFalseForFalsePredicate().set(0);
+        var formula = new DisjunctiveFormula(new ConjunctiveClause(new Literal(bool)));
+
+        var dataContainer = mock(CanonicalIndexDataContainer.class);
+        when(dataContainer.getPredicateOrder()).thenReturn(ImmutableList.of(predicate));
+        when(dataContainer.getNumberOfConjunctions()).thenReturn(1);
+        when(dataContainer.getNumberOfLiteralsInConjunction(0)).thenReturn(1);
+        when(dataContainer.getNumberOfFormulasWithConjunction(0)).thenReturn(1);
+        when(dataContainer.getConjunctionsInFormulasReferencingConjunction(0)).thenReturn(Set.of());
+        when(dataContainer.getRelatedFormulas(0)).thenReturn(Set.of(formula));
+        when(dataContainer.getPoliciesIncludingFormula(formula)).thenReturn(Set.of(document));
+        return dataContainer;
+    }
+
     @Test
     void test_or_bitmask() {
         var b1 = new Bitmask();
@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.prp.index.canonical.ordering;
+
+import static io.sapl.testutil.ParserUtil.expression;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import io.sapl.api.interpreter.Val;
+import io.sapl.prp.index.canonical.Bool;
+import io.sapl.prp.index.canonical.Predicate;
+
+class AdaptivePredicateOrderStrategyTests {
+
+    @Test
+    void rejects_non_positive_intervals() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptivePredicateOrderStrategy(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptivePredicateOrderStrategy(1, 0));
+    }
+
+    @Test
+    void samples_and_reorders_in_intervals() {
+        var strategy = new AdaptivePredicateOrderStrategy(2, 3);
+
+        assertThat(strategy.nextMatching(), is(1L));
+        assertThat(strategy.isSampled(1L), is(false));
+        assertThat(strategy.isSampled(2L), is(true));
+        assertThat(strategy.isReorderDue(2L), is(false));
+        assertThat(strategy.isReorderDue(3L), is(true));
+    }
+
+    @Test
+    void records_selectivity_error_ratio_and_evaluation_time() {
+        var strategy  = new AdaptivePredicateOrderStrategy();
+        var predicate = new Predicate(new Bool(true));
+
+        strategy.recordEvaluation(predicate, Val.TRUE, 100L);
+        strategy.recordEvaluation(predicate, Val.FALSE, 200L);
+        strategy.recordEvaluation(predicate, Val.TRUE, 300L);
+        strategy.recordEvaluation(predicate, Val.error("failure"), 400L);
+
+        var statistics = strategy.getStatistics().get(predicate.getBool());
+        assertThat(statistics.getEvaluations(), is(4L));
+        assertThat(statistics.getSelectivity(), closeTo(0.5D, 0.0001D));
+        assertThat(statistics.getFalseRatio(), closeTo(0.25D, 0.0001D));
+        assertThat(statistics.getErrorRatio(), closeTo(0.25D, 0.0001D));
+        assertThat(statistics.getAverageEvaluationTimeNanos(), closeTo(250.0D, 0.0001D));
+        assertThat(statistics.getAverageEvaluationTime().toNanos(), is(250L));
+    }
+
+    @Test
+    void orders_unsampled_predicates_first_and_cheap_eliminating_predicates_before_expensive_ones()
+            throws IOException {
+        var strategy     = new AdaptivePredicateOrderStrategy();
+        var expensive    = predicate("resource.a", 0, 1);
+        var cheap        = predicate("resource.b", 2, 3);
+        var neverTrue    = predicate("resource.c", 4);
+        var unsampled    = predicate("resource.d", 5);
+        var initialOrder = List.of(expensive, cheap, neverTrue, unsampled);
+
+        strategy.recordEvaluation(expensive, Val.FALSE, 10_000L);
+        strategy.recordEvaluation(cheap, Val.FALSE, 10L);
+        strategy.recordEvaluation(neverTrue, Val.TRUE, 10L);
+
+        assertThat(strategy.reorder(initialOrder), contains(unsampled, cheap, expensive, neverTrue));
+    }
+
+    @Test
+    void drops_statistics_of_predicates_no_longer_in_the_index() throws IOException {
+        var strategy = new AdaptivePredicateOrderStrategy();
+        var retained = predicate("resource.a", 0);
+        var removed  = predicate("resource.b", 1);
+
+        strategy.recordEvaluation(retained, Val.FALSE, 10L);
+        strategy.recordEvaluation(removed, Val.FALSE, 10L);
+        strategy.reorder(List.of(retained));
+
+        assertThat(strategy.getStatistics().keySet(), contains(retained.getBool()));
+    }
+
+    private Predicate predicate(String expression, int... conjunctions) throws IOException {
+        var predicate = new Predicate(new Bool(expression(expression), Map.of()));
+        for (var conjunction : conjunctions) {
+            predicate.getConjunctions().set(conjunction);
+            predicate.getFalseForFalsePredicate().set(conjunction);
+        }
+        return predicate;
+    }
+
+}
@@ -82,4 +82,22 @@ default Mono<AuthorizationDecision> decideOnce(AuthorizationSubscription authzSu
      *         decision for each authorization subscription is available.
      */
     Flux<MultiAuthorizationDecision> decideAll(MultiAuthorizationSubscription multiAuthzSubscription);
+
+    /**
+     * Multi-subscription variant of
+     * {@link #decideOnce(AuthorizationSubscription)}. Implementations may evaluate
+     * all authorization subscriptions in a single batch, sharing work between
+     * them.
+     *
+     * @param multiAuthzSubscription the multi-subscription object containing the
+     *                               subjects, actions, resources, and environments
+     *                               of the authorization subscriptions to be
+     *                               evaluated by the PDP.
+     * @return a {@link Mono} emitting the first multi-decision containing
+     *         authorization decisions for all the individual authorization
+     *         subscriptions.
+     */
+    default Mono<MultiAuthorizationDecision> decideAllOnce(MultiAuthorizationSubscription multiAuthzSubscription) {
+        return Mono.from(decideAll(multiAuthzSubscription));
+    }
 }
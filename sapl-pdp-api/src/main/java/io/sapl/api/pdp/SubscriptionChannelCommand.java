@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.api.pdp;
+
+import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_EMPTY;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+
+/**
+ * A command sent by a client over a channel multiplexing many streaming
+ * authorization subscriptions. Subscribe commands add the authorization
+ * subscriptions of a {@link MultiAuthorizationSubscription} to the channel,
+ * replacing subscriptions with the same ID. Unsubscribe commands remove
+ * subscriptions by their IDs. The PDP answers with
+ * {@link IdentifiableAuthorizationDecision identifiable authorization decisions}
+ * whenever the decision for one of the subscriptions changes.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@JsonInclude(NON_EMPTY)
+public class SubscriptionChannelCommand {
+
+    /**
+     * The type of channel command.
+     */
+    public enum Type {
+        /**
+         * Adds the authorization subscriptions to the channel.
+         */
+        SUBSCRIBE,
+        /**
+         * Removes the authorization subscriptions with the given IDs from the
+         * channel.
+         */
+        UNSUBSCRIBE
+    }
+
+    @JsonProperty(required = true)
+    Type type;
+
+    MultiAuthorizationSubscription subscriptions;
+
+    List<String> subscriptionIds;
+
+    /**
+     * @param subscriptions the authorization subscriptions to add to the channel
+     * @return a command subscribing to the given authorization subscriptions
+     */
+    public static SubscriptionChannelCommand subscribe(@NonNull MultiAuthorizationSubscription subscriptions) {
+        return new SubscriptionChannelCommand(Type.SUBSCRIBE, subscriptions, null);
+    }
+
+    /**
+     * @param subscriptionIds the IDs of the authorization subscriptions to remove
+     *                        from the channel
+     * @return a command unsubscribing from the given authorization subscriptions
+     */
+    public static SubscriptionChannelCommand unsubscribe(@NonNull Collection<String> subscriptionIds) {
+        return new SubscriptionChannelCommand(Type.UNSUBSCRIBE, null, new ArrayList<>(subscriptionIds));
+    }
+
+}
@@ -52,4 +52,33 @@ public Flux<MultiAuthorizationDecision> decideAll(MultiAuthorizationSubscription
         StepVerifier.create(pdp.decideOnce(mock(AuthorizationSubscription.class)))
                 .expectNext(AuthorizationDecision.DENY).verifyComplete();
     }
+
+    @Test
+    void decideAllOnce() {
+        var first = new MultiAuthorizationDecision();
+        first.setAuthorizationDecisionForSubscriptionWithId("id", AuthorizationDecision.DENY);
+        class SomePDP implements PolicyDecisionPoint {
+
+            @Override
+            public Flux<AuthorizationDecision> decide(AuthorizationSubscription authzSubscription) {
+                return Flux.empty();
+            }
+
+            @Override
+            public Flux<IdentifiableAuthorizationDecision> decide(
+                    MultiAuthorizationSubscription multiAuthzSubscription) {
+                return Flux.empty();
+            }
+
+            @Override
+            public Flux<MultiAuthorizationDecision> decideAll(MultiAuthorizationSubscription multiAuthzSubscription) {
+                return Flux.just(first, MultiAuthorizationDecision.indeterminate());
+            }
+
+        }
+
+        var pdp = new SomePDP();
+        StepVerifier.create(pdp.decideAllOnce(new MultiAuthorizationSubscription())).expectNext(first)
+                .verifyComplete();
+    }
 }
@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.api.pdp;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class SubscriptionChannelCommandTests {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    void subscribeCommandSurvivesSerialization() throws JsonProcessingException {
+        var subscriptions = new MultiAuthorizationSubscription().addAuthorizationSubscription("id1", "subject",
+                "action", "resource");
+        var command       = SubscriptionChannelCommand.subscribe(subscriptions);
+
+        var deserialized = MAPPER.readValue(MAPPER.writeValueAsString(command), SubscriptionChannelCommand.class);
+
+        assertAll(() -> assertThat(deserialized.getType(), is(SubscriptionChannelCommand.Type.SUBSCRIBE)),
+                () -> assertThat(deserialized.getSubscriptions(), is(subscriptions)),
+                () -> assertThat(deserialized.getSubscriptionIds(), is(nullValue())));
+    }
+
+    @Test
+    void unsubscribeCommandSurvivesSerialization() throws JsonProcessingException {
+        var command = SubscriptionChannelCommand.unsubscribe(List.of("id1", "id2"));
+
+        var deserialized = MAPPER.readValue(MAPPER.writeValueAsString(command), SubscriptionChannelCommand.class);
+
+        assertAll(() -> assertThat(deserialized.getType(), is(SubscriptionChannelCommand.Type.UNSUBSCRIBE)),
+                () -> assertThat(deserialized.getSubscriptions(), is(nullValue())),
+                () -> assertThat(deserialized.getSubscriptionIds(), is(List.of("id1", "id2"))));
+    }
+
+}
@@ -0,0 +1,331 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.pdp;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.ecore.EObject;
+
+import io.sapl.api.interpreter.PolicyEvaluationException;
+import io.sapl.api.pdp.AuthorizationDecision;
+import io.sapl.api.pdp.AuthorizationSubscription;
+import io.sapl.api.pdp.TracedDecision;
+import io.sapl.grammar.sapl.AttributeFinderStep;
+import io.sapl.grammar.sapl.BasicEnvironmentAttribute;
+import io.sapl.grammar.sapl.BasicEnvironmentHeadAttribute;
+import io.sapl.grammar.sapl.BasicFunction;
+import io.sapl.grammar.sapl.FilterSimple;
+import io.sapl.grammar.sapl.FilterStatement;
+import io.sapl.grammar.sapl.HeadAttributeFinderStep;
+import io.sapl.grammar.sapl.SAPL;
+import io.sapl.grammar.sapl.impl.util.FunctionUtil;
+import io.sapl.grammar.sapl.impl.util.ImportsUtil;
+import io.sapl.pdp.config.PDPConfiguration;
+import lombok.Getter;
+import lombok.NonNull;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Caches the results of one-shot decisions for equal authorization
+ * subscriptions.
+ * <p>
+ * Only decisions are cached, which are made exclusively by documents neither
+ * containing any attribute finder nor any call of a function which is not
+ * declared pure, as only these decisions are guaranteed to stay the same as
+ * long as the policies and the PDP configuration do not change. A cache
+ * created with the streams of PDP configurations and policy updates subscribes
+ * to them with its first decision and keeps itself up to date until it is
+ * {@link #dispose() disposed}. Otherwise, the owner of the cache has to call
+ * {@link #invalidate()} whenever the policies change and
+ * {@link #updateConfiguration(PDPConfiguration)} whenever the PDP
+ * configuration changes. Each document is classified only once after such a
+ * change.
+ * <p>
+ * The cache holds at most the configured number of decisions and evicts the
+ * least recently used ones first. Each decision expires after the configured
+ * time to live.
+ */
+public class DecisionCache {
+
+    private final Map<AuthorizationSubscription, CachedDecision> decisions;
+    private final Map<SAPL, Boolean>                             cacheableDocuments = new IdentityHashMap<>();
+
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong hits       = new AtomicLong();
+    private final AtomicLong misses     = new AtomicLong();
+
+    @Getter
+    private final int      maximumSize;
+    @Getter
+    private final Duration timeToLive;
+    private final Clock    clock;
+
+    private final Flux<PDPConfiguration> configurations;
+    private final Flux<?>                policyUpdates;
+
+    private PDPConfiguration configuration;
+    private Disposable       invalidation;
+    private boolean          disposed;
+
+    /**
+     * @param maximumSize the maximal number of cached decisions
+     * @param timeToLive  the time after which a cached decision expires
+     */
+    public DecisionCache(int maximumSize, Duration timeToLive) {
+        this(maximumSize, timeToLive, Clock.systemUTC());
+    }
+
+    /**
+     * @param maximumSize    the maximal number of cached decisions
+     * @param timeToLive     the time after which a cached decision expires
+     * @param configurations the PDP configurations, which update the cache
+     * @param policyUpdates  signals a change of the policies, which invalidates
+     *                       the cache
+     */
+    public DecisionCache(int maximumSize, Duration timeToLive, @NonNull Flux<PDPConfiguration> configurations,
+            @NonNull Flux<?> policyUpdates) {
+        this(maximumSize, timeToLive, Clock.systemUTC(), configurations, policyUpdates);
+    }
+
+    DecisionCache(int maximumSize, Duration timeToLive, Clock clock) {
+        this(maximumSize, timeToLive, clock, null, null);
+    }
+
+    private DecisionCache(int maximumSize, Duration timeToLive, Clock clock, Flux<PDPConfiguration> configurations,
+            Flux<?> policyUpdates) {
+        if (maximumSize < 1)
+            throw new IllegalArgumentException("The maximum size must be positive. Was: " + maximumSize);
+        if (timeToLive.isNegative() || timeToLive.isZero())
+            throw new IllegalArgumentException("The time to live must be positive. Was: " + timeToLive);
+        this.maximumSize    = maximumSize;
+        this.timeToLive     = timeToLive;
+        this.clock          = clock;
+        this.configurations = configurations;
+        this.policyUpdates  = policyUpdates;
+        this.decisions      = new LinkedHashMap<>(16, 0.75F, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<AuthorizationSubscription, CachedDecision> eldest) {
+                return size() > DecisionCache.this.maximumSize;
+            }
+
+        };
+    }
+
+    /**
+     * Returns the cached decision for the subscription or makes the decision and
+     * caches it if possible.
+     *
+     * @param authorizationSubscription the authorization subscription
+     * @param decide                    makes the decision, if none is cached
+     * @return the decision
+     */
+    public Mono<AuthorizationDecision> decideOnce(AuthorizationSubscription authorizationSubscription,
+            Function<AuthorizationSubscription, Mono<TracedDecision>> decide) {
+        return Mono.defer(() -> {
+            connect();
+            var cached = lookup(authorizationSubscription);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return Mono.just(cached);
+            }
+            misses.incrementAndGet();
+            var generationAtStart = generation.get();
+            return decide.apply(authorizationSubscription)
+                    .doOnNext(decision -> storeIfCacheable(authorizationSubscription, decision, generationAtStart))
+                    .map(TracedDecision::getAuthorizationDecision);
+        });
+    }
+
+    /**
+     * @return an empty cache with the same settings, which keeps itself up to
+     *         date independently of this cache.
+     */
+    DecisionCache copy() {
+        return new DecisionCache(maximumSize, timeToLive, clock, configurations, policyUpdates);
+    }
+
+    /**
+     * Stops updating the cache from the streams of PDP configurations and policy
+     * updates and removes all cached decisions. Decisions made afterwards are not
+     * cached.
+     */
+    public synchronized void dispose() {
+        disposed = true;
+        if (invalidation != null)
+            invalidation.dispose();
+        invalidate();
+    }
+
+    private synchronized void connect() {
+        if (invalidation != null || disposed || configurations == null)
+            return;
+        invalidation = Flux.merge(configurations.doOnNext(this::updateConfiguration),
+                policyUpdates.doOnNext(update -> invalidate())).subscribe();
+    }
+
+    /**
+     * Removes all cached decisions. Decisions which are made concurrently are not
+     * cached.
+     */
+    public void invalidate() {
+        synchronized (decisions) {
+            generation.incrementAndGet();
+            decisions.clear();
+            cacheableDocuments.clear();
+        }
+    }
+
+    /**
+     * Removes all cached decisions and sets the configuration used to decide,
+     * whether the functions called by a document are pure.
+     *
+     * @param configuration the current PDP configuration
+     */
+    public void updateConfiguration(PDPConfiguration configuration) {
+        synchronized (decisions) {
+            this.configuration = configuration;
+            invalidate();
+        }
+    }
+
+    private AuthorizationDecision lookup(AuthorizationSubscription authorizationSubscription) {
+        synchronized (decisions) {
+            var cached = decisions.get(authorizationSubscription);
+            if (cached == null)
+                return null;
+            if (clock.instant().isBefore(cached.expiresAt()))
+                return cached.decision();
+            decisions.remove(authorizationSubscription);
+            return null;
+        }
+    }
+
+    private void storeIfCacheable(AuthorizationSubscription authorizationSubscription, TracedDecision decision,
+            long generationAtStart) {
+        var expiresAt = clock.instant().plus(timeToLive);
+        synchronized (decisions) {
+            if (generation.get() == generationAtStart && isCacheable(decision))
+                decisions.put(authorizationSubscription,
+                        new CachedDecision(decision.getAuthorizationDecision(), expiresAt));
+        }
+    }
+
+    boolean isCacheable(TracedDecision decision) {
+        if (!(decision instanceof PDPDecision pdpDecision))
+            return false;
+        synchronized (decisions) {
+            for (var document : pdpDecision.getMatchingDocuments()) {
+                if (!cacheableDocuments.computeIfAbsent(document, this::classify))
+                    return false;
+            }
+            return true;
+        }
+    }
+
+    private boolean classify(SAPL document) {
+        Map<String, String> imports = null;
+        var                 contents = document.eAllContents();
+        while (contents.hasNext()) {
+            var element = contents.next();
+            if (element instanceof AttributeFinderStep || element instanceof HeadAttributeFinderStep
+                    || element instanceof BasicEnvironmentAttribute || element instanceof BasicEnvironmentHeadAttribute)
+                return false;
+            var functionName = functionName(element);
+            if (functionName != null) {
+                if (configuration == null || configuration.functionContext() == null)
+                    return false;
+                if (imports == null)
+                    imports = importsOf(document);
+                if (imports == null || !configuration.functionContext()
+                        .isPureFunction(FunctionUtil.resolveAbsoluteFunctionName(functionName, imports)))
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    private static EList<String> functionName(EObject element) {
+        if (element instanceof BasicFunction function)
+            return function.getFsteps();
+        if (element instanceof FilterSimple filter)
+            return filter.getFsteps();
+        if (element instanceof FilterStatement statement)
+            return statement.getFsteps();
+        return null;
+    }
+
+    private Map<String, String> importsOf(SAPL document) {
+        try {
+            return ImportsUtil.fetchImports(document, configuration.attributeContext(),
+                    configuration.functionContext());
+        } catch (PolicyEvaluationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return the number of decisions taken from the cache.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of decisions which had to be made.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return the ratio of decisions taken from the cache. 0.0 if no decisions
+     *         were requested yet.
+     */
+    public double getHitRatio() {
+        var hitCount = hits.get();
+        var total    = hitCount + misses.get();
+        return total == 0L ? 0.0D : (double) hitCount / total;
+    }
+
+    /**
+     * @return the number of currently cached decisions, including expired ones
+     *         not yet evicted.
+     */
+    public int size() {
+        synchronized (decisions) {
+            return decisions.size();
+        }
+    }
+
+    private record CachedDecision(AuthorizationDecision decision, Instant expiresAt) {
+    }
+
+}
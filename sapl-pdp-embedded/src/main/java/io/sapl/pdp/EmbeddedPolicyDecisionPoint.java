@@ -17,12 +17,17 @@
  */
 package io.sapl.pdp;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.function.Function;
 
 import org.reactivestreams.Publisher;
 
+import io.sapl.api.interpreter.TracingMode;
 import io.sapl.api.pdp.AuthorizationDecision;
 import io.sapl.api.pdp.AuthorizationSubscription;
 import io.sapl.api.pdp.IdentifiableAuthorizationDecision;
@@ -39,15 +44,111 @@
 import io.sapl.pdp.config.PDPConfigurationProvider;
 import io.sapl.prp.PolicyRetrievalPoint;
 import io.sapl.prp.PolicyRetrievalResult;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.util.context.Context;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
 
-@RequiredArgsConstructor
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
 public class EmbeddedPolicyDecisionPoint implements PolicyDecisionPoint {
 
-    private final PDPConfigurationProvider configurationProvider;
-    private final PolicyRetrievalPoint     policyRetrievalPoint;
+    private final PDPConfigurationProvider      configurationProvider;
+    private final PolicyRetrievalPoint          policyRetrievalPoint;
+    private final SubscriptionMulticastRegistry multicastRegistry;
+    private final DecisionCache                 decisionCache;
+    @Getter
+    private final TracingMode                   tracingMode;
+    @Getter
+    private final boolean                       lazyOverrides;
+
+    public EmbeddedPolicyDecisionPoint(PDPConfigurationProvider configurationProvider,
+            PolicyRetrievalPoint policyRetrievalPoint) {
+        this(configurationProvider, policyRetrievalPoint, null, null, TracingMode.defaultMode(), false);
+    }
+
+    /**
+     * Creates a PDP using the same configuration and policies as this PDP, which
+     * records evaluation traces as selected by the tracing mode.
+     *
+     * @param tracingMode the tracing mode of all evaluations of the PDP
+     * @return a PDP using the tracing mode.
+     */
+    public EmbeddedPolicyDecisionPoint withTracingMode(@NonNull TracingMode tracingMode) {
+        return new EmbeddedPolicyDecisionPoint(configurationProvider, policyRetrievalPoint, multicastRegistry,
+                copyOfDecisionCache(), tracingMode, lazyOverrides);
+    }
+
+    /**
+     * Creates a PDP using the same configuration and policies as this PDP, which
+     * selects how the DENY_OVERRIDES and PERMIT_OVERRIDES algorithms evaluate
+     * policies. If lazy, policies which cannot change an overriding decision are
+     * only evaluated while no other policy yields the overriding decision.
+     *
+     * @param lazyOverrides true to combine the overriding algorithms lazily
+     * @return a PDP using the selected evaluation of the overriding algorithms.
+     */
+    public EmbeddedPolicyDecisionPoint withLazyOverrides(boolean lazyOverrides) {
+        return new EmbeddedPolicyDecisionPoint(configurationProvider, policyRetrievalPoint, multicastRegistry,
+                copyOfDecisionCache(), tracingMode, lazyOverrides);
+    }
+
+    /**
+     * Creates a PDP using the same configuration and policies as this PDP, which
+     * shares the decision stream between all concurrent subscribers with equal
+     * authorization subscriptions.
+     *
+     * @param gracePeriod the time a shared decision stream stays connected after
+     *                    its last subscriber cancelled.
+     * @return a PDP multicasting decisions of equal subscriptions.
+     */
+    public EmbeddedPolicyDecisionPoint withSubscriptionMulticasting(Duration gracePeriod) {
+        return new EmbeddedPolicyDecisionPoint(configurationProvider, policyRetrievalPoint,
+                new SubscriptionMulticastRegistry(gracePeriod), copyOfDecisionCache(), tracingMode, lazyOverrides);
+    }
+
+    /**
+     * Creates a PDP using the same configuration and policies as this PDP, which
+     * caches the results of {@link #decideOnce(AuthorizationSubscription)} for
+     * decisions made without any attribute finder or impure function. The cache
+     * is invalidated whenever the policies or the PDP configuration change. It
+     * belongs to the returned PDP only: PDPs derived from it get their own empty
+     * cache, and {@link #destroy()} stops its invalidation.
+     *
+     * @param maximumSize the maximal number of cached decisions
+     * @param timeToLive  the time after which a cached decision expires
+     * @return a PDP caching one-shot decisions.
+     */
+    public EmbeddedPolicyDecisionPoint withDecisionCache(int maximumSize, Duration timeToLive) {
+        var cache = new DecisionCache(maximumSize, timeToLive, configurationProvider.pdpConfiguration(),
+                policyRetrievalPoint.policyUpdates());
+        return new EmbeddedPolicyDecisionPoint(configurationProvider, policyRetrievalPoint, multicastRegistry, cache,
+                tracingMode, lazyOverrides);
+    }
+
+    private DecisionCache copyOfDecisionCache() {
+        return decisionCache == null ? null : decisionCache.copy();
+    }
+
+    /**
+     * @return the cache of one-shot decisions, e.g., to inspect its hit ratio.
+     *         Empty if decisions are not cached.
+     */
+    public Optional<DecisionCache> getDecisionCache() {
+        return Optional.ofNullable(decisionCache);
+    }
+
+    /**
+     * @return the registry of shared decision streams, e.g., to inspect its hit
+     *         ratio. Empty if subscriptions are not multicast.
+     */
+    public Optional<SubscriptionMulticastRegistry> getSubscriptionMulticastRegistry() {
+        return Optional.ofNullable(multicastRegistry);
+    }
 
     @Override
     public Flux<AuthorizationDecision> decide(AuthorizationSubscription authorizationSubscription) {
@@ -55,7 +156,21 @@ public Flux<AuthorizationDecision> decide(AuthorizationSubscription authorizatio
                 .distinctUntilChanged();
     }
 
+    @Override
+    public Mono<AuthorizationDecision> decideOnce(AuthorizationSubscription authorizationSubscription) {
+        if (decisionCache == null)
+            return PolicyDecisionPoint.super.decideOnce(authorizationSubscription);
+        return decisionCache.decideOnce(authorizationSubscription,
+                subscription -> Mono.from(decideTraced(subscription)));
+    }
+
     public Flux<TracedDecision> decideTraced(AuthorizationSubscription authorizationSubscription) {
+        if (multicastRegistry != null)
+            return multicastRegistry.decide(authorizationSubscription, this::evaluateSubscription);
+        return evaluateSubscription(authorizationSubscription);
+    }
+
+    private Flux<TracedDecision> evaluateSubscription(AuthorizationSubscription authorizationSubscription) {
         return configurationProvider.pdpConfiguration().switchMap(decideSubscription(authorizationSubscription));
     }
 
@@ -84,6 +199,8 @@ private Function<Context, Context> buildSubscriptionScopedContext(PDPConfigurati
             ctx = AuthorizationContext.setFunctionContext(ctx, pdpConfiguration.functionContext());
             ctx = AuthorizationContext.setVariables(ctx, pdpConfiguration.variables());
             ctx = AuthorizationContext.setSubscriptionVariables(ctx, authorizationSubscription);
+            ctx = AuthorizationContext.setTracingMode(ctx, tracingMode);
+            ctx = AuthorizationContext.setLazyOverrides(ctx, lazyOverrides);
             return ctx;
         };
     }
@@ -131,6 +248,74 @@ public Flux<MultiAuthorizationDecision> decideAll(MultiAuthorizationSubscription
         return Flux.just(MultiAuthorizationDecision.indeterminate());
     }
 
+    /**
+     * Evaluates all authorization subscriptions of the multi-subscription as a
+     * single batch. The PDP configuration is looked up once for the whole batch
+     * and equal authorization subscriptions are evaluated only once. The distinct
+     * subscriptions are evaluated concurrently, so that attribute streams are
+     * shared between them, if the attribute context shares attribute streams.
+     * Unless one-shot decisions are cached, the policies for all distinct
+     * subscriptions are retrieved by the policy retrieval point in one batch.
+     */
+    @Override
+    public Mono<MultiAuthorizationDecision> decideAllOnce(
+            MultiAuthorizationSubscription multiAuthorizationSubscription) {
+        if (!multiAuthorizationSubscription.hasAuthorizationSubscriptions())
+            return Mono.just(MultiAuthorizationDecision.indeterminate());
+
+        var subscriptionIds = new LinkedHashMap<AuthorizationSubscription, List<String>>();
+        for (var identifiableSubscription : multiAuthorizationSubscription) {
+            subscriptionIds
+                    .computeIfAbsent(identifiableSubscription.authorizationSubscription(), key -> new ArrayList<>(1))
+                    .add(identifiableSubscription.authorizationSubscriptionId());
+        }
+        return configurationProvider.pdpConfiguration().next().flatMap(pdpConfiguration -> {
+            if (decisionCache == null && pdpConfiguration.isValid())
+                return decideAllOnceInBatch(pdpConfiguration, subscriptionIds);
+            return Flux.fromIterable(subscriptionIds.entrySet())
+                    .flatMap(entry -> decideOnce(pdpConfiguration, entry.getKey())
+                            .map(decision -> Tuples.of(entry.getValue(), decision)))
+                    .collect(MultiAuthorizationDecision::new, this::addDecisionForSubscriptionIds);
+        });
+    }
+
+    private Mono<MultiAuthorizationDecision> decideAllOnceInBatch(PDPConfiguration pdpConfiguration,
+            Map<AuthorizationSubscription, List<String>> subscriptionIds) {
+        var subscriptions        = List.copyOf(subscriptionIds.keySet());
+        var subscriptionContexts = subscriptions.stream()
+                .map(subscription -> buildSubscriptionScopedContext(pdpConfiguration, subscription)
+                        .apply(Context.empty()))
+                .toList();
+        return policyRetrievalPoint.retrievePolicies(subscriptionContexts)
+                .flatMapMany(retrievalResults -> Flux.range(0, subscriptions.size()).flatMap(i -> {
+                    var subscription = subscriptions.get(i);
+                    var intercepted  = pdpConfiguration.subscriptionInterceptorChain().apply(subscription);
+                    return Mono
+                            .from(combineDocuments(pdpConfiguration.documentsCombinator(), intercepted)
+                                    .apply(retrievalResults.get(i)))
+                            .map(pdpConfiguration.decisionInterceptorChain())
+                            .map(decision -> Tuples.of(subscriptionIds.get(subscription),
+                                    decision.getAuthorizationDecision()))
+                            .contextWrite(subscriptionContexts.get(i));
+                })).collect(MultiAuthorizationDecision::new, this::addDecisionForSubscriptionIds);
+    }
+
+    private Mono<AuthorizationDecision> decideOnce(PDPConfiguration pdpConfiguration,
+            AuthorizationSubscription authorizationSubscription) {
+        Function<AuthorizationSubscription, Mono<TracedDecision>> decide = subscription -> Mono
+                .from(decideSubscription(subscription).apply(pdpConfiguration));
+        if (decisionCache != null)
+            return decisionCache.decideOnce(authorizationSubscription, decide);
+        return decide.apply(authorizationSubscription).map(TracedDecision::getAuthorizationDecision);
+    }
+
+    private void addDecisionForSubscriptionIds(MultiAuthorizationDecision multiAuthorizationDecision,
+            Tuple2<List<String>, AuthorizationDecision> subscriptionIdsAndDecision) {
+        for (var subscriptionId : subscriptionIdsAndDecision.getT1())
+            multiAuthorizationDecision.setAuthorizationDecisionForSubscriptionWithId(subscriptionId,
+                    subscriptionIdsAndDecision.getT2());
+    }
+
     private List<Flux<IdentifiableAuthorizationDecision>> createIdentifiableAuthorizationDecisionFluxes(
             Iterable<IdentifiableAuthorizationSubscription> multiDecision) {
         final List<Flux<IdentifiableAuthorizationDecision>> identifiableAuthorizationDecisionFluxes = new ArrayList<>();
@@ -159,6 +344,8 @@ private MultiAuthorizationDecision collectAuthorizationDecisions(Object[] values
     }
 
     public void destroy() {
+        if (decisionCache != null)
+            decisionCache.dispose();
         configurationProvider.destroy();
         policyRetrievalPoint.destroy();
     }
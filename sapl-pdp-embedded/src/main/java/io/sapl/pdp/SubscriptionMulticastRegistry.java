@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.pdp;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import io.sapl.api.pdp.AuthorizationSubscription;
+import io.sapl.api.pdp.TracedDecision;
+import lombok.Getter;
+import reactor.core.publisher.Flux;
+
+/**
+ * Shares the decision stream of a PDP between all concurrent subscribers with
+ * an equal authorization subscription. The first subscriber of a subscription
+ * connects to the PDP. All further subscribers receive the latest decision
+ * immediately and then follow the shared stream. Once the last subscriber
+ * cancels, the shared stream stays connected for the configured grace period
+ * before it is disconnected and removed from the registry.
+ */
+public class SubscriptionMulticastRegistry {
+
+    private final Map<AuthorizationSubscription, Flux<TracedDecision>> sharedDecisions = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits   = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    @Getter
+    private final Duration gracePeriod;
+
+    /**
+     * @param gracePeriod the time a shared stream stays connected after its last
+     *                    subscriber cancelled.
+     */
+    public SubscriptionMulticastRegistry(Duration gracePeriod) {
+        if (gracePeriod.isNegative())
+            throw new IllegalArgumentException("The grace period must not be negative. Was: " + gracePeriod);
+        this.gracePeriod = gracePeriod;
+    }
+
+    /**
+     * Returns the shared decision stream for the subscription, creating it if no
+     * stream for an equal subscription exists.
+     *
+     * @param authorizationSubscription the authorization subscription
+     * @param decide                    creates the decision stream for a
+     *                                  subscription not yet shared
+     * @return the shared decision stream
+     */
+    public Flux<TracedDecision> decide(AuthorizationSubscription authorizationSubscription,
+            Function<AuthorizationSubscription, Flux<TracedDecision>> decide) {
+        return Flux.defer(() -> {
+            var shared = sharedDecisions.get(authorizationSubscription);
+            if (shared != null) {
+                hits.incrementAndGet();
+                return shared;
+            }
+            misses.incrementAndGet();
+            return sharedDecisions.computeIfAbsent(authorizationSubscription,
+                    subscription -> share(subscription, decide));
+        });
+    }
+
+    private Flux<TracedDecision> share(AuthorizationSubscription authorizationSubscription,
+            Function<AuthorizationSubscription, Flux<TracedDecision>> decide) {
+        var self     = new AtomicReference<Flux<TracedDecision>>();
+        var replayed = decide.apply(authorizationSubscription)
+                .doFinally(signal -> sharedDecisions.remove(authorizationSubscription, self.get())).replay(1);
+        var shared   = gracePeriod.isZero() ? replayed.refCount() : replayed.refCount(1, gracePeriod);
+        self.set(shared);
+        return shared;
+    }
+
+    /**
+     * @return the number of subscriptions which joined an already shared decision
+     *         stream.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of subscriptions which required a new decision stream.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return the ratio of subscriptions which joined an already shared decision
+     *         stream. 0.0 if there were no subscriptions yet.
+     */
+    public double getHitRatio() {
+        var hitCount = hits.get();
+        var total    = hitCount + misses.get();
+        return total == 0L ? 0.0D : (double) hitCount / total;
+    }
+
+    /**
+     * @return the number of currently shared decision streams.
+     */
+    public int size() {
+        return sharedDecisions.size();
+    }
+
+}
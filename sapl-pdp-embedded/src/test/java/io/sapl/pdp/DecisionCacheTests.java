@@ -0,0 +1,268 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.pdp;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+import io.sapl.api.pdp.AuthorizationDecision;
+import io.sapl.api.pdp.AuthorizationSubscription;
+import io.sapl.api.pdp.TracedDecision;
+import io.sapl.functions.FilterFunctionLibrary;
+import io.sapl.functions.LoggingFunctionLibrary;
+import io.sapl.grammar.sapl.SAPL;
+import io.sapl.interpreter.CombinedDecision;
+import io.sapl.interpreter.DefaultSAPLInterpreter;
+import io.sapl.interpreter.InitializationException;
+import io.sapl.interpreter.functions.AnnotationFunctionContext;
+import io.sapl.interpreter.pip.AnnotationAttributeContext;
+import io.sapl.pdp.config.PDPConfiguration;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+class DecisionCacheTests {
+
+    private static final JsonNodeFactory        JSON        = JsonNodeFactory.instance;
+    private static final DefaultSAPLInterpreter INTERPRETER = new DefaultSAPLInterpreter();
+
+    private static final AuthorizationSubscription SUBSCRIPTION = new AuthorizationSubscription(
+            JSON.textNode("willi"), JSON.textNode("read"), JSON.textNode("something"), JSON.nullNode());
+
+    private static final SAPL ATTRIBUTE_FREE_POLICY = INTERPRETER
+            .parse("policy \"free\" permit where subject == \"willi\";");
+    private static final SAPL ATTRIBUTE_POLICY      = INTERPRETER
+            .parse("policy \"attribute\" permit where subject.<test.upper> == \"WILLI\";");
+    private static final SAPL ENVIRONMENT_POLICY    = INTERPRETER
+            .parse("policy \"environment\" permit where <time.now> != undefined;");
+    private static final SAPL PURE_POLICY           = INTERPRETER
+            .parse("policy \"pure\" permit transform resource |- filter.blacken");
+    private static final SAPL IMPURE_POLICY         = INTERPRETER
+            .parse("policy \"impure\" permit where log.infoSpy(\"subject\", subject) == \"willi\";");
+
+    @Test
+    void when_invalidParameters_then_throw() {
+        var ttl         = Duration.ofMinutes(1L);
+        var negativeTtl = Duration.ofMinutes(-1L);
+        assertThrows(IllegalArgumentException.class, () -> new DecisionCache(0, ttl));
+        assertThrows(IllegalArgumentException.class, () -> new DecisionCache(10, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> new DecisionCache(10, negativeTtl));
+    }
+
+    @Test
+    void when_attributeFreeDecision_then_secondDecisionIsCached() {
+        var cache       = new DecisionCache(10, Duration.ofMinutes(1L));
+        var evaluations = new AtomicInteger();
+        var decide      = counting(evaluations, decision(ATTRIBUTE_FREE_POLICY));
+
+        StepVerifier.create(cache.decideOnce(SUBSCRIPTION, decide)).expectNext(AuthorizationDecision.PERMIT)
+                .verifyComplete();
+        StepVerifier.create(cache.decideOnce(SUBSCRIPTION, decide)).expectNext(AuthorizationDecision.PERMIT)
+                .verifyComplete();
+
+        assertThat(evaluations.get(), is(1));
+        assertThat(cache.getHits(), is(1L));
+        assertThat(cache.getMisses(), is(1L));
+        assertThat(cache.getHitRatio(), closeTo(0.5D, 0.0001D));
+        assertThat(cache.size(), is(1));
+    }
+
+    @Test
+    void when_decisionDependsOnAttributes_then_decisionIsNotCached() {
+        var cache       = new DecisionCache(10, Duration.ofMinutes(1L));
+        var evaluations = new AtomicInteger();
+        var decide      = counting(evaluations, decision(ATTRIBUTE_FREE_POLICY, ATTRIBUTE_POLICY));
+
+        cache.decideOnce(SUBSCRIPTION, decide).block();
+        cache.decideOnce(SUBSCRIPTION, decide).block();
+
+        assertThat(evaluations.get(), is(2));
+        assertThat(cache.size(), is(0));
+    }
+
+    @Test
+    void when_attributeFinderAnalysis_then_allKindsOfAttributesAreDetected() {
+        var cache = new DecisionCache(10, Duration.ofMinutes(1L));
+        assertThat(cache.isCacheable(decision()), is(true));
+        assertThat(cache.isCacheable(decision(ATTRIBUTE_FREE_POLICY)), is(true));
+        assertThat(cache.isCacheable(decision(ATTRIBUTE_POLICY)), is(false));
+        assertThat(cache.isCacheable(decision(ENVIRONMENT_POLICY)), is(false));
+        assertThat(cache.isCacheable(mock(TracedDecision.class)), is(false));
+    }
+
+    @Test
+    void when_functionAnalysis_then_onlyPureFunctionsAreCacheable() throws InitializationException {
+        var cache = new DecisionCache(10, Duration.ofMinutes(1L));
+        assertThat(cache.isCacheable(decision(PURE_POLICY)), is(false));
+
+        var functionContext = new AnnotationFunctionContext();
+        functionContext.loadLibrary(FilterFunctionLibrary.class);
+        functionContext.loadLibrary(LoggingFunctionLibrary.class);
+        cache.updateConfiguration(new PDPConfiguration(new AnnotationAttributeContext(), functionContext, Map.of(),
+                null, null, null));
+
+        assertThat(cache.isCacheable(decision(PURE_POLICY)), is(true));
+        assertThat(cache.isCacheable(decision(IMPURE_POLICY)), is(false));
+        assertThat(cache.isCacheable(decision(PURE_POLICY, IMPURE_POLICY)), is(false));
+    }
+
+    @Test
+    void when_invalidated_then_decisionIsMadeAgain() {
+        var cache       = new DecisionCache(10, Duration.ofMinutes(1L));
+        var evaluations = new AtomicInteger();
+        var decide      = counting(evaluations, decision(ATTRIBUTE_FREE_POLICY));
+
+        cache.decideOnce(SUBSCRIPTION, decide).block();
+        cache.invalidate();
+        cache.decideOnce(SUBSCRIPTION, decide).block();
+
+        assertThat(evaluations.get(), is(2));
+    }
+
+    @Test
+    void when_invalidatedDuringEvaluation_then_decisionIsNotCached() {
+        var cache    = new DecisionCache(10, Duration.ofMinutes(1L));
+        var decision = decision(ATTRIBUTE_FREE_POLICY);
+
+        cache.decideOnce(SUBSCRIPTION, subscription -> Mono.fromSupplier(() -> {
+            cache.invalidate();
+            return decision;
+        })).block();
+
+        assertThat(cache.size(), is(0));
+    }
+
+    @Test
+    void when_createdWithUpdateStreams_then_subscribesWithFirstDecisionAndInvalidatesOnPolicyUpdates() {
+        var configurations = Sinks.many().replay().<PDPConfiguration>latest();
+        var policyUpdates  = Sinks.many().multicast().<Long>directBestEffort();
+        var cache          = new DecisionCache(10, Duration.ofMinutes(1L), configurations.asFlux(),
+                policyUpdates.asFlux());
+        var evaluations    = new AtomicInteger();
+        var decide         = counting(evaluations, decision(ATTRIBUTE_FREE_POLICY));
+
+        assertThat(policyUpdates.currentSubscriberCount(), is(0));
+        cache.decideOnce(SUBSCRIPTION, decide).block();
+        cache.decideOnce(SUBSCRIPTION, decide).block();
+        assertThat(policyUpdates.currentSubscriberCount(), is(1));
+        assertThat(evaluations.get(), is(1));
+
+        policyUpdates.tryEmitNext(1L);
+        cache.decideOnce(SUBSCRIPTION, decide).block();
+        assertThat(evaluations.get(), is(2));
+
+        cache.dispose();
+        assertThat(policyUpdates.currentSubscriberCount(), is(0));
+        assertThat(configurations.currentSubscriberCount(), is(0));
+        cache.decideOnce(SUBSCRIPTION, decide).block();
+        assertThat(policyUpdates.currentSubscriberCount(), is(0));
+    }
+
+    @Test
+    void when_copied_then_copyKeepsItselfUpToDateIndependently() {
+        var policyUpdates = Sinks.many().multicast().<Long>directBestEffort();
+        var cache         = new DecisionCache(10, Duration.ofMinutes(1L), Flux.never(), policyUpdates.asFlux());
+        var copy          = cache.copy();
+        var decide        = counting(new AtomicInteger(), decision(ATTRIBUTE_FREE_POLICY));
+
+        cache.decideOnce(SUBSCRIPTION, decide).block();
+        copy.decideOnce(SUBSCRIPTION, decide).block();
+        assertThat(policyUpdates.currentSubscriberCount(), is(2));
+        assertThat(copy.getMaximumSize(), is(10));
+
+        copy.dispose();
+        assertThat(policyUpdates.currentSubscriberCount(), is(1));
+        assertThat(cache.size(), is(1));
+    }
+
+    @Test
+    void when_expired_then_decisionIsMadeAgain() {
+        var clock       = mock(Clock.class);
+        var now         = Instant.parse("2024-01-01T00:00:00Z");
+        var cache       = new DecisionCache(10, Duration.ofMinutes(1L), clock);
+        var evaluations = new AtomicInteger();
+        var decide      = counting(evaluations, decision(ATTRIBUTE_FREE_POLICY));
+
+        when(clock.instant()).thenReturn(now);
+        cache.decideOnce(SUBSCRIPTION, decide).block();
+        when(clock.instant()).thenReturn(now.plusSeconds(30L));
+        cache.decideOnce(SUBSCRIPTION, decide).block();
+        when(clock.instant()).thenReturn(now.plusSeconds(61L));
+        cache.decideOnce(SUBSCRIPTION, decide).block();
+
+        assertThat(evaluations.get(), is(2));
+    }
+
+    @Test
+    void when_maximumSizeExceeded_then_leastRecentlyUsedIsEvicted() {
+        var cache       = new DecisionCache(2, Duration.ofMinutes(1L));
+        var evaluations = new AtomicInteger();
+        var decide      = counting(evaluations, decision(ATTRIBUTE_FREE_POLICY));
+        var first       = subscription("first");
+        var second      = subscription("second");
+        var third       = subscription("third");
+
+        cache.decideOnce(first, decide).block();
+        cache.decideOnce(second, decide).block();
+        cache.decideOnce(first, decide).block();
+        cache.decideOnce(third, decide).block();
+        assertThat(evaluations.get(), is(3));
+
+        cache.decideOnce(first, decide).block();
+        assertThat(evaluations.get(), is(3));
+        cache.decideOnce(second, decide).block();
+        assertThat(evaluations.get(), is(4));
+        assertThat(cache.size(), is(2));
+    }
+
+    private static Function<AuthorizationSubscription, Mono<TracedDecision>> counting(AtomicInteger evaluations,
+            TracedDecision decision) {
+        return subscription -> Mono.fromSupplier(() -> {
+            evaluations.incrementAndGet();
+            return decision;
+        });
+    }
+
+    private static AuthorizationSubscription subscription(String subject) {
+        return new AuthorizationSubscription(JSON.textNode(subject), JSON.textNode("read"), JSON.nullNode(),
+                JSON.nullNode());
+    }
+
+    private static TracedDecision decision(SAPL... matchingDocuments) {
+        return PDPDecision.of(SUBSCRIPTION, CombinedDecision.of(AuthorizationDecision.PERMIT, "TEST"),
+                List.of(matchingDocuments));
+    }
+
+}
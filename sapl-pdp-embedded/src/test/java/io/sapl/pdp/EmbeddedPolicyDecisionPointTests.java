@@ -17,7 +17,10 @@
  */
 package io.sapl.pdp;
 
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -52,6 +55,7 @@
 import io.sapl.prp.PolicyRetrievalPoint;
 import io.sapl.prp.PolicyRetrievalResult;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 class EmbeddedPolicyDecisionPointTests {
@@ -217,6 +221,53 @@ void decideAll_withMultiSubscriptionContainingTwoSubscriptions_shouldReturnTwoDe
         }).thenCancel().verify();
     }
 
+    @Test
+    void decideAllOnce_withEmptyMultiSubscription_shouldReturnIndeterminate() {
+        StepVerifier.create(pdp.decideAllOnce(new MultiAuthorizationSubscription()))
+                .expectNext(MultiAuthorizationDecision.indeterminate()).verifyComplete();
+    }
+
+    @Test
+    void decideAllOnce_withMultiSubscription_shouldReturnDecisionsForAllIds() {
+        var multiAuthzSubscription = new MultiAuthorizationSubscription()
+                .addAuthorizationSubscription("id1", "willi", "read", "something")
+                .addAuthorizationSubscription("id2", "willi", "write", "something")
+                .addAuthorizationSubscription("id3", "willi", "read", "something");
+
+        StepVerifier.create(pdp.decideAllOnce(multiAuthzSubscription)).expectNextMatches(
+                mad -> mad.getAuthorizationDecisionForSubscriptionWithId("id1").getDecision() == Decision.PERMIT
+                        && mad.getAuthorizationDecisionForSubscriptionWithId("id2").getDecision() == Decision.DENY
+                        && mad.getAuthorizationDecisionForSubscriptionWithId("id3").getDecision() == Decision.PERMIT)
+                .verifyComplete();
+    }
+
+    @Test
+    void decideAllOnce_withEqualSubscriptions_shouldEvaluateEachDistinctSubscriptionOnce() {
+        var prp            = mock(PolicyRetrievalPoint.class);
+        var configProvider = mock(PDPConfigurationProvider.class);
+        var validConfig    = new PDPConfiguration(mock(AttributeContext.class), mock(FunctionContext.class), Map.of(),
+                mock(CombiningAlgorithm.class), UnaryOperator.identity(), UnaryOperator.identity());
+        when(configProvider.pdpConfiguration()).thenReturn(Flux.just(validConfig));
+        var retrievalResult = mock(PolicyRetrievalResult.class);
+        when(retrievalResult.isPrpValidState()).thenReturn(Boolean.TRUE);
+        when(retrievalResult.isErrorsInTarget()).thenReturn(Boolean.TRUE);
+        when(prp.retrievePolicies(anyList())).thenReturn(Mono.just(List.of(retrievalResult, retrievalResult)));
+
+        var multiAuthzSubscription = new MultiAuthorizationSubscription()
+                .addAuthorizationSubscription("id1", "willi", "read", "something")
+                .addAuthorizationSubscription("id2", "willi", "write", "something")
+                .addAuthorizationSubscription("id3", "willi", "read", "something");
+        var sut                    = new EmbeddedPolicyDecisionPoint(configProvider, prp);
+
+        StepVerifier.create(sut.decideAllOnce(multiAuthzSubscription))
+                .expectNextMatches(mad -> mad.size() == 3 && mad.getAuthorizationDecisions().values().stream()
+                        .allMatch(decision -> decision.getDecision() == Decision.INDETERMINATE))
+                .verifyComplete();
+        verify(configProvider, times(1)).pdpConfiguration();
+        verify(prp, times(1)).retrievePolicies(argThat(contexts -> contexts.size() == 2));
+        verify(prp, never()).retrievePolicies();
+    }
+
     @Test
     void when_invalidPDPConfiguration_then_returnError1() {
         var prp            = mock(PolicyRetrievalPoint.class);
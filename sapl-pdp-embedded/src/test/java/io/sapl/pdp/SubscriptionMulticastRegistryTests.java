@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.pdp;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+import io.sapl.api.pdp.AuthorizationDecision;
+import io.sapl.api.pdp.AuthorizationSubscription;
+import io.sapl.api.pdp.TracedDecision;
+import io.sapl.interpreter.CombinedDecision;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+class SubscriptionMulticastRegistryTests {
+
+    private static final JsonNodeFactory JSON = JsonNodeFactory.instance;
+
+    private static final AuthorizationSubscription SUBSCRIPTION       = new AuthorizationSubscription(
+            JSON.textNode("willi"), JSON.textNode("read"), JSON.textNode("something"), JSON.nullNode());
+    private static final AuthorizationSubscription EQUAL_SUBSCRIPTION = new AuthorizationSubscription(
+            JSON.textNode("willi"), JSON.textNode("read"), JSON.textNode("something"), JSON.nullNode());
+    private static final AuthorizationSubscription OTHER_SUBSCRIPTION = new AuthorizationSubscription(
+            JSON.textNode("willi"), JSON.textNode("write"), JSON.textNode("something"), JSON.nullNode());
+
+    @Test
+    void when_negativeGracePeriod_then_throw() {
+        var gracePeriod = Duration.ofSeconds(-1L);
+        assertThrows(IllegalArgumentException.class, () -> new SubscriptionMulticastRegistry(gracePeriod));
+    }
+
+    @Test
+    void when_noSubscriptions_then_hitRatioIsZero() {
+        var registry = new SubscriptionMulticastRegistry(Duration.ZERO);
+        assertThat(registry.getHitRatio(), is(0.0D));
+        assertThat(registry.size(), is(0));
+    }
+
+    @Test
+    void when_equalSubscriptions_then_decisionsAreShared() {
+        var registry  = new SubscriptionMulticastRegistry(Duration.ZERO);
+        var decisions = Sinks.many().replay().<TracedDecision>latest();
+        var evaluated = new AtomicInteger();
+
+        var first     = registry.decide(SUBSCRIPTION, counting(evaluated, decisions.asFlux()));
+        var second    = registry.decide(EQUAL_SUBSCRIPTION, counting(evaluated, decisions.asFlux()));
+
+        var permit = decision(SUBSCRIPTION, AuthorizationDecision.PERMIT);
+        var deny   = decision(SUBSCRIPTION, AuthorizationDecision.DENY);
+
+        var firstVerifier = StepVerifier.create(first).then(() -> decisions.tryEmitNext(permit)).expectNext(permit)
+                .expectNext(deny).thenCancel().verifyLater();
+        StepVerifier.create(second).expectNext(permit).then(() -> decisions.tryEmitNext(deny)).expectNext(deny)
+                .thenCancel().verify();
+        firstVerifier.verify();
+
+        assertThat(evaluated.get(), is(1));
+        assertThat(registry.getHits(), is(1L));
+        assertThat(registry.getMisses(), is(1L));
+        assertThat(registry.getHitRatio(), closeTo(0.5D, 0.0001D));
+        assertThat(registry.size(), is(0));
+    }
+
+    @Test
+    void when_differentSubscriptions_then_decisionsAreNotShared() {
+        var registry  = new SubscriptionMulticastRegistry(Duration.ZERO);
+        var evaluated = new AtomicInteger();
+
+        var first     = registry.decide(SUBSCRIPTION,
+                counting(evaluated, Flux.just(decision(SUBSCRIPTION, AuthorizationDecision.PERMIT))));
+        var second    = registry.decide(OTHER_SUBSCRIPTION,
+                counting(evaluated, Flux.just(decision(OTHER_SUBSCRIPTION, AuthorizationDecision.DENY))));
+
+        StepVerifier.create(Flux.merge(first, second).map(TracedDecision::getAuthorizationDecision))
+                .expectNextCount(2L).verifyComplete();
+
+        assertThat(evaluated.get(), is(2));
+        assertThat(registry.getHits(), is(0L));
+        assertThat(registry.getMisses(), is(2L));
+    }
+
+    @Test
+    void when_resubscribingWithinGracePeriod_then_streamStaysConnected() {
+        var registry      = new SubscriptionMulticastRegistry(Duration.ofMinutes(1L));
+        var decisions     = Sinks.many().replay().<TracedDecision>latest();
+        var subscriptions = new AtomicInteger();
+        var permit        = decision(SUBSCRIPTION, AuthorizationDecision.PERMIT);
+        decisions.tryEmitNext(permit);
+
+        StepVerifier.create(registry.decide(SUBSCRIPTION, counting(subscriptions, decisions.asFlux())))
+                .expectNext(permit).thenCancel().verify();
+        StepVerifier.create(registry.decide(EQUAL_SUBSCRIPTION, counting(subscriptions, decisions.asFlux())))
+                .expectNext(permit).thenCancel().verify();
+
+        assertThat(subscriptions.get(), is(1));
+        assertThat(registry.size(), is(1));
+    }
+
+    private static Function<AuthorizationSubscription, Flux<TracedDecision>> counting(AtomicInteger counter,
+            Flux<TracedDecision> decisions) {
+        return subscription -> decisions.doOnSubscribe(s -> counter.incrementAndGet());
+    }
+
+    private static TracedDecision decision(AuthorizationSubscription subscription, AuthorizationDecision decision) {
+        return PDPDecision.of(subscription, CombinedDecision.of(decision, "TEST"));
+    }
+
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.pdp.remote;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import io.sapl.api.pdp.AuthorizationDecision;
+import io.sapl.api.pdp.AuthorizationSubscription;
+import io.sapl.api.pdp.MultiAuthorizationDecision;
+import io.sapl.api.pdp.MultiAuthorizationSubscription;
+import lombok.Getter;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Gathers concurrent one-shot decisions and sends them to the PDP server as a
+ * single multi-subscription. A batch is sent as soon as it holds the maximum
+ * number of subscriptions, or when the window opened by its first subscription
+ * has passed. Equal subscriptions within a batch are sent only once. The
+ * decisions of the multi-decision are then handed to the individual callers.
+ */
+final class DecideOnceBatcher {
+
+    private final Function<MultiAuthorizationSubscription, Mono<MultiAuthorizationDecision>> decideAllOnce;
+    private final Scheduler                                                                   scheduler;
+
+    @Getter
+    private final Duration window;
+    @Getter
+    private final int      maximumBatchSize;
+
+    private List<PendingDecision> batch = new ArrayList<>();
+
+    /**
+     * @param decideAllOnce    sends a multi-subscription to the PDP server
+     * @param window           the maximal time a subscription waits for further
+     *                         subscriptions to be batched with
+     * @param maximumBatchSize the maximal number of subscriptions in one batch
+     */
+    DecideOnceBatcher(Function<MultiAuthorizationSubscription, Mono<MultiAuthorizationDecision>> decideAllOnce,
+            Duration window, int maximumBatchSize) {
+        this(decideAllOnce, window, maximumBatchSize, Schedulers.parallel());
+    }
+
+    DecideOnceBatcher(Function<MultiAuthorizationSubscription, Mono<MultiAuthorizationDecision>> decideAllOnce,
+            Duration window, int maximumBatchSize, Scheduler scheduler) {
+        if (window.isNegative() || window.isZero())
+            throw new IllegalArgumentException("The batching window must be positive. Was: " + window);
+        if (maximumBatchSize < 1)
+            throw new IllegalArgumentException("The maximum batch size must be positive. Was: " + maximumBatchSize);
+        this.decideAllOnce    = decideAllOnce;
+        this.window           = window;
+        this.maximumBatchSize = maximumBatchSize;
+        this.scheduler        = scheduler;
+    }
+
+    /**
+     * @param authzSubscription the authorization subscription
+     * @return the decision for the subscription, made as part of a batch
+     */
+    Mono<AuthorizationDecision> decideOnce(AuthorizationSubscription authzSubscription) {
+        return Mono.defer(() -> {
+            var decision = Sinks.<AuthorizationDecision>one();
+            enqueue(new PendingDecision(authzSubscription, decision));
+            return decision.asMono();
+        });
+    }
+
+    private void enqueue(PendingDecision pendingDecision) {
+        List<PendingDecision> fullBatch = null;
+        synchronized (this) {
+            var currentBatch = batch;
+            currentBatch.add(pendingDecision);
+            if (currentBatch.size() >= maximumBatchSize) {
+                fullBatch = currentBatch;
+                batch     = new ArrayList<>();
+            } else if (currentBatch.size() == 1) {
+                scheduler.schedule(() -> sendIfPending(currentBatch), window.toNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+        if (fullBatch != null)
+            send(fullBatch);
+    }
+
+    private void sendIfPending(List<PendingDecision> expiredBatch) {
+        synchronized (this) {
+            // the batch may already have been sent because it was full
+            if (batch != expiredBatch)
+                return;
+            batch = new ArrayList<>();
+        }
+        send(expiredBatch);
+    }
+
+    private void send(List<PendingDecision> pendingDecisions) {
+        var multiSubscription = new MultiAuthorizationSubscription();
+        var subscriptionIds   = new HashMap<AuthorizationSubscription, String>();
+        for (var pendingDecision : pendingDecisions) {
+            subscriptionIds.computeIfAbsent(pendingDecision.subscription(), subscription -> {
+                var subscriptionId = String.valueOf(subscriptionIds.size());
+                multiSubscription.addAuthorizationSubscription(subscriptionId, subscription);
+                return subscriptionId;
+            });
+        }
+        decideAllOnce.apply(multiSubscription).subscribe(multiDecision -> {
+            for (var pendingDecision : pendingDecisions) {
+                var decision = multiDecision.getAuthorizationDecisionForSubscriptionWithId(
+                        subscriptionIds.get(pendingDecision.subscription()));
+                pendingDecision.decision()
+                        .tryEmitValue(decision == null ? AuthorizationDecision.INDETERMINATE : decision);
+            }
+        }, error -> pendingDecisions.forEach(pendingDecision -> pendingDecision.decision().tryEmitError(error)),
+                () -> pendingDecisions.forEach(pendingDecision -> pendingDecision.decision().tryEmitEmpty()));
+    }
+
+    private record PendingDecision(AuthorizationSubscription subscription, Sinks.One<AuthorizationDecision> decision) {
+    }
+
+}
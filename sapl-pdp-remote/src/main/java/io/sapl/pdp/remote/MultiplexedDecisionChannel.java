@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.pdp.remote;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.messaging.rsocket.RSocketRequester;
+
+import io.sapl.api.pdp.AuthorizationDecision;
+import io.sapl.api.pdp.AuthorizationSubscription;
+import io.sapl.api.pdp.IdentifiableAuthorizationDecision;
+import io.sapl.api.pdp.MultiAuthorizationSubscription;
+import io.sapl.api.pdp.SubscriptionChannelCommand;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.retry.Repeat;
+
+/**
+ * Multiplexes all streaming authorization subscriptions of a client over a
+ * single RSocket request-channel. Subscriptions are added and removed by ID and
+ * the decisions received over the channel are dispatched to the subscribers by
+ * their subscription ID. If the channel is closed, all subscribers receive an
+ * INDETERMINATE decision and, after a backoff, a new channel is opened which
+ * resubscribes all current subscriptions with a single command.
+ */
+@Slf4j
+class MultiplexedDecisionChannel {
+
+    static final String MULTIPLEXED_DECIDE = "multiplexed-decide";
+
+    private final RSocketRequester rSocketRequester;
+
+    private final Supplier<Repeat<?>> repeat;
+
+    private final Map<String, Subscriber> subscribers = new ConcurrentHashMap<>();
+
+    private final AtomicLong nextSubscriptionId = new AtomicLong();
+
+    // guarded by this
+    private Sinks.Many<SubscriptionChannelCommand> commands;
+
+    // guarded by this
+    private Disposable connection;
+
+    MultiplexedDecisionChannel(RSocketRequester rSocketRequester, Supplier<Repeat<?>> repeat) {
+        this.rSocketRequester = rSocketRequester;
+        this.repeat           = repeat;
+    }
+
+    Flux<AuthorizationDecision> decide(AuthorizationSubscription authzSubscription) {
+        return Flux.defer(() -> {
+            var                               id        = Long.toString(nextSubscriptionId.incrementAndGet());
+            Sinks.Many<AuthorizationDecision> decisions = Sinks.many().unicast().onBackpressureBuffer();
+            subscribe(id, new Subscriber(authzSubscription, decisions));
+            return decisions.asFlux().doFinally(signal -> unsubscribe(id));
+        });
+    }
+
+    private synchronized void subscribe(String id, Subscriber subscriber) {
+        subscribers.put(id, subscriber);
+        if (connection == null) {
+            // the new channel subscribes to all current subscriptions
+            connection = connect();
+        } else {
+            commands.tryEmitNext(SubscriptionChannelCommand.subscribe(
+                    new MultiAuthorizationSubscription().addAuthorizationSubscription(id, subscriber.subscription())));
+        }
+    }
+
+    private synchronized void unsubscribe(String id) {
+        if (subscribers.remove(id) != null && commands != null)
+            commands.tryEmitNext(SubscriptionChannelCommand.unsubscribe(List.of(id)));
+    }
+
+    private Disposable connect() {
+        return Flux.defer(this::openChannel).doOnNext(this::dispatch)
+                .doOnError(error -> log.error("RSocket Connect Error : error {}", error.getMessage(), error))
+                .onErrorResume(error -> Flux.empty()).doOnComplete(this::signalIndeterminate).repeatWhen(repeat.get())
+                .subscribe();
+    }
+
+    private synchronized Flux<IdentifiableAuthorizationDecision> openChannel() {
+        commands = Sinks.many().unicast().onBackpressureBuffer();
+        var resubscription = new MultiAuthorizationSubscription();
+        subscribers.forEach((id, subscriber) -> resubscription.addAuthorizationSubscription(id,
+                subscriber.subscription()));
+        var channelCommands = commands.asFlux();
+        if (resubscription.hasAuthorizationSubscriptions())
+            channelCommands = channelCommands.startWith(SubscriptionChannelCommand.subscribe(resubscription));
+        return rSocketRequester.route(MULTIPLEXED_DECIDE).data(channelCommands, SubscriptionChannelCommand.class)
+                .retrieveFlux(IdentifiableAuthorizationDecision.class);
+    }
+
+    private void dispatch(IdentifiableAuthorizationDecision decision) {
+        var subscriber = subscribers.get(decision.getAuthorizationSubscriptionId());
+        if (subscriber != null)
+            subscriber.decisions().tryEmitNext(decision.getAuthorizationDecision());
+    }
+
+    private void signalIndeterminate() {
+        subscribers.values()
+                .forEach(subscriber -> subscriber.decisions().tryEmitNext(AuthorizationDecision.INDETERMINATE));
+    }
+
+    synchronized void dispose() {
+        if (connection != null)
+            connection.dispose();
+    }
+
+    private record Subscriber(AuthorizationSubscription subscription, Sinks.Many<AuthorizationDecision> decisions) {
+    }
+
+}
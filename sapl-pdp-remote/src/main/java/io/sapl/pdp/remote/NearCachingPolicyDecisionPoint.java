@@ -0,0 +1,271 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.pdp.remote;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.sapl.api.pdp.AuthorizationDecision;
+import io.sapl.api.pdp.AuthorizationSubscription;
+import io.sapl.api.pdp.Decision;
+import io.sapl.api.pdp.IdentifiableAuthorizationDecision;
+import io.sapl.api.pdp.MultiAuthorizationDecision;
+import io.sapl.api.pdp.MultiAuthorizationSubscription;
+import io.sapl.api.pdp.PolicyDecisionPoint;
+import lombok.Getter;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Client-side layer in front of a (remote) PDP, which avoids repeated network
+ * round trips for equal authorization subscriptions.
+ * <p>
+ * All concurrent streaming subscriptions with an equal authorization
+ * subscription share one decision stream of the PDP.
+ * <p>
+ * One-shot decisions are served from a near-cache. For each of the most
+ * recently requested subscriptions, the near-cache keeps a streaming
+ * subscription to the PDP and serves its latest decision. On a miss, the
+ * streaming subscription is opened and the one-shot decision is answered with
+ * its first decision, so that a cold subscription costs a single request. A
+ * decision is only served while its stream is alive and not indeterminate.
+ * Thus, as soon as a stream fails, e.g., because the connection to the PDP
+ * server is lost, the decision is no longer served from the cache and the
+ * request goes to the PDP until the stream recovered. Concurrent one-shot
+ * decisions for equal subscriptions share one such request. The near-cache
+ * holds at most the configured number of streams and closes the least recently
+ * used ones first.
+ */
+public class NearCachingPolicyDecisionPoint implements PolicyDecisionPoint {
+
+    private final PolicyDecisionPoint delegate;
+
+    private final Map<AuthorizationSubscription, SharedDecisions>             streams  = new ConcurrentHashMap<>();
+    private final Map<AuthorizationSubscription, Mono<AuthorizationDecision>> requests = new ConcurrentHashMap<>();
+    private final Map<AuthorizationSubscription, Disposable>                  nearCache;
+
+    private final AtomicLong hits         = new AtomicLong();
+    private final AtomicLong misses       = new AtomicLong();
+    private final AtomicLong deduplicated = new AtomicLong();
+
+    @Getter
+    private final int      maximumSize;
+    @Getter
+    private final Duration gracePeriod;
+
+    /**
+     * @param delegate    the PDP making the decisions
+     * @param maximumSize the maximal number of subscriptions kept in the
+     *                    near-cache
+     * @param gracePeriod the time a shared decision stream stays connected after
+     *                    its last subscriber cancelled
+     */
+    public NearCachingPolicyDecisionPoint(PolicyDecisionPoint delegate, int maximumSize, Duration gracePeriod) {
+        if (maximumSize < 1)
+            throw new IllegalArgumentException("The maximum size must be positive. Was: " + maximumSize);
+        if (gracePeriod.isNegative())
+            throw new IllegalArgumentException("The grace period must not be negative. Was: " + gracePeriod);
+        this.delegate    = delegate;
+        this.maximumSize = maximumSize;
+        this.gracePeriod = gracePeriod;
+        this.nearCache   = new LinkedHashMap<>(16, 0.75F, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<AuthorizationSubscription, Disposable> eldest) {
+                if (size() <= NearCachingPolicyDecisionPoint.this.maximumSize)
+                    return false;
+                eldest.getValue().dispose();
+                return true;
+            }
+
+        };
+    }
+
+    @Override
+    public Flux<AuthorizationDecision> decide(AuthorizationSubscription authzSubscription) {
+        return Flux.defer(() -> {
+            var shared = streams.get(authzSubscription);
+            if (shared != null) {
+                deduplicated.incrementAndGet();
+                return shared.decisions;
+            }
+            return share(authzSubscription).decisions;
+        });
+    }
+
+    @Override
+    public Mono<AuthorizationDecision> decideOnce(AuthorizationSubscription authzSubscription) {
+        return Mono.defer(() -> {
+            var cached = lookup(authzSubscription);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return Mono.just(cached);
+            }
+            misses.incrementAndGet();
+            var inProgress = streams.containsKey(authzSubscription);
+            var shared     = feed(authzSubscription);
+            if (!shared.decided) {
+                if (inProgress)
+                    deduplicated.incrementAndGet();
+                return shared.decisions.next();
+            }
+            var latest = shared.latest;
+            if (latest != null)
+                return Mono.just(latest);
+            var pending = requests.get(authzSubscription);
+            if (pending != null) {
+                deduplicated.incrementAndGet();
+                return pending;
+            }
+            return requests.computeIfAbsent(authzSubscription, this::request);
+        });
+    }
+
+    @Override
+    public Flux<IdentifiableAuthorizationDecision> decide(MultiAuthorizationSubscription multiAuthzSubscription) {
+        return delegate.decide(multiAuthzSubscription);
+    }
+
+    @Override
+    public Flux<MultiAuthorizationDecision> decideAll(MultiAuthorizationSubscription multiAuthzSubscription) {
+        return delegate.decideAll(multiAuthzSubscription);
+    }
+
+    @Override
+    public Mono<MultiAuthorizationDecision> decideAllOnce(MultiAuthorizationSubscription multiAuthzSubscription) {
+        return delegate.decideAllOnce(multiAuthzSubscription);
+    }
+
+    private SharedDecisions share(AuthorizationSubscription authzSubscription) {
+        return streams.computeIfAbsent(authzSubscription, SharedDecisions::new);
+    }
+
+    private Mono<AuthorizationDecision> request(AuthorizationSubscription authzSubscription) {
+        var self    = new AtomicReference<Mono<AuthorizationDecision>>();
+        var request = delegate.decideOnce(authzSubscription)
+                .doFinally(signal -> requests.remove(authzSubscription, self.get())).cache();
+        self.set(request);
+        return request;
+    }
+
+    private AuthorizationDecision lookup(AuthorizationSubscription authzSubscription) {
+        synchronized (nearCache) {
+            // also marks the entry as recently used
+            if (nearCache.get(authzSubscription) == null)
+                return null;
+        }
+        var shared = streams.get(authzSubscription);
+        return shared == null ? null : shared.latest;
+    }
+
+    private SharedDecisions feed(AuthorizationSubscription authzSubscription) {
+        synchronized (nearCache) {
+            var shared = share(authzSubscription);
+            var feed   = nearCache.get(authzSubscription);
+            if (feed == null || feed.isDisposed())
+                nearCache.put(authzSubscription, shared.decisions.subscribe(decision -> {
+                }, error -> {
+                }));
+            return shared;
+        }
+    }
+
+    /**
+     * Closes all decision streams held by the near-cache.
+     */
+    public void dispose() {
+        synchronized (nearCache) {
+            nearCache.values().forEach(Disposable::dispose);
+            nearCache.clear();
+        }
+    }
+
+    /**
+     * @return the number of one-shot decisions served from the near-cache.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of one-shot decisions which had to be requested from the
+     *         PDP.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return the ratio of one-shot decisions served from the near-cache. 0.0 if
+     *         no decisions were requested yet.
+     */
+    public double getHitRatio() {
+        var hitCount = hits.get();
+        var total    = hitCount + misses.get();
+        return total == 0L ? 0.0D : (double) hitCount / total;
+    }
+
+    /**
+     * @return the number of requests and streaming subscriptions which joined an
+     *         equal one already in progress instead of contacting the PDP.
+     */
+    public long getDeduplicated() {
+        return deduplicated.get();
+    }
+
+    /**
+     * @return the number of subscriptions currently held in the near-cache.
+     */
+    public int size() {
+        synchronized (nearCache) {
+            return nearCache.size();
+        }
+    }
+
+    private final class SharedDecisions {
+
+        private final Flux<AuthorizationDecision> decisions;
+
+        private volatile AuthorizationDecision latest;
+
+        private volatile boolean decided;
+
+        private SharedDecisions(AuthorizationSubscription authzSubscription) {
+            var replayed = delegate.decide(authzSubscription).doOnNext(this::update).doFinally(signal -> {
+                latest = null;
+                streams.remove(authzSubscription, this);
+            }).replay(1);
+            decisions = gracePeriod.isZero() ? replayed.refCount() : replayed.refCount(1, gracePeriod);
+        }
+
+        private void update(AuthorizationDecision decision) {
+            // an indeterminate decision usually signals a failed stream
+            latest  = decision.getDecision() == Decision.INDETERMINATE ? null : decision;
+            decided = true;
+        }
+
+    }
+
+}
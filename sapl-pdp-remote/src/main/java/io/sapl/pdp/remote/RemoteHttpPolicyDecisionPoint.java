@@ -18,6 +18,7 @@
 package io.sapl.pdp.remote;
 
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.function.Function;
 import java.util.function.UnaryOperator;
 
@@ -35,7 +36,6 @@
 
 import io.netty.channel.ChannelOption;
 import io.netty.handler.ssl.SslContext;
-import io.netty.handler.ssl.SslContextBuilder;
 import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
 import io.sapl.api.pdp.AuthorizationDecision;
 import io.sapl.api.pdp.AuthorizationSubscription;
@@ -49,7 +49,13 @@
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.netty.http.Http11SslContextSpec;
+import reactor.netty.http.Http2SslContextSpec;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.Http2AllocationStrategy;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.tcp.SslProvider;
 import reactor.retry.Backoff;
 import reactor.retry.Repeat;
 import reactor.util.annotation.Nullable;
@@ -65,8 +71,24 @@ public class RemoteHttpPolicyDecisionPoint implements PolicyDecisionPoint {
 
     private static final String MULTI_DECIDE_ALL = "/api/pdp/multi-decide-all";
 
+    private static final String MULTI_DECIDE_ALL_ONCE = "/api/pdp/multi-decide-all-once";
+
+    static final MediaType APPLICATION_SMILE = MediaType.valueOf("application/x-jackson-smile");
+
+    static final MediaType APPLICATION_STREAM_SMILE = MediaType.valueOf("application/stream+x-jackson-smile");
+
     private final WebClient client;
 
+    private final boolean smile;
+
+    private final MediaType contentType;
+
+    private final MediaType onceResponseType;
+
+    private final MediaType streamResponseType;
+
+    private final DecideOnceBatcher batcher;
+
     @Setter
     @Getter
     private int firstBackoffMillis = 500;
@@ -88,12 +110,25 @@ public RemoteHttpPolicyDecisionPoint(String baseUrl, String clientKey, String cl
     }
 
     public RemoteHttpPolicyDecisionPoint(String baseUrl, String clientKey, String clientSecret, HttpClient httpClient) {
-        client = WebClient.builder().clientConnector(new ReactorClientHttpConnector(httpClient)).baseUrl(baseUrl)
-                .defaultHeaders(header -> header.setBasicAuth(clientKey, clientSecret)).build();
+        this(WebClient.builder().clientConnector(new ReactorClientHttpConnector(httpClient)).baseUrl(baseUrl)
+                .defaultHeaders(header -> header.setBasicAuth(clientKey, clientSecret)).build(), false, null, 0);
     }
 
-    private RemoteHttpPolicyDecisionPoint(WebClient client) {
-        this.client = client;
+    private RemoteHttpPolicyDecisionPoint(WebClient client, boolean smile, Duration batchWindow,
+            int maximumBatchSize) {
+        this.client  = client;
+        this.smile   = smile;
+        this.batcher = batchWindow == null ? null
+                : new DecideOnceBatcher(this::decideAllOnce, batchWindow, maximumBatchSize);
+        if (smile) {
+            contentType        = APPLICATION_SMILE;
+            onceResponseType   = APPLICATION_SMILE;
+            streamResponseType = APPLICATION_STREAM_SMILE;
+        } else {
+            contentType        = MediaType.APPLICATION_JSON;
+            onceResponseType   = MediaType.APPLICATION_JSON;
+            streamResponseType = MediaType.APPLICATION_NDJSON;
+        }
     }
 
     private Repeat<?> repeat() {
@@ -107,16 +142,19 @@ private Repeat<?> repeat() {
     public Flux<AuthorizationDecision> decide(AuthorizationSubscription authzSubscription) {
         var type = new ParameterizedTypeReference<ServerSentEvent<AuthorizationDecision>>() {
         };
-        return decide(DECIDE, type, authzSubscription)
+        return decide(DECIDE, type, AuthorizationDecision.class, authzSubscription)
                 .onErrorResume(error -> Flux.just(AuthorizationDecision.INDETERMINATE)).repeatWhen(repeat())
                 .distinctUntilChanged();
     }
 
     @Override
     public Mono<AuthorizationDecision> decideOnce(AuthorizationSubscription authzSubscription) {
+        if (batcher != null)
+            return batcher.decideOnce(authzSubscription);
+
         var type = new ParameterizedTypeReference<AuthorizationDecision>() {
         };
-        return client.post().uri(DECIDE_ONCE).accept(MediaType.APPLICATION_JSON).contentType(MediaType.APPLICATION_JSON)
+        return client.post().uri(DECIDE_ONCE).accept(onceResponseType).contentType(contentType)
                 .bodyValue(authzSubscription).retrieve().bodyToMono(type)
                 .doOnError(error -> log.error("Error : {}", error.getMessage()));
     }
@@ -125,7 +163,7 @@ public Mono<AuthorizationDecision> decideOnce(AuthorizationSubscription authzSub
     public Flux<IdentifiableAuthorizationDecision> decide(MultiAuthorizationSubscription multiAuthzSubscription) {
         var type = new ParameterizedTypeReference<ServerSentEvent<IdentifiableAuthorizationDecision>>() {
         };
-        return decide(MULTI_DECIDE, type, multiAuthzSubscription)
+        return decide(MULTI_DECIDE, type, IdentifiableAuthorizationDecision.class, multiAuthzSubscription)
                 .onErrorResume(error -> Flux.just(IdentifiableAuthorizationDecision.INDETERMINATE)).repeatWhen(repeat())
                 .distinctUntilChanged();
     }
@@ -134,44 +172,77 @@ public Flux<IdentifiableAuthorizationDecision> decide(MultiAuthorizationSubscrip
     public Flux<MultiAuthorizationDecision> decideAll(MultiAuthorizationSubscription multiAuthzSubscription) {
         var type = new ParameterizedTypeReference<ServerSentEvent<MultiAuthorizationDecision>>() {
         };
-        return decide(MULTI_DECIDE_ALL, type, multiAuthzSubscription)
+        return decide(MULTI_DECIDE_ALL, type, MultiAuthorizationDecision.class, multiAuthzSubscription)
                 .onErrorResume(error -> Flux.just(MultiAuthorizationDecision.indeterminate())).repeatWhen(repeat())
                 .distinctUntilChanged();
     }
 
-    private <T> Flux<T> decide(String path, ParameterizedTypeReference<ServerSentEvent<T>> type,
-            Object authzSubscription) {
-        return client.post().uri(path).accept(MediaType.APPLICATION_NDJSON).contentType(MediaType.APPLICATION_JSON)
-                .bodyValue(authzSubscription).retrieve().bodyToFlux(type).mapNotNull(ServerSentEvent::data)
+    @Override
+    public Mono<MultiAuthorizationDecision> decideAllOnce(MultiAuthorizationSubscription multiAuthzSubscription) {
+        var type = new ParameterizedTypeReference<MultiAuthorizationDecision>() {
+        };
+        return client.post().uri(MULTI_DECIDE_ALL_ONCE).accept(onceResponseType).contentType(contentType)
+                .bodyValue(multiAuthzSubscription).retrieve().bodyToMono(type)
                 .doOnError(error -> log.error("Error : {}", error.getMessage()));
     }
 
+    private <T> Flux<T> decide(String path, ParameterizedTypeReference<ServerSentEvent<T>> type,
+            Class<T> decisionType, Object authzSubscription) {
+        var response  = client.post().uri(path).accept(streamResponseType).contentType(contentType)
+                .bodyValue(authzSubscription).retrieve();
+        // Smile streams carry the plain decisions instead of server-sent events
+        var decisions = smile ? response.bodyToFlux(decisionType)
+                : response.bodyToFlux(type).mapNotNull(ServerSentEvent::data);
+        return decisions.doOnError(error -> log.error("Error : {}", error.getMessage()));
+    }
+
     public static RemoteHttpPolicyDecisionPointBuilder builder() {
         return new RemoteHttpPolicyDecisionPointBuilder();
     }
 
     @NoArgsConstructor
     public static class RemoteHttpPolicyDecisionPointBuilder {
-        private String                                         baseUrl    = "https://localhost:8443";
-        private HttpClient                                     httpClient = HttpClient.create();
+        private String                                         baseUrl              = "https://localhost:8443";
+        private HttpClient                                     httpClient;
+        private Function<HttpClient, HttpClient>               httpClientCustomizer = Function.identity();
         private Function<WebClient.Builder, WebClient.Builder> authenticationCustomizer;
+        private boolean                                        smile                = false;
+        private Duration                                       batchWindow;
+        private int                                            maximumBatchSize;
+        private HttpProtocol                                   http2Protocol;
+        private Integer                                        maxConnections;
+        private Long                                           maxConcurrentStreams;
+        private Duration                                       maxIdleTime;
 
         public RemoteHttpPolicyDecisionPointBuilder withUnsecureSSL() throws SSLException {
             log.warn("------------------------------------------------------------------");
             log.warn("!!! ATTENTION: don't not use insecure sslContext in production !!!");
             log.warn("------------------------------------------------------------------");
-            var sslContext = SslContextBuilder.forClient().trustManager(InsecureTrustManagerFactory.INSTANCE).build();
-            return this.secure(sslContext);
+            return customize(client -> client.secure(spec -> spec.sslContext(insecureSslContextSpec(client))));
+        }
+
+        private static SslProvider.ProtocolSslContextSpec insecureSslContextSpec(HttpClient client) {
+            // HTTP/2 requires ALPN, which is only configured by the HTTP/2 specification
+            if (Arrays.asList(client.configuration().protocols()).contains(HttpProtocol.H2))
+                return Http2SslContextSpec.forClient()
+                        .configure(builder -> builder.trustManager(InsecureTrustManagerFactory.INSTANCE));
+            return Http11SslContextSpec.forClient()
+                    .configure(builder -> builder.trustManager(InsecureTrustManagerFactory.INSTANCE));
         }
 
         public RemoteHttpPolicyDecisionPointBuilder secure() {
-            this.httpClient = httpClient.secure();
-            return this;
+            return customize(HttpClient::secure);
         }
 
+        /**
+         * Secures the connection with the given SSL context. For HTTP/2, the context
+         * must be configured for ALPN, e.g., by using {@link Http2SslContextSpec}.
+         *
+         * @param sslContext the SSL context
+         * @return this builder
+         */
         public RemoteHttpPolicyDecisionPointBuilder secure(SslContext sslContext) {
-            this.httpClient = httpClient.secure(spec -> spec.sslContext(sslContext));
-            return this;
+            return customize(client -> client.secure(spec -> spec.sslContext(sslContext)));
         }
 
         public RemoteHttpPolicyDecisionPointBuilder baseUrl(String baseUrl) {
@@ -179,13 +250,134 @@ public RemoteHttpPolicyDecisionPointBuilder baseUrl(String baseUrl) {
             return this;
         }
 
+        /**
+         * Uses the given HTTP client instead of creating one. Discards the SSL, channel
+         * and compression settings made so far. The connection pool settings of this
+         * builder cannot be applied to a given client.
+         *
+         * @param httpClient the HTTP client
+         * @return this builder
+         */
         public RemoteHttpPolicyDecisionPointBuilder withHttpClient(HttpClient httpClient) {
-            this.httpClient = httpClient;
+            this.httpClient           = httpClient;
+            this.httpClientCustomizer = Function.identity();
             return this;
         }
 
         public <O> RemoteHttpPolicyDecisionPointBuilder option(ChannelOption<O> key, @Nullable O value) {
-            this.httpClient = this.httpClient.option(key, value);
+            return customize(client -> client.option(key, value));
+        }
+
+        private RemoteHttpPolicyDecisionPointBuilder customize(Function<HttpClient, HttpClient> customizer) {
+            this.httpClientCustomizer = httpClientCustomizer.andThen(customizer);
+            return this;
+        }
+
+        /**
+         * Negotiates HTTP/2 with the server via ALPN, falling back to HTTP/1.1. Over
+         * HTTP/2, all decision streams to the server are multiplexed over few
+         * connections instead of occupying one connection each. Requires a secured
+         * connection and a server with HTTP/2 enabled.
+         *
+         * @return this builder
+         */
+        public RemoteHttpPolicyDecisionPointBuilder http2() {
+            this.http2Protocol = HttpProtocol.H2;
+            return this;
+        }
+
+        /**
+         * Upgrades plain connections to HTTP/2 (h2c), falling back to HTTP/1.1 if the
+         * server does not accept the upgrade. Use this instead of {@link #http2()}
+         * for servers reachable without TLS, e.g., in a private network.
+         *
+         * @return this builder
+         */
+        public RemoteHttpPolicyDecisionPointBuilder http2Cleartext() {
+            this.http2Protocol = HttpProtocol.H2C;
+            return this;
+        }
+
+        /**
+         * Limits the number of connections to the server. Over HTTP/1.1 each open
+         * decision stream occupies one connection, so this limits the number of
+         * concurrent streams. Further requests wait for a free connection.
+         *
+         * @param maxConnections the maximal number of connections
+         * @return this builder
+         */
+        public RemoteHttpPolicyDecisionPointBuilder maxConnections(int maxConnections) {
+            if (maxConnections < 1)
+                throw new IllegalArgumentException("The maximum connections must be positive. Was: " + maxConnections);
+            this.maxConnections = maxConnections;
+            return this;
+        }
+
+        /**
+         * Limits the number of concurrent HTTP/2 streams per connection. The server
+         * may enforce a lower limit. Only effective with {@link #http2()} or
+         * {@link #http2Cleartext()}.
+         *
+         * @param maxConcurrentStreams the maximal number of streams per connection
+         * @return this builder
+         */
+        public RemoteHttpPolicyDecisionPointBuilder maxConcurrentStreams(long maxConcurrentStreams) {
+            if (maxConcurrentStreams < 1)
+                throw new IllegalArgumentException(
+                        "The maximum concurrent streams must be positive. Was: " + maxConcurrentStreams);
+            this.maxConcurrentStreams = maxConcurrentStreams;
+            return this;
+        }
+
+        /**
+         * Closes connections which were idle for the given time. Idle connections
+         * are also evicted in the background at this interval.
+         *
+         * @param maxIdleTime the time after which an idle connection is closed
+         * @return this builder
+         */
+        public RemoteHttpPolicyDecisionPointBuilder maxIdleTime(Duration maxIdleTime) {
+            if (maxIdleTime.isNegative() || maxIdleTime.isZero())
+                throw new IllegalArgumentException("The maximum idle time must be positive. Was: " + maxIdleTime);
+            this.maxIdleTime = maxIdleTime;
+            return this;
+        }
+
+        /**
+         * Exchanges subscriptions and decisions in the binary Smile encoding
+         * instead of JSON. Requires a server supporting this media type.
+         *
+         * @return this builder
+         */
+        public RemoteHttpPolicyDecisionPointBuilder smile() {
+            this.smile = true;
+            return this;
+        }
+
+        /**
+         * Requests compressed responses from the server (Accept-Encoding gzip)
+         * and transparently decompresses them. The server only compresses if
+         * compression is enabled on its side.
+         *
+         * @return this builder
+         */
+        public RemoteHttpPolicyDecisionPointBuilder compress() {
+            return customize(client -> client.compress(true));
+        }
+
+        /**
+         * Gathers concurrent one-shot decisions and sends them to the server as a
+         * single multi-subscription. A batch is sent once it holds
+         * {@code maximumBatchSize} subscriptions or after the {@code window} opened
+         * by its first subscription has passed, e.g., 1 ms or 64 subscriptions.
+         *
+         * @param window           the maximal time a one-shot decision is delayed
+         * @param maximumBatchSize the maximal number of subscriptions per batch
+         * @return this builder
+         */
+        public RemoteHttpPolicyDecisionPointBuilder batchDecideOnce(Duration window, int maximumBatchSize) {
+            this.batchWindow      = window;
+            this.maximumBatchSize = maximumBatchSize;
             return this;
         }
 
@@ -227,12 +419,47 @@ public RemoteHttpPolicyDecisionPointBuilder oauth2(
 
         public RemoteHttpPolicyDecisionPoint build() {
             WebClient.Builder builder = WebClient.builder()
-                    .clientConnector(new ReactorClientHttpConnector(this.httpClient)).baseUrl(this.baseUrl);
+                    .clientConnector(new ReactorClientHttpConnector(httpClient())).baseUrl(this.baseUrl);
 
             if (this.authenticationCustomizer != null) {
                 builder = authenticationCustomizer.apply(builder);
             }
-            return new RemoteHttpPolicyDecisionPoint(builder.build());
+            return new RemoteHttpPolicyDecisionPoint(builder.build(), smile, batchWindow, maximumBatchSize);
+        }
+
+        HttpClient httpClient() {
+            var connectionProvider = connectionProvider();
+            var client             = httpClient;
+            if (client == null) {
+                client = connectionProvider == null ? HttpClient.create() : HttpClient.create(connectionProvider);
+            } else if (connectionProvider != null) {
+                connectionProvider.dispose();
+                throw new IllegalStateException(
+                        this.getClass().getName() + ": connection pool settings cannot be applied to a given client");
+            }
+            // the protocols must be known before SSL is configured
+            if (http2Protocol != null)
+                client = client.protocol(http2Protocol, HttpProtocol.HTTP11);
+            return httpClientCustomizer.apply(client);
+        }
+
+        private ConnectionProvider connectionProvider() {
+            if (maxConnections == null && maxConcurrentStreams == null && maxIdleTime == null)
+                return null;
+            var builder = ConnectionProvider.builder("sapl-remote-pdp");
+            if (maxConnections != null)
+                builder = builder.maxConnections(maxConnections);
+            if (maxIdleTime != null)
+                builder = builder.maxIdleTime(maxIdleTime).evictInBackground(maxIdleTime);
+            if (http2Protocol != null && (maxConnections != null || maxConcurrentStreams != null)) {
+                var strategy = Http2AllocationStrategy.builder();
+                if (maxConnections != null)
+                    strategy = strategy.maxConnections(maxConnections);
+                if (maxConcurrentStreams != null)
+                    strategy = strategy.maxConcurrentStreams(maxConcurrentStreams);
+                builder = builder.allocationStrategy(strategy.build());
+            }
+            return builder.build();
         }
     }
 }
@@ -24,6 +24,9 @@
 import javax.net.ssl.SSLException;
 
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
 import org.springframework.http.codec.json.Jackson2JsonDecoder;
 import org.springframework.http.codec.json.Jackson2JsonEncoder;
 import org.springframework.messaging.rsocket.RSocketRequester;
@@ -68,12 +71,17 @@ public class RemoteRsocketPolicyDecisionPoint implements PolicyDecisionPoint {
 
     private static final String DECIDE = "decide";
 
-    private static final String DECIDE_ONCE      = "decide-once";
-    private static final String MULTI_DECIDE     = "multi-decide";
-    private static final String MULTI_DECIDE_ALL = "multi-decide-all";
+    private static final String DECIDE_ONCE           = "decide-once";
+    private static final String MULTI_DECIDE          = "multi-decide";
+    private static final String MULTI_DECIDE_ALL      = "multi-decide-all";
+    private static final String MULTI_DECIDE_ALL_ONCE = "multi-decide-all-once";
 
     private final RSocketRequester rSocketRequester;
 
+    private final MultiplexedDecisionChannel multiplexedChannel;
+
+    private final DecideOnceBatcher batcher;
+
     @Setter
     @Getter
     private int firstBackoffMillis = 500;
@@ -87,7 +95,29 @@ public class RemoteRsocketPolicyDecisionPoint implements PolicyDecisionPoint {
     private int backoffFactor = 2;
 
     public RemoteRsocketPolicyDecisionPoint(RSocketRequester rSocketRequester) {
-        this.rSocketRequester = rSocketRequester;
+        this(rSocketRequester, false);
+    }
+
+    /**
+     * @param rSocketRequester       the requester connected to the PDP server
+     * @param multiplexSubscriptions if true, all streaming authorization
+     *                               subscriptions are multiplexed over a single
+     *                               request-channel instead of opening one stream
+     *                               per subscription. Requires a server supporting
+     *                               the multiplexed-decide route.
+     */
+    public RemoteRsocketPolicyDecisionPoint(RSocketRequester rSocketRequester, boolean multiplexSubscriptions) {
+        this(rSocketRequester, multiplexSubscriptions, null, 0);
+    }
+
+    private RemoteRsocketPolicyDecisionPoint(RSocketRequester rSocketRequester, boolean multiplexSubscriptions,
+            Duration batchWindow, int maximumBatchSize) {
+        this.rSocketRequester   = rSocketRequester;
+        this.multiplexedChannel = multiplexSubscriptions
+                ? new MultiplexedDecisionChannel(rSocketRequester, this::repeat)
+                : null;
+        this.batcher            = batchWindow == null ? null
+                : new DecideOnceBatcher(this::decideAllOnce, batchWindow, maximumBatchSize);
     }
 
     private Repeat<?> repeat() {
@@ -99,6 +129,9 @@ private Repeat<?> repeat() {
 
     @Override
     public Flux<AuthorizationDecision> decide(AuthorizationSubscription authzSubscription) {
+        if (multiplexedChannel != null)
+            return multiplexedChannel.decide(authzSubscription).distinctUntilChanged();
+
         var type = new ParameterizedTypeReference<AuthorizationDecision>() {
         };
         return decide(DECIDE, type, authzSubscription)
@@ -108,6 +141,9 @@ public Flux<AuthorizationDecision> decide(AuthorizationSubscription authzSubscri
 
     @Override
     public Mono<AuthorizationDecision> decideOnce(AuthorizationSubscription authzSubscription) {
+        if (batcher != null)
+            return batcher.decideOnce(authzSubscription);
+
         var type = new ParameterizedTypeReference<AuthorizationDecision>() {
         };
         return rSocketRequester.route(DECIDE_ONCE).data(authzSubscription).retrieveMono(type)
@@ -132,12 +168,22 @@ public Flux<MultiAuthorizationDecision> decideAll(MultiAuthorizationSubscription
                 .distinctUntilChanged();
     }
 
+    @Override
+    public Mono<MultiAuthorizationDecision> decideAllOnce(MultiAuthorizationSubscription multiAuthzSubscription) {
+        var type = new ParameterizedTypeReference<MultiAuthorizationDecision>() {
+        };
+        return rSocketRequester.route(MULTI_DECIDE_ALL_ONCE).data(multiAuthzSubscription).retrieveMono(type)
+                .doOnError(error -> log.error("RSocket Connect Error : error {}", error.getMessage(), error));
+    }
+
     private <T> Flux<T> decide(String path, ParameterizedTypeReference<T> type, Object authzSubscription) {
         return rSocketRequester.route(path).data(authzSubscription).retrieveFlux(type)
                 .doOnError(error -> log.error("RSocket Connect Error : error {}", error.getMessage(), error));
     }
 
     public void dispose() {
+        if (multiplexedChannel != null)
+            multiplexedChannel.dispose();
         rSocketRequester.dispose();
     }
 
@@ -150,6 +196,10 @@ public static class RemoteRsocketPolicyDecisionPointBuilder {
         private Function<RSocketRequester.Builder, RSocketRequester.Builder> authenticationCustomizer;
         private Duration                                                     keepAlive   = Duration.ofSeconds(20);
         private Duration                                                     maxLifeTime = Duration.ofSeconds(90);
+        private boolean                                                      multiplexSubscriptions;
+        private boolean                                                      cbor;
+        private Duration                                                     batchWindow;
+        private int                                                          maximumBatchSize;
 
         public RemoteRsocketPolicyDecisionPointBuilder() {
             tcpClient = TcpClient.create();
@@ -246,11 +296,58 @@ public RemoteRsocketPolicyDecisionPointBuilder keepAlive(Duration keepAlive, Dur
             return this;
         }
 
+        /**
+         * Multiplexes all streaming authorization subscriptions of the PDP over a
+         * single request-channel, instead of opening one stream per subscription. On
+         * reconnect, all subscriptions are resubscribed with a single command. The
+         * server must support the multiplexed-decide route.
+         *
+         * @return RemoteRsocketPolicyDecisionPointBuilder
+         */
+        public RemoteRsocketPolicyDecisionPointBuilder multiplexSubscriptions() {
+            this.multiplexSubscriptions = true;
+            return this;
+        }
+
+        /**
+         * Uses CBOR instead of JSON as the data MIME type of the connection.
+         * Subscriptions and decisions are then exchanged in this binary encoding,
+         * which is considerably cheaper to parse for large documents. The server
+         * must have CBOR codecs registered.
+         *
+         * @return RemoteRsocketPolicyDecisionPointBuilder
+         */
+        public RemoteRsocketPolicyDecisionPointBuilder cbor() {
+            this.cbor = true;
+            return this;
+        }
+
+        /**
+         * Gathers concurrent one-shot decisions and sends them to the server as a
+         * single multi-subscription. A batch is sent once it holds
+         * {@code maximumBatchSize} subscriptions or after the {@code window} opened
+         * by its first subscription has passed, e.g., 1 ms or 64 subscriptions.
+         *
+         * @param window           the maximal time a one-shot decision is delayed
+         * @param maximumBatchSize the maximal number of subscriptions per batch
+         * @return RemoteRsocketPolicyDecisionPointBuilder
+         */
+        public RemoteRsocketPolicyDecisionPointBuilder batchDecideOnce(Duration window, int maximumBatchSize) {
+            this.batchWindow      = window;
+            this.maximumBatchSize = maximumBatchSize;
+            return this;
+        }
+
         public RemoteRsocketPolicyDecisionPoint build() {
+            // JSON first, as the default data MIME type is derived from the first decoder
             RSocketStrategies rSocketStrategies = RSocketStrategies.builder().encoder(new Jackson2JsonEncoder())
-                    .encoder(new SimpleAuthenticationEncoder()).decoder(new Jackson2JsonDecoder()).build();
+                    .encoder(new Jackson2CborEncoder()).encoder(new SimpleAuthenticationEncoder())
+                    .decoder(new Jackson2JsonDecoder()).decoder(new Jackson2CborDecoder()).build();
 
             var builder = RSocketRequester.builder().rsocketStrategies(rSocketStrategies);
+            if (cbor) {
+                builder = builder.dataMimeType(MediaType.APPLICATION_CBOR);
+            }
             // apply auhentication settings if required
             if (authenticationCustomizer != null) {
                 builder = authenticationCustomizer.apply(builder);
@@ -259,7 +356,8 @@ public RemoteRsocketPolicyDecisionPoint build() {
             // set keepalive and return pdp
             builder.rsocketConnector(connector -> connector.keepAlive(keepAlive, maxLifeTime));
             var rSocketRequester = builder.transport(TcpClientTransport.create(tcpClient));
-            return new RemoteRsocketPolicyDecisionPoint(rSocketRequester);
+            return new RemoteRsocketPolicyDecisionPoint(rSocketRequester, multiplexSubscriptions, batchWindow,
+                    maximumBatchSize);
         }
     }
 }
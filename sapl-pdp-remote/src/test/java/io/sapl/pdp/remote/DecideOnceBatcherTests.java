@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.pdp.remote;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+
+import org.junit.jupiter.api.Test;
+
+import io.sapl.api.pdp.AuthorizationDecision;
+import io.sapl.api.pdp.AuthorizationSubscription;
+import io.sapl.api.pdp.IdentifiableAuthorizationSubscription;
+import io.sapl.api.pdp.MultiAuthorizationDecision;
+import io.sapl.api.pdp.MultiAuthorizationSubscription;
+import reactor.core.publisher.Mono;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+class DecideOnceBatcherTests {
+
+    private static final AuthorizationSubscription READ  = AuthorizationSubscription.of("willi", "read", "something");
+    private static final AuthorizationSubscription WRITE = AuthorizationSubscription.of("willi", "write", "something");
+
+    private final List<MultiAuthorizationSubscription> sentBatches = new ArrayList<>();
+
+    // permits reading, denies everything else
+    private Mono<MultiAuthorizationDecision> decideAllOnce(MultiAuthorizationSubscription multiSubscription) {
+        sentBatches.add(multiSubscription);
+        var multiDecision = new MultiAuthorizationDecision();
+        for (IdentifiableAuthorizationSubscription subscription : multiSubscription) {
+            var read = subscription.authorizationSubscription().getAction().asText().equals("read");
+            multiDecision.setAuthorizationDecisionForSubscriptionWithId(subscription.authorizationSubscriptionId(),
+                    read ? AuthorizationDecision.PERMIT : AuthorizationDecision.DENY);
+        }
+        return Mono.just(multiDecision);
+    }
+
+    @Test
+    void when_invalidParameters_then_throw() {
+        var window = Duration.ofMillis(-1L);
+        assertThrows(IllegalArgumentException.class,
+                () -> new DecideOnceBatcher(this::decideAllOnce, Duration.ZERO, 10));
+        assertThrows(IllegalArgumentException.class, () -> new DecideOnceBatcher(this::decideAllOnce, window, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> new DecideOnceBatcher(this::decideAllOnce, Duration.ofMillis(1L), 0));
+    }
+
+    @Test
+    void when_batchIsFull_then_batchIsSentImmediatelyAndDecisionsAreDemultiplexed() {
+        var batcher = new DecideOnceBatcher(this::decideAllOnce, Duration.ofHours(1L), 2);
+
+        var read  = batcher.decideOnce(READ).toFuture();
+        var write = batcher.decideOnce(WRITE).toFuture();
+
+        assertThat(read.join(), is(AuthorizationDecision.PERMIT));
+        assertThat(write.join(), is(AuthorizationDecision.DENY));
+        assertThat(sentBatches, hasSize(1));
+    }
+
+    @Test
+    void when_windowPasses_then_partialBatchIsSent() {
+        var scheduler = VirtualTimeScheduler.create();
+        var batcher   = new DecideOnceBatcher(this::decideAllOnce, Duration.ofMillis(1L), 64, scheduler);
+
+        var read  = batcher.decideOnce(READ).toFuture();
+        var write = batcher.decideOnce(WRITE).toFuture();
+        assertThat(sentBatches, hasSize(0));
+
+        scheduler.advanceTimeBy(Duration.ofMillis(1L));
+        assertThat(read.join(), is(AuthorizationDecision.PERMIT));
+        assertThat(write.join(), is(AuthorizationDecision.DENY));
+        assertThat(sentBatches, hasSize(1));
+
+        var next = batcher.decideOnce(READ).toFuture();
+        scheduler.advanceTimeBy(Duration.ofMillis(1L));
+        assertThat(next.join(), is(AuthorizationDecision.PERMIT));
+        assertThat(sentBatches, hasSize(2));
+    }
+
+    @Test
+    void when_fullBatchWasSent_then_itsWindowDoesNotSendTheNextBatchEarly() {
+        var scheduler = VirtualTimeScheduler.create();
+        var batcher   = new DecideOnceBatcher(this::decideAllOnce, Duration.ofMillis(10L), 2, scheduler);
+
+        batcher.decideOnce(READ).toFuture();
+        scheduler.advanceTimeBy(Duration.ofMillis(5L));
+        batcher.decideOnce(WRITE).toFuture();
+        var next = batcher.decideOnce(READ).toFuture();
+        assertThat(sentBatches, hasSize(1));
+
+        scheduler.advanceTimeBy(Duration.ofMillis(5L));
+        assertThat(sentBatches, hasSize(1));
+        scheduler.advanceTimeBy(Duration.ofMillis(5L));
+        assertThat(next.join(), is(AuthorizationDecision.PERMIT));
+        assertThat(sentBatches, hasSize(2));
+    }
+
+    @Test
+    void when_equalSubscriptionsAreBatched_then_theyAreSentOnce() {
+        var batcher = new DecideOnceBatcher(this::decideAllOnce, Duration.ofHours(1L), 3);
+
+        var first  = batcher.decideOnce(READ).toFuture();
+        var second = batcher.decideOnce(READ).toFuture();
+        var third  = batcher.decideOnce(WRITE).toFuture();
+
+        assertThat(first.join(), is(AuthorizationDecision.PERMIT));
+        assertThat(second.join(), is(AuthorizationDecision.PERMIT));
+        assertThat(third.join(), is(AuthorizationDecision.DENY));
+        var sentSubscriptions = new ArrayList<IdentifiableAuthorizationSubscription>();
+        sentBatches.get(0).forEach(sentSubscriptions::add);
+        assertThat(sentSubscriptions, hasSize(2));
+    }
+
+    @Test
+    void when_decisionIsMissing_then_indeterminate() {
+        var batcher = new DecideOnceBatcher(multiSubscription -> Mono.just(MultiAuthorizationDecision.indeterminate()),
+                Duration.ofHours(1L), 1);
+
+        assertThat(batcher.decideOnce(READ).block(), is(AuthorizationDecision.INDETERMINATE));
+    }
+
+    @Test
+    void when_batchFails_then_allCallersReceiveTheError() {
+        var batcher = new DecideOnceBatcher(multiSubscription -> Mono.error(new IllegalStateException("down")),
+                Duration.ofHours(1L), 2);
+
+        var read  = batcher.decideOnce(READ).toFuture();
+        var write = batcher.decideOnce(WRITE).toFuture();
+
+        assertThrows(CompletionException.class, read::join);
+        assertThrows(CompletionException.class, write::join);
+    }
+
+}
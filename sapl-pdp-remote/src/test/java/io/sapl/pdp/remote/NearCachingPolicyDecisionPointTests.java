@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.pdp.remote;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.sapl.api.pdp.AuthorizationDecision;
+import io.sapl.api.pdp.AuthorizationSubscription;
+import io.sapl.api.pdp.PolicyDecisionPoint;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+class NearCachingPolicyDecisionPointTests {
+
+    private static final AuthorizationSubscription READ  = AuthorizationSubscription.of("willi", "read", "something");
+    private static final AuthorizationSubscription WRITE = AuthorizationSubscription.of("willi", "write", "something");
+
+    @Test
+    void when_invalidParameters_then_throw() {
+        var delegate    = mock(PolicyDecisionPoint.class);
+        var gracePeriod = Duration.ofSeconds(-1L);
+        assertThrows(IllegalArgumentException.class,
+                () -> new NearCachingPolicyDecisionPoint(delegate, 0, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class,
+                () -> new NearCachingPolicyDecisionPoint(delegate, 10, gracePeriod));
+    }
+
+    @Test
+    void when_streamIsLive_then_decideOnceIsServedFromNearCache() {
+        var delegate  = mock(PolicyDecisionPoint.class);
+        var decisions = Sinks.many().replay().<AuthorizationDecision>latest();
+        when(delegate.decide(READ)).thenReturn(decisions.asFlux());
+        var pdp = new NearCachingPolicyDecisionPoint(delegate, 10, Duration.ZERO);
+
+        var first = pdp.decideOnce(READ).toFuture();
+        decisions.tryEmitNext(AuthorizationDecision.PERMIT);
+        assertThat(first.join(), is(AuthorizationDecision.PERMIT));
+        decisions.tryEmitNext(AuthorizationDecision.DENY);
+        StepVerifier.create(pdp.decideOnce(READ)).expectNext(AuthorizationDecision.DENY).verifyComplete();
+        StepVerifier.create(pdp.decideOnce(READ)).expectNext(AuthorizationDecision.DENY).verifyComplete();
+
+        verify(delegate, never()).decideOnce(READ);
+        verify(delegate, times(1)).decide(READ);
+        assertThat(pdp.getHits(), is(2L));
+        assertThat(pdp.getMisses(), is(1L));
+        assertThat(pdp.getHitRatio(), closeTo(2.0D / 3.0D, 0.001D));
+        assertThat(pdp.size(), is(1));
+    }
+
+    @Test
+    void when_streamTurnsIndeterminate_then_decideOnceGoesToPdp() {
+        var delegate  = mock(PolicyDecisionPoint.class);
+        var decisions = Sinks.many().replay().<AuthorizationDecision>latest();
+        when(delegate.decide(READ)).thenReturn(decisions.asFlux());
+        when(delegate.decideOnce(READ)).thenReturn(Mono.just(AuthorizationDecision.NOT_APPLICABLE));
+        var pdp = new NearCachingPolicyDecisionPoint(delegate, 10, Duration.ZERO);
+
+        decisions.tryEmitNext(AuthorizationDecision.PERMIT);
+        StepVerifier.create(pdp.decideOnce(READ)).expectNext(AuthorizationDecision.PERMIT).verifyComplete();
+        decisions.tryEmitNext(AuthorizationDecision.INDETERMINATE);
+        StepVerifier.create(pdp.decideOnce(READ)).expectNext(AuthorizationDecision.NOT_APPLICABLE).verifyComplete();
+
+        verify(delegate, times(1)).decideOnce(READ);
+        assertThat(pdp.getHits(), is(0L));
+    }
+
+    @Test
+    void when_streamErrors_then_cachedDecisionIsNeverServedAndStreamIsReopened() {
+        var delegate    = mock(PolicyDecisionPoint.class);
+        var connections = new AtomicInteger();
+        var failing     = Sinks.many().replay().<AuthorizationDecision>latest();
+        when(delegate.decide(READ)).thenReturn(Flux.defer(() -> connections.incrementAndGet() == 1 ? failing.asFlux()
+                : Flux.<AuthorizationDecision>never().startWith(AuthorizationDecision.DENY)));
+        var pdp = new NearCachingPolicyDecisionPoint(delegate, 10, Duration.ZERO);
+
+        var first = pdp.decideOnce(READ).toFuture();
+        failing.tryEmitNext(AuthorizationDecision.PERMIT);
+        assertThat(first.join(), is(AuthorizationDecision.PERMIT));
+        StepVerifier.create(pdp.decideOnce(READ)).expectNext(AuthorizationDecision.PERMIT).verifyComplete();
+        failing.tryEmitError(new RuntimeException("connection lost"));
+        StepVerifier.create(pdp.decideOnce(READ)).expectNext(AuthorizationDecision.DENY).verifyComplete();
+        StepVerifier.create(pdp.decideOnce(READ)).expectNext(AuthorizationDecision.DENY).verifyComplete();
+
+        assertThat(connections.get(), is(2));
+        assertThat(pdp.getHits(), is(2L));
+        verify(delegate, never()).decideOnce(READ);
+    }
+
+    @Test
+    void when_decidingConcurrently_then_equalSubscriptionsShareOneStream() {
+        var delegate  = mock(PolicyDecisionPoint.class);
+        var decisions = Sinks.many().replay().<AuthorizationDecision>latest();
+        when(delegate.decide(READ)).thenReturn(decisions.asFlux());
+        var pdp = new NearCachingPolicyDecisionPoint(delegate, 10, Duration.ZERO);
+
+        var first  = pdp.decideOnce(READ).toFuture();
+        var second = pdp.decideOnce(READ).toFuture();
+        decisions.tryEmitNext(AuthorizationDecision.PERMIT);
+        assertThat(first.join(), is(AuthorizationDecision.PERMIT));
+        assertThat(second.join(), is(AuthorizationDecision.PERMIT));
+
+        decisions.tryEmitNext(AuthorizationDecision.DENY);
+        StepVerifier.create(Flux.merge(pdp.decide(READ).take(1), pdp.decide(READ).take(1)))
+                .expectNext(AuthorizationDecision.DENY, AuthorizationDecision.DENY).verifyComplete();
+
+        verify(delegate, never()).decideOnce(READ);
+        verify(delegate, times(1)).decide(READ);
+        assertThat(pdp.getDeduplicated(), is(3L));
+    }
+
+    @Test
+    void when_nearCacheIsFull_then_leastRecentlyUsedStreamIsClosed() {
+        var delegate  = mock(PolicyDecisionPoint.class);
+        var cancelled = new AtomicInteger();
+        when(delegate.decide(READ)).thenReturn(Flux.<AuthorizationDecision>never()
+                .startWith(AuthorizationDecision.PERMIT).doOnCancel(cancelled::incrementAndGet));
+        when(delegate.decide(WRITE)).thenReturn(Flux.<AuthorizationDecision>never()
+                .startWith(AuthorizationDecision.DENY).doOnCancel(cancelled::incrementAndGet));
+        var pdp = new NearCachingPolicyDecisionPoint(delegate, 1, Duration.ZERO);
+
+        StepVerifier.create(pdp.decideOnce(READ)).expectNext(AuthorizationDecision.PERMIT).verifyComplete();
+        StepVerifier.create(pdp.decideOnce(WRITE)).expectNext(AuthorizationDecision.DENY).verifyComplete();
+        assertThat(cancelled.get(), is(1));
+        assertThat(pdp.size(), is(1));
+
+        StepVerifier.create(pdp.decideOnce(WRITE)).expectNext(AuthorizationDecision.DENY).verifyComplete();
+        StepVerifier.create(pdp.decideOnce(READ)).expectNext(AuthorizationDecision.PERMIT).verifyComplete();
+        verify(delegate, times(2)).decide(READ);
+        verify(delegate, times(1)).decide(WRITE);
+        verify(delegate, never()).decideOnce(READ);
+        verify(delegate, never()).decideOnce(WRITE);
+
+        pdp.dispose();
+        assertThat(cancelled.get(), is(3));
+        assertThat(pdp.size(), is(0));
+    }
+
+}
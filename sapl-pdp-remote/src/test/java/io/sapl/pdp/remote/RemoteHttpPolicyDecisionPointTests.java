@@ -19,10 +19,19 @@
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.Matchers.arrayContaining;
+import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.security.cert.CertificateException;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
 
 import javax.net.ssl.SSLException;
 
@@ -37,10 +46,15 @@
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 
+import io.netty.channel.Channel;
+import io.netty.handler.codec.http2.Http2StreamChannel;
 import io.netty.handler.ssl.SslContextBuilder;
 import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
+import io.netty.handler.ssl.util.SelfSignedCertificate;
 import io.sapl.api.pdp.AuthorizationDecision;
 import io.sapl.api.pdp.AuthorizationSubscription;
 import io.sapl.api.pdp.IdentifiableAuthorizationDecision;
@@ -48,7 +62,13 @@
 import io.sapl.api.pdp.MultiAuthorizationSubscription;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
+import okio.Buffer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.Http2SslContextSpec;
+import reactor.netty.http.HttpProtocol;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
 import reactor.test.StepVerifier;
 
 class RemoteHttpPolicyDecisionPointTests {
@@ -63,6 +83,9 @@ class RemoteHttpPolicyDecisionPointTests {
 
     private static final ObjectMapper MAPPER = new ObjectMapper().registerModule(new Jdk8Module());
 
+    private static final ObjectMapper SMILE_MAPPER = new ObjectMapper(new SmileFactory())
+            .registerModule(new Jdk8Module());
+
     private MockWebServer server;
 
     private RemoteHttpPolicyDecisionPoint pdp;
@@ -163,6 +186,104 @@ private void prepareDecisions(Object[] decisions) throws JsonProcessingException
         server.enqueue(response);
     }
 
+    @Test
+    void whenUsingSmile_thenSubscriptionAndDecisionsAreExchangedInSmile() throws IOException, InterruptedException {
+        var out = new ByteArrayOutputStream();
+        try (var writer = SMILE_MAPPER.writer().writeValues(out)) {
+            writer.write(AuthorizationDecision.PERMIT);
+            writer.write(AuthorizationDecision.DENY);
+        }
+        server.enqueue(new MockResponse()
+                .setHeader(HttpHeaders.CONTENT_TYPE, RemoteHttpPolicyDecisionPoint.APPLICATION_STREAM_SMILE)
+                .setResponseCode(HttpStatus.OK.value()).setBody(new Buffer().write(out.toByteArray())));
+        var smilePdp     = RemotePolicyDecisionPoint.builder().http().baseUrl(this.server.url("/").toString())
+                .withHttpClient(HttpClient.create()).basicAuth("secret", "key").smile().build();
+        var subscription = AuthorizationSubscription.of(SUBJECT, ACTION, RESOURCE);
+
+        StepVerifier.create(smilePdp.decide(subscription))
+                .expectNext(AuthorizationDecision.PERMIT, AuthorizationDecision.DENY).thenCancel().verify();
+
+        var request = server.takeRequest();
+        assertAll(
+                () -> assertThat(request.getHeader(HttpHeaders.CONTENT_TYPE),
+                        is(RemoteHttpPolicyDecisionPoint.APPLICATION_SMILE.toString())),
+                () -> assertThat(request.getHeader(HttpHeaders.ACCEPT),
+                        is(RemoteHttpPolicyDecisionPoint.APPLICATION_STREAM_SMILE.toString())),
+                () -> assertThat(SMILE_MAPPER.readValue(request.getBody().readByteArray(),
+                        AuthorizationSubscription.class), is(subscription)));
+    }
+
+    @Test
+    void whenUsingSmile_thenDecideOnceReadsSmileResponse() throws IOException {
+        server.enqueue(new MockResponse()
+                .setHeader(HttpHeaders.CONTENT_TYPE, RemoteHttpPolicyDecisionPoint.APPLICATION_SMILE)
+                .setResponseCode(HttpStatus.OK.value())
+                .setBody(new Buffer().write(SMILE_MAPPER.writeValueAsBytes(AuthorizationDecision.PERMIT))));
+        var smilePdp = RemotePolicyDecisionPoint.builder().http().baseUrl(this.server.url("/").toString())
+                .withHttpClient(HttpClient.create()).basicAuth("secret", "key").smile().build();
+
+        StepVerifier.create(smilePdp.decideOnce(AuthorizationSubscription.of(SUBJECT, ACTION, RESOURCE)))
+                .expectNext(AuthorizationDecision.PERMIT).verifyComplete();
+    }
+
+    @Test
+    void whenUsingSmile_thenNestedSubscriptionAndDecisionRoundTrip() throws IOException, InterruptedException {
+        var resource     = MAPPER.readTree("{ \"id\": 42, \"tags\": [\"a\", \"b\"], \"owner\": { \"name\": \"x\" } }");
+        var subscription = AuthorizationSubscription.of(SUBJECT, ACTION, resource,
+                MAPPER.readTree("{ \"time\": \"2024-01-01T00:00:00Z\" }"));
+        var decision     = AuthorizationDecision.PERMIT.withResource(resource)
+                .withObligations((ArrayNode) MAPPER.readTree("[{ \"type\": \"log\", \"level\": 3.5 }]"))
+                .withAdvice((ArrayNode) MAPPER.readTree("[null, true, \"text\"]"));
+        server.enqueue(new MockResponse()
+                .setHeader(HttpHeaders.CONTENT_TYPE, RemoteHttpPolicyDecisionPoint.APPLICATION_SMILE)
+                .setResponseCode(HttpStatus.OK.value())
+                .setBody(new Buffer().write(SMILE_MAPPER.writeValueAsBytes(decision))));
+        var smilePdp = RemotePolicyDecisionPoint.builder().http().baseUrl(this.server.url("/").toString())
+                .withHttpClient(HttpClient.create()).basicAuth("secret", "key").smile().build();
+
+        StepVerifier.create(smilePdp.decideOnce(subscription)).expectNext(decision).verifyComplete();
+        assertThat(SMILE_MAPPER.readValue(server.takeRequest().getBody().readByteArray(),
+                AuthorizationSubscription.class), is(subscription));
+    }
+
+    @Test
+    void whenCompressing_thenGzipEncodedResponseIsDecompressed() throws IOException, InterruptedException {
+        var body = new Buffer();
+        try (var gzip = new GZIPOutputStream(body.outputStream())) {
+            gzip.write(MAPPER.writeValueAsBytes(AuthorizationDecision.DENY));
+        }
+        server.enqueue(new MockResponse().setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setHeader(HttpHeaders.CONTENT_ENCODING, "gzip").setResponseCode(HttpStatus.OK.value())
+                .setBody(body));
+        var compressingPdp = RemotePolicyDecisionPoint.builder().http().baseUrl(this.server.url("/").toString())
+                .withHttpClient(HttpClient.create()).compress().basicAuth("secret", "key").build();
+
+        StepVerifier.create(compressingPdp.decideOnce(AuthorizationSubscription.of(SUBJECT, ACTION, RESOURCE)))
+                .expectNext(AuthorizationDecision.DENY).verifyComplete();
+        assertThat(server.takeRequest().getHeader(HttpHeaders.ACCEPT_ENCODING), is("gzip"));
+    }
+
+    @Test
+    void whenBatchingDecideOnce_thenConcurrentCallsAreSentAsOneMultiSubscription()
+            throws JsonProcessingException, InterruptedException {
+        var multiDecision = new MultiAuthorizationDecision();
+        multiDecision.setAuthorizationDecisionForSubscriptionWithId("0", AuthorizationDecision.PERMIT);
+        multiDecision.setAuthorizationDecisionForSubscriptionWithId("1", AuthorizationDecision.DENY);
+        server.enqueue(new MockResponse().setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setResponseCode(HttpStatus.OK.value()).setBody(MAPPER.writeValueAsString(multiDecision)));
+        var batchingPdp = RemotePolicyDecisionPoint.builder().http().baseUrl(this.server.url("/").toString())
+                .withHttpClient(HttpClient.create()).basicAuth("secret", "key")
+                .batchDecideOnce(Duration.ofSeconds(10L), 2).build();
+
+        var read  = batchingPdp.decideOnce(AuthorizationSubscription.of(SUBJECT, "read", RESOURCE)).toFuture();
+        var write = batchingPdp.decideOnce(AuthorizationSubscription.of(SUBJECT, "write", RESOURCE)).toFuture();
+
+        assertThat(read.join(), is(AuthorizationDecision.PERMIT));
+        assertThat(write.join(), is(AuthorizationDecision.DENY));
+        assertThat(server.getRequestCount(), is(1));
+        assertThat(server.takeRequest().getPath(), is("/api/pdp/multi-decide-all-once"));
+    }
+
     @Test
     void construct() {
         var pdp = RemotePolicyDecisionPoint.builder().http().baseUrl("http://localhost").basicAuth("secret", "key")
@@ -178,6 +299,85 @@ void constructWithSslContext() throws SSLException {
         assertThat(pdp, notNullValue());
     }
 
+    @Test
+    void whenHttp2_thenH2IsNegotiatedWithHttp11Fallback() throws SSLException {
+        var client = RemoteHttpPolicyDecisionPoint.builder().withUnsecureSSL().http2().maxConnections(4)
+                .maxConcurrentStreams(100L).maxIdleTime(Duration.ofSeconds(30L)).httpClient();
+
+        assertThat(client.configuration().protocols(), arrayContaining(HttpProtocol.H2, HttpProtocol.HTTP11));
+        assertThat(client.configuration().sslProvider().getSslContext().applicationProtocolNegotiator().protocols(),
+                hasItem("h2"));
+    }
+
+    @Test
+    void whenHttp2Cleartext_thenH2cIsUsedWithHttp11Fallback() {
+        var client = RemoteHttpPolicyDecisionPoint.builder().http2Cleartext().maxConnections(4)
+                .maxConcurrentStreams(100L).httpClient();
+
+        assertThat(client.configuration().protocols(), arrayContaining(HttpProtocol.H2C, HttpProtocol.HTTP11));
+        assertThat(client.configuration().isSecure(), is(false));
+    }
+
+    @Test
+    void whenHttp2WithPoolSettings_thenH2IsNegotiatedAndStreamsAreLimitedPerConnection()
+            throws CertificateException, JsonProcessingException {
+        var certificate = new SelfSignedCertificate();
+        var decision    = MAPPER.writeValueAsString(AuthorizationDecision.PERMIT);
+        var requests    = new AtomicInteger();
+        var connections = ConcurrentHashMap.<Channel>newKeySet();
+        var h2Server    = HttpServer.create().host("localhost").port(0).protocol(HttpProtocol.H2)
+                .secure(spec -> spec.sslContext(
+                        Http2SslContextSpec.forServer(certificate.certificate(), certificate.privateKey())))
+                .route(routes -> routes.post("/api/pdp/decide-once", (request, response) -> {
+                    requests.incrementAndGet();
+                    request.withConnection(connection -> {
+                        if (connection.channel() instanceof Http2StreamChannel stream)
+                            connections.add(stream.parent());
+                    });
+                    // keeps the stream open, so that concurrent requests need further streams
+                    return response.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .sendString(Mono.delay(Duration.ofMillis(200L)).thenReturn(decision));
+                })).bindNow();
+        try {
+            var h2Pdp        = RemotePolicyDecisionPoint.builder().http()
+                    .baseUrl("https://localhost:" + h2Server.port()).http2().maxConnections(2)
+                    .maxConcurrentStreams(1L).withUnsecureSSL().basicAuth("secret", "key").build();
+            var subscription = AuthorizationSubscription.of(SUBJECT, ACTION, RESOURCE);
+
+            StepVerifier.create(Flux.range(0, 4).flatMap(i -> h2Pdp.decideOnce(subscription)))
+                    .expectNext(AuthorizationDecision.PERMIT, AuthorizationDecision.PERMIT,
+                            AuthorizationDecision.PERMIT, AuthorizationDecision.PERMIT)
+                    .verifyComplete();
+        } finally {
+            h2Server.disposeNow();
+            certificate.delete();
+        }
+        // every request arrived as an HTTP/2 stream, one at a time on each of two connections
+        assertThat(requests.get(), is(4));
+        assertThat(connections.size(), is(2));
+    }
+
+    @Test
+    void whenHttp11_thenOnlyHttp11IsUsed() {
+        var client = RemoteHttpPolicyDecisionPoint.builder().secure().maxConnections(4).httpClient();
+
+        assertThat(client.configuration().protocols(), arrayContaining(HttpProtocol.HTTP11));
+        assertThat(client.configuration().isSecure(), is(true));
+    }
+
+    @Test
+    void whenInvalidConnectionPoolSettings_thenThrow() {
+        var builder     = RemoteHttpPolicyDecisionPoint.builder();
+        var maxIdleTime = Duration.ZERO;
+        assertThrows(IllegalArgumentException.class, () -> builder.maxConnections(0));
+        assertThrows(IllegalArgumentException.class, () -> builder.maxConcurrentStreams(0L));
+        assertThrows(IllegalArgumentException.class, () -> builder.maxIdleTime(maxIdleTime));
+
+        var withGivenClient = RemoteHttpPolicyDecisionPoint.builder().withHttpClient(HttpClient.create())
+                .maxConnections(4);
+        assertThrows(IllegalStateException.class, withGivenClient::build);
+    }
+
     @Test
     void settersAndGetters() {
         var pdp = RemotePolicyDecisionPoint.builder().http().baseUrl("http://localhost").basicAuth("secret", "key")
@@ -34,13 +34,22 @@
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
 import org.springframework.http.codec.json.Jackson2JsonDecoder;
 import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.rsocket.RSocketStrategies;
 import org.springframework.messaging.rsocket.annotation.support.RSocketMessageHandler;
 import org.springframework.security.rsocket.metadata.SimpleAuthenticationEncoder;
 import org.springframework.stereotype.Controller;
+import org.springframework.util.MimeType;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.netty.handler.ssl.SslContextBuilder;
 import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
@@ -53,7 +62,9 @@
 import io.sapl.api.pdp.IdentifiableAuthorizationDecision;
 import io.sapl.api.pdp.MultiAuthorizationDecision;
 import io.sapl.api.pdp.MultiAuthorizationSubscription;
+import io.sapl.api.pdp.SubscriptionChannelCommand;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 public class RemoteRsocketPolicyDecisionPointTests {
@@ -69,6 +80,8 @@ public class RemoteRsocketPolicyDecisionPointTests {
 
     private static final String SUBJECT = "subject";
 
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
     private static AnnotationConfigApplicationContext context;
 
     @BeforeAll
@@ -168,6 +181,16 @@ Flux<AuthorizationDecision> fakeDecide() {
             return Flux.fromArray((AuthorizationDecision[]) decisionsQueue.remove());
         }
 
+        // permits if the subscription was sent as CBOR, denies otherwise, and echoes
+        // the decoded resource and environment back in the decision
+        @MessageMapping("decide-once")
+        Mono<AuthorizationDecision> fakeDecideOnce(AuthorizationSubscription subscription,
+                @Header(MessageHeaders.CONTENT_TYPE) MimeType dataMimeType) {
+            var cbor     = MediaType.APPLICATION_CBOR.equalsTypeAndSubtype(dataMimeType);
+            var decision = cbor ? AuthorizationDecision.PERMIT : AuthorizationDecision.DENY;
+            return Mono.just(echo(decision, subscription));
+        }
+
         @MessageMapping("multi-decide")
         public Flux<IdentifiableAuthorizationDecision> fakeMultiDecide() {
             return Flux.fromArray((IdentifiableAuthorizationDecision[]) decisionsQueue.remove());
@@ -178,6 +201,15 @@ public Flux<MultiAuthorizationDecision> fakeMultiDecideAll() {
             return Flux.fromArray((MultiAuthorizationDecision[]) decisionsQueue.remove());
         }
 
+        // permits all subscriptions of the first command, then closes the channel
+        @MessageMapping("multiplexed-decide")
+        public Flux<IdentifiableAuthorizationDecision> fakeMultiplexedDecide(
+                Flux<SubscriptionChannelCommand> commands) {
+            return commands.take(1).flatMapIterable(SubscriptionChannelCommand::getSubscriptions)
+                    .map(subscription -> new IdentifiableAuthorizationDecision(
+                            subscription.authorizationSubscriptionId(), AuthorizationDecision.PERMIT));
+        }
+
     }
 
     /**
@@ -198,12 +230,65 @@ ServerController serverController() {
         RSocketMessageHandler serverMessageHandler() {
             RSocketMessageHandler handler    = new RSocketMessageHandler();
             var                   strategies = RSocketStrategies.builder().encoder(new Jackson2JsonEncoder())
-                    .encoder(new SimpleAuthenticationEncoder()).decoder(new Jackson2JsonDecoder()).build();
+                    .encoder(new Jackson2CborEncoder()).encoder(new SimpleAuthenticationEncoder())
+                    .decoder(new Jackson2JsonDecoder()).decoder(new Jackson2CborDecoder()).build();
             handler.setRSocketStrategies(strategies);
             return handler;
         }
     }
 
+    @Test
+    void whenSubscribingMultiplexed_thenDecisionsAreDispatchedAndSubscriptionsResubscribedOnReconnect() {
+        var multiplexedPdp = RemotePolicyDecisionPoint.builder().rsocket().host("localhost")
+                .port(server.address().getPort()).multiplexSubscriptions().build();
+        multiplexedPdp.setFirstBackoffMillis(10);
+        var subscription = AuthorizationSubscription.of(SUBJECT, ACTION, RESOURCE);
+
+        StepVerifier.create(multiplexedPdp.decide(subscription))
+                .expectNext(AuthorizationDecision.PERMIT, AuthorizationDecision.INDETERMINATE,
+                        AuthorizationDecision.PERMIT)
+                .thenCancel().verify();
+        multiplexedPdp.dispose();
+    }
+
+    @Test
+    void whenSubscribingMultiplexedConcurrently_thenAllSubscriptionsShareTheChannel() {
+        var multiplexedPdp = RemotePolicyDecisionPoint.builder().rsocket().host("localhost")
+                .port(server.address().getPort()).multiplexSubscriptions().build();
+        multiplexedPdp.setFirstBackoffMillis(10);
+        var readSubscription  = AuthorizationSubscription.of(SUBJECT, "read", RESOURCE);
+        var writeSubscription = AuthorizationSubscription.of(SUBJECT, "write", RESOURCE);
+
+        StepVerifier
+                .create(Flux.merge(
+                        multiplexedPdp.decide(readSubscription).filter(AuthorizationDecision.PERMIT::equals).take(1),
+                        multiplexedPdp.decide(writeSubscription).filter(AuthorizationDecision.PERMIT::equals)
+                                .take(1)))
+                .expectNext(AuthorizationDecision.PERMIT, AuthorizationDecision.PERMIT).expectComplete()
+                .verify(Duration.ofSeconds(10L));
+        multiplexedPdp.dispose();
+    }
+
+    @Test
+    void whenUsingCbor_thenNestedSubscriptionAndDecisionRoundTripAsCbor() throws JsonProcessingException {
+        var cborPdp      = RemotePolicyDecisionPoint.builder().rsocket().host("localhost")
+                .port(server.address().getPort()).cbor().build();
+        var resource     = MAPPER.readTree("{ \"id\": 42, \"tags\": [\"a\", \"b\"], \"owner\": { \"name\": \"x\" } }");
+        var subscription = AuthorizationSubscription.of(SUBJECT, ACTION, resource,
+                MAPPER.readTree("{ \"level\": 3.5, \"flags\": [null, true] }"));
+
+        StepVerifier.create(cborPdp.decideOnce(subscription))
+                .expectNext(echo(AuthorizationDecision.PERMIT, subscription)).verifyComplete();
+        StepVerifier.create(pdp.decideOnce(subscription)).expectNext(echo(AuthorizationDecision.DENY, subscription))
+                .verifyComplete();
+        cborPdp.dispose();
+    }
+
+    private static AuthorizationDecision echo(AuthorizationDecision decision, AuthorizationSubscription subscription) {
+        return decision.withResource(subscription.getResource())
+                .withObligations(MAPPER.createArrayNode().add(subscription.getEnvironment()));
+    }
+
     @Test
     void construct() {
         var pdp = RemotePolicyDecisionPoint.builder().rsocket().host("localhost").port(7000).basicAuth("secret", "key")
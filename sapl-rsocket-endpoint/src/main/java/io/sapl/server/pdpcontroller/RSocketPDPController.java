@@ -17,6 +17,8 @@
  */
 package io.sapl.server.pdpcontroller;
 
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.stereotype.Controller;
 
@@ -26,9 +28,12 @@
 import io.sapl.api.pdp.MultiAuthorizationDecision;
 import io.sapl.api.pdp.MultiAuthorizationSubscription;
 import io.sapl.api.pdp.PolicyDecisionPoint;
+import io.sapl.api.pdp.SubscriptionChannelCommand;
+import io.sapl.api.pdp.SubscriptionChannelCommand.Type;
 import lombok.RequiredArgsConstructor;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 
 @Controller
 @RequiredArgsConstructor
@@ -98,19 +103,60 @@ public Flux<MultiAuthorizationDecision> decideAll(MultiAuthorizationSubscription
 
     /**
      * Delegates to
-     * {@link PolicyDecisionPoint#decideAll(MultiAuthorizationSubscription)}.
+     * {@link PolicyDecisionPoint#decideAllOnce(MultiAuthorizationSubscription)}.
      *
      * @param multiAuthzSubscription the authorization multi-subscription to be
      *                               processed by the PDP.
      * @return a Mono emitting the initial multi-decision containing authorization
      *         decisions for all the individual authorization subscriptions
      *         contained in the given {@code multiAuthzSubscription}.
-     * @see PolicyDecisionPoint#decideAll(MultiAuthorizationSubscription)
+     * @see PolicyDecisionPoint#decideAllOnce(MultiAuthorizationSubscription)
      */
     @MessageMapping("multi-decide-all-once")
     public Mono<MultiAuthorizationDecision> decideAllOnce(MultiAuthorizationSubscription multiAuthzSubscription) {
-        return pdp.decideAll(multiAuthzSubscription)
-                .onErrorResume(error -> Flux.just(MultiAuthorizationDecision.indeterminate())).next();
+        return pdp.decideAllOnce(multiAuthzSubscription)
+                .onErrorResume(error -> Mono.just(MultiAuthorizationDecision.indeterminate()));
+    }
+
+    /**
+     * Multiplexes many streaming authorization subscriptions over a single
+     * channel. The client adds and removes subscriptions by their IDs using
+     * {@link SubscriptionChannelCommand commands}. Each subscription is delegated
+     * to {@link PolicyDecisionPoint#decide(AuthorizationSubscription)} and its
+     * decisions are returned tagged with the subscription ID. The subscriptions
+     * of a channel are cancelled when the channel is closed.
+     *
+     * @param commands the commands of the client
+     * @return a flux emitting the decisions of all subscriptions of the channel
+     */
+    @MessageMapping("multiplexed-decide")
+    public Flux<IdentifiableAuthorizationDecision> decideMultiplexed(Flux<SubscriptionChannelCommand> commands) {
+        return Flux.defer(() -> {
+            var activeSubscriptions = new ConcurrentHashMap<String, Sinks.Empty<Void>>();
+            return commands.flatMap(command -> {
+                if (command.getType() == Type.UNSUBSCRIBE) {
+                    if (command.getSubscriptionIds() != null)
+                        command.getSubscriptionIds().forEach(id -> cancel(activeSubscriptions.remove(id)));
+                    return Flux.empty();
+                }
+                if (command.getSubscriptions() == null)
+                    return Flux.empty();
+                return Flux.fromIterable(command.getSubscriptions()).flatMap(identifiableSubscription -> {
+                    var id   = identifiableSubscription.authorizationSubscriptionId();
+                    var stop = Sinks.<Void>empty();
+                    cancel(activeSubscriptions.put(id, stop));
+                    return pdp.decide(identifiableSubscription.authorizationSubscription())
+                            .onErrorResume(error -> Flux.just(AuthorizationDecision.INDETERMINATE))
+                            .map(decision -> new IdentifiableAuthorizationDecision(id, decision))
+                            .takeUntilOther(stop.asMono()).doFinally(signal -> activeSubscriptions.remove(id, stop));
+                }, Integer.MAX_VALUE);
+            }, Integer.MAX_VALUE);
+        });
+    }
+
+    private static void cancel(Sinks.Empty<Void> subscription) {
+        if (subscription != null)
+            subscription.tryEmitEmpty();
     }
 
 }
@@ -17,11 +17,18 @@
  */
 package io.sapl.server;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -48,9 +55,12 @@
 import io.sapl.api.pdp.MultiAuthorizationDecision;
 import io.sapl.api.pdp.MultiAuthorizationSubscription;
 import io.sapl.api.pdp.PolicyDecisionPoint;
+import io.sapl.api.pdp.SubscriptionChannelCommand;
 import io.sapl.server.pdpcontroller.RSocketPDPController;
 import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 import reactor.netty.tcp.TcpClient;
 import reactor.test.StepVerifier;
 
@@ -211,9 +221,8 @@ void subscribeToMultiAllDecisions() {
 
     @Test
     void oneMultiAllDecisions() {
-        when(pdp.decideAll(any(MultiAuthorizationSubscription.class)))
-                .thenReturn(Flux.just(MultiAuthorizationDecision.indeterminate(),
-                        MultiAuthorizationDecision.indeterminate(), MultiAuthorizationDecision.indeterminate()));
+        when(pdp.decideAllOnce(any(MultiAuthorizationSubscription.class)))
+                .thenReturn(Mono.just(MultiAuthorizationDecision.indeterminate()));
 
         var multiAuthzSubscription = new MultiAuthorizationSubscription()
                 .addAuthorizationSubscription("id1", "subject", "action1", "resource")
@@ -224,12 +233,13 @@ void oneMultiAllDecisions() {
 
         StepVerifier.create(result).expectNext(MultiAuthorizationDecision.indeterminate()).verifyComplete();
 
-        verify(pdp, times(1)).decideAll(multiAuthzSubscription);
+        verify(pdp, times(1)).decideAllOnce(multiAuthzSubscription);
     }
 
     @Test
     void subscribeToMultiAllDecisionsProcessingError() {
-        when(pdp.decideAll(any(MultiAuthorizationSubscription.class))).thenReturn(Flux.error(new RuntimeException()));
+        when(pdp.decideAllOnce(any(MultiAuthorizationSubscription.class)))
+                .thenReturn(Mono.error(new RuntimeException()));
 
         var multiAuthzSubscription = new MultiAuthorizationSubscription()
                 .addAuthorizationSubscription("id1", "subject", "action1", "resource")
@@ -240,12 +250,13 @@ void subscribeToMultiAllDecisionsProcessingError() {
 
         StepVerifier.create(result).expectNext(MultiAuthorizationDecision.indeterminate()).verifyComplete();
 
-        verify(pdp, times(1)).decideAll(multiAuthzSubscription);
+        verify(pdp, times(1)).decideAllOnce(multiAuthzSubscription);
     }
 
     @Test
     void oneMultiAllDecisionsProcessingError() {
-        when(pdp.decideAll(any(MultiAuthorizationSubscription.class))).thenReturn(Flux.error(new RuntimeException()));
+        when(pdp.decideAllOnce(any(MultiAuthorizationSubscription.class)))
+                .thenReturn(Mono.error(new RuntimeException()));
 
         var multiAuthzSubscription = new MultiAuthorizationSubscription()
                 .addAuthorizationSubscription("id1", "subject", "action1", "resource")
@@ -256,7 +267,7 @@ void oneMultiAllDecisionsProcessingError() {
 
         StepVerifier.create(result).expectNext(MultiAuthorizationDecision.indeterminate()).verifyComplete();
 
-        verify(pdp, times(1)).decideAll(multiAuthzSubscription);
+        verify(pdp, times(1)).decideAllOnce(multiAuthzSubscription);
     }
 
     @Test
@@ -266,4 +277,35 @@ void subscribeToMultiDecisionsAllInvalidBody() {
                 .retrieveFlux(IdentifiableAuthorizationDecision.class);
         StepVerifier.create(result).expectError().verify();
     }
+
+    @Test
+    void decideMultiplexedAddsAndRemovesSubscriptionsByIdOverOneChannel() {
+        var readSubscription  = AuthorizationSubscription.of("subject", "read", "resource");
+        var writeSubscription = AuthorizationSubscription.of("subject", "write", "resource");
+        when(pdp.decide(readSubscription))
+                .thenReturn(Flux.just(AuthorizationDecision.PERMIT).concatWith(Flux.never()));
+        when(pdp.decide(writeSubscription)).thenReturn(Flux.just(AuthorizationDecision.DENY).concatWith(Flux.never()));
+
+        Sinks.Many<SubscriptionChannelCommand> commands = Sinks.many().unicast().onBackpressureBuffer();
+        var subscriptions = new MultiAuthorizationSubscription().addAuthorizationSubscription("id1", readSubscription)
+                .addAuthorizationSubscription("id2", writeSubscription);
+        var result        = requester.route("multiplexed-decide")
+                .data(commands.asFlux(), SubscriptionChannelCommand.class)
+                .retrieveFlux(IdentifiableAuthorizationDecision.class);
+
+        StepVerifier.create(result)
+                .then(() -> commands.tryEmitNext(SubscriptionChannelCommand.subscribe(subscriptions)))
+                .recordWith(ArrayList::new).expectNextCount(2)
+                .consumeRecordedWith(decisions -> assertEquals(
+                        Set.of(new IdentifiableAuthorizationDecision("id1", AuthorizationDecision.PERMIT),
+                                new IdentifiableAuthorizationDecision("id2", AuthorizationDecision.DENY)),
+                        new HashSet<>(decisions)))
+                .then(() -> {
+                    commands.tryEmitNext(SubscriptionChannelCommand.unsubscribe(List.of("id1", "id2")));
+                    commands.tryEmitComplete();
+                }).expectComplete().verify(Duration.ofSeconds(10L));
+        verify(pdp, times(1)).decide(readSubscription);
+        verify(pdp, times(1)).decide(writeSubscription);
+    }
+
 }
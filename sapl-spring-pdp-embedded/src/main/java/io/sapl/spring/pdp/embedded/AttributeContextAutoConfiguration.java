@@ -23,6 +23,7 @@
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Role;
@@ -40,17 +41,25 @@
 @AutoConfiguration
 @RequiredArgsConstructor
 @AutoConfigureAfter(PolicyInformationPointsAutoConfiguration.class)
+@EnableConfigurationProperties(EmbeddedPDPProperties.class)
 public class AttributeContextAutoConfiguration {
 
     private final Collection<PolicyInformationPointSupplier>       pipSuppliers;
     private final Collection<StaticPolicyInformationPointSupplier> staticPipSuppliers;
     private final ConfigurableApplicationContext                   applicationContext;
+    private final EmbeddedPDPProperties                            pdpProperties;
 
     @Bean
     @ConditionalOnMissingBean
     @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
     AttributeContext attributeContext() throws InitializationException {
         var ctx = new AnnotationAttributeContext();
+        if (pdpProperties.isAttributeStreamSharing()) {
+            log.info("Sharing attribute streams. Time-to-live: {}, eager prefetch: {}",
+                    pdpProperties.getAttributeStreamTimeToLive(), pdpProperties.isAttributeStreamEagerPrefetch());
+            ctx.enableAttributeStreamSharing(pdpProperties.getAttributeStreamTimeToLive(),
+                    pdpProperties.isAttributeStreamEagerPrefetch());
+        }
         for (var supplier : pipSuppliers) {
             for (var pip : supplier.get()) {
                 log.trace("loading Policy Information Point: {}", pip.getClass().getSimpleName());
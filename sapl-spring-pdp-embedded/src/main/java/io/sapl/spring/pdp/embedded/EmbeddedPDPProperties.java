@@ -17,11 +17,15 @@
  */
 package io.sapl.spring.pdp.embedded;
 
+import java.time.Duration;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.validation.annotation.Validated;
 
+import io.sapl.api.interpreter.TracingMode;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 import lombok.Data;
 
 /**
@@ -64,6 +68,13 @@ public class EmbeddedPDPProperties {
     @NotNull
     private IndexType index = IndexType.NAIVE;
 
+    /**
+     * If this property is set to true, the CANONICAL index orders its predicates
+     * by their selectivity and evaluation time sampled at runtime, instead of
+     * only by the structure of the policy targets.
+     */
+    private boolean adaptivePredicateOrder = false;
+
     /**
      * This property sets the path to the folder where the pdp.json configuration
      * file is located.
@@ -117,6 +128,31 @@ public enum IndexType {
 
     }
 
+    /**
+     * Selects how much evaluation trace the embedded PDP records for each value.
+     * <p>
+     * The options are:
+     * <p>
+     * - OFF: No traces are recorded. Traces and reports only contain the decisions
+     * and values themselves.
+     * <p>
+     * - LAZY: Traces only keep references to the traced operations and are built
+     * once they are read.
+     * <p>
+     * - FULL: Traces are built completely during evaluation.
+     */
+    @NotNull
+    private TracingMode tracingMode = TracingMode.FULL;
+
+    /**
+     * If this property is set to true, the DENY_OVERRIDES and PERMIT_OVERRIDES
+     * combining algorithms evaluate policies lazily. Policies with the opposite
+     * entitlement and without a transformation are not evaluated, and their
+     * attribute streams are closed, as long as another policy yields the
+     * overriding decision.
+     */
+    private boolean lazyOverrides = false;
+
     /**
      * If this property is set to true, JSON in logged traces and reports is pretty
      * printed.
@@ -141,4 +177,60 @@ public enum IndexType {
      */
     private boolean printTextReport = false;
 
+    /**
+     * If this property is set to true, concurrent subscriptions with equal
+     * authorization subscriptions share a single decision stream, i.e., the
+     * policies are evaluated and the attribute streams are opened only once.
+     */
+    private boolean multicastSubscriptions = false;
+
+    /**
+     * The time a shared decision stream stays connected after its last
+     * subscriber cancelled. Only applies if multicastSubscriptions is true.
+     */
+    @NotNull
+    private Duration multicastGracePeriod = Duration.ZERO;
+
+    /**
+     * If this property is set to true, the results of one-shot decisions are
+     * cached, if they were made without any attribute finder. The cache is
+     * invalidated whenever the policies or the PDP configuration change.
+     */
+    private boolean decisionCache = false;
+
+    /**
+     * The maximal number of cached one-shot decisions. Only applies if
+     * decisionCache is true.
+     */
+    @Positive
+    private int decisionCacheMaximumSize = 10_000;
+
+    /**
+     * The time after which a cached one-shot decision expires. Only applies if
+     * decisionCache is true.
+     */
+    @NotNull
+    private Duration decisionCacheTimeToLive = Duration.ofMinutes(5L);
+
+    /**
+     * If this property is set to true, all policies and subscriptions referencing
+     * the same attribute with equal left-hand and argument values share a single
+     * attribute stream, i.e., the attribute finder is invoked only once.
+     */
+    private boolean attributeStreamSharing = false;
+
+    /**
+     * The time a shared attribute stream stays connected after its last
+     * subscriber cancelled. Only applies if attributeStreamSharing is true.
+     */
+    @NotNull
+    private Duration attributeStreamTimeToLive = Duration.ZERO;
+
+    /**
+     * If this property is set to true, shared attribute streams are connected as
+     * soon as they are requested and stay connected for at least
+     * attributeStreamTimeToLive. Only applies if attributeStreamSharing is true.
+     */
+    private boolean attributeStreamEagerPrefetch = false;
+
 }
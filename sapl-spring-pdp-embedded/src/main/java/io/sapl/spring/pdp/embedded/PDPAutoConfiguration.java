@@ -21,9 +21,11 @@
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Role;
 
+import io.sapl.api.interpreter.TracingMode;
 import io.sapl.api.pdp.PolicyDecisionPoint;
 import io.sapl.pdp.EmbeddedPolicyDecisionPoint;
 import io.sapl.pdp.config.PDPConfigurationProvider;
@@ -35,19 +37,44 @@
 @AutoConfiguration
 @RequiredArgsConstructor
 @AutoConfigureAfter({ FunctionLibrariesAutoConfiguration.class, PolicyInformationPointsAutoConfiguration.class })
+@EnableConfigurationProperties(EmbeddedPDPProperties.class)
 public class PDPAutoConfiguration {
 
     private final PolicyRetrievalPoint policyRetrievalPoint;
 
     private final PDPConfigurationProvider configurationProvider;
 
+    private final EmbeddedPDPProperties pdpProperties;
+
     @Bean
     @ConditionalOnMissingBean
     @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
     PolicyDecisionPoint policyDecisionPoint() {
         log.info("Deploying embedded Policy Decision Point. ConfigProvider: {} PRP: {}",
                 configurationProvider.getClass().getSimpleName(), policyRetrievalPoint.getClass().getSimpleName());
-        return new EmbeddedPolicyDecisionPoint(configurationProvider, policyRetrievalPoint);
+        if (pdpProperties.getTracingMode() != TracingMode.FULL) {
+            log.info("Tracing mode: {}", pdpProperties.getTracingMode());
+            if (pdpProperties.getTracingMode() == TracingMode.OFF && (pdpProperties.isPrintTrace()
+                    || pdpProperties.isPrintJsonReport() || pdpProperties.isPrintTextReport()))
+                log.warn("Tracing is turned off. Logged traces and reports will not contain evaluation details.");
+        }
+        var pdp = new EmbeddedPolicyDecisionPoint(configurationProvider, policyRetrievalPoint)
+                .withTracingMode(pdpProperties.getTracingMode())
+                .withLazyOverrides(pdpProperties.isLazyOverrides());
+        if (pdpProperties.isLazyOverrides())
+            log.info("Combining DENY_OVERRIDES and PERMIT_OVERRIDES lazily.");
+        if (pdpProperties.isMulticastSubscriptions()) {
+            log.info("Multicasting decisions of equal subscriptions. Grace period: {}",
+                    pdpProperties.getMulticastGracePeriod());
+            pdp = pdp.withSubscriptionMulticasting(pdpProperties.getMulticastGracePeriod());
+        }
+        if (pdpProperties.isDecisionCache()) {
+            log.info("Caching attribute-free one-shot decisions. Maximum size: {} Time to live: {}",
+                    pdpProperties.getDecisionCacheMaximumSize(), pdpProperties.getDecisionCacheTimeToLive());
+            pdp = pdp.withDecisionCache(pdpProperties.getDecisionCacheMaximumSize(),
+                    pdpProperties.getDecisionCacheTimeToLive());
+        }
+        return pdp;
     }
 
 }
@@ -32,6 +32,7 @@
 import io.sapl.prp.PrpUpdateEventSource;
 import io.sapl.prp.index.ImmutableParsedDocumentIndex;
 import io.sapl.prp.index.canonical.CanonicalImmutableParsedDocumentIndex;
+import io.sapl.prp.index.canonical.ordering.AdaptivePredicateOrderStrategy;
 import io.sapl.prp.index.naive.NaiveImmutableParsedDocumentIndex;
 import io.sapl.spring.pdp.embedded.EmbeddedPDPProperties.IndexType;
 import lombok.RequiredArgsConstructor;
@@ -62,7 +63,12 @@ PolicyRetrievalPoint policyRetrievalPoint() throws PolicyEvaluationException {
             // scoped
             // evaluation context is sufficient. Variables will be bound later in the
             // subscription scoped EvaluationContext handed over for lookup.
-            seedIndex = new CanonicalImmutableParsedDocumentIndex(attributeContext, functionContext);
+            if (pdpProperties.isAdaptivePredicateOrder()) {
+                seedIndex = new CanonicalImmutableParsedDocumentIndex(new AdaptivePredicateOrderStrategy(),
+                        attributeContext, functionContext);
+            } else {
+                seedIndex = new CanonicalImmutableParsedDocumentIndex(attributeContext, functionContext);
+            }
         }
         return new GenericInMemoryIndexedPolicyRetrievalPoint(seedIndex, eventSource);
     }
@@ -20,6 +20,7 @@
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 
+import java.time.Duration;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
@@ -64,6 +65,29 @@ void whenDefaultLibrariesArePresent_thenAFunctionContextIsPresentAndLoadedThem()
                 });
     }
 
+    @Test
+    void whenAttributeStreamSharingIsConfigured_thenTheContextSharesAttributeStreams() {
+        contextRunner
+                .withPropertyValues("io.sapl.pdp.embedded.attributeStreamSharing=true",
+                        "io.sapl.pdp.embedded.attributeStreamTimeToLive=30s",
+                        "io.sapl.pdp.embedded.attributeStreamEagerPrefetch=true")
+                .run(context -> {
+                    assertThat(context).hasNotFailed();
+                    var broker = context.getBean(AnnotationAttributeContext.class).getAttributeStreamBroker();
+                    assertThat(broker).isPresent();
+                    assertThat(broker.get().getTimeToLive()).isEqualTo(Duration.ofSeconds(30L));
+                    assertThat(broker.get().isEagerPrefetch()).isTrue();
+                });
+    }
+
+    @Test
+    void whenAttributeStreamSharingIsNotConfigured_thenTheContextDoesNotShareAttributeStreams() {
+        contextRunner.run(context -> {
+            assertThat(context).hasNotFailed();
+            assertThat(context.getBean(AnnotationAttributeContext.class).getAttributeStreamBroker()).isEmpty();
+        });
+    }
+
     @Test
     void whenBadLibraryIsPresent_thenContextFailsToLoad() {
         contextRunner
@@ -19,15 +19,20 @@
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.autoconfigure.AutoConfigurations;
 import org.springframework.boot.test.context.runner.ApplicationContextRunner;
 
+import io.sapl.api.interpreter.TracingMode;
 import io.sapl.api.pdp.PolicyDecisionPoint;
 import io.sapl.pdp.EmbeddedPolicyDecisionPoint;
 import io.sapl.pdp.config.PDPConfigurationProvider;
 import io.sapl.prp.PolicyRetrievalPoint;
+import reactor.core.publisher.Flux;
 
 class PDPAutoConfigurationTests {
 
@@ -45,6 +50,65 @@ void whenContextLoads_thenOneIsCreated() {
         });
     }
 
+    @Test
+    void whenMulticastingIsEnabled_thenPDPSharesSubscriptions() {
+        contextRunner.withPropertyValues("io.sapl.pdp.embedded.multicast-subscriptions=true",
+                "io.sapl.pdp.embedded.multicast-grace-period=5s").run(context -> {
+                    assertThat(context).hasNotFailed();
+                    var registry = context.getBean(EmbeddedPolicyDecisionPoint.class)
+                            .getSubscriptionMulticastRegistry();
+                    assertThat(registry).isPresent();
+                    assertThat(registry.get().getGracePeriod()).isEqualTo(Duration.ofSeconds(5L));
+                });
+    }
+
+    @Test
+    void whenDecisionCacheIsEnabled_thenPDPCachesDecisions() {
+        var prp      = mock(PolicyRetrievalPoint.class);
+        var provider = mock(PDPConfigurationProvider.class);
+        when(prp.policyUpdates()).thenReturn(Flux.never());
+        when(provider.pdpConfiguration()).thenReturn(Flux.never());
+        new ApplicationContextRunner().withBean(PolicyRetrievalPoint.class, () -> prp)
+                .withBean(PDPConfigurationProvider.class, () -> provider)
+                .withConfiguration(AutoConfigurations.of(PDPAutoConfiguration.class))
+                .withPropertyValues("io.sapl.pdp.embedded.decision-cache=true",
+                        "io.sapl.pdp.embedded.decision-cache-maximum-size=100")
+                .run(context -> {
+                    assertThat(context).hasNotFailed();
+                    var cache = context.getBean(EmbeddedPolicyDecisionPoint.class).getDecisionCache();
+                    assertThat(cache).isPresent();
+                    assertThat(cache.get().getMaximumSize()).isEqualTo(100);
+                    assertThat(cache.get().getTimeToLive()).isEqualTo(Duration.ofMinutes(5L));
+                });
+    }
+
+    @Test
+    void whenMulticastingIsNotEnabled_thenPDPDoesNotShareSubscriptions() {
+        contextRunner.run(context -> {
+            assertThat(context).hasNotFailed();
+            assertThat(context.getBean(EmbeddedPolicyDecisionPoint.class).getSubscriptionMulticastRegistry())
+                    .isEmpty();
+            assertThat(context.getBean(EmbeddedPolicyDecisionPoint.class).getDecisionCache()).isEmpty();
+        });
+    }
+
+    @Test
+    void whenTracingModeIsConfigured_thenItIsApplied() {
+        contextRunner.withPropertyValues("io.sapl.pdp.embedded.tracing-mode=LAZY").run(context -> {
+            assertThat(context).hasNotFailed();
+            assertThat(context.getBean(EmbeddedPolicyDecisionPoint.class).getTracingMode())
+                    .isEqualTo(TracingMode.LAZY);
+        });
+    }
+
+    @Test
+    void whenLazyOverridesAreConfigured_thenTheyAreApplied() {
+        contextRunner.withPropertyValues("io.sapl.pdp.embedded.lazy-overrides=true").run(context -> {
+            assertThat(context).hasNotFailed();
+            assertThat(context.getBean(EmbeddedPolicyDecisionPoint.class).isLazyOverrides()).isTrue();
+        });
+    }
+
     @Test
     void whenAnotherPDPIsAlreadyPresent_thenDoNotLoadANewOne() {
         contextRunner.withBean(PolicyDecisionPoint.class, () -> mock(PolicyDecisionPoint.class)).run(context -> {
@@ -61,6 +61,16 @@ void whenPrpWithCanonicalIndexIsConfigured_thenOneIsCreated() {
         });
     }
 
+    @Test
+    void whenPrpWithAdaptiveCanonicalIndexIsConfigured_thenOneIsCreated() {
+        contextRunner.withPropertyValues("io.sapl.pdp.embedded.index=CANONICAL",
+                "io.sapl.pdp.embedded.adaptive-predicate-order=true").run(context -> {
+                    assertThat(context).hasNotFailed();
+                    assertThat(context).hasSingleBean(PolicyRetrievalPoint.class);
+                    assertThat(context).hasSingleBean(GenericInMemoryIndexedPolicyRetrievalPoint.class);
+                });
+    }
+
     @Test
     void whenAnotherPRPIsAlreadyPresent_thenDoNotLoadANewOne() {
         contextRunner.withBean(PolicyRetrievalPoint.class, () -> mock(PolicyRetrievalPoint.class)).run(context -> {
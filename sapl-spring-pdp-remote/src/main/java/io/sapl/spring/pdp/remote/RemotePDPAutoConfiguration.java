@@ -24,8 +24,6 @@
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import io.netty.handler.ssl.SslContextBuilder;
-import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
 import io.sapl.api.pdp.PolicyDecisionPoint;
 import io.sapl.pdp.remote.RemotePolicyDecisionPoint;
 import lombok.RequiredArgsConstructor;
@@ -43,20 +41,22 @@ public class RemotePDPAutoConfiguration {
     @ConditionalOnMissingBean
     PolicyDecisionPoint policyDecisionPoint() throws SSLException {
         log.info("Binding to remote PDP server: {}", configuration.getHost());
+        var builder = RemotePolicyDecisionPoint.builder().http().baseUrl(configuration.getHost())
+                .basicAuth(configuration.getKey(), configuration.getSecret());
+        var secure  = configuration.getHost().startsWith("https://");
+        if (configuration.isHttp2()) {
+            // h2 is only negotiated over TLS, plain connections need h2c
+            builder = secure ? builder.http2() : builder.http2Cleartext();
+        }
         if (configuration.isIgnoreCertificates()) {
             log.warn("INSECURE SSL SETTINGS! This demo uses an insecure SslContext for "
                     + "testing purposes only. It will accept all certificates. "
                     + "This is only for testing local servers with self-signed certificates easily. "
                     + "NEVER USE THIS A CONFIGURATION IN PRODUCTION!");
-            var sslContext = SslContextBuilder.forClient().trustManager(InsecureTrustManagerFactory.INSTANCE).build();
-            return RemotePolicyDecisionPoint.builder().http().baseUrl(configuration.getHost())
-                    .basicAuth(configuration.getKey(), configuration.getSecret()).secure(sslContext).build();
-
+            return builder.withUnsecureSSL().build();
         }
 
-        var builder = RemotePolicyDecisionPoint.builder().http().baseUrl(configuration.getHost())
-                .basicAuth(configuration.getKey(), configuration.getSecret());
-        if (configuration.getHost().startsWith("https://")) {
+        if (secure) {
             builder = builder.secure();
         }
         return builder.build();
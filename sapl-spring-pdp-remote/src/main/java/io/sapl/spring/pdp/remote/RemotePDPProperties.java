@@ -41,4 +41,6 @@ public class RemotePDPProperties {
 
     private boolean ignoreCertificates = false;
 
+    private boolean http2 = false;
+
 }
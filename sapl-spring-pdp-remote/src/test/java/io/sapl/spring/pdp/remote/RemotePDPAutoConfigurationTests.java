@@ -50,6 +50,29 @@ void whenValidPropertiesArePresentWithIgnore_thenTheRemotePdpIsPresent() {
                 });
     }
 
+    @Test
+    void whenHttp2IsEnabled_thenTheRemotePdpIsPresent() {
+        contextRunner
+                .withPropertyValues("io.sapl.pdp.remote.host=https://localhost:8443", "io.sapl.pdp.remote.key=aKey",
+                        "io.sapl.pdp.remote.secret=aSecret", "io.sapl.pdp.remote.ignoreCertificates=true",
+                        "io.sapl.pdp.remote.http2=true")
+                .run(context -> {
+                    assertThat(context).hasNotFailed();
+                    assertThat(context).hasSingleBean(PolicyDecisionPoint.class);
+                });
+    }
+
+    @Test
+    void whenHttp2IsEnabledNoTLS_thenTheRemotePdpIsPresent() {
+        contextRunner
+                .withPropertyValues("io.sapl.pdp.remote.host=http://localhost:8080", "io.sapl.pdp.remote.key=aKey",
+                        "io.sapl.pdp.remote.secret=aSecret", "io.sapl.pdp.remote.http2=true")
+                .run(context -> {
+                    assertThat(context).hasNotFailed();
+                    assertThat(context).hasSingleBean(PolicyDecisionPoint.class);
+                });
+    }
+
     @Test
     void whenValidPropertiesArePresentNoTLS_thenTheRemotePdpIsPresent() {
         contextRunner
@@ -35,6 +35,7 @@
 import com.fasterxml.jackson.databind.JsonNode;
 
 import io.sapl.api.interpreter.ExpressionArgument;
+import io.sapl.api.interpreter.TracingMode;
 import io.sapl.api.interpreter.Val;
 import io.sapl.interpreter.functions.FunctionContext;
 import io.sapl.interpreter.functions.LibraryDocumentation;
@@ -97,19 +98,30 @@ public Collection<String> providedFunctionsOfLibrary(String libName) {
 
     @Override
     public Val evaluate(String function, Val... parameters) {
+        return evaluate(TracingMode.FULL, function, parameters);
+    }
+
+    @Override
+    public Val evaluate(TracingMode tracingMode, String function, Val... parameters) {
+        FunctionMock mock = this.registeredMocks.get(function);
+        if (mock == null) {
+            return this.originalFunctionContext.evaluate(tracingMode, function, parameters);
+        }
+        var result = mock.evaluateFunctionCall(parameters);
+        if (tracingMode == TracingMode.OFF) {
+            return result;
+        }
+        return result.withTrace(tracingMode, MockingFunctionContext.class, false, functionTrace(function, parameters));
+    }
+
+    private static ExpressionArgument[] functionTrace(String function, Val... parameters) {
         var functionTrace = new ExpressionArgument[parameters.length + 1];
         functionTrace[0] = new ExpressionArgument("functionName", Val.of(function));
         for (var parameter = 0; parameter < parameters.length; parameter++) {
             functionTrace[parameter + 1] = new ExpressionArgument("parameter[" + parameter + "]",
                     parameters[parameter]);
         }
-
-        FunctionMock mock = this.registeredMocks.get(function);
-        if (mock != null) {
-            return mock.evaluateFunctionCall(parameters).withTrace(MockingFunctionContext.class, false, functionTrace);
-        } else {
-            return this.originalFunctionContext.evaluate(function, parameters);
-        }
+        return functionTrace;
     }
 
     @Override
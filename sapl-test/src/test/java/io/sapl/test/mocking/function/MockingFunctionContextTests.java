@@ -31,6 +31,7 @@
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import io.sapl.api.interpreter.TracingMode;
 import io.sapl.api.interpreter.Val;
 import io.sapl.interpreter.functions.AnnotationFunctionContext;
 import io.sapl.interpreter.functions.FunctionContext;
@@ -133,7 +134,7 @@ void test_isProvided() {
 
     @Test
     void test_ReturnUnmockedEvaluation() {
-        when(unmockedCtx.evaluate(any(), any(), any(), any())).thenReturn(Val.of("abc"));
+        when(unmockedCtx.evaluate(any(TracingMode.class), any(), any(), any(), any())).thenReturn(Val.of("abc"));
         assertThat(this.ctx.evaluate("foo.bar", null, null, null)).isEqualTo(Val.of("abc"));
     }
 
@@ -41,12 +41,22 @@
 /**
  * REST controller providing endpoints for a policy decision point. The
  * endpoints can be connected using the client in the module sapl-pdp-client.
+ * <p>
+ * Besides JSON, all endpoints accept the binary Smile encoding of the same
+ * documents and produce it on request. Streaming endpoints produce
+ * {@value #APPLICATION_STREAM_SMILE_VALUE} instead of server-sent events in
+ * this case, i.e., without keep-alive messages.
  */
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api/pdp")
 public class PDPController {
+
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    public static final String APPLICATION_STREAM_SMILE_VALUE = "application/stream+x-jackson-smile";
+
     private final PolicyDecisionPoint pdp;
     @Value("#{'${io.sapl.server.keep-alive:${io.sapl.server-lt.keep-alive:0}}'}")
     private long                      keepAliveSeconds = 0;
@@ -77,11 +87,29 @@ private <T> Flux<ServerSentEvent<T>> wrapWithKeepAlive(Flux<T> flux) {
      * @return a flux emitting the current authorization decisions.
      * @see PolicyDecisionPoint#decide(AuthorizationSubscription)
      */
-    @PostMapping(value = "/decide", produces = MediaType.APPLICATION_NDJSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PostMapping(value = "/decide", produces = MediaType.APPLICATION_NDJSON_VALUE, consumes = {
+            MediaType.APPLICATION_JSON_VALUE, APPLICATION_SMILE_VALUE })
     public Flux<ServerSentEvent<AuthorizationDecision>> decide(
             @Valid @RequestBody AuthorizationSubscription authzSubscription) {
-        return wrapWithKeepAlive(
-                pdp.decide(authzSubscription).onErrorResume(error -> Flux.just(AuthorizationDecision.INDETERMINATE)));
+        return wrapWithKeepAlive(decisions(authzSubscription));
+    }
+
+    /**
+     * Smile variant of {@link #decide(AuthorizationSubscription)}.
+     *
+     * @param authzSubscription the authorization subscription to be processed by
+     *                          the PDP.
+     * @return a flux emitting the current authorization decisions.
+     * @see PolicyDecisionPoint#decide(AuthorizationSubscription)
+     */
+    @PostMapping(value = "/decide", produces = APPLICATION_STREAM_SMILE_VALUE, consumes = {
+            MediaType.APPLICATION_JSON_VALUE, APPLICATION_SMILE_VALUE })
+    public Flux<AuthorizationDecision> decideSmile(@Valid @RequestBody AuthorizationSubscription authzSubscription) {
+        return decisions(authzSubscription);
+    }
+
+    private Flux<AuthorizationDecision> decisions(AuthorizationSubscription authzSubscription) {
+        return pdp.decide(authzSubscription).onErrorResume(error -> Flux.just(AuthorizationDecision.INDETERMINATE));
     }
 
     /**
@@ -92,7 +120,8 @@ public Flux<ServerSentEvent<AuthorizationDecision>> decide(
      * @return a Mono for the initial decision.
      * @see PolicyDecisionPoint#decide(AuthorizationSubscription)
      */
-    @PostMapping(value = "/decide-once", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PostMapping(value = "/decide-once", produces = { MediaType.APPLICATION_JSON_VALUE,
+            APPLICATION_SMILE_VALUE }, consumes = { MediaType.APPLICATION_JSON_VALUE, APPLICATION_SMILE_VALUE })
     public Mono<AuthorizationDecision> decideOnce(@Valid @RequestBody AuthorizationSubscription authzSubscription) {
         return pdp.decide(authzSubscription).onErrorResume(error -> Flux.just(AuthorizationDecision.INDETERMINATE))
                 .next();
@@ -109,11 +138,33 @@ public Mono<AuthorizationDecision> decideOnce(@Valid @RequestBody AuthorizationS
      *         as soon as they are available.
      * @see PolicyDecisionPoint#decide(MultiAuthorizationSubscription)
      */
-    @PostMapping(value = "/multi-decide", produces = MediaType.APPLICATION_NDJSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PostMapping(value = "/multi-decide", produces = MediaType.APPLICATION_NDJSON_VALUE, consumes = {
+            MediaType.APPLICATION_JSON_VALUE, APPLICATION_SMILE_VALUE })
     public Flux<ServerSentEvent<IdentifiableAuthorizationDecision>> decide(
             @Valid @RequestBody MultiAuthorizationSubscription multiAuthzSubscription) {
-        return wrapWithKeepAlive(pdp.decide(multiAuthzSubscription)
-                .onErrorResume(error -> Flux.just(IdentifiableAuthorizationDecision.INDETERMINATE)));
+        return wrapWithKeepAlive(decisions(multiAuthzSubscription));
+    }
+
+    /**
+     * Smile variant of {@link #decide(MultiAuthorizationSubscription)}.
+     *
+     * @param multiAuthzSubscription the authorization multi-subscription to be
+     *                               processed by the PDP.
+     * @return a flux emitting authorization decisions related to the individual
+     *         subscriptions contained in the given {@code multiAuthzSubscription}
+     *         as soon as they are available.
+     * @see PolicyDecisionPoint#decide(MultiAuthorizationSubscription)
+     */
+    @PostMapping(value = "/multi-decide", produces = APPLICATION_STREAM_SMILE_VALUE, consumes = {
+            MediaType.APPLICATION_JSON_VALUE, APPLICATION_SMILE_VALUE })
+    public Flux<IdentifiableAuthorizationDecision> decideSmile(
+            @Valid @RequestBody MultiAuthorizationSubscription multiAuthzSubscription) {
+        return decisions(multiAuthzSubscription);
+    }
+
+    private Flux<IdentifiableAuthorizationDecision> decisions(MultiAuthorizationSubscription multiAuthzSubscription) {
+        return pdp.decide(multiAuthzSubscription)
+                .onErrorResume(error -> Flux.just(IdentifiableAuthorizationDecision.INDETERMINATE));
     }
 
     /**
@@ -127,29 +178,52 @@ public Flux<ServerSentEvent<IdentifiableAuthorizationDecision>> decide(
      *         given {@code multiAuthzSubscription}.
      * @see PolicyDecisionPoint#decideAll(MultiAuthorizationSubscription)
      */
-    @PostMapping(value = "/multi-decide-all", produces = MediaType.APPLICATION_NDJSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PostMapping(value = "/multi-decide-all", produces = MediaType.APPLICATION_NDJSON_VALUE, consumes = {
+            MediaType.APPLICATION_JSON_VALUE, APPLICATION_SMILE_VALUE })
     public Flux<ServerSentEvent<MultiAuthorizationDecision>> decideAll(
             @Valid @RequestBody MultiAuthorizationSubscription multiAuthzSubscription) {
-        return wrapWithKeepAlive(pdp.decideAll(multiAuthzSubscription)
-                .onErrorResume(error -> Flux.just(MultiAuthorizationDecision.indeterminate())));
+        return wrapWithKeepAlive(multiDecisions(multiAuthzSubscription));
+    }
+
+    /**
+     * Smile variant of {@link #decideAll(MultiAuthorizationSubscription)}.
+     *
+     * @param multiAuthzSubscription the authorization multi-subscription to be
+     *                               processed by the PDP.
+     * @return a flux emitting multi-decisions containing authorization decisions
+     *         for all the individual authorization subscriptions contained in the
+     *         given {@code multiAuthzSubscription}.
+     * @see PolicyDecisionPoint#decideAll(MultiAuthorizationSubscription)
+     */
+    @PostMapping(value = "/multi-decide-all", produces = APPLICATION_STREAM_SMILE_VALUE, consumes = {
+            MediaType.APPLICATION_JSON_VALUE, APPLICATION_SMILE_VALUE })
+    public Flux<MultiAuthorizationDecision> decideAllSmile(
+            @Valid @RequestBody MultiAuthorizationSubscription multiAuthzSubscription) {
+        return multiDecisions(multiAuthzSubscription);
+    }
+
+    private Flux<MultiAuthorizationDecision> multiDecisions(MultiAuthorizationSubscription multiAuthzSubscription) {
+        return pdp.decideAll(multiAuthzSubscription)
+                .onErrorResume(error -> Flux.just(MultiAuthorizationDecision.indeterminate()));
     }
 
     /**
      * Delegates to
-     * {@link PolicyDecisionPoint#decideAll(MultiAuthorizationSubscription)}.
+     * {@link PolicyDecisionPoint#decideAllOnce(MultiAuthorizationSubscription)}.
      *
      * @param multiAuthzSubscription the authorization multi-subscription to be
      *                               processed by the PDP.
      * @return a Mono emitting the initial multi-decision containing authorization
      *         decisions for all the individual authorization subscriptions
      *         contained in the given {@code multiAuthzSubscription}.
-     * @see PolicyDecisionPoint#decideAll(MultiAuthorizationSubscription)
+     * @see PolicyDecisionPoint#decideAllOnce(MultiAuthorizationSubscription)
      */
-    @PostMapping(value = "/multi-decide-all-once", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PostMapping(value = "/multi-decide-all-once", produces = { MediaType.APPLICATION_JSON_VALUE,
+            APPLICATION_SMILE_VALUE }, consumes = { MediaType.APPLICATION_JSON_VALUE, APPLICATION_SMILE_VALUE })
     public Mono<MultiAuthorizationDecision> decideAllOnce(
             @Valid @RequestBody MultiAuthorizationSubscription multiAuthzSubscription) {
-        return pdp.decideAll(multiAuthzSubscription)
-                .onErrorResume(error -> Flux.just(MultiAuthorizationDecision.indeterminate())).next();
+        return pdp.decideAllOnce(multiAuthzSubscription)
+                .onErrorResume(error -> Mono.just(MultiAuthorizationDecision.indeterminate()));
     }
 
 }
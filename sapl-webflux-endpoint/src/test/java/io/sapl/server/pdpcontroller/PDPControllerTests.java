@@ -40,6 +40,7 @@
 import io.sapl.api.pdp.MultiAuthorizationSubscription;
 import io.sapl.api.pdp.PolicyDecisionPoint;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 @Import(PolicyDecisionPoint.class)
@@ -88,6 +89,45 @@ void decideOnceValidBody() {
         verify(pdp, times(1)).decide(subscription);
     }
 
+    @Test
+    void decideWithSmileEncoding() {
+        when(pdp.decide((AuthorizationSubscription) any(AuthorizationSubscription.class)))
+                .thenReturn(Flux.just(AuthorizationDecision.DENY, AuthorizationDecision.PERMIT));
+
+        var subscription = AuthorizationSubscription.of("subject", "action", "resource");
+
+        var result = webClient.post().uri("/api/pdp/decide")
+                .contentType(MediaType.valueOf(PDPController.APPLICATION_SMILE_VALUE))
+                .header(HttpHeaders.ACCEPT, PDPController.APPLICATION_STREAM_SMILE_VALUE)
+                .body(BodyInserters.fromValue(subscription)).exchange().expectStatus().isOk().expectHeader()
+                .contentTypeCompatibleWith(PDPController.APPLICATION_STREAM_SMILE_VALUE)
+                .returnResult(AuthorizationDecision.class);
+
+        StepVerifier.create(result.getResponseBody())
+                .expectNext(AuthorizationDecision.DENY, AuthorizationDecision.PERMIT).verifyComplete();
+
+        verify(pdp, times(1)).decide(subscription);
+    }
+
+    @Test
+    void decideOnceWithSmileEncoding() {
+        when(pdp.decide((AuthorizationSubscription) any(AuthorizationSubscription.class)))
+                .thenReturn(Flux.just(AuthorizationDecision.PERMIT));
+
+        var subscription = AuthorizationSubscription.of("subject", "action", "resource");
+
+        var result = webClient.post().uri("/api/pdp/decide-once")
+                .contentType(MediaType.valueOf(PDPController.APPLICATION_SMILE_VALUE))
+                .header(HttpHeaders.ACCEPT, PDPController.APPLICATION_SMILE_VALUE)
+                .body(BodyInserters.fromValue(subscription)).exchange().expectStatus().isOk().expectHeader()
+                .contentTypeCompatibleWith(PDPController.APPLICATION_SMILE_VALUE)
+                .returnResult(AuthorizationDecision.class);
+
+        StepVerifier.create(result.getResponseBody()).expectNext(AuthorizationDecision.PERMIT).verifyComplete();
+
+        verify(pdp, times(1)).decide(subscription);
+    }
+
     @Test
     void decideWithValidProcessingError() {
         when(pdp.decide((AuthorizationSubscription) any(AuthorizationSubscription.class)))
@@ -205,9 +245,8 @@ void subscribeToMultiAllDecisions() {
 
     @Test
     void oneMultiAllDecisions() {
-        when(pdp.decideAll((MultiAuthorizationSubscription) any(MultiAuthorizationSubscription.class)))
-                .thenReturn(Flux.just(MultiAuthorizationDecision.indeterminate(),
-                        MultiAuthorizationDecision.indeterminate(), MultiAuthorizationDecision.indeterminate()));
+        when(pdp.decideAllOnce((MultiAuthorizationSubscription) any(MultiAuthorizationSubscription.class)))
+                .thenReturn(Mono.just(MultiAuthorizationDecision.indeterminate()));
 
         var multiAuthzSubscription = new MultiAuthorizationSubscription()
                 .addAuthorizationSubscription("id1", "subject", "action1", "resource")
@@ -221,7 +260,7 @@ void oneMultiAllDecisions() {
         StepVerifier.create(result.getResponseBody()).expectNext(MultiAuthorizationDecision.indeterminate())
                 .verifyComplete();
 
-        verify(pdp, times(1)).decideAll(multiAuthzSubscription);
+        verify(pdp, times(1)).decideAllOnce(multiAuthzSubscription);
     }
 
     @Test
@@ -246,8 +285,8 @@ void subscribeToMultiAllDecisionsProcessingError() {
 
     @Test
     void oneMultiAllDecisionsProcessingError() {
-        when(pdp.decideAll((MultiAuthorizationSubscription) any(MultiAuthorizationSubscription.class)))
-                .thenReturn(Flux.error(new RuntimeException()));
+        when(pdp.decideAllOnce((MultiAuthorizationSubscription) any(MultiAuthorizationSubscription.class)))
+                .thenReturn(Mono.error(new RuntimeException()));
 
         var multiAuthzSubscription = new MultiAuthorizationSubscription()
                 .addAuthorizationSubscription("id1", "subject", "action1", "resource")
@@ -261,7 +300,7 @@ void oneMultiAllDecisionsProcessingError() {
         StepVerifier.create(result.getResponseBody()).expectNext(MultiAuthorizationDecision.indeterminate())
                 .verifyComplete();
 
-        verify(pdp, times(1)).decideAll(multiAuthzSubscription);
+        verify(pdp, times(1)).decideAllOnce(multiAuthzSubscription);
     }
 
     @Test
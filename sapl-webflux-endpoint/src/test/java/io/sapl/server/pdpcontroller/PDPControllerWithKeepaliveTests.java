@@ -40,6 +40,7 @@
 import io.sapl.api.pdp.MultiAuthorizationSubscription;
 import io.sapl.api.pdp.PolicyDecisionPoint;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 @Import(PolicyDecisionPoint.class)
@@ -204,9 +205,8 @@ void subscribeToMultiAllDecisions() {
 
     @Test
     void oneMultiAllDecisions() {
-        when(pdp.decideAll(any(MultiAuthorizationSubscription.class)))
-                .thenReturn(Flux.just(MultiAuthorizationDecision.indeterminate(),
-                        MultiAuthorizationDecision.indeterminate(), MultiAuthorizationDecision.indeterminate()));
+        when(pdp.decideAllOnce(any(MultiAuthorizationSubscription.class)))
+                .thenReturn(Mono.just(MultiAuthorizationDecision.indeterminate()));
 
         var multiAuthzSubscription = new MultiAuthorizationSubscription()
                 .addAuthorizationSubscription("id1", "subject", "action1", "resource")
@@ -220,7 +220,7 @@ void oneMultiAllDecisions() {
         StepVerifier.create(result.getResponseBody()).expectNext(MultiAuthorizationDecision.indeterminate())
                 .thenCancel().verify();
 
-        verify(pdp, times(1)).decideAll(multiAuthzSubscription);
+        verify(pdp, times(1)).decideAllOnce(multiAuthzSubscription);
     }
 
     @Test
@@ -244,7 +244,8 @@ void subscribeToMultiAllDecisionsProcessingError() {
 
     @Test
     void oneMultiAllDecisionsProcessingError() {
-        when(pdp.decideAll(any(MultiAuthorizationSubscription.class))).thenReturn(Flux.error(new RuntimeException()));
+        when(pdp.decideAllOnce(any(MultiAuthorizationSubscription.class)))
+                .thenReturn(Mono.error(new RuntimeException()));
 
         var multiAuthzSubscription = new MultiAuthorizationSubscription()
                 .addAuthorizationSubscription("id1", "subject", "action1", "resource")
@@ -258,7 +259,7 @@ void oneMultiAllDecisionsProcessingError() {
         StepVerifier.create(result.getResponseBody()).expectNext(MultiAuthorizationDecision.indeterminate())
                 .thenCancel().verify();
 
-        verify(pdp, times(1)).decideAll(multiAuthzSubscription);
+        verify(pdp, times(1)).decideAllOnce(multiAuthzSubscription);
     }
 
     @Test